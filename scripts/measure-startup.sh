@@ -0,0 +1,44 @@
+#!/usr/bin/env bash
+#
+# Copyright © 2025, Ozone HIS <info@ozone-his.com>
+#
+# This Source Code Form is subject to the terms of the Mozilla Public
+# License, v. 2.0. If a copy of the MPL was not distributed with this
+# file, You can obtain one at http://mozilla.org/MPL/2.0/.
+#
+
+# Measures the time from JVM start until the application context is refreshed, i.e. until the first request can be
+# sent, for the plain jar and for the extracted jar started with Spring AOT and an AppCDS archive.
+#
+# Usage: measure-startup.sh <jar> [runs]
+set -euo pipefail
+
+jar=$1
+runs=${2:-5}
+work=$(mktemp -d)
+trap 'rm -rf "$work"' EXIT
+
+java -Djarmode=tools -jar "$jar" extract --destination "$work/app" > /dev/null
+extracted="$work/app/$(basename "$jar")"
+
+# Training run, the context is refreshed and the application exits before any task is started
+java -XX:ArchiveClassesAtExit="$work/app/application.jsa" -Dspring.aot.enabled=true \
+	-Dspring.context.exit=onRefresh -jar "$extracted" > /dev/null
+
+median_millis() {
+	local timings=()
+	for ((i = 0; i < runs; i++)); do
+		local start end
+		start=$(date +%s%N)
+		"$@" > /dev/null 2>&1
+		end=$(date +%s%N)
+		timings+=($(((end - start) / 1000000)))
+	done
+	printf '%s\n' "${timings[@]}" | sort -n | sed -n "$(((runs + 1) / 2))p"
+}
+
+baseline=$(median_millis java -Dspring.context.exit=onRefresh -jar "$jar")
+fast=$(median_millis java -XX:SharedArchiveFile="$work/app/application.jsa" -Dspring.aot.enabled=true \
+	-Dspring.context.exit=onRefresh -jar "$extracted")
+
+echo "Startup time (median of $runs runs): plain jar ${baseline} ms, AOT + AppCDS ${fast} ms"
@@ -0,0 +1,208 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.concurrency;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Limits the number of concurrent calls to a target system and adapts the limit with AIMD: the limit grows by one per
+ * window of successful calls and is cut multiplicatively when the target answers with 429/5xx, times out, or when the
+ * smoothed latency grows past {@code latencyTolerance} times the lowest smoothed latency recently observed.
+ *
+ * <p>An optional shared {@link Semaphore} caps the calls of several limiters together, for systems running on the
+ * same host.
+ */
+@Slf4j
+public class AdaptiveConcurrencyLimiter {
+
+    static final double BACKOFF_RATIO = 0.7;
+
+    /** Weight of a new sample in the smoothed latency. */
+    static final double SMOOTHING = 0.1;
+
+    /** Number of samples needed before the smoothed latency is trusted as a baseline. */
+    static final int WARM_UP_SAMPLES = 20;
+
+    /** Number of samples after which the baseline latency is re-learnt, so that it follows a slower target. */
+    static final int MIN_LATENCY_WINDOW = 1000;
+
+    @Getter
+    private final String name;
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double latencyTolerance;
+
+    private final Semaphore sharedCap;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition permitReleased = lock.newCondition();
+
+    private double limit;
+
+    private int inFlight;
+
+    private double smoothedLatencyNanos;
+
+    private double baselineLatencyNanos = Double.MAX_VALUE;
+
+    private int samplesInWindow;
+
+    private long lastDecreaseNanos;
+
+    /**
+     * @param name             the target system name, used in logs
+     * @param initialLimit     the limit to start with
+     * @param minLimit         the lowest the limit can be cut to
+     * @param maxLimit         the highest the limit can grow to
+     * @param latencyTolerance latency growth over the observed minimum tolerated before the limit is cut
+     * @param sharedCap        a cap shared with other limiters, or {@code null}
+     */
+    public AdaptiveConcurrencyLimiter(
+            String name, int initialLimit, int minLimit, int maxLimit, double latencyTolerance, Semaphore sharedCap) {
+        this.name = name;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+        this.latencyTolerance = latencyTolerance;
+        this.sharedCap = sharedCap;
+        this.lastDecreaseNanos = System.nanoTime() - TimeUnit.HOURS.toNanos(1);
+    }
+
+    /**
+     * Executes a call once a permit is available and feeds its outcome back into the limit.
+     *
+     * @param call the remote call
+     * @return the result of the call
+     */
+    public <T> T execute(Supplier<T> call) {
+        acquire();
+        long start = System.nanoTime();
+        boolean overload = false;
+        try {
+            return call.get();
+        } catch (RuntimeException e) {
+            overload = FailureClassifier.isOverload(e);
+            throw e;
+        } finally {
+            release(System.nanoTime() - start, overload);
+        }
+    }
+
+    public int getLimit() {
+        lock.lock();
+        try {
+            return (int) limit;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getInFlight() {
+        lock.lock();
+        try {
+            return inFlight;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void acquire() {
+        lock.lock();
+        try {
+            while (inFlight >= (int) limit) {
+                permitReleased.await();
+            }
+            inFlight++;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a " + name + " call permit", e);
+        } finally {
+            lock.unlock();
+        }
+
+        if (sharedCap != null) {
+            try {
+                sharedCap.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                releaseLocal();
+                throw new IllegalStateException("Interrupted while waiting for a shared call permit", e);
+            }
+        }
+    }
+
+    void release(long latencyNanos, boolean overload) {
+        if (sharedCap != null) {
+            sharedCap.release();
+        }
+        lock.lock();
+        try {
+            int previous = (int) limit;
+            if (overload || isLatencyDegraded(latencyNanos)) {
+                decrease(latencyNanos);
+            } else if (inFlight * 2 >= limit) {
+                // Only grow while the limit is actually used, otherwise an idle target would look infinitely fast
+                limit = Math.min(maxLimit, limit + 1.0 / limit);
+            }
+            if ((int) limit != previous) {
+                log.debug("{} concurrency limit changed from {} to {}", name, previous, (int) limit);
+            }
+            inFlight--;
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void releaseLocal() {
+        lock.lock();
+        try {
+            inFlight--;
+            permitReleased.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean isLatencyDegraded(long latencyNanos) {
+        // Smooth the latency so that the mix of fast and slow call types averages out
+        smoothedLatencyNanos = smoothedLatencyNanos == 0
+                ? latencyNanos
+                : smoothedLatencyNanos + (latencyNanos - smoothedLatencyNanos) * SMOOTHING;
+        if (++samplesInWindow < WARM_UP_SAMPLES) {
+            return false;
+        }
+        if (samplesInWindow >= MIN_LATENCY_WINDOW) {
+            samplesInWindow = WARM_UP_SAMPLES;
+            baselineLatencyNanos = smoothedLatencyNanos;
+            return false;
+        }
+        baselineLatencyNanos = Math.min(baselineLatencyNanos, smoothedLatencyNanos);
+        return smoothedLatencyNanos > baselineLatencyNanos * latencyTolerance;
+    }
+
+    private void decrease(long latencyNanos) {
+        long now = System.nanoTime();
+        // Cut at most once per round trip, the calls already in flight report the same congestion
+        if (now - lastDecreaseNanos < latencyNanos) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        limit = Math.max(minLimit, limit * BACKOFF_RATIO);
+    }
+}
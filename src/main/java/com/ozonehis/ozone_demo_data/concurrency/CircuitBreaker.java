@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.concurrency;
+
+import com.ozonehis.ozone_demo_data.exceptions.CircuitOpenException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Pauses all calls to a target system after {@code failureThreshold} consecutive transient failures. While open, a
+ * single caller probes the target health every {@code probeIntervalMillis}; the others wait and all resume as soon as
+ * the probe succeeds. Callers give up with a {@link CircuitOpenException} once paused for {@code maxPauseMillis}.
+ */
+@Slf4j
+public class CircuitBreaker {
+
+    public enum State {
+        CLOSED,
+        OPEN
+    }
+
+    private final String name;
+
+    private final int failureThreshold;
+
+    private final long probeIntervalMillis;
+
+    private final long maxPauseNanos;
+
+    private final BooleanSupplier healthProbe;
+
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition stateChanged = lock.newCondition();
+
+    private volatile State state = State.CLOSED;
+
+    private boolean probing;
+
+    public CircuitBreaker(
+            String name,
+            int failureThreshold,
+            long probeIntervalMillis,
+            long maxPauseMillis,
+            BooleanSupplier healthProbe) {
+        this.name = name;
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.probeIntervalMillis = probeIntervalMillis;
+        this.maxPauseNanos = TimeUnit.MILLISECONDS.toNanos(maxPauseMillis);
+        this.healthProbe = healthProbe;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    /**
+     * Returns immediately while the circuit is closed, otherwise blocks until the target is healthy again.
+     *
+     * @throws CircuitOpenException if the target does not recover within the maximum pause
+     */
+    public void awaitClosed() {
+        if (state == State.CLOSED) {
+            return;
+        }
+        long deadline = System.nanoTime() + maxPauseNanos;
+        lock.lock();
+        try {
+            while (state == State.OPEN) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    throw new CircuitOpenException(
+                            name + " did not recover within " + TimeUnit.NANOSECONDS.toMillis(maxPauseNanos) + " ms");
+                }
+                if (probing) {
+                    stateChanged.awaitNanos(remaining);
+                    continue;
+                }
+                probing = true;
+                boolean healthy;
+                lock.unlock();
+                try {
+                    Thread.sleep(probeIntervalMillis);
+                    healthy = healthProbe.getAsBoolean();
+                } finally {
+                    lock.lock();
+                    probing = false;
+                }
+                if (healthy) {
+                    consecutiveFailures.set(0);
+                    state = State.CLOSED;
+                    log.info("{} is healthy again, resuming calls", name);
+                }
+                stateChanged.signalAll();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CircuitOpenException("Interrupted while waiting for " + name + " to recover", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void onSuccess() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    /**
+     * @param transientFailure whether the failure indicates an unhealthy target, other failures count as a response
+     */
+    public void onFailure(boolean transientFailure) {
+        if (!transientFailure) {
+            onSuccess();
+            return;
+        }
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold && state == State.CLOSED) {
+            lock.lock();
+            try {
+                if (state == State.CLOSED) {
+                    state = State.OPEN;
+                    log.warn(
+                            "{} failed {} times in a row, pausing calls until it is healthy again",
+                            name,
+                            consecutiveFailures.get());
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
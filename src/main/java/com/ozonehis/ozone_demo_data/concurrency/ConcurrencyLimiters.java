@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.concurrency;
+
+import com.ozonehis.ozone_demo_data.config.KeycloakConfig;
+import com.ozonehis.ozone_demo_data.config.OdooConfig;
+import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
+import com.ozonehis.ozone_demo_data.config.ResilienceConfig;
+import com.ozonehis.ozone_demo_data.config.SenaiteConfig;
+import java.net.URI;
+import java.util.Objects;
+import java.util.concurrent.Semaphore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds one {@link AdaptiveConcurrencyLimiter} per target system. When Keycloak and OpenMRS are served from the same
+ * host and {@code concurrency.shared.max} is set, both limiters also share a cap on their combined in-flight calls.
+ */
+@Slf4j
+@Component
+public class ConcurrencyLimiters {
+
+    private final AdaptiveConcurrencyLimiter keycloak;
+
+    private final AdaptiveConcurrencyLimiter openmrs;
+
+    private final AdaptiveConcurrencyLimiter odoo;
+
+    private final AdaptiveConcurrencyLimiter senaite;
+
+    @Autowired
+    public ConcurrencyLimiters(
+            KeycloakConfig keycloakConfig,
+            OpenmrsConfig openmrsConfig,
+            OdooConfig odooConfig,
+            SenaiteConfig senaiteConfig,
+            ResilienceConfig resilienceConfig) {
+        int sharedMax = resilienceConfig.getSharedMaxConcurrency();
+        double latencyTolerance = resilienceConfig.getLatencyTolerance();
+        Semaphore sharedCap = null;
+        if (sharedMax > 0 && sameHost(keycloakConfig.getServerUrl(), openmrsConfig.getUrl())) {
+            log.info("Keycloak and OpenMRS share a host, capping their combined concurrency at {}", sharedMax);
+            sharedCap = new Semaphore(sharedMax);
+        }
+        this.keycloak = new AdaptiveConcurrencyLimiter(
+                "keycloak",
+                keycloakConfig.getInitialConcurrency(),
+                1,
+                keycloakConfig.getMaxConcurrency(),
+                latencyTolerance,
+                sharedCap);
+        this.openmrs = new AdaptiveConcurrencyLimiter(
+                "openmrs",
+                openmrsConfig.getInitialConcurrency(),
+                1,
+                openmrsConfig.getMaxConcurrency(),
+                latencyTolerance,
+                sharedCap);
+        this.odoo = new AdaptiveConcurrencyLimiter(
+                "odoo", odooConfig.getInitialConcurrency(), 1, odooConfig.getMaxConcurrency(), latencyTolerance, null);
+        this.senaite = new AdaptiveConcurrencyLimiter(
+                "senaite",
+                senaiteConfig.getInitialConcurrency(),
+                1,
+                senaiteConfig.getMaxConcurrency(),
+                latencyTolerance,
+                null);
+    }
+
+    public ConcurrencyLimiters(
+            AdaptiveConcurrencyLimiter keycloak,
+            AdaptiveConcurrencyLimiter openmrs,
+            AdaptiveConcurrencyLimiter odoo,
+            AdaptiveConcurrencyLimiter senaite) {
+        this.keycloak = keycloak;
+        this.openmrs = openmrs;
+        this.odoo = odoo;
+        this.senaite = senaite;
+    }
+
+    public AdaptiveConcurrencyLimiter keycloak() {
+        return keycloak;
+    }
+
+    public AdaptiveConcurrencyLimiter openmrs() {
+        return openmrs;
+    }
+
+    public AdaptiveConcurrencyLimiter odoo() {
+        return odoo;
+    }
+
+    public AdaptiveConcurrencyLimiter senaite() {
+        return senaite;
+    }
+
+    static boolean sameHost(String firstUrl, String secondUrl) {
+        if (firstUrl == null || secondUrl == null) {
+            return false;
+        }
+        try {
+            String firstHost = URI.create(firstUrl).getHost();
+            return firstHost != null
+                    && Objects.equals(firstHost, URI.create(secondUrl).getHost());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+}
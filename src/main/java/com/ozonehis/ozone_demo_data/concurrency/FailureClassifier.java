@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.concurrency;
+
+import jakarta.ws.rs.WebApplicationException;
+import java.io.IOException;
+import java.net.ConnectException;
+import org.springframework.web.client.HttpStatusCodeException;
+
+/**
+ * Tells failures that signal an overloaded target (429, 5xx, timeouts, connection failures) apart from failures caused
+ * by the request itself, for both the Keycloak admin client and {@code RestTemplate}.
+ */
+public final class FailureClassifier {
+
+    private FailureClassifier() {}
+
+    public static boolean isOverloadStatus(int status) {
+        return status == 429 || status >= 500;
+    }
+
+    /**
+     * @param failure the failure thrown by a remote call
+     * @return true if the failure, or one of its causes, indicates the target is overloaded
+     */
+    public static boolean isOverload(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebApplicationException) {
+                return ((WebApplicationException) cause).getResponse() != null
+                        && isOverloadStatus(
+                                ((WebApplicationException) cause).getResponse().getStatus());
+            }
+            if (cause instanceof HttpStatusCodeException) {
+                return isOverloadStatus(
+                        ((HttpStatusCodeException) cause).getStatusCode().value());
+            }
+            if (cause instanceof IOException) {
+                // Timeouts, resets and connections dropped without a response
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @param failure the failure thrown by a remote call
+     * @return true if the target rejected the call before processing it (429, refused connection), so that even a
+     *     non-idempotent call can be retried safely
+     */
+    public static boolean isRejectedBeforeProcessing(Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof WebApplicationException) {
+                return ((WebApplicationException) cause).getResponse() != null
+                        && ((WebApplicationException) cause).getResponse().getStatus() == 429;
+            }
+            if (cause instanceof HttpStatusCodeException) {
+                return ((HttpStatusCodeException) cause).getStatusCode().value() == 429;
+            }
+            if (cause instanceof ConnectException) {
+                return true;
+            }
+            if (cause.getCause() == cause) {
+                break;
+            }
+        }
+        return false;
+    }
+}
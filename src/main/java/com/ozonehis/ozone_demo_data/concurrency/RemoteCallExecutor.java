@@ -0,0 +1,116 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.concurrency;
+
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Executes the remote calls of one target system: waits while its circuit breaker is open, runs each attempt through
+ * the concurrency limiter and records it, and retries transient failures with exponential backoff and full jitter as
+ * long as the call is idempotent and the shared retry budget allows it.
+ */
+@Slf4j
+public class RemoteCallExecutor {
+
+    @Getter
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    @Getter
+    private final CircuitBreaker circuitBreaker;
+
+    private final RetryBudget retryBudget;
+
+    private final RunMetrics runMetrics;
+
+    private final int maxAttempts;
+
+    private final long initialBackoffMillis;
+
+    private final long maxBackoffMillis;
+
+    public RemoteCallExecutor(
+            AdaptiveConcurrencyLimiter limiter,
+            CircuitBreaker circuitBreaker,
+            RetryBudget retryBudget,
+            RunMetrics runMetrics,
+            int maxAttempts,
+            long initialBackoffMillis,
+            long maxBackoffMillis) {
+        this.limiter = limiter;
+        this.circuitBreaker = circuitBreaker;
+        this.retryBudget = retryBudget;
+        this.runMetrics = runMetrics;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+    }
+
+    /**
+     * @param callType   the call type the attempts are recorded under
+     * @param idempotent whether repeating the call has the same effect as making it once; non-idempotent calls are
+     *                   only retried when the target rejected them before processing
+     * @param call       the remote call
+     * @return the result of the first successful attempt
+     */
+    public <T> T execute(String callType, boolean idempotent, Supplier<T> call) {
+        return execute(callType, idempotent, true, call);
+    }
+
+    /**
+     * Same as {@link #execute}, but outside of the concurrency limiter, for calls that run for minutes, e.g. demo data
+     * generation: they would hold a permit throughout, and their duration would bring the limit down for the other
+     * calls.
+     */
+    public <T> T executeWithoutLimit(String callType, boolean idempotent, Supplier<T> call) {
+        return execute(callType, idempotent, false, call);
+    }
+
+    private <T> T execute(String callType, boolean idempotent, boolean limited, Supplier<T> call) {
+        retryBudget.onCall();
+        for (int attempt = 1; ; attempt++) {
+            circuitBreaker.awaitClosed();
+            try {
+                T result = limited
+                        ? limiter.execute(() -> runMetrics.recordCall(callType, call))
+                        : runMetrics.recordCall(callType, call);
+                circuitBreaker.onSuccess();
+                return result;
+            } catch (RuntimeException e) {
+                boolean transientFailure = FailureClassifier.isOverload(e);
+                circuitBreaker.onFailure(transientFailure);
+                boolean retryable = transientFailure && (idempotent || FailureClassifier.isRejectedBeforeProcessing(e));
+                if (!retryable || attempt >= maxAttempts || !retryBudget.tryAcquireRetry()) {
+                    throw e;
+                }
+                runMetrics.callRetried(callType);
+                long backoff = backoffMillis(attempt);
+                log.debug(
+                        "{} attempt {} failed with {}, retrying in {} ms", callType, attempt, e.getMessage(), backoff);
+                sleep(backoff, e);
+            }
+        }
+    }
+
+    long backoffMillis(int attempt) {
+        long ceiling = Math.min(maxBackoffMillis, initialBackoffMillis * (1L << Math.min(attempt - 1, 20)));
+        return ThreadLocalRandom.current().nextLong(ceiling + 1);
+    }
+
+    private static void sleep(long millis, RuntimeException failure) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw failure;
+        }
+    }
+}
@@ -0,0 +1,118 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.concurrency;
+
+import com.ozonehis.ozone_demo_data.config.ResilienceConfig;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.util.SystemAvailabilityChecker;
+import java.util.function.BooleanSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds one {@link RemoteCallExecutor} per target system. The targets have their own limiter and circuit breaker but
+ * share a single retry budget.
+ */
+@Component
+public class RemoteCallExecutors {
+
+    private final RemoteCallExecutor keycloak;
+
+    private final RemoteCallExecutor openmrs;
+
+    private final RemoteCallExecutor odoo;
+
+    private final RemoteCallExecutor senaite;
+
+    @Autowired
+    public RemoteCallExecutors(
+            ConcurrencyLimiters limiters,
+            SystemAvailabilityChecker systemAvailabilityChecker,
+            RunMetrics runMetrics,
+            ResilienceConfig resilienceConfig) {
+        RetryBudget retryBudget =
+                new RetryBudget(resilienceConfig.getRetryBudgetRatio(), resilienceConfig.getRetryBudgetTokens());
+        this.keycloak = executor(
+                limiters.keycloak(),
+                "Keycloak",
+                systemAvailabilityChecker::isKeycloakAvailable,
+                retryBudget,
+                runMetrics,
+                resilienceConfig);
+        this.openmrs = executor(
+                limiters.openmrs(),
+                "OpenMRS",
+                systemAvailabilityChecker::isOpenMRSAvailable,
+                retryBudget,
+                runMetrics,
+                resilienceConfig);
+        this.odoo = executor(
+                limiters.odoo(),
+                "Odoo",
+                systemAvailabilityChecker::isOdooAvailable,
+                retryBudget,
+                runMetrics,
+                resilienceConfig);
+        this.senaite = executor(
+                limiters.senaite(),
+                "SENAITE",
+                systemAvailabilityChecker::isSenaiteAvailable,
+                retryBudget,
+                runMetrics,
+                resilienceConfig);
+    }
+
+    public RemoteCallExecutors(
+            RemoteCallExecutor keycloak,
+            RemoteCallExecutor openmrs,
+            RemoteCallExecutor odoo,
+            RemoteCallExecutor senaite) {
+        this.keycloak = keycloak;
+        this.openmrs = openmrs;
+        this.odoo = odoo;
+        this.senaite = senaite;
+    }
+
+    public RemoteCallExecutor keycloak() {
+        return keycloak;
+    }
+
+    public RemoteCallExecutor openmrs() {
+        return openmrs;
+    }
+
+    public RemoteCallExecutor odoo() {
+        return odoo;
+    }
+
+    public RemoteCallExecutor senaite() {
+        return senaite;
+    }
+
+    private static RemoteCallExecutor executor(
+            AdaptiveConcurrencyLimiter limiter,
+            String name,
+            BooleanSupplier healthProbe,
+            RetryBudget retryBudget,
+            RunMetrics runMetrics,
+            ResilienceConfig config) {
+        return new RemoteCallExecutor(
+                limiter,
+                new CircuitBreaker(
+                        name,
+                        config.getFailureThreshold(),
+                        config.getProbeIntervalMillis(),
+                        config.getMaxPauseMillis(),
+                        healthProbe),
+                retryBudget,
+                runMetrics,
+                config.getMaxAttempts(),
+                config.getInitialBackoffMillis(),
+                config.getMaxBackoffMillis());
+    }
+}
@@ -0,0 +1,50 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.concurrency;
+
+/**
+ * Token bucket shared by all targets that bounds retries to a fraction of the calls made. Each call earns
+ * {@code ratio} tokens and each retry spends one, so a failing target cannot multiply the load with retries.
+ */
+public class RetryBudget {
+
+    private final double ratio;
+
+    private final double maxTokens;
+
+    private double tokens;
+
+    /**
+     * @param ratio     tokens earned per call, i.e. the sustained fraction of calls that may be retried
+     * @param maxTokens tokens available at start and upper bound of the bucket
+     */
+    public RetryBudget(double ratio, int maxTokens) {
+        this.ratio = ratio;
+        this.maxTokens = maxTokens;
+        this.tokens = maxTokens;
+    }
+
+    public synchronized void onCall() {
+        tokens = Math.min(maxTokens, tokens + ratio);
+    }
+
+    /**
+     * @return true if a retry may be attempted, in which case a token is spent
+     */
+    public synchronized boolean tryAcquireRetry() {
+        if (tokens < 1) {
+            return false;
+        }
+        tokens--;
+        return true;
+    }
+
+    synchronized double getTokens() {
+        return tokens;
+    }
+}
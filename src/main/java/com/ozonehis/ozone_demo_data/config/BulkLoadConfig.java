@@ -0,0 +1,74 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to configure the offline bulk load export, which writes the synthetic patients and their clinical
+ * history as files for the OpenMRS database tables instead of creating them through the API. It contains the output
+ * settings, the range of patients and the database ids of the metadata the rows reference.
+ */
+@Setter
+@Getter
+@Configuration
+public class BulkLoadConfig {
+
+    public static final String CSV_FORMAT = "csv";
+
+    public static final String SQL_FORMAT = "sql";
+
+    @Value("${openmrs.bulk-load.enabled:false}")
+    private boolean enabled;
+
+    // Output configuration
+    @Value("${openmrs.bulk-load.dir:bulk-load}")
+    private String dir;
+
+    @Value("${openmrs.bulk-load.format:csv}")
+    private String format;
+
+    @Value("${openmrs.bulk-load.rows-per-statement:1000}")
+    private int rowsPerStatement;
+
+    @Value("${openmrs.bulk-load.chunk-size:500}")
+    private int chunkSize;
+
+    // Patient range configuration
+    @Value("${openmrs.bulk-load.patients:1000}")
+    private int patients;
+
+    @Value("${openmrs.bulk-load.first-index:0}")
+    private long firstIndex;
+
+    /** First database id of each table, above the ids in use so that the rows never collide with existing ones. */
+    @Value("${openmrs.bulk-load.first-id:1000000}")
+    private long firstId;
+
+    @Value("${openmrs.bulk-load.history.enabled:true}")
+    private boolean historyEnabled;
+
+    // Metadata database id configuration
+    @Value("${openmrs.bulk-load.creator-id:1}")
+    private int creatorId;
+
+    @Value("${openmrs.bulk-load.identifier-type-id:2}")
+    private int identifierTypeId;
+
+    @Value("${openmrs.bulk-load.location-id:1}")
+    private int locationId;
+
+    @Value("${openmrs.bulk-load.encounter-type-id:1}")
+    private int encounterTypeId;
+
+    @Value("${openmrs.bulk-load.visit-type-id:1}")
+    private int visitTypeId;
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.config;
+
+import com.ozonehis.ozone_demo_data.server.SeedingServer;
+import com.ozonehis.ozone_demo_data.server.UsersFileWatcher;
+import com.ozonehis.ozone_demo_data.service.DemoDataService;
+import com.ozonehis.ozone_demo_data.service.KeycloakUserService;
+import com.ozonehis.ozone_demo_data.task.BulkLoadExportTask;
+import com.ozonehis.ozone_demo_data.task.CacheWarmUpTask;
+import com.ozonehis.ozone_demo_data.task.OdooSeedingTask;
+import com.ozonehis.ozone_demo_data.task.SenaiteSeedingTask;
+import com.ozonehis.ozone_demo_data.task.TeardownTask;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ListableBeanFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+/**
+ * Fails startup when a flag enables beans that are not registered. The beans of the optional features are only
+ * registered when their flags are enabled, and with the AOT artifact of the fast-startup profile the flags are
+ * evaluated when the artifact is built: a feature enabled at runtime but disabled at build time would otherwise be
+ * silently skipped.
+ */
+@Component
+@RequiredArgsConstructor
+public class ConditionalBeansVerifier implements SmartInitializingSingleton {
+
+    /** The flags of each optional feature, all of them enabled, and a bean registered when they are. */
+    private static final List<ConditionalBean> CONDITIONAL_BEANS = List.of(
+            new ConditionalBean(List.of("keycloak.user-creation.enabled"), KeycloakUserService.class),
+            new ConditionalBean(List.of("openmrs.demo-data.enabled"), DemoDataService.class),
+            new ConditionalBean(List.of("server-mode.enabled"), SeedingServer.class),
+            new ConditionalBean(
+                    List.of("server-mode.enabled", "keycloak.user-creation.enabled", "keycloak.users.watch.enabled"),
+                    UsersFileWatcher.class),
+            new ConditionalBean(List.of("teardown.enabled"), TeardownTask.class),
+            new ConditionalBean(List.of("openmrs.bulk-load.enabled"), BulkLoadExportTask.class),
+            new ConditionalBean(List.of("openmrs.demo-data.enabled", "openmrs.warm-up.enabled"), CacheWarmUpTask.class),
+            new ConditionalBean(List.of("odoo.seeding.enabled"), OdooSeedingTask.class),
+            new ConditionalBean(List.of("senaite.seeding.enabled"), SenaiteSeedingTask.class));
+
+    private final ListableBeanFactory beanFactory;
+
+    private final Environment environment;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        List<String> missing = new ArrayList<>();
+        for (ConditionalBean conditionalBean : CONDITIONAL_BEANS) {
+            boolean enabled = conditionalBean.flags.stream()
+                    .allMatch(flag -> environment.getProperty(flag, Boolean.class, false));
+            if (enabled && beanFactory.getBeanNamesForType(conditionalBean.beanType, true, false).length == 0) {
+                missing.add(String.join(" and ", conditionalBean.flags));
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new IllegalStateException("The beans enabled by " + String.join(", ", missing)
+                    + " are not registered, the application was built ahead of time with them disabled."
+                    + " Rebuild it with the flags enabled, see Dockerfile.fast-startup");
+        }
+    }
+
+    private static class ConditionalBean {
+
+        private final List<String> flags;
+
+        private final Class<?> beanType;
+
+        ConditionalBean(List<String> flags, Class<?> beanType) {
+            this.flags = flags;
+            this.beanType = beanType;
+        }
+    }
+}
@@ -10,10 +10,14 @@ package com.ozonehis.ozone_demo_data.config;
 import jakarta.validation.constraints.NotBlank;
 import lombok.Getter;
 import lombok.Setter;
+import org.jboss.resteasy.client.jaxrs.ResteasyClientBuilder;
 import org.keycloak.OAuth2Constants;
+import org.keycloak.admin.client.ClientBuilderWrapper;
+import org.keycloak.admin.client.JacksonProvider;
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.KeycloakBuilder;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -49,14 +53,30 @@ public class KeycloakConfig {
     @Value("${keycloak.healthcheck.retry.delay.millis}")
     private long retryDelayMillis;
 
+    // Concurrency configuration
+    @Value("${keycloak.concurrency.initial:4}")
+    private int initialConcurrency;
+
+    @Value("${keycloak.concurrency.max:32}")
+    private int maxConcurrency;
+
+    /**
+     * Only registered when user creation is enabled, building the admin client is a noticeable share of the startup.
+     */
     @Bean
+    @ConditionalOnProperty(name = "keycloak.user-creation.enabled", havingValue = "true")
     public Keycloak keycloak() {
+        // The default RESTEasy pool holds 10 connections, size it to the concurrency the limiter may grow to
+        int poolSize = Math.max(1, getMaxConcurrency());
+        ResteasyClientBuilder clientBuilder = (ResteasyClientBuilder) ClientBuilderWrapper.create(null, false);
+        clientBuilder.connectionPoolSize(poolSize).maxPooledPerRoute(poolSize).register(JacksonProvider.class, 100);
         return KeycloakBuilder.builder()
                 .serverUrl(getServerUrl())
                 .realm(getRealm())
                 .grantType(OAuth2Constants.CLIENT_CREDENTIALS)
                 .clientId(getClientId())
                 .clientSecret(getClientSecret())
+                .resteasyClient(clientBuilder.build())
                 .build();
     }
 }
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to configure the seeding of Odoo through its JSON-RPC API. It contains the connection details, the
+ * number of customers, products and price lists to seed, the batch size of the import calls and the concurrency.
+ */
+@Setter
+@Getter
+@Configuration
+public class OdooConfig {
+
+    @Value("${odoo.seeding.enabled:false}")
+    private boolean enabled;
+
+    // Connection configuration
+    @Value("${odoo.server.url:http://localhost:8069}")
+    private String url;
+
+    @Value("${odoo.database:odoo}")
+    private String database;
+
+    @Value("${odoo.username:admin}")
+    private String username;
+
+    @Value("${odoo.password:admin}")
+    private String password;
+
+    @Value("${odoo.healthcheck.max.retries:30}")
+    private int maxRetries;
+
+    @Value("${odoo.healthcheck.retry.delay.millis:10000}")
+    private long retryDelayMillis;
+
+    @Value("${odoo.connect.timeout.millis:10000}")
+    private long connectTimeoutMillis;
+
+    @Value("${odoo.request.timeout.millis:120000}")
+    private long requestTimeoutMillis;
+
+    // Seeding configuration
+    @Value("${odoo.customers:1000}")
+    private int customers;
+
+    @Value("${odoo.products:500}")
+    private int products;
+
+    @Value("${odoo.price-lists:5}")
+    private int priceLists;
+
+    /** Module of the external IDs the seeded records are registered under, e.g. ozone_demo_data.customer_42. */
+    @Value("${odoo.external-id.module:ozone_demo_data}")
+    private String externalIdModule;
+
+    @Value("${odoo.seed:42}")
+    private long seed;
+
+    // Batching and concurrency configuration
+    @Value("${odoo.batch-size:500}")
+    private int batchSize;
+
+    @Value("${odoo.concurrency.initial:2}")
+    private int initialConcurrency;
+
+    @Value("${odoo.concurrency.max:4}")
+    private int maxConcurrency;
+}
@@ -48,4 +48,24 @@ public class OpenmrsConfig {
 
     @Value("${openmrs.healthcheck.retry.delay.millis}")
     private long retryDelayMillis;
+
+    // Concurrency configuration
+    @Value("${openmrs.concurrency.initial:2}")
+    private int initialConcurrency;
+
+    @Value("${openmrs.concurrency.max:8}")
+    private int maxConcurrency;
+
+    // Request configuration
+    @Value("${openmrs.connect.timeout.millis:10000}")
+    private long connectTimeoutMillis;
+
+    @Value("${openmrs.request.timeout.millis:30000}")
+    private long requestTimeoutMillis;
+
+    @Value("${openmrs.demo.generation.timeout.millis:3600000}")
+    private long generationTimeoutMillis;
+
+    @Value("${openmrs.demo.progress-interval.millis:10000}")
+    private long progressIntervalMillis;
 }
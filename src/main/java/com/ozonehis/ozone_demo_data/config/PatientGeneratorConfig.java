@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.config;
+
+import java.time.LocalDate;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.BeanUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to configure the patients generated by this application when {@code openmrs.demo.generator} is
+ * {@code client}, {@code fhir-bundle} or {@code fhir-history}. It contains the seed of the generator, the distribution
+ * of the generated data, the shape of the clinical histories and the metadata the patients reference.
+ */
+@Setter
+@Getter
+@Configuration
+public class PatientGeneratorConfig {
+
+    public static final String LUHN_MOD30_IDENTIFIERS = "luhn-mod30";
+
+    public static final String IDGEN_IDENTIFIERS = "idgen";
+
+    @Value("${openmrs.patients.seed:42}")
+    private long seed;
+
+    /** Date the ages and the clinical data are relative to, as {@code yyyy-MM-dd}, today if empty. */
+    @Value("${openmrs.patients.reference-date:}")
+    private String referenceDate;
+
+    // Distribution configuration
+    @Value("${openmrs.patients.female-ratio:0.5}")
+    private double femaleRatio;
+
+    @Value("${openmrs.patients.min-age:0}")
+    private int minAge;
+
+    @Value("${openmrs.patients.max-age:90}")
+    private int maxAge;
+
+    // Metadata configuration
+    @Value("${openmrs.patients.identifier-prefix:DEMO-}")
+    private String identifierPrefix;
+
+    /**
+     * How the identifiers are made: {@code index} appends the index of the patient to the prefix, {@code luhn-mod30}
+     * appends it in OpenMRS ID characters with a check character and {@code idgen} reserves them from an idgen source.
+     */
+    @Value("${openmrs.patients.identifier-source:index}")
+    private String identifierSource;
+
+    @Value("${openmrs.patients.idgen.source.uuid:}")
+    private String idgenSourceUuid;
+
+    @Value("${openmrs.patients.idgen.block-size:1000}")
+    private int idgenBlockSize;
+
+    @Value("${openmrs.patients.identifier-type.uuid:8d79403a-c2cc-11de-8d13-0010c6dffd0f}")
+    private String identifierTypeUuid;
+
+    @Value("${openmrs.patients.location.uuid:8d6c993e-c2cc-11de-8d13-0010c6dffd0f}")
+    private String locationUuid;
+
+    @Value("${openmrs.patients.phone-attribute-type.uuid:}")
+    private String phoneAttributeTypeUuid;
+
+    @Value("${openmrs.patients.occupation-attribute-type.uuid:}")
+    private String occupationAttributeTypeUuid;
+
+    // Dictionary configuration
+    @Value("${openmrs.patients.dictionaries.dir:}")
+    private String dictionariesDir;
+
+    @Value("${openmrs.patients.dictionaries.locale:}")
+    private String dictionariesLocale;
+
+    /** File the uuids of the metadata configured by name are kept in between runs, not kept if empty. */
+    @Value("${openmrs.patients.metadata.cache-file:}")
+    private String metadataCacheFile;
+
+    // Payload cache configuration
+    @Value("${openmrs.patients.cache.dir:}")
+    private String cacheDir;
+
+    @Value("${openmrs.patients.cache.chunk-size:1000}")
+    private int cacheChunkSize;
+
+    // FHIR bundle configuration
+    @Value("${openmrs.patients.fhir.bundle-size:100}")
+    private int bundleSize;
+
+    @Value("${openmrs.patients.fhir.encounter-type.uuid:67a71486-1a54-468f-ac3e-7091a9a79584}")
+    private String encounterTypeUuid;
+
+    @Value("${openmrs.patients.fhir.weight-concept.uuid:5089AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA}")
+    private String weightConceptUuid;
+
+    // Clinical history configuration
+    @Value("${openmrs.patients.history.years:5}")
+    private int historyYears;
+
+    @Value("${openmrs.patients.history.visits-per-year:4}")
+    private int visitsPerYear;
+
+    @Value("${openmrs.patients.history.lab-ratio:0.25}")
+    private double labRatio;
+
+    @Value("${openmrs.patients.history.batch-size:500}")
+    private int historyBatchSize;
+
+    @Value("${openmrs.patients.history.visit-type.uuid:7b0f5697-27e3-40c4-8bae-f4049abfb4ed}")
+    private String visitTypeUuid;
+
+    public boolean isLuhnMod30Identifiers() {
+        return LUHN_MOD30_IDENTIFIERS.equalsIgnoreCase(identifierSource);
+    }
+
+    public boolean isIdgenIdentifiers() {
+        return IDGEN_IDENTIFIERS.equalsIgnoreCase(identifierSource);
+    }
+
+    /**
+     * @return a copy of this configuration, e.g. to resolve the metadata of one target without changing the others
+     */
+    public PatientGeneratorConfig copy() {
+        PatientGeneratorConfig copy = new PatientGeneratorConfig();
+        BeanUtils.copyProperties(this, copy);
+        return copy;
+    }
+
+    public LocalDate resolveReferenceDate() {
+        return referenceDate == null || referenceDate.isBlank() ? LocalDate.now() : LocalDate.parse(referenceDate);
+    }
+}
@@ -0,0 +1,107 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.config;
+
+import jakarta.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to configure additional tenants provisioned in the same run, e.g.
+ * {@code provisioning.targets[0].keycloak.realm=tenant-a}. Each target is a Keycloak realm plus an OpenMRS instance;
+ * settings left empty fall back to the {@code keycloak.*} and {@code openmrs.*} ones. Bound with
+ * {@link ConfigurationProperties} as the targets are a list, which {@code @Value} cannot express.
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "provisioning")
+public class ProvisioningTargetsConfig {
+
+    private List<Target> targets = new ArrayList<>();
+
+    /** Number of targets provisioned at the same time, 0 provisions all of them at once. */
+    private int maxParallelTargets;
+
+    /** Names the targets with neither a name nor a realm after their index, e.g. {@code target-0}. */
+    @PostConstruct
+    void nameTargets() {
+        for (int i = 0; i < targets.size(); i++) {
+            Target target = targets.get(i);
+            if (target.displayName() == null) {
+                target.setName("target-" + i);
+            }
+        }
+    }
+
+    @Setter
+    @Getter
+    public static class Target {
+
+        /** Name of the target in logs and in the run report, defaults to the realm, then to the target's index. */
+        private String name;
+
+        private boolean userCreationEnabled = true;
+
+        private boolean demoDataEnabled = true;
+
+        /** Path to the users JSON file of this target. */
+        private String usersJsonPath;
+
+        /** Upper bound of concurrent calls to each of the target's systems, also the size of its connection pool. */
+        private Integer maxConcurrency;
+
+        private KeycloakTarget keycloak = new KeycloakTarget();
+
+        private OpenmrsTarget openmrs = new OpenmrsTarget();
+
+        public String displayName() {
+            if (name != null && !name.isBlank()) {
+                return name;
+            }
+            String realm = keycloak.getRealm();
+            return realm != null && !realm.isBlank() ? realm : null;
+        }
+    }
+
+    @Setter
+    @Getter
+    public static class KeycloakTarget {
+
+        private String serverUrl;
+
+        private String realm;
+
+        private String clientId;
+
+        private String clientSecret;
+    }
+
+    @Setter
+    @Getter
+    public static class OpenmrsTarget {
+
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        private Boolean oauthEnabled;
+
+        private String clientId;
+
+        private String clientSecret;
+
+        private Integer demoPatients;
+    }
+}
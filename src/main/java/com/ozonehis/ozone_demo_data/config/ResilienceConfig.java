@@ -0,0 +1,57 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to configure how remote calls are limited and retried. It contains the shared concurrency cap,
+ * the latency tolerance of the concurrency limiters, the retry and retry budget settings and the circuit breaker
+ * settings, applied to every target system.
+ */
+@Setter
+@Getter
+@Configuration
+public class ResilienceConfig {
+
+    // Concurrency configuration
+    @Value("${concurrency.shared.max:0}")
+    private int sharedMaxConcurrency;
+
+    @Value("${concurrency.latency-tolerance:2.0}")
+    private double latencyTolerance;
+
+    // Retry configuration
+    @Value("${retry.max-attempts:4}")
+    private int maxAttempts;
+
+    @Value("${retry.initial-backoff.millis:200}")
+    private long initialBackoffMillis;
+
+    @Value("${retry.max-backoff.millis:5000}")
+    private long maxBackoffMillis;
+
+    @Value("${retry.budget.ratio:0.2}")
+    private double retryBudgetRatio;
+
+    @Value("${retry.budget.tokens:50}")
+    private int retryBudgetTokens;
+
+    // Circuit breaker configuration
+    @Value("${circuit-breaker.failure-threshold:10}")
+    private int failureThreshold;
+
+    @Value("${circuit-breaker.probe-interval.millis:2000}")
+    private long probeIntervalMillis;
+
+    @Value("${circuit-breaker.max-pause.millis:600000}")
+    private long maxPauseMillis;
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.config;
+
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to configure the seeding of SENAITE through its JSON API. It contains the connection details, the
+ * number of clients, sample types and analysis services to seed, the folders they are created in, the batch size of the
+ * create calls and the concurrency.
+ */
+@Setter
+@Getter
+@Configuration
+public class SenaiteConfig {
+
+    @Value("${senaite.seeding.enabled:false}")
+    private boolean enabled;
+
+    // Connection configuration
+    @Value("${senaite.server.url:http://localhost:8080/senaite}")
+    private String url;
+
+    @Value("${senaite.username:admin}")
+    private String username;
+
+    @Value("${senaite.password:admin}")
+    private String password;
+
+    @Value("${senaite.healthcheck.max.retries:30}")
+    private int maxRetries;
+
+    @Value("${senaite.healthcheck.retry.delay.millis:10000}")
+    private long retryDelayMillis;
+
+    @Value("${senaite.connect.timeout.millis:10000}")
+    private long connectTimeoutMillis;
+
+    @Value("${senaite.request.timeout.millis:120000}")
+    private long requestTimeoutMillis;
+
+    // Seeding configuration
+    @Value("${senaite.clients:50}")
+    private int clients;
+
+    @Value("${senaite.sample-types:20}")
+    private int sampleTypes;
+
+    @Value("${senaite.analysis-services:200}")
+    private int analysisServices;
+
+    /** Title of the analysis category of the seeded analysis services, the first existing category if empty. */
+    @Value("${senaite.analysis-category:}")
+    private String analysisCategory;
+
+    // Folder configuration
+    @Value("${senaite.clients.path:/senaite/clients}")
+    private String clientsPath;
+
+    @Value("${senaite.sample-types.path:/senaite/bika_setup/bika_sampletypes}")
+    private String sampleTypesPath;
+
+    @Value("${senaite.analysis-services.path:/senaite/bika_setup/bika_analysisservices}")
+    private String analysisServicesPath;
+
+    // Batching and concurrency configuration
+    @Value("${senaite.batch-size:50}")
+    private int batchSize;
+
+    @Value("${senaite.concurrency.initial:1}")
+    private int initialConcurrency;
+
+    @Value("${senaite.concurrency.max:2}")
+    private int maxConcurrency;
+}
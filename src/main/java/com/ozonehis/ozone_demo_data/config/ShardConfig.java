@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.config;
+
+import jakarta.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to configure sharded runs, where several replicas of the application provision the same users
+ * file and each one only creates the users whose username hashes to its shard. The work done once per run, such as
+ * demo data generation, is left to the first shard.
+ */
+@Setter
+@Getter
+@Configuration
+public class ShardConfig {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    /** Index of this replica, from 0 to {@code shard.count - 1}, e.g. the completion index of an indexed Job. */
+    @Value("${shard.index:0}")
+    private int index;
+
+    @Value("${shard.count:1}")
+    private int count = 1;
+
+    @PostConstruct
+    void validate() {
+        if (count < 1 || index < 0 || index >= count) {
+            throw new IllegalArgumentException(
+                    "Invalid shard " + index + " of " + count + ", shard.index must be from 0 to shard.count - 1");
+        }
+    }
+
+    public boolean isSharded() {
+        return count > 1;
+    }
+
+    /**
+     * @return whether this replica does the work that is done once per run
+     */
+    public boolean isFirstShard() {
+        return index == 0;
+    }
+
+    /**
+     * @param username the username of a user
+     * @return whether the user is provisioned by this replica
+     */
+    public boolean owns(String username) {
+        return !isSharded() || shardOf(username, count) == index;
+    }
+
+    /**
+     * @return the shard of a username, from the 64-bit FNV-1a hash of its lower case UTF-8 bytes, which spreads
+     *     similar usernames such as {@code user1} to {@code user9} evenly and is easy to compute outside of Java
+     */
+    public static int shardOf(String username, int count) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : String.valueOf(username).toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return (int) Long.remainderUnsigned(hash, count);
+    }
+
+    /**
+     * @return a suffix that tells the shard apart in names shared by the replicas, empty when the run is not sharded
+     */
+    public String suffix() {
+        return isSharded() ? "-shard-" + index + "-of-" + count : "";
+    }
+
+    @Override
+    public String toString() {
+        return "shard " + index + " of " + count;
+    }
+}
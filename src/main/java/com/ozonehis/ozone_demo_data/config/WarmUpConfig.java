@@ -0,0 +1,38 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.config;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.Getter;
+import lombok.Setter;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * This class is used to configure the OpenMRS cache warm-up run after the demo data is generated, e.g.
+ * {@code openmrs.warm-up.endpoints.concept-search=/ws/rest/v1/concept?q=blood}. Bound with
+ * {@link ConfigurationProperties} as the endpoints are a map from name to path, which {@code @Value} cannot express.
+ */
+@Setter
+@Getter
+@Configuration
+@ConfigurationProperties(prefix = "openmrs.warm-up")
+public class WarmUpConfig {
+
+    private boolean enabled;
+
+    /** Number of times each endpoint is called, the first call is the cold one. */
+    private int rounds = 3;
+
+    /** Number of endpoints called at the same time. */
+    private int concurrency = 4;
+
+    /** Paths of the endpoints relative to the OpenMRS URL, by name. */
+    private Map<String, String> endpoints = new LinkedHashMap<>();
+}
@@ -0,0 +1,225 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Generates the clinical history of synthetic patients as FHIR bundle entries: visits spread over the last
+ * {@code openmrs.patients.history.years} years, each with a vitals encounter and its observations, and lab results for
+ * a share of the visits. The visits are produced lazily and each one only from the seed, the patient and its number,
+ * so that a history of any length is generated in constant memory and the same history is generated on every run.
+ */
+public class ClinicalHistoryGenerator {
+
+    private static final String VISIT_TYPE_SYSTEM = "http://fhir.openmrs.org/code-system/visit-type";
+
+    private static final String ENCOUNTER_TYPE_SYSTEM = "http://fhir.openmrs.org/code-system/encounter-type";
+
+    private static final String HEIGHT_CONCEPT = "5090AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+
+    private static final String TEMPERATURE_CONCEPT = "5088AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+
+    private static final String SYSTOLIC_CONCEPT = "5085AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+
+    private static final String DIASTOLIC_CONCEPT = "5086AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+
+    private static final String PULSE_CONCEPT = "5087AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+
+    private static final String HEMOGLOBIN_CONCEPT = "21AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+
+    private final PatientGeneratorConfig config;
+
+    private final LocalDate today;
+
+    public ClinicalHistoryGenerator(PatientGeneratorConfig config, LocalDate today) {
+        this.config = config;
+        this.today = today;
+    }
+
+    /**
+     * @return the number of visits of the longest history, that of a patient born before the history starts, counting
+     *     a leap day in every year
+     */
+    public long maxVisits() {
+        double interval = 365.0 / Math.max(1, config.getVisitsPerYear());
+        return (long) Math.ceil(Math.max(0, config.getHistoryYears()) * 366 / interval);
+    }
+
+    /**
+     * @param index            the index of the patient
+     * @param birthdate        the birthdate of the patient, no visit is before it
+     * @param patientReference the reference of the patient in OpenMRS, e.g. {@code Patient/<uuid>}
+     * @return the visits of the patient in chronological order, generated as the stream is consumed
+     */
+    public Stream<Visit> visits(long index, LocalDate birthdate, String patientReference) {
+        LocalDate historyStart = today.minusYears(Math.max(0, config.getHistoryYears()));
+        LocalDate start = birthdate.isAfter(historyStart) ? birthdate : historyStart;
+        int visitsPerYear = Math.max(1, config.getVisitsPerYear());
+        double interval = 365.0 / visitsPerYear;
+        long visits = (long) ((today.toEpochDay() - start.toEpochDay()) / interval);
+        SplittableRandom patientRandom = RandomStreams.of(config.getSeed(), "history", index);
+        // Each patient keeps its own offsets from the typical values over the years
+        double weightOffset = patientRandom.nextDouble() * 0.3 - 0.15;
+        int systolicOffset = patientRandom.nextInt(-10, 15);
+        return LongStream.range(0, visits)
+                .mapToObj(visit -> visit(
+                        index,
+                        visit,
+                        start.plusDays((long) (visit * interval)),
+                        birthdate,
+                        patientReference,
+                        weightOffset,
+                        systolicOffset));
+    }
+
+    private Visit visit(
+            long index,
+            long visit,
+            LocalDate periodStart,
+            LocalDate birthdate,
+            String patientReference,
+            double weightOffset,
+            int systolicOffset) {
+        SplittableRandom random = RandomStreams.of(config.getSeed(), "visit", index, visit);
+        LocalDate date = periodStart.plusDays(random.nextInt(7));
+        if (date.isAfter(today)) {
+            date = today;
+        }
+        int age = Period.between(birthdate, date).getYears();
+        String visitUrl = fullUrl(index, visit, "visit");
+        String encounterUrl = fullUrl(index, visit, "encounter");
+        List<Map<String, Object>> entries = new ArrayList<>(10);
+        List<String> entityTypes = new ArrayList<>(10);
+
+        Map<String, Object> visitEncounter = encounter(patientReference, date);
+        visitEncounter.put(
+                "type",
+                List.of(Map.of(
+                        "coding", List.of(Map.of("system", VISIT_TYPE_SYSTEM, "code", config.getVisitTypeUuid())))));
+        add(entries, entityTypes, "visit", visitUrl, visitEncounter);
+
+        Map<String, Object> vitals = encounter(patientReference, date);
+        vitals.put(
+                "type",
+                List.of(Map.of(
+                        "coding",
+                        List.of(Map.of("system", ENCOUNTER_TYPE_SYSTEM, "code", config.getEncounterTypeUuid())))));
+        vitals.put("partOf", Map.of("reference", visitUrl));
+        add(entries, entityTypes, "encounter", encounterUrl, vitals);
+
+        double weight = Math.round(FhirBundleFactory.weight(age, random) * (1 + weightOffset) * 10) / 10.0;
+        double height = age < 18 ? 50 + age * 6.5 : 150 + (index % 40);
+        int systolic = 105 + Math.min(age, 80) / 2 + systolicOffset + random.nextInt(-8, 9);
+        String[][] observations = {
+            {config.getWeightConceptUuid(), String.valueOf(weight), "kg"},
+            {HEIGHT_CONCEPT, String.valueOf(Math.round(height + random.nextDouble() * 2)), "cm"},
+            {TEMPERATURE_CONCEPT, String.valueOf(Math.round((36.2 + random.nextDouble() * 1.3) * 10) / 10.0), "Cel"},
+            {SYSTOLIC_CONCEPT, String.valueOf(systolic), "mm[Hg]"},
+            {DIASTOLIC_CONCEPT, String.valueOf(systolic * 2 / 3 + random.nextInt(-5, 6)), "mm[Hg]"},
+            {PULSE_CONCEPT, String.valueOf(60 + random.nextInt(40)), "/min"}
+        };
+        if (random.nextDouble() < config.getLabRatio()) {
+            observations = Arrays.copyOf(observations, observations.length + 1);
+            observations[observations.length - 1] = new String[] {
+                HEMOGLOBIN_CONCEPT, String.valueOf(Math.round((10.5 + random.nextDouble() * 6) * 10) / 10.0), "g/dL"
+            };
+        }
+        for (int i = 0; i < observations.length; i++) {
+            add(
+                    entries,
+                    entityTypes,
+                    "observation",
+                    fullUrl(index, visit, "observation-" + i),
+                    observation(patientReference, encounterUrl, date, observations[i]));
+        }
+        return new Visit(entries, entityTypes);
+    }
+
+    private Map<String, Object> encounter(String patientReference, LocalDate date) {
+        Map<String, Object> encounter = new LinkedHashMap<>();
+        encounter.put("resourceType", "Encounter");
+        encounter.put("status", "finished");
+        encounter.put("class", Map.of("system", "http://terminology.hl7.org/CodeSystem/v3-ActCode", "code", "AMB"));
+        encounter.put("subject", Map.of("reference", patientReference));
+        encounter.put("period", Map.of("start", date.toString()));
+        encounter.put(
+                "location", List.of(Map.of("location", Map.of("reference", "Location/" + config.getLocationUuid()))));
+        return encounter;
+    }
+
+    private static Map<String, Object> observation(
+            String patientReference, String encounterUrl, LocalDate date, String[] conceptValueUnit) {
+        Map<String, Object> observation = new LinkedHashMap<>();
+        observation.put("resourceType", "Observation");
+        observation.put("status", "final");
+        observation.put("code", Map.of("coding", List.of(Map.of("code", conceptValueUnit[0]))));
+        observation.put("subject", Map.of("reference", patientReference));
+        observation.put("encounter", Map.of("reference", encounterUrl));
+        observation.put("effectiveDateTime", date.toString());
+        observation.put(
+                "valueQuantity",
+                Map.of(
+                        "value",
+                        Double.parseDouble(conceptValueUnit[1]),
+                        "unit",
+                        conceptValueUnit[2],
+                        "system",
+                        "http://unitsofmeasure.org",
+                        "code",
+                        conceptValueUnit[2]));
+        return observation;
+    }
+
+    private static void add(
+            List<Map<String, Object>> entries,
+            List<String> entityTypes,
+            String entityType,
+            String fullUrl,
+            Map<String, Object> resource) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("fullUrl", fullUrl);
+        entry.put("resource", resource);
+        entry.put("request", Map.of("method", "POST", "url", resource.get("resourceType")));
+        entries.add(entry);
+        entityTypes.add(entityType);
+    }
+
+    private String fullUrl(long index, long visit, String resource) {
+        String name = config.getSeed() + ":" + index + ":history:" + visit + ":" + resource;
+        return "urn:uuid:" + UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * The bundle entries of one visit, which only refer to each other and to the patient, so that visits can be sent in
+     * any grouping.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class Visit {
+
+        private final List<Map<String, Object>> entries;
+
+        /** Entity type of each entry, as recorded in the run report: visit, encounter or observation. */
+        private final List<String> entityTypes;
+    }
+}
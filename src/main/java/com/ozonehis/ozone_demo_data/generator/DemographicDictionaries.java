@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * The dictionaries synthetic patients are drawn from. Each one is read from {@code <name>.dict} in
+ * {@code openmrs.patients.dictionaries.dir}, or its {@code openmrs.patients.dictionaries.locale} subdirectory, and
+ * falls back to a small built-in list when there is no such file.
+ *
+ * @see DemographicDictionary#compile(Path, Path)
+ */
+@Slf4j
+public class DemographicDictionaries {
+
+    public static final String FEMALE_GIVEN_NAMES = "given-names-female";
+
+    public static final String MALE_GIVEN_NAMES = "given-names-male";
+
+    public static final String FAMILY_NAMES = "family-names";
+
+    public static final String CITIES = "cities";
+
+    public static final String STREETS = "streets";
+
+    public static final String OCCUPATIONS = "occupations";
+
+    private static final String FILE_EXTENSION = ".dict";
+
+    private static final Map<String, String[]> BUILT_IN = Map.of(
+            FEMALE_GIVEN_NAMES,
+            new String[] {
+                "Amina", "Grace", "Fatima", "Mary", "Aisha", "Joyce", "Esther", "Sarah", "Ruth", "Lucy",
+                "Ana", "Maria", "Chloe", "Emma", "Nadia", "Leila", "Priya", "Mei", "Olga", "Zawadi"
+            },
+            MALE_GIVEN_NAMES,
+            new String[] {
+                "John", "Joseph", "David", "Peter", "Samuel", "Daniel", "Ahmed", "Moses", "James", "Paul",
+                "Carlos", "Luis", "Lucas", "Noah", "Omar", "Ravi", "Wei", "Ivan", "Kofi", "Baraka"
+            },
+            FAMILY_NAMES,
+            new String[] {
+                "Otieno", "Mwangi", "Kamau", "Okello", "Mensah", "Banda", "Phiri", "Mutua", "Njoroge", "Achieng",
+                "Smith", "Johnson", "Garcia", "Martinez", "Silva", "Santos", "Dubois", "Martin", "Khan", "Patel",
+                "Nguyen", "Chen", "Kim", "Ivanova", "Haddad", "Mansour", "Kowalski", "Rossi", "Muller", "Jensen"
+            },
+            CITIES,
+            new String[] {
+                "Nairobi",
+                "Kisumu",
+                "Mombasa",
+                "Kampala",
+                "Accra",
+                "Lilongwe",
+                "Lusaka",
+                "Dar es Salaam",
+                "Maputo",
+                "Kigali"
+            },
+            STREETS,
+            new String[] {"Main Street", "Market Road", "Hospital Road", "Church Lane", "Station Road"},
+            OCCUPATIONS,
+            new String[] {
+                "Farmer",
+                "Teacher",
+                "Trader",
+                "Nurse",
+                "Driver",
+                "Student",
+                "Mechanic",
+                "Tailor",
+                "Carpenter",
+                "Retired"
+            });
+
+    private final Map<String, DemographicDictionary> dictionaries = new LinkedHashMap<>();
+
+    private DemographicDictionaries(Path directory) {
+        for (String name :
+                new String[] {FEMALE_GIVEN_NAMES, MALE_GIVEN_NAMES, FAMILY_NAMES, CITIES, STREETS, OCCUPATIONS}) {
+            Path file = directory == null ? null : directory.resolve(name + FILE_EXTENSION);
+            if (file != null && Files.isRegularFile(file)) {
+                try {
+                    DemographicDictionary dictionary = DemographicDictionary.open(file);
+                    log.info("Mapped {} values of dictionary {} from {}", dictionary.size(), name, file);
+                    dictionaries.put(name, dictionary);
+                } catch (IOException e) {
+                    throw new UncheckedIOException("Failed to map dictionary " + file, e);
+                }
+            } else {
+                dictionaries.put(name, DemographicDictionary.of(name, BUILT_IN.get(name)));
+            }
+        }
+    }
+
+    /**
+     * @return the dictionaries of the configured directory and locale, the built-in ones if no directory is configured
+     */
+    public static DemographicDictionaries load(PatientGeneratorConfig config) {
+        String directory = config.getDictionariesDir();
+        if (directory == null || directory.isBlank()) {
+            return builtIn();
+        }
+        String locale = config.getDictionariesLocale();
+        Path path = Path.of(directory);
+        return new DemographicDictionaries(locale == null || locale.isBlank() ? path : path.resolve(locale));
+    }
+
+    public static DemographicDictionaries builtIn() {
+        return new DemographicDictionaries(null);
+    }
+
+    public DemographicDictionary get(String name) {
+        DemographicDictionary dictionary = dictionaries.get(name);
+        if (dictionary == null) {
+            throw new IllegalArgumentException("Unknown dictionary " + name);
+        }
+        return dictionary;
+    }
+
+    /**
+     * @return a value that changes with the content of any of the dictionaries
+     */
+    public String fingerprint() {
+        StringBuilder fingerprint = new StringBuilder();
+        dictionaries.values().forEach(dictionary -> fingerprint
+                .append(Long.toHexString(dictionary.getChecksum()))
+                .append('-'));
+        return fingerprint.toString();
+    }
+}
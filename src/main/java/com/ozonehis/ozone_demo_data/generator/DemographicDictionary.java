@@ -0,0 +1,238 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32;
+
+/**
+ * The weighted values of one demographic dictionary, e.g. the family names of a locale, read from a pre-built file
+ * that is memory-mapped rather than loaded, so that large dictionaries cost neither startup time nor heap. Sampling
+ * only reads the mapped buffer at absolute positions, so a dictionary is shared by all the generator threads without
+ * locks or copies, and only the sampled value is decoded.
+ *
+ * <p>The file starts with a header of ints and longs, big-endian: the magic {@code ODDC}, the format version, the
+ * number of values, the flags (bit 0 set when all the weights are equal), the total weight and the CRC32 of the rest
+ * of the file, computed when the file is written so that opening it only reads the header. It is followed by the
+ * cumulative weight of each value as longs, the offset of each value in the blob plus the end of the blob as ints,
+ * and the blob of the UTF-8 encoded values.
+ */
+public class DemographicDictionary {
+
+    private static final int MAGIC = 0x4F44_4443;
+
+    private static final int VERSION = 2;
+
+    private static final int HEADER_SIZE = 32;
+
+    private static final int UNIFORM = 1;
+
+    private final String name;
+
+    private final ByteBuffer buffer;
+
+    private final int size;
+
+    private final boolean uniform;
+
+    private final long totalWeight;
+
+    private final int offsetsStart;
+
+    private final int blobStart;
+
+    private final long checksum;
+
+    private DemographicDictionary(String name, ByteBuffer buffer) {
+        if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+            throw new IllegalArgumentException("Dictionary " + name + " is not a dictionary file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IllegalArgumentException("Dictionary " + name + " has unsupported format version "
+                    + buffer.getInt(4) + ", compile it again");
+        }
+        this.name = name;
+        this.buffer = buffer;
+        this.size = buffer.getInt(8);
+        this.uniform = (buffer.getInt(12) & UNIFORM) != 0;
+        this.totalWeight = buffer.getLong(16);
+        this.offsetsStart = HEADER_SIZE + size * Long.BYTES;
+        this.blobStart = offsetsStart + (size + 1) * Integer.BYTES;
+        if (size <= 0
+                || totalWeight <= 0
+                || blobStart + buffer.getInt(offsetsStart + size * Integer.BYTES) > buffer.capacity()) {
+            throw new IllegalArgumentException("Dictionary " + name + " is empty or truncated");
+        }
+        this.checksum = buffer.getLong(24);
+    }
+
+    /**
+     * Maps a dictionary file, the mapping stays valid once the file is closed.
+     */
+    public static DemographicDictionary open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return new DemographicDictionary(
+                    file.getFileName().toString(), channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        }
+    }
+
+    /**
+     * @return an in-memory dictionary of equally weighted values
+     */
+    public static DemographicDictionary of(String name, String... values) {
+        long[] weights = new long[values.length];
+        Arrays.fill(weights, 1);
+        return new DemographicDictionary(name, ByteBuffer.wrap(encode(List.of(values), weights)));
+    }
+
+    /**
+     * Builds a dictionary file from a text file with one value per line, optionally followed by a tab and the weight of
+     * the value, 1 by default. Blank lines and lines starting with {@code #} are skipped.
+     */
+    public static void compile(Path source, Path target) throws IOException {
+        List<String> values = new ArrayList<>();
+        List<Long> weights = new ArrayList<>();
+        for (String line : Files.readAllLines(source, StandardCharsets.UTF_8)) {
+            if (line.isBlank() || line.startsWith("#")) {
+                continue;
+            }
+            int tab = line.lastIndexOf('\t');
+            values.add((tab < 0 ? line : line.substring(0, tab)).trim());
+            weights.add(tab < 0 ? 1L : Long.parseLong(line.substring(tab + 1).trim()));
+        }
+        write(target, values, weights.stream().mapToLong(Long::longValue).toArray());
+    }
+
+    /**
+     * Writes a dictionary file, through a temporary file so that a reader never maps a partial one.
+     */
+    public static void write(Path target, List<String> values, long[] weights) throws IOException {
+        Path directory = target.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, target.getFileName().toString(), ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(temporary))) {
+            out.write(encode(values, weights));
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+        Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static byte[] encode(List<String> values, long[] weights) {
+        if (values.isEmpty() || values.size() != weights.length) {
+            throw new IllegalArgumentException("A dictionary needs at least one value and one weight per value");
+        }
+        List<byte[]> encoded = new ArrayList<>(values.size());
+        int blobSize = 0;
+        for (String value : values) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            encoded.add(bytes);
+            blobSize += bytes.length;
+        }
+        long totalWeight = 0;
+        boolean uniform = true;
+        for (long weight : weights) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Dictionary weights must be positive");
+            }
+            totalWeight = Math.addExact(totalWeight, weight);
+            uniform &= weight == weights[0];
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(
+                HEADER_SIZE + values.size() * Long.BYTES + (values.size() + 1) * Integer.BYTES + blobSize);
+        buffer.putInt(MAGIC).putInt(VERSION).putInt(values.size()).putInt(uniform ? UNIFORM : 0);
+        buffer.putLong(totalWeight);
+        // Filled in once the rest of the file is written
+        buffer.putLong(0);
+        long cumulativeWeight = 0;
+        for (long weight : weights) {
+            cumulativeWeight += weight;
+            buffer.putLong(cumulativeWeight);
+        }
+        int offset = 0;
+        for (byte[] bytes : encoded) {
+            buffer.putInt(offset);
+            offset += bytes.length;
+        }
+        buffer.putInt(offset);
+        encoded.forEach(buffer::put);
+        CRC32 crc = new CRC32();
+        crc.update(buffer.array(), HEADER_SIZE, buffer.capacity() - HEADER_SIZE);
+        buffer.putLong(24, crc.getValue());
+        return buffer.array();
+    }
+
+    /**
+     * @return the index of a value drawn according to the weights, without allocating
+     */
+    public int sample(SplittableRandom random) {
+        if (uniform) {
+            return random.nextInt(size);
+        }
+        long target = random.nextLong(totalWeight);
+        // The first value whose cumulative weight is above the target
+        int low = 0;
+        int high = size - 1;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (buffer.getLong(HEADER_SIZE + middle * Long.BYTES) > target) {
+                high = middle;
+            } else {
+                low = middle + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * @return a value drawn according to the weights
+     */
+    public String pick(SplittableRandom random) {
+        return get(sample(random));
+    }
+
+    public String get(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Dictionary " + name + " has no value " + index);
+        }
+        int start = buffer.getInt(offsetsStart + index * Integer.BYTES);
+        int end = buffer.getInt(offsetsStart + (index + 1) * Integer.BYTES);
+        byte[] bytes = new byte[end - start];
+        buffer.get(blobStart + start, bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the CRC32 of the values and weights of the dictionary, read from its header
+     */
+    public long getChecksum() {
+        return checksum;
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.Period;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.UUID;
+
+/**
+ * Builds FHIR R4 transaction bundles of synthetic patients, each with an encounter and a weight observation. The
+ * patients are the ones {@link SyntheticPatientFactory} builds for the same indexes, converted to FHIR; the encounter
+ * and observation refer to their patient through the {@code urn:uuid} full URL of its entry.
+ */
+public class FhirBundleFactory {
+
+    /** Resource types of the entries of each patient, in the order of the entries. */
+    public static final List<String> ENTRY_TYPES = List.of("Patient", "Encounter", "Observation");
+
+    private static final String ENCOUNTER_TYPE_SYSTEM = "http://fhir.openmrs.org/code-system/encounter-type";
+
+    private static final String IDENTIFIER_LOCATION_EXTENSION =
+            "http://fhir.openmrs.org/ext/patient/identifier#location";
+
+    private final PatientGeneratorConfig config;
+
+    private final SyntheticPatientFactory patientFactory;
+
+    private final LocalDate today;
+
+    public FhirBundleFactory(PatientGeneratorConfig config, SyntheticPatientFactory patientFactory) {
+        this(config, patientFactory, patientFactory.getReferenceDate());
+    }
+
+    FhirBundleFactory(PatientGeneratorConfig config, SyntheticPatientFactory patientFactory, LocalDate today) {
+        this.config = config;
+        this.patientFactory = patientFactory;
+        this.today = today;
+    }
+
+    /**
+     * @param firstIndex the index of the first patient of the bundle
+     * @param count      the number of patients in the bundle
+     * @return the body of a {@code POST /ws/fhir2/R4} request
+     */
+    public Map<String, Object> transaction(long firstIndex, int count) {
+        List<Map<String, Object>> entries = new ArrayList<>(count * ENTRY_TYPES.size());
+        for (long index = firstIndex; index < firstIndex + count; index++) {
+            entries.addAll(entries(index));
+        }
+        Map<String, Object> bundle = new LinkedHashMap<>();
+        bundle.put("resourceType", "Bundle");
+        bundle.put("type", "transaction");
+        bundle.put("entry", entries);
+        return bundle;
+    }
+
+    /**
+     * @return the bundle entries of the patient with the given index, see {@link #ENTRY_TYPES}
+     */
+    public List<Map<String, Object>> entries(long index) {
+        return entries(index, patientFactory.identifier(index));
+    }
+
+    /**
+     * @param identifier the identifier of the patient, e.g. one reserved from idgen
+     * @see #entries(long)
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> entries(long index, String identifier) {
+        List<Map<String, Object>> entries = new ArrayList<>(ENTRY_TYPES.size());
+        Map<String, Object> person =
+                (Map<String, Object>) patientFactory.patient(index).get("person");
+        // Not the stream of the demographics, which a linear seed would share with the next patient
+        SplittableRandom random = RandomStreams.of(config.getSeed(), "encounter", index);
+        String patientUrl = fullUrl(index, "Patient");
+        String encounterUrl = fullUrl(index, "Encounter");
+        LocalDate birthdate = LocalDate.parse((String) person.get("birthdate"));
+        LocalDate encounterDate = today.minusDays(random.nextInt(365));
+
+        entries.add(entry(patientUrl, patient(identifier, person)));
+
+        Map<String, Object> encounter = new LinkedHashMap<>();
+        encounter.put("resourceType", "Encounter");
+        encounter.put("status", "finished");
+        encounter.put("class", Map.of("system", "http://terminology.hl7.org/CodeSystem/v3-ActCode", "code", "AMB"));
+        encounter.put(
+                "type",
+                List.of(Map.of(
+                        "coding",
+                        List.of(Map.of("system", ENCOUNTER_TYPE_SYSTEM, "code", config.getEncounterTypeUuid())))));
+        encounter.put("subject", Map.of("reference", patientUrl));
+        encounter.put("period", Map.of("start", encounterDate.toString()));
+        encounter.put("location", List.of(Map.of("location", locationReference())));
+        entries.add(entry(encounterUrl, encounter));
+
+        Map<String, Object> observation = new LinkedHashMap<>();
+        observation.put("resourceType", "Observation");
+        observation.put("status", "final");
+        observation.put(
+                "code",
+                Map.of(
+                        "coding",
+                        List.of(
+                                Map.of("code", config.getWeightConceptUuid()),
+                                Map.of("system", "http://loinc.org", "code", "29463-7"))));
+        observation.put("subject", Map.of("reference", patientUrl));
+        observation.put("encounter", Map.of("reference", encounterUrl));
+        observation.put("effectiveDateTime", encounterDate.toString());
+        observation.put(
+                "valueQuantity",
+                Map.of(
+                        "value",
+                        weight(Period.between(birthdate, encounterDate).getYears(), random),
+                        "unit",
+                        "kg",
+                        "system",
+                        "http://unitsofmeasure.org",
+                        "code",
+                        "kg"));
+        entries.add(entry(fullUrl(index, "Observation"), observation));
+        return entries;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> patient(String patientIdentifier, Map<String, Object> person) {
+        Map<String, Object> name = ((List<Map<String, Object>>) person.get("names")).get(0);
+        Map<String, Object> address = ((List<Map<String, Object>>) person.get("addresses")).get(0);
+
+        Map<String, Object> identifier = new LinkedHashMap<>();
+        identifier.put("use", "official");
+        identifier.put("type", Map.of("coding", List.of(Map.of("code", config.getIdentifierTypeUuid()))));
+        identifier.put("value", patientIdentifier);
+        identifier.put(
+                "extension",
+                List.of(Map.of("url", IDENTIFIER_LOCATION_EXTENSION, "valueReference", locationReference())));
+
+        Map<String, Object> patient = new LinkedHashMap<>();
+        patient.put("resourceType", "Patient");
+        patient.put("identifier", List.of(identifier));
+        patient.put("name", List.of(Map.of("given", List.of(name.get("givenName")), "family", name.get("familyName"))));
+        patient.put("gender", "F".equals(person.get("gender")) ? "female" : "male");
+        patient.put("birthDate", person.get("birthdate"));
+        patient.put(
+                "address",
+                List.of(Map.of("line", List.of(address.get("address1")), "city", address.get("cityVillage"))));
+        List<Map<String, Object>> telecom = new ArrayList<>();
+        for (Map<String, Object> attribute : (List<Map<String, Object>>) person.get("attributes")) {
+            telecom.add(Map.of("system", "phone", "value", attribute.get("value")));
+        }
+        if (!telecom.isEmpty()) {
+            patient.put("telecom", telecom);
+        }
+        return patient;
+    }
+
+    private Map<String, Object> locationReference() {
+        return Map.of("reference", "Location/" + config.getLocationUuid());
+    }
+
+    /**
+     * @return a full URL that is the same for the same seed, index and resource type
+     */
+    private String fullUrl(long index, String resourceType) {
+        String name = config.getSeed() + ":" + index + ":" + resourceType;
+        return "urn:uuid:" + UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, Object> entry(String fullUrl, Map<String, Object> resource) {
+        Map<String, Object> entry = new LinkedHashMap<>();
+        entry.put("fullUrl", fullUrl);
+        entry.put("resource", resource);
+        entry.put("request", Map.of("method", "POST", "url", resource.get("resourceType")));
+        return entry;
+    }
+
+    static double weight(int age, SplittableRandom random) {
+        // Roughly follows growth up to adulthood, then spreads around an adult weight
+        double typical = age < 18 ? 3.5 + age * 3.5 : 70;
+        double spread = age < 18 ? typical * 0.15 : 15;
+        return Math.round(Math.max(2, typical + (random.nextDouble() * 2 - 1) * spread) * 10) / 10.0;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+/**
+ * The Luhn mod-30 check character of OpenMRS IDs, as computed by the {@code LuhnMod30IdentifierValidator} of the idgen
+ * module, so that identifiers generated here are accepted by identifier types validated with it.
+ */
+public final class LuhnMod30 {
+
+    /** The characters of OpenMRS IDs, without the ones easily mistaken for others, e.g. B, I, O, Q, S and Z. */
+    public static final String CHARACTERS = "0123456789ACDEFGHJKLMNPRTUVWXY";
+
+    private static final int BASE = CHARACTERS.length();
+
+    private LuhnMod30() {}
+
+    /**
+     * @return the identifier followed by its check character
+     */
+    public static String withCheckCharacter(String identifier) {
+        return identifier + checkCharacter(identifier);
+    }
+
+    public static char checkCharacter(String identifier) {
+        int factor = 2;
+        int sum = 0;
+        // From the rightmost character, every other character is doubled
+        for (int i = identifier.length() - 1; i >= 0; i--) {
+            int addend = factor * codePoint(identifier.charAt(i));
+            factor = factor == 2 ? 1 : 2;
+            sum += addend / BASE + addend % BASE;
+        }
+        return CHARACTERS.charAt((BASE - sum % BASE) % BASE);
+    }
+
+    public static boolean isValid(String identifier) {
+        if (identifier == null || identifier.length() < 2) {
+            return false;
+        }
+        try {
+            String base = identifier.substring(0, identifier.length() - 1);
+            return checkCharacter(base) == identifier.charAt(identifier.length() - 1);
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return the number written with the OpenMRS ID characters, left padded with zeros to the given width
+     */
+    public static String encode(long number, int width) {
+        if (number < 0) {
+            throw new IllegalArgumentException("Cannot encode negative number " + number);
+        }
+        StringBuilder encoded = new StringBuilder();
+        do {
+            encoded.append(CHARACTERS.charAt((int) (number % BASE)));
+            number /= BASE;
+        } while (number > 0);
+        while (encoded.length() < width) {
+            encoded.append('0');
+        }
+        return encoded.reverse().toString();
+    }
+
+    private static int codePoint(char character) {
+        int codePoint = CHARACTERS.indexOf(Character.toUpperCase(character));
+        if (codePoint < 0) {
+            throw new IllegalArgumentException("'" + character + "' is not a valid OpenMRS ID character");
+        }
+        return codePoint;
+    }
+}
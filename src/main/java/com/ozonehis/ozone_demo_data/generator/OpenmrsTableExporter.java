@@ -0,0 +1,482 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import com.ozonehis.ozone_demo_data.config.BulkLoadConfig;
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Writes synthetic patients and their clinical history as files for the OpenMRS database tables, either CSV files for
+ * {@code LOAD DATA INFILE} or SQL files of multi-row inserts, plus a {@code load.sql} script that loads them in
+ * foreign key order and has OpenMRS rebuild its search index on its next start.
+ *
+ * <p>The ids of each table start at {@code openmrs.bulk-load.first-id} and are derived from the index of the patient,
+ * the number of the visit and of the observation, so that every file is sorted by primary key and the rows of a
+ * patient are the same whatever the chunk they are generated in. Chunks of patients are generated on the common
+ * fork/join pool and written in order, with a bounded number of chunks in memory.
+ */
+@Slf4j
+public class OpenmrsTableExporter {
+
+    private static final String DATE_CREATED = " 00:00:00";
+
+    private static final String VISIT_START = " 09:00:00";
+
+    private static final String VISIT_STOP = " 11:00:00";
+
+    private static final String ENCOUNTER_TIME = " 09:30:00";
+
+    /** Upper bound of the observations of a visit, the ids of the observations of each visit start at a multiple. */
+    private static final int OBSERVATIONS_PER_VISIT = 8;
+
+    private static final Pattern CIEL_UUID = Pattern.compile("(\\d+)A+");
+
+    /** The tables in the order they are loaded, every table only references the ones before it. */
+    public enum Table {
+        PERSON(
+                "person",
+                "person_id",
+                "gender",
+                "birthdate",
+                "birthdate_estimated",
+                "dead",
+                "creator",
+                "date_created",
+                "voided",
+                "uuid"),
+        PERSON_NAME(
+                "person_name",
+                "person_name_id",
+                "preferred",
+                "person_id",
+                "given_name",
+                "family_name",
+                "creator",
+                "date_created",
+                "voided",
+                "uuid"),
+        PATIENT("patient", "patient_id", "creator", "date_created", "voided"),
+        PATIENT_IDENTIFIER(
+                "patient_identifier",
+                "patient_identifier_id",
+                "patient_id",
+                "identifier",
+                "identifier_type",
+                "preferred",
+                "location_id",
+                "creator",
+                "date_created",
+                "voided",
+                "uuid"),
+        VISIT(
+                "visit",
+                "visit_id",
+                "patient_id",
+                "visit_type_id",
+                "date_started",
+                "date_stopped",
+                "location_id",
+                "creator",
+                "date_created",
+                "voided",
+                "uuid"),
+        ENCOUNTER(
+                "encounter",
+                "encounter_id",
+                "encounter_type",
+                "patient_id",
+                "location_id",
+                "encounter_datetime",
+                "visit_id",
+                "creator",
+                "date_created",
+                "voided",
+                "uuid"),
+        OBS(
+                "obs",
+                "obs_id",
+                "person_id",
+                "concept_id",
+                "encounter_id",
+                "obs_datetime",
+                "location_id",
+                "value_numeric",
+                "status",
+                "creator",
+                "date_created",
+                "voided",
+                "uuid");
+
+        private final String tableName;
+
+        private final List<String> columns;
+
+        Table(String tableName, String... columns) {
+            this.tableName = tableName;
+            this.columns = List.of(columns);
+        }
+
+        public String getTableName() {
+            return tableName;
+        }
+
+        public List<String> getColumns() {
+            return columns;
+        }
+    }
+
+    private final PatientGeneratorConfig patientConfig;
+
+    private final BulkLoadConfig config;
+
+    private final SyntheticPatientFactory patientFactory;
+
+    private final ClinicalHistoryGenerator historyGenerator;
+
+    private final boolean sql;
+
+    private final String dateCreated;
+
+    private final long visitsPerPatient;
+
+    public OpenmrsTableExporter(
+            PatientGeneratorConfig patientConfig, BulkLoadConfig config, SyntheticPatientFactory patientFactory) {
+        this.patientConfig = patientConfig;
+        this.config = config;
+        this.patientFactory = patientFactory;
+        this.historyGenerator = new ClinicalHistoryGenerator(patientConfig, patientFactory.getReferenceDate());
+        if (!BulkLoadConfig.CSV_FORMAT.equalsIgnoreCase(config.getFormat())
+                && !BulkLoadConfig.SQL_FORMAT.equalsIgnoreCase(config.getFormat())) {
+            throw new IllegalArgumentException("Unknown bulk load format " + config.getFormat() + ", use csv or sql");
+        }
+        this.sql = BulkLoadConfig.SQL_FORMAT.equalsIgnoreCase(config.getFormat());
+        this.dateCreated = patientFactory.getReferenceDate() + DATE_CREATED;
+        // One more than the visits of the longest history, so that the ids of two patients never overlap
+        this.visitsPerPatient = historyGenerator.maxVisits() + 1;
+    }
+
+    /**
+     * @param directory  the directory the files are written to, replacing the files of a previous export
+     * @param firstIndex the index of the first patient
+     * @param count      the number of patients
+     * @return the number of rows written per table
+     */
+    public Map<Table, Long> export(Path directory, long firstIndex, int count) throws IOException {
+        Files.createDirectories(directory);
+        Map<Table, Long> rows = new EnumMap<>(Table.class);
+        Map<Table, Writer> writers = new EnumMap<>(Table.class);
+        try {
+            for (Table table : Table.values()) {
+                Writer writer = Files.newBufferedWriter(directory.resolve(fileName(table)), StandardCharsets.UTF_8);
+                writers.put(table, writer);
+                if (!sql) {
+                    writer.write(String.join(",", table.getColumns()));
+                    writer.write('\n');
+                }
+                rows.put(table, 0L);
+            }
+            int chunkSize = Math.max(1, config.getChunkSize());
+            int window = Math.max(2, ForkJoinPool.getCommonPoolParallelism() * 2);
+            ArrayDeque<CompletableFuture<Map<Table, TableChunk>>> chunks = new ArrayDeque<>();
+            long end = firstIndex + count;
+            for (long first = firstIndex; first < end; first += chunkSize) {
+                long chunkFirst = first;
+                int size = (int) Math.min(chunkSize, end - first);
+                chunks.add(CompletableFuture.supplyAsync(() -> chunk(chunkFirst, size)));
+                if (chunks.size() >= window) {
+                    write(chunks.poll().join(), writers, rows);
+                }
+            }
+            while (!chunks.isEmpty()) {
+                write(chunks.poll().join(), writers, rows);
+            }
+            if (sql) {
+                for (Table table : Table.values()) {
+                    if (rows.get(table) % rowsPerStatement() != 0) {
+                        writers.get(table).write(";\n");
+                    }
+                }
+            }
+        } finally {
+            for (Writer writer : writers.values()) {
+                writer.close();
+            }
+        }
+        writeLoadScript(directory, firstIndex, count);
+        log.info("Wrote {} patients for bulk loading to {}: {}", count, directory, rows);
+        return rows;
+    }
+
+    private void write(Map<Table, TableChunk> chunk, Map<Table, Writer> writers, Map<Table, Long> rows)
+            throws IOException {
+        for (Map.Entry<Table, TableChunk> entry : chunk.entrySet()) {
+            Table table = entry.getKey();
+            Writer writer = writers.get(table);
+            long written = rows.get(table);
+            // The statements of the sql format span chunks, so that the files do not depend on the chunk size
+            for (String row : entry.getValue().rows) {
+                if (!sql) {
+                    writer.write(row);
+                    writer.write('\n');
+                } else {
+                    if (written % rowsPerStatement() == 0) {
+                        writer.write("INSERT INTO " + table.getTableName() + " ("
+                                + String.join(", ", table.getColumns()) + ") VALUES\n");
+                    } else {
+                        writer.write(",\n");
+                    }
+                    writer.write(row);
+                    if ((written + 1) % rowsPerStatement() == 0) {
+                        writer.write(";\n");
+                    }
+                }
+                written++;
+            }
+            rows.put(table, written);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Table, TableChunk> chunk(long firstIndex, int size) {
+        Map<Table, TableChunk> chunk = new EnumMap<>(Table.class);
+        for (Table table : Table.values()) {
+            chunk.put(table, new TableChunk());
+        }
+        for (long index = firstIndex; index < firstIndex + size; index++) {
+            Map<String, Object> patient = patientFactory.patient(index);
+            Map<String, Object> person = (Map<String, Object>) patient.get("person");
+            Map<String, Object> name = ((List<Map<String, Object>>) person.get("names")).get(0);
+            Map<String, Object> identifier = ((List<Map<String, Object>>) patient.get("identifiers")).get(0);
+            long personId = config.getFirstId() + index;
+            String personUuid = uuid(index, "person");
+
+            chunk.get(Table.PERSON)
+                    .row(
+                            personId,
+                            person.get("gender"),
+                            person.get("birthdate"),
+                            0,
+                            0,
+                            config.getCreatorId(),
+                            dateCreated,
+                            0,
+                            personUuid);
+            chunk.get(Table.PERSON_NAME)
+                    .row(
+                            personId,
+                            1,
+                            personId,
+                            name.get("givenName"),
+                            name.get("familyName"),
+                            config.getCreatorId(),
+                            dateCreated,
+                            0,
+                            uuid(index, "person_name"));
+            chunk.get(Table.PATIENT).row(personId, config.getCreatorId(), dateCreated, 0);
+            chunk.get(Table.PATIENT_IDENTIFIER)
+                    .row(
+                            personId,
+                            personId,
+                            identifier.get("identifier"),
+                            config.getIdentifierTypeId(),
+                            1,
+                            config.getLocationId(),
+                            config.getCreatorId(),
+                            dateCreated,
+                            0,
+                            uuid(index, "patient_identifier"));
+            if (config.isHistoryEnabled()) {
+                history(chunk, index, personId, personUuid, LocalDate.parse((String) person.get("birthdate")));
+            }
+        }
+        return chunk;
+    }
+
+    @SuppressWarnings("unchecked")
+    private void history(
+            Map<Table, TableChunk> chunk, long index, long personId, String personUuid, LocalDate birthdate) {
+        long[] visitNumber = {0};
+        historyGenerator.visits(index, birthdate, "Patient/" + personUuid).forEachOrdered(visit -> {
+            List<Map<String, Object>> entries = visit.getEntries();
+            long visitId = config.getFirstId() + index * visitsPerPatient + visitNumber[0]++;
+            Map<String, Object> visitResource = resource(entries.get(0));
+            String date = (String) ((Map<String, Object>) visitResource.get("period")).get("start");
+            chunk.get(Table.VISIT)
+                    .row(
+                            visitId,
+                            personId,
+                            config.getVisitTypeId(),
+                            date + VISIT_START,
+                            date + VISIT_STOP,
+                            config.getLocationId(),
+                            config.getCreatorId(),
+                            dateCreated,
+                            0,
+                            uuid(entries.get(0)));
+            // The vitals encounter of a visit has the id of the visit
+            chunk.get(Table.ENCOUNTER)
+                    .row(
+                            visitId,
+                            config.getEncounterTypeId(),
+                            personId,
+                            config.getLocationId(),
+                            date + ENCOUNTER_TIME,
+                            visitId,
+                            config.getCreatorId(),
+                            dateCreated,
+                            0,
+                            uuid(entries.get(1)));
+            for (int i = 2; i < entries.size(); i++) {
+                Map<String, Object> observation = resource(entries.get(i));
+                String conceptUuid = (String)
+                        ((List<Map<String, Object>>) ((Map<String, Object>) observation.get("code")).get("coding"))
+                                .get(0)
+                                .get("code");
+                chunk.get(Table.OBS)
+                        .row(
+                                (visitId - config.getFirstId()) * OBSERVATIONS_PER_VISIT + config.getFirstId() + i - 2,
+                                personId,
+                                conceptId(conceptUuid),
+                                visitId,
+                                date + ENCOUNTER_TIME,
+                                config.getLocationId(),
+                                ((Map<String, Object>) observation.get("valueQuantity")).get("value"),
+                                "FINAL",
+                                config.getCreatorId(),
+                                dateCreated,
+                                0,
+                                uuid(entries.get(i)));
+            }
+        });
+    }
+
+    private void writeLoadScript(Path directory, long firstIndex, int count) throws IOException {
+        try (BufferedWriter script = Files.newBufferedWriter(directory.resolve("load.sql"), StandardCharsets.UTF_8)) {
+            script.write("-- " + count + " synthetic patients from index " + firstIndex + ", generated with seed "
+                    + patientConfig.getSeed() + "\n");
+            script.write(
+                    sql
+                            ? "-- Load from this directory with: mysql openmrs < load.sql\n"
+                            : "-- Load from this directory with: mysql --local-infile=1 openmrs < load.sql\n");
+            script.write("SET FOREIGN_KEY_CHECKS = 0;\nSET UNIQUE_CHECKS = 0;\n");
+            for (Table table : Table.values()) {
+                if (sql) {
+                    script.write("SOURCE " + fileName(table) + ";\n");
+                } else {
+                    script.write("LOAD DATA LOCAL INFILE '" + fileName(table) + "' INTO TABLE " + table.getTableName()
+                            + " CHARACTER SET utf8mb4 FIELDS TERMINATED BY ',' OPTIONALLY ENCLOSED BY '\"'"
+                            + " ESCAPED BY '\\\\' LINES TERMINATED BY '\\n' IGNORE 1 LINES ("
+                            + String.join(", ", table.getColumns()) + ");\n");
+                }
+            }
+            script.write("SET UNIQUE_CHECKS = 1;\nSET FOREIGN_KEY_CHECKS = 1;\n");
+            // OpenMRS rebuilds the search index on startup when the index version is not the current one
+            script.write("-- Have OpenMRS rebuild its search index on its next start\n");
+            script.write("DELETE FROM global_property WHERE property = 'search.indexVersion';\n");
+        }
+    }
+
+    private String fileName(Table table) {
+        return table.getTableName() + (sql ? ".sql" : ".csv");
+    }
+
+    /**
+     * @return the concept id of a CIEL concept uuid, which is its number followed by {@code A}s
+     */
+    static int conceptId(String conceptUuid) {
+        Matcher matcher = CIEL_UUID.matcher(conceptUuid);
+        if (conceptUuid.length() != 36 || !matcher.matches()) {
+            throw new IllegalArgumentException("The concept_id of concept " + conceptUuid
+                    + " cannot be derived, only CIEL concepts are supported");
+        }
+        return Integer.parseInt(matcher.group(1));
+    }
+
+    private String uuid(long index, String table) {
+        String name = patientConfig.getSeed() + ":" + index + ":bulk-load:" + table;
+        return UUID.nameUUIDFromBytes(name.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
+    private static String uuid(Map<String, Object> entry) {
+        return ((String) entry.get("fullUrl")).substring("urn:uuid:".length());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> resource(Map<String, Object> entry) {
+        return (Map<String, Object>) entry.get("resource");
+    }
+
+    private int rowsPerStatement() {
+        return Math.max(1, config.getRowsPerStatement());
+    }
+
+    /**
+     * The rows of one table for a chunk of patients, rendered as CSV lines or as the values of inserts.
+     */
+    private class TableChunk {
+
+        private final List<String> rows = new ArrayList<>();
+
+        private final StringBuilder text = new StringBuilder(256);
+
+        void row(Object... values) {
+            text.setLength(0);
+            if (sql) {
+                text.append('(');
+            }
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    text.append(',');
+                }
+                append(values[i]);
+            }
+            if (sql) {
+                text.append(')');
+            }
+            rows.add(text.toString());
+        }
+
+        private void append(Object value) {
+            if (value == null) {
+                text.append(sql ? "NULL" : "\\N");
+            } else if (value instanceof Number) {
+                text.append(value);
+            } else {
+                char quote = sql ? '\'' : '"';
+                text.append(quote);
+                String string = value.toString();
+                for (int i = 0; i < string.length(); i++) {
+                    char character = string.charAt(i);
+                    if (character == quote || character == '\\') {
+                        text.append('\\');
+                    }
+                    text.append(character == '\n' ? ' ' : character);
+                }
+                text.append(quote);
+            }
+        }
+    }
+}
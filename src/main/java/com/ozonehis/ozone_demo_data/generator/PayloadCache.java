@@ -0,0 +1,154 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.LongFunction;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Serialized request payloads by index, kept on disk so that a later run with the same seed and configuration replays
+ * them instead of generating and serializing them again. Payloads are stored in chunks of consecutive indexes, one
+ * GZIP compressed NDJSON file per chunk under a directory named after the key, and only the chunks in use are held in
+ * memory.
+ *
+ * <p>Without a directory the payloads are generated on every call and nothing is kept.
+ */
+@Slf4j
+public class PayloadCache {
+
+    private static final int LOADED_CHUNKS = 64;
+
+    private final Path directory;
+
+    private final int chunkSize;
+
+    private final LongFunction<byte[]> generator;
+
+    private final ConcurrentMap<Long, CompletableFuture<List<byte[]>>> chunks = new ConcurrentHashMap<>();
+
+    /**
+     * @param directory the cache directory, {@code null} to disable the cache
+     * @param key       identifies the seed and configuration the payloads are generated with
+     * @param chunkSize the number of payloads per chunk file
+     * @param generator generates the JSON payload of an index, without line breaks
+     */
+    public PayloadCache(Path directory, String key, int chunkSize, LongFunction<byte[]> generator) {
+        this.directory = directory == null ? null : directory.resolve(key);
+        this.chunkSize = Math.max(1, chunkSize);
+        this.generator = generator;
+    }
+
+    public byte[] get(long index) {
+        if (directory == null) {
+            return generator.apply(index);
+        }
+        long chunk = index / chunkSize;
+        CompletableFuture<List<byte[]>> loading = new CompletableFuture<>();
+        CompletableFuture<List<byte[]>> existing = chunks.putIfAbsent(chunk, loading);
+        if (existing == null) {
+            // This thread loads the chunk, the others asking for it wait for the same future
+            try {
+                loading.complete(loadOrGenerate(chunk));
+            } catch (RuntimeException e) {
+                chunks.remove(chunk);
+                loading.completeExceptionally(e);
+                throw e;
+            }
+            evictBefore(chunk - LOADED_CHUNKS);
+            existing = loading;
+        }
+        return existing.join().get((int) (index - chunk * chunkSize));
+    }
+
+    private List<byte[]> loadOrGenerate(long chunk) {
+        Path file = directory.resolve("chunk-" + chunk + ".ndjson.gz");
+        if (Files.isRegularFile(file)) {
+            try {
+                List<byte[]> payloads = read(file);
+                if (payloads.size() == chunkSize) {
+                    return payloads;
+                }
+                log.warn("Ignoring incomplete payload cache chunk {}", file);
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Ignoring unreadable payload cache chunk {}: {}", file, e.getMessage());
+            }
+        }
+        List<byte[]> payloads = new ArrayList<>(chunkSize);
+        for (long index = chunk * chunkSize; index < (chunk + 1) * chunkSize; index++) {
+            payloads.add(generator.apply(index));
+        }
+        try {
+            write(file, payloads);
+        } catch (IOException e) {
+            // A run without the cache is slower, not wrong
+            log.warn("Failed to write payload cache chunk {}: {}", file, e.getMessage());
+        }
+        return payloads;
+    }
+
+    private void evictBefore(long chunk) {
+        chunks.keySet().removeIf(loaded -> loaded < chunk);
+    }
+
+    private static List<byte[]> read(Path file) throws IOException {
+        List<byte[]> payloads = new ArrayList<>();
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file), 64 * 1024)) {
+            ByteArrayOutputStream line = new ByteArrayOutputStream(1024);
+            byte[] buffer = new byte[64 * 1024];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer)) {
+                int start = 0;
+                for (int i = 0; i < read; i++) {
+                    if (buffer[i] == '\n') {
+                        line.write(buffer, start, i - start);
+                        payloads.add(line.toByteArray());
+                        line.reset();
+                        start = i + 1;
+                    }
+                }
+                line.write(buffer, start, read - start);
+            }
+        }
+        return payloads;
+    }
+
+    /**
+     * Writes the chunk to a temporary file first, so that a chunk file is either complete or missing.
+     */
+    private static void write(Path file, List<byte[]> payloads) throws IOException {
+        Files.createDirectories(file.getParent());
+        Path temporary = Files.createTempFile(file.getParent(), "chunk-", ".tmp");
+        try {
+            try (OutputStream out =
+                    new BufferedOutputStream(new GZIPOutputStream(Files.newOutputStream(temporary), 64 * 1024))) {
+                for (byte[] payload : payloads) {
+                    out.write(payload);
+                    out.write('\n');
+                }
+            }
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+}
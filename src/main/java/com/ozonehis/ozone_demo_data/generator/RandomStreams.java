@@ -0,0 +1,38 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import java.util.SplittableRandom;
+
+/**
+ * Random streams derived from the configured seed, a salt naming what the stream generates and the indexes of the
+ * generated item, e.g. the patient and its visit. The seed, the salt and each index are mixed in turn with the
+ * SplitMix64 finalizer, so that unlike a linear combination of them no two items share a stream.
+ */
+public final class RandomStreams {
+
+    private RandomStreams() {}
+
+    /**
+     * @return a random stream that is the same for the same seed, salt and indexes
+     */
+    public static SplittableRandom of(long seed, String salt, long... indexes) {
+        long hash = mix(mix(seed) + salt.hashCode());
+        for (long index : indexes) {
+            hash = mix(hash + index);
+        }
+        return new SplittableRandom(hash);
+    }
+
+    static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,167 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/**
+ * Builds the OpenMRS REST representation of synthetic patients. Each patient is derived from the seed, the reference
+ * date and its index only, so that the same patients are produced whatever the order or the threads they are built on,
+ * and a later run continues where the patients already in OpenMRS end.
+ */
+public class SyntheticPatientFactory {
+
+    private final PatientGeneratorConfig config;
+
+    private final LocalDate today;
+
+    private final DemographicDictionaries dictionaries;
+
+    public SyntheticPatientFactory(PatientGeneratorConfig config) {
+        this(config, config.resolveReferenceDate(), DemographicDictionaries.load(config));
+    }
+
+    SyntheticPatientFactory(PatientGeneratorConfig config, LocalDate today) {
+        this(config, today, DemographicDictionaries.load(config));
+    }
+
+    public SyntheticPatientFactory(
+            PatientGeneratorConfig config, LocalDate today, DemographicDictionaries dictionaries) {
+        this.config = config;
+        this.today = today;
+        this.dictionaries = dictionaries;
+        String prefix = prefix();
+        if (config.isLuhnMod30Identifiers()
+                && !prefix.toUpperCase().chars().allMatch(c -> LuhnMod30.CHARACTERS.indexOf(c) >= 0)) {
+            throw new IllegalArgumentException("The identifier prefix " + prefix
+                    + " has characters that are not valid in luhn-mod30 identifiers, only "
+                    + LuhnMod30.CHARACTERS + " are");
+        }
+    }
+
+    /**
+     * @param index the index of the patient, also part of its identifier
+     * @return the body of a {@code POST /ws/rest/v1/patient} request
+     */
+    public Map<String, Object> patient(long index) {
+        return patient(index, identifier(index));
+    }
+
+    /**
+     * @param patientIdentifier the identifier of the patient, e.g. one reserved from idgen
+     * @see #patient(long)
+     */
+    public Map<String, Object> patient(long index, String patientIdentifier) {
+        SplittableRandom random = new SplittableRandom(config.getSeed() * 0x9E3779B97F4A7C15L + index);
+        boolean female = random.nextDouble() < config.getFemaleRatio();
+
+        Map<String, Object> name = new LinkedHashMap<>();
+        name.put(
+                "givenName",
+                pick(
+                        random,
+                        female
+                                ? DemographicDictionaries.FEMALE_GIVEN_NAMES
+                                : DemographicDictionaries.MALE_GIVEN_NAMES));
+        name.put("familyName", pick(random, DemographicDictionaries.FAMILY_NAMES));
+        name.put("preferred", true);
+
+        Map<String, Object> address = new LinkedHashMap<>();
+        address.put("address1", (1 + random.nextInt(250)) + " " + pick(random, DemographicDictionaries.STREETS));
+        address.put("cityVillage", pick(random, DemographicDictionaries.CITIES));
+        address.put("preferred", true);
+
+        Map<String, Object> person = new LinkedHashMap<>();
+        person.put("names", List.of(name));
+        person.put("gender", female ? "F" : "M");
+        person.put("birthdate", birthdate(random).toString());
+        person.put("birthdateEstimated", false);
+        person.put("addresses", List.of(address));
+        List<Map<String, Object>> attributes = new ArrayList<>();
+        if (config.getPhoneAttributeTypeUuid() != null
+                && !config.getPhoneAttributeTypeUuid().isBlank()) {
+            attributes.add(Map.of(
+                    "attributeType",
+                    config.getPhoneAttributeTypeUuid(),
+                    "value",
+                    String.format("+2547%08d", random.nextInt(100_000_000))));
+        }
+        if (config.getOccupationAttributeTypeUuid() != null
+                && !config.getOccupationAttributeTypeUuid().isBlank()) {
+            attributes.add(Map.of(
+                    "attributeType",
+                    config.getOccupationAttributeTypeUuid(),
+                    "value",
+                    pick(random, DemographicDictionaries.OCCUPATIONS)));
+        }
+        person.put("attributes", attributes);
+
+        Map<String, Object> identifier = new LinkedHashMap<>();
+        identifier.put("identifier", patientIdentifier);
+        identifier.put("identifierType", config.getIdentifierTypeUuid());
+        identifier.put("location", config.getLocationUuid());
+        identifier.put("preferred", true);
+
+        Map<String, Object> patient = new LinkedHashMap<>();
+        patient.put("person", person);
+        patient.put("identifiers", List.of(identifier));
+        return patient;
+    }
+
+    /**
+     * @return the birthdate in the body of the patient with the given index
+     */
+    @SuppressWarnings("unchecked")
+    public LocalDate birthdate(long index) {
+        Map<String, Object> person = (Map<String, Object>) patient(index).get("person");
+        return LocalDate.parse((String) person.get("birthdate"));
+    }
+
+    public DemographicDictionaries getDictionaries() {
+        return dictionaries;
+    }
+
+    public LocalDate getReferenceDate() {
+        return today;
+    }
+
+    /**
+     * @return the prefix followed by the index, in OpenMRS ID characters and with a check character for
+     *     {@code luhn-mod30} identifiers
+     */
+    public String identifier(long index) {
+        if (config.isLuhnMod30Identifiers()) {
+            return LuhnMod30.withCheckCharacter(prefix() + LuhnMod30.encode(index, 6));
+        }
+        return prefix() + String.format("%07d", index);
+    }
+
+    private String prefix() {
+        return config.getIdentifierPrefix() == null ? "" : config.getIdentifierPrefix();
+    }
+
+    private LocalDate birthdate(SplittableRandom random) {
+        int minAge = Math.max(0, config.getMinAge());
+        int maxAge = Math.max(minAge, config.getMaxAge());
+        // Uniform over the days between the oldest and the youngest birthdate of the age range
+        LocalDate youngest = today.minusYears(minAge);
+        LocalDate oldest = today.minusYears(maxAge + 1L).plusDays(1);
+        long days = youngest.toEpochDay() - oldest.toEpochDay();
+        return LocalDate.ofEpochDay(oldest.toEpochDay() + (days > 0 ? random.nextLong(days + 1) : 0));
+    }
+
+    private String pick(SplittableRandom random, String dictionary) {
+        return dictionaries.get(dictionary).pick(random);
+    }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.report;
+
+/**
+ * Records latency samples of a single call type in a fixed-size histogram of logarithmic buckets, like HdrHistogram:
+ * each power of two of microseconds is split into {@link #HALF_SUB_BUCKETS} buckets, so that percentiles are within
+ * 1% of the recorded latencies and the memory stays the same whatever the number of calls, e.g. over the lifetime of
+ * the server mode. Latencies under {@link #SUB_BUCKETS} microseconds are exact, the maximum is tracked exactly.
+ */
+class LatencyRecorder {
+
+    private static final int SUB_BUCKET_BITS = 7;
+
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+    private static final int HALF_SUB_BUCKETS = SUB_BUCKETS / 2;
+
+    /** Latencies are recorded up to 2^36 microseconds, about 19 hours, longer ones in the last bucket. */
+    private static final int MAX_BITS = 36;
+
+    private static final long MAX_MICROS = (1L << MAX_BITS) - 1;
+
+    private final long[] buckets = new long[SUB_BUCKETS + (MAX_BITS - SUB_BUCKET_BITS) * HALF_SUB_BUCKETS];
+
+    private long count;
+
+    private long maxNanos;
+
+    private long errors;
+
+    private long retries;
+
+    synchronized void record(long nanos, boolean success) {
+        buckets[bucket(Math.min(Math.max(0, nanos / 1_000), MAX_MICROS))]++;
+        count++;
+        maxNanos = Math.max(maxNanos, nanos);
+        if (!success) {
+            errors++;
+        }
+    }
+
+    synchronized void retried() {
+        retries++;
+    }
+
+    synchronized RunReport.CallStats snapshot() {
+        return RunReport.CallStats.builder()
+                .count(count)
+                .errors(errors)
+                .retries(retries)
+                .p50Millis(percentileMillis(50))
+                .p95Millis(percentileMillis(95))
+                .p99Millis(percentileMillis(99))
+                .maxMillis(maxNanos / 1_000_000.0)
+                .build();
+    }
+
+    private double percentileMillis(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100.0 * count));
+        long seen = 0;
+        for (int bucket = 0; bucket < buckets.length; bucket++) {
+            seen += buckets[bucket];
+            if (seen >= rank) {
+                // The middle of the bucket, never above the slowest call
+                double micros = (lowestMicros(bucket) + lowestMicros(bucket + 1) - 1) / 2.0;
+                return Math.min(micros / 1_000.0, maxNanos / 1_000_000.0);
+            }
+        }
+        return maxNanos / 1_000_000.0;
+    }
+
+    static int bucket(long micros) {
+        if (micros < SUB_BUCKETS) {
+            return (int) micros;
+        }
+        // Above SUB_BUCKETS, the buckets of each power of two are twice as wide as the ones of the previous one
+        int shift = 63 - Long.numberOfLeadingZeros(micros) - (SUB_BUCKET_BITS - 1);
+        return SUB_BUCKETS + (shift - 1) * HALF_SUB_BUCKETS + (int) (micros >>> shift) - HALF_SUB_BUCKETS;
+    }
+
+    static long lowestMicros(int bucket) {
+        if (bucket < SUB_BUCKETS) {
+            return bucket;
+        }
+        int shift = (bucket - SUB_BUCKETS) / HALF_SUB_BUCKETS + 1;
+        return (long) (HALF_SUB_BUCKETS + (bucket - SUB_BUCKETS) % HALF_SUB_BUCKETS) << shift;
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.report;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs one progress line per entity type every {@code progress.interval.seconds} while the tasks run, with the
+ * processed and expected counts, the rate over the interval and the estimated time left, followed by the number of
+ * failures that repeated an already logged cause. Entity types without progress since the previous line are skipped.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ProgressReporter {
+
+    private final RunMetrics runMetrics;
+
+    @Setter
+    @Value("${progress.interval.seconds:10}")
+    private long intervalSeconds;
+
+    private final Map<String, Long> lastProcessed = new HashMap<>();
+
+    private long lastReportNanos;
+
+    private ScheduledExecutorService scheduler;
+
+    public synchronized void start() {
+        if (intervalSeconds <= 0 || scheduler != null) {
+            return;
+        }
+        lastReportNanos = System.nanoTime();
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("progress-");
+        // Never keeps the application running
+        threadFactory.setDaemon(true);
+        scheduler = Executors.newSingleThreadScheduledExecutor(threadFactory);
+        scheduler.scheduleAtFixedRate(this::report, intervalSeconds, intervalSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * Stops reporting, after logging the failures that repeated since the last progress line.
+     */
+    public synchronized void stop() {
+        if (scheduler == null) {
+            return;
+        }
+        scheduler.shutdownNow();
+        scheduler = null;
+        logRepeatedFailures();
+    }
+
+    synchronized void report() {
+        try {
+            progressLines().forEach(log::info);
+            logRepeatedFailures();
+        } catch (Exception e) {
+            log.debug("Could not report progress: {}", e.getMessage());
+        }
+    }
+
+    synchronized List<String> progressLines() {
+        long now = System.nanoTime();
+        double seconds = Math.max(now - lastReportNanos, 1) / 1_000_000_000.0;
+        lastReportNanos = now;
+        return runMetrics.progress().entrySet().stream()
+                .map(entry -> progressLine(entry.getKey(), entry.getValue(), seconds))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private String progressLine(String entityType, RunMetrics.EntityProgress progress, double seconds) {
+        long processed = progress.processed();
+        Long previous = lastProcessed.put(entityType, processed);
+        long delta = processed - (previous == null ? 0 : previous);
+        if (delta <= 0) {
+            return null;
+        }
+        double rate = delta / seconds;
+        StringBuilder line = new StringBuilder("Progress ").append(entityType).append(": ");
+        if (progress.getExpected() > 0) {
+            long remaining = Math.max(progress.getExpected() - processed, 0);
+            line.append(String.format(
+                    Locale.ROOT,
+                    "%d/%d (%d%%)",
+                    processed,
+                    progress.getExpected(),
+                    processed * 100 / progress.getExpected()));
+            line.append(
+                    String.format(Locale.ROOT, ", %.1f/s, ETA %s", rate, formatDuration((long) (remaining / rate))));
+        } else {
+            line.append(processed).append(String.format(Locale.ROOT, ", %.1f/s", rate));
+        }
+        if (progress.getFailed() > 0) {
+            line.append(", ").append(progress.getFailed()).append(" failed");
+        }
+        return line.toString();
+    }
+
+    private void logRepeatedFailures() {
+        runMetrics
+                .drainRepeatedFailures()
+                .forEach((cause, repeats) -> log.warn("{} more failures of {}", repeats, cause));
+    }
+
+    static String formatDuration(long seconds) {
+        if (seconds >= 3600) {
+            return String.format(Locale.ROOT, "%dh%02dm", seconds / 3600, seconds % 3600 / 60);
+        }
+        if (seconds >= 60) {
+            return String.format(Locale.ROOT, "%dm%02ds", seconds / 60, seconds % 60);
+        }
+        return seconds + "s";
+    }
+}
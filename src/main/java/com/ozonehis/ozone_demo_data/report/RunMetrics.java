@@ -0,0 +1,393 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.report;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Collects timings, request counts and failures while the tasks run. All methods are thread-safe and cheap enough to
+ * be called for every remote call.
+ */
+@Component
+public class RunMetrics {
+
+    /** Upper bound of failed entities kept for the report, the failed counters keep counting past it. */
+    static final int MAX_RECORDED_FAILURES = 1000;
+
+    /** Upper bound of distinct failure causes aggregated, later causes are aggregated as one. */
+    static final int MAX_FAILURE_CAUSES = 100;
+
+    private static final Pattern VARIABLE_PARTS =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}|\\d{5,}");
+
+    private final Instant startedAt = Instant.now();
+
+    private final Map<String, TaskTimer> tasks = new ConcurrentHashMap<>();
+
+    private final Map<String, PhaseAccumulator> phases = new ConcurrentHashMap<>();
+
+    private final Map<String, LatencyRecorder> calls = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder> completedEntities = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder> failedEntities = new ConcurrentHashMap<>();
+
+    private final Map<String, LongAdder> expectedEntities = new ConcurrentHashMap<>();
+
+    private final Map<String, FailureCause> failureCauses = new ConcurrentHashMap<>();
+
+    private final ConcurrentLinkedQueue<RunReport.FailedEntity> failures = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger recordedFailures = new AtomicInteger();
+
+    private volatile long startupMillis;
+
+    private final RunMetrics parent;
+
+    private final Map<String, RunMetrics> targets = new ConcurrentHashMap<>();
+
+    public RunMetrics() {
+        this(null);
+    }
+
+    private RunMetrics(RunMetrics parent) {
+        this.parent = parent;
+    }
+
+    /**
+     * Returns the metrics of a provisioning target, reported in their own section. The target's entity counts are
+     * also added to these metrics so that the totals cover all targets.
+     *
+     * @param name the target name
+     * @return the target's metrics
+     */
+    public RunMetrics target(String name) {
+        return targets.computeIfAbsent(name, key -> new RunMetrics(this));
+    }
+
+    /**
+     * Times a remote call and records it under the given call type, a call that throws is counted as an error.
+     *
+     * @param callType the call type, e.g. {@code keycloak.users.create}
+     * @param call     the call to execute
+     * @return the result of the call
+     */
+    public <T> T recordCall(String callType, Supplier<T> call) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = call.get();
+            success = true;
+            return result;
+        } finally {
+            recordCall(callType, System.nanoTime() - start, success);
+        }
+    }
+
+    public void recordCall(String callType, long nanos, boolean success) {
+        calls.computeIfAbsent(callType, key -> new LatencyRecorder()).record(nanos, success);
+    }
+
+    public void callRetried(String callType) {
+        calls.computeIfAbsent(callType, key -> new LatencyRecorder()).retried();
+    }
+
+    /**
+     * Starts timing a phase, the time is added to the phase when the returned timer is closed.
+     *
+     * @param phase the phase name, e.g. {@code keycloak.readiness-wait}
+     * @return the running timer
+     */
+    public PhaseTimer phase(String phase) {
+        PhaseAccumulator accumulator = phases.computeIfAbsent(phase, key -> new PhaseAccumulator());
+        long start = System.nanoTime();
+        return () -> accumulator.add(System.nanoTime() - start);
+    }
+
+    /**
+     * @param startupMillis time from JVM start until the application was ready to execute tasks
+     */
+    public void startupCompleted(long startupMillis) {
+        this.startupMillis = startupMillis;
+    }
+
+    public void taskStarted(String task) {
+        tasks.put(task, new TaskTimer(Instant.now()));
+    }
+
+    public void taskFinished(String task, boolean succeeded) {
+        TaskTimer timer = tasks.get(task);
+        if (timer != null) {
+            timer.finish(succeeded);
+        }
+    }
+
+    public void entityCompleted(String entityType) {
+        entityCompleted(entityType, 1);
+    }
+
+    public void entityCompleted(String entityType, long count) {
+        completedEntities.computeIfAbsent(entityType, key -> new LongAdder()).add(count);
+        if (parent != null) {
+            parent.entityCompleted(entityType, count);
+        }
+    }
+
+    /**
+     * Adds entities to the number expected to be processed, progress is reported against it.
+     */
+    public void entitiesExpected(String entityType, long count) {
+        expectedEntities.computeIfAbsent(entityType, key -> new LongAdder()).add(count);
+        if (parent != null) {
+            parent.entitiesExpected(entityType, count);
+        }
+    }
+
+    /**
+     * Records a failed entity. Failures are aggregated by entity type and cause, so that only the first failure of
+     * each cause needs to be logged in full and the repeated ones are summarized by {@link ProgressReporter}.
+     *
+     * @return whether this is the first failure of this entity type with this cause
+     */
+    public boolean entityFailed(String entityType, String entityId, String reason) {
+        countFailed(entityType);
+        if (recordedFailures.incrementAndGet() <= MAX_RECORDED_FAILURES) {
+            failures.add(new RunReport.FailedEntity(entityType, entityId, reason));
+        }
+        return countCause(entityType, reason);
+    }
+
+    /**
+     * Records entities that failed together, e.g. the entities of a rejected batch.
+     *
+     * @return whether this is the first failure of this entity type with this cause, in which case it is to be logged
+     */
+    public boolean entitiesFailed(String entityType, Collection<String> entityIds, String reason) {
+        boolean firstOfItsCause = false;
+        for (String entityId : entityIds) {
+            firstOfItsCause |= entityFailed(entityType, entityId, reason);
+        }
+        return firstOfItsCause;
+    }
+
+    private boolean countCause(String entityType, String reason) {
+        if (parent != null) {
+            return parent.countCause(entityType, reason);
+        }
+        String cause = reason == null ? "" : VARIABLE_PARTS.matcher(reason).replaceAll("#");
+        String key = entityType + ": " + cause;
+        if (failureCauses.size() >= MAX_FAILURE_CAUSES && !failureCauses.containsKey(key)) {
+            key = entityType + ": other causes";
+        }
+        boolean[] first = {false};
+        FailureCause failureCause = failureCauses.computeIfAbsent(key, ignored -> {
+            first[0] = true;
+            return new FailureCause(entityType, reason);
+        });
+        if (!first[0]) {
+            failureCause.repeats.increment();
+        }
+        return first[0];
+    }
+
+    private void countFailed(String entityType) {
+        failedEntities.computeIfAbsent(entityType, key -> new LongAdder()).increment();
+        if (parent != null) {
+            parent.countFailed(entityType);
+        }
+    }
+
+    /**
+     * @return the completed, failed and expected counts of each entity type, cheaper than a {@link #snapshot()}
+     */
+    public Map<String, EntityProgress> progress() {
+        Map<String, EntityProgress> progress = new TreeMap<>();
+        Set<String> types = new HashSet<>(completedEntities.keySet());
+        types.addAll(failedEntities.keySet());
+        types.addAll(expectedEntities.keySet());
+        types.forEach(type -> progress.put(
+                type,
+                new EntityProgress(
+                        sum(completedEntities.get(type)),
+                        sum(failedEntities.get(type)),
+                        sum(expectedEntities.get(type)))));
+        return progress;
+    }
+
+    /**
+     * Returns the failures repeating an already logged cause since the previous call, and resets their count.
+     *
+     * @return the number of repeats by first reason, prefixed with the entity type
+     */
+    public Map<String, Long> drainRepeatedFailures() {
+        Map<String, Long> repeated = new TreeMap<>();
+        failureCauses.values().forEach(cause -> {
+            long repeats = cause.repeats.sumThenReset();
+            if (repeats > 0) {
+                repeated.merge(cause.entityType + ": " + cause.firstReason, repeats, Long::sum);
+            }
+        });
+        return repeated;
+    }
+
+    /**
+     * @return a report of everything recorded so far
+     */
+    public RunReport snapshot() {
+        Instant finishedAt = Instant.now();
+        Duration duration = Duration.between(startedAt, finishedAt);
+
+        List<RunReport.TaskTiming> taskTimings = new ArrayList<>();
+        new TreeMap<>(tasks).forEach((name, timer) -> taskTimings.add(timer.toTiming(name, finishedAt)));
+
+        Map<String, RunReport.PhaseTiming> phaseTimings = new TreeMap<>();
+        phases.forEach((name, accumulator) -> phaseTimings.put(name, accumulator.toTiming()));
+
+        Map<String, RunReport.CallStats> callStats = new TreeMap<>();
+        calls.forEach((name, recorder) -> callStats.put(name, recorder.snapshot()));
+
+        double seconds = Math.max(duration.toMillis(), 1) / 1000.0;
+        Map<String, RunReport.EntityStats> entityStats = new TreeMap<>();
+        completedEntities.keySet().forEach(type -> entityStats.put(type, entityStats(type, seconds)));
+        failedEntities.keySet().forEach(type -> entityStats.put(type, entityStats(type, seconds)));
+
+        Map<String, RunReport> targetReports = new TreeMap<>();
+        targets.forEach((name, metrics) -> targetReports.put(name, metrics.snapshot()));
+
+        return RunReport.builder()
+                .startedAt(startedAt.toString())
+                .finishedAt(finishedAt.toString())
+                .durationMillis(duration.toMillis())
+                .startupMillis(startupMillis)
+                .tasks(taskTimings)
+                .phases(phaseTimings)
+                .calls(callStats)
+                .entities(entityStats)
+                .failures(Collections.unmodifiableList(new ArrayList<>(failures)))
+                .targets(targetReports)
+                .build();
+    }
+
+    private RunReport.EntityStats entityStats(String type, double seconds) {
+        long completed = sum(completedEntities.get(type));
+        return RunReport.EntityStats.builder()
+                .completed(completed)
+                .failed(sum(failedEntities.get(type)))
+                .perSecond(completed / seconds)
+                .build();
+    }
+
+    private static long sum(LongAdder adder) {
+        return adder == null ? 0 : adder.sum();
+    }
+
+    /**
+     * Progress of an entity type, the expected count is 0 if unknown.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public static class EntityProgress {
+
+        private final long completed;
+
+        private final long failed;
+
+        private final long expected;
+
+        public long processed() {
+            return completed + failed;
+        }
+    }
+
+    /**
+     * A running phase timer, closing it records the elapsed time.
+     */
+    @FunctionalInterface
+    public interface PhaseTimer extends AutoCloseable {
+
+        @Override
+        void close();
+    }
+
+    private static class FailureCause {
+
+        private final String entityType;
+
+        private final String firstReason;
+
+        private final LongAdder repeats = new LongAdder();
+
+        FailureCause(String entityType, String firstReason) {
+            this.entityType = entityType;
+            this.firstReason = firstReason;
+        }
+    }
+
+    private static class PhaseAccumulator {
+
+        private final LongAdder count = new LongAdder();
+
+        private final LongAdder nanos = new LongAdder();
+
+        void add(long elapsed) {
+            count.increment();
+            nanos.add(elapsed);
+        }
+
+        RunReport.PhaseTiming toTiming() {
+            return new RunReport.PhaseTiming(count.sum(), nanos.sum() / 1_000_000.0);
+        }
+    }
+
+    private static class TaskTimer {
+
+        private final Instant startedAt;
+
+        private volatile Instant finishedAt;
+
+        private volatile boolean succeeded;
+
+        TaskTimer(Instant startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        void finish(boolean succeeded) {
+            this.succeeded = succeeded;
+            this.finishedAt = Instant.now();
+        }
+
+        RunReport.TaskTiming toTiming(String name, Instant now) {
+            Instant end = finishedAt == null ? now : finishedAt;
+            return RunReport.TaskTiming.builder()
+                    .name(name)
+                    .startedAt(startedAt.toString())
+                    .finishedAt(finishedAt == null ? null : finishedAt.toString())
+                    .durationMillis(Duration.between(startedAt, end).toMillis())
+                    .succeeded(finishedAt != null && succeeded)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.report;
+
+import java.util.List;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Machine-readable summary of a run, written as JSON once all tasks have completed. Timestamps are ISO-8601 strings,
+ * durations are in milliseconds.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RunReport {
+
+    private String startedAt;
+
+    private String finishedAt;
+
+    private long durationMillis;
+
+    /** Time from JVM start until the application was ready to execute tasks. */
+    private long startupMillis;
+
+    private List<TaskTiming> tasks;
+
+    /** Accumulated time per phase, summed across threads when a phase runs concurrently. */
+    private Map<String, PhaseTiming> phases;
+
+    /** Request counts and latency percentiles per remote call type. */
+    private Map<String, CallStats> calls;
+
+    /** Completed and failed counts per entity type, e.g. {@code user} or {@code patient}. */
+    private Map<String, EntityStats> entities;
+
+    private List<FailedEntity> failures;
+
+    /** Reports of the additional provisioning targets, their entity counts are included in {@link #entities}. */
+    private Map<String, RunReport> targets;
+
+    /** Number of shards of a sharded run, 0 when the run is not sharded. */
+    private int shardCount;
+
+    /** Shards the report covers, the shard of the replica or every merged shard, see {@link RunReportMerger}. */
+    private List<Integer> shards;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TaskTiming {
+
+        private String name;
+
+        private String startedAt;
+
+        private String finishedAt;
+
+        private long durationMillis;
+
+        private boolean succeeded;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class PhaseTiming {
+
+        private long count;
+
+        private double totalMillis;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CallStats {
+
+        private long count;
+
+        private long errors;
+
+        /** Attempts that failed transiently and were retried, each retry is also counted as a call. */
+        private long retries;
+
+        private double p50Millis;
+
+        private double p95Millis;
+
+        private double p99Millis;
+
+        private double maxMillis;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EntityStats {
+
+        private long completed;
+
+        private long failed;
+
+        private double perSecond;
+    }
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class FailedEntity {
+
+        private String type;
+
+        private String id;
+
+        private String reason;
+    }
+}
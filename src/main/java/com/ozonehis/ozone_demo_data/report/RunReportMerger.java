@@ -0,0 +1,159 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.report;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Merges the reports of the replicas of a sharded run into one summary. Counts and accumulated times are added up and
+ * rates are computed again over the whole run, from the first start to the last finish. The latency percentiles of
+ * the replicas cannot be combined exactly, the merged ones are the highest of the replicas, an upper bound.
+ */
+public final class RunReportMerger {
+
+    private RunReportMerger() {}
+
+    /**
+     * @param reports the reports to merge, at least one
+     * @return the merged report
+     */
+    public static RunReport merge(List<RunReport> reports) {
+        if (reports.isEmpty()) {
+            throw new IllegalArgumentException("There are no reports to merge");
+        }
+        Instant startedAt = reports.stream()
+                .map(report -> Instant.parse(report.getStartedAt()))
+                .min(Instant::compareTo)
+                .get();
+        Instant finishedAt = reports.stream()
+                .map(report -> Instant.parse(report.getFinishedAt()))
+                .max(Instant::compareTo)
+                .get();
+        Duration duration = Duration.between(startedAt, finishedAt);
+        double seconds = Math.max(duration.toMillis(), 1) / 1000.0;
+
+        List<RunReport.TaskTiming> tasks = new ArrayList<>();
+        List<RunReport.FailedEntity> failures = new ArrayList<>();
+        Map<String, RunReport.PhaseTiming> phases = new TreeMap<>();
+        Map<String, RunReport.CallStats> calls = new TreeMap<>();
+        Map<String, RunReport.EntityStats> entities = new TreeMap<>();
+        Map<String, List<RunReport>> targets = new TreeMap<>();
+        TreeSet<Integer> shards = new TreeSet<>();
+        int shardCount = 0;
+        for (RunReport report : reports) {
+            String shard = report.getShards() != null && report.getShards().size() == 1
+                    ? "shard-" + report.getShards().get(0) + "/"
+                    : "";
+            for (RunReport.TaskTiming task : nullToEmpty(report.getTasks())) {
+                tasks.add(new RunReport.TaskTiming(
+                        shard + task.getName(),
+                        task.getStartedAt(),
+                        task.getFinishedAt(),
+                        task.getDurationMillis(),
+                        task.isSucceeded()));
+            }
+            for (RunReport.FailedEntity failure : nullToEmpty(report.getFailures())) {
+                if (failures.size() < RunMetrics.MAX_RECORDED_FAILURES) {
+                    failures.add(failure);
+                }
+            }
+            mergeInto(phases, report.getPhases(), RunReportMerger::merge);
+            mergeInto(calls, report.getCalls(), RunReportMerger::merge);
+            mergeInto(entities, report.getEntities(), RunReportMerger::merge);
+            if (report.getTargets() != null) {
+                report.getTargets().forEach((name, target) -> targets.computeIfAbsent(name, key -> new ArrayList<>())
+                        .add(target));
+            }
+            if (report.getShards() != null) {
+                shards.addAll(report.getShards());
+            }
+            shardCount = Math.max(shardCount, report.getShardCount());
+        }
+        entities.replaceAll((type, stats) -> RunReport.EntityStats.builder()
+                .completed(stats.getCompleted())
+                .failed(stats.getFailed())
+                .perSecond(stats.getCompleted() / seconds)
+                .build());
+
+        return RunReport.builder()
+                .startedAt(startedAt.toString())
+                .finishedAt(finishedAt.toString())
+                .durationMillis(duration.toMillis())
+                .startupMillis(reports.stream()
+                        .mapToLong(RunReport::getStartupMillis)
+                        .max()
+                        .getAsLong())
+                .tasks(tasks)
+                .phases(phases)
+                .calls(calls)
+                .entities(entities)
+                .failures(failures)
+                .targets(targets.entrySet().stream()
+                        .collect(Collectors.toMap(
+                                Map.Entry::getKey, entry -> merge(entry.getValue()), (a, b) -> a, TreeMap::new)))
+                .shardCount(shardCount)
+                .shards(new ArrayList<>(shards))
+                .build();
+    }
+
+    /**
+     * @return the shards missing from a merged report, empty if the report covers every shard
+     */
+    public static List<Integer> missingShards(RunReport report) {
+        List<Integer> missing = new ArrayList<>();
+        for (int shard = 0; shard < report.getShardCount(); shard++) {
+            if (report.getShards() == null || !report.getShards().contains(shard)) {
+                missing.add(shard);
+            }
+        }
+        return missing;
+    }
+
+    private static <T> void mergeInto(Map<String, T> merged, Map<String, T> values, BinaryOperator<T> merge) {
+        if (values != null) {
+            values.forEach((key, value) -> merged.merge(key, value, merge));
+        }
+    }
+
+    private static RunReport.PhaseTiming merge(RunReport.PhaseTiming first, RunReport.PhaseTiming second) {
+        return new RunReport.PhaseTiming(
+                first.getCount() + second.getCount(), first.getTotalMillis() + second.getTotalMillis());
+    }
+
+    private static RunReport.CallStats merge(RunReport.CallStats first, RunReport.CallStats second) {
+        return RunReport.CallStats.builder()
+                .count(first.getCount() + second.getCount())
+                .errors(first.getErrors() + second.getErrors())
+                .retries(first.getRetries() + second.getRetries())
+                .p50Millis(Math.max(first.getP50Millis(), second.getP50Millis()))
+                .p95Millis(Math.max(first.getP95Millis(), second.getP95Millis()))
+                .p99Millis(Math.max(first.getP99Millis(), second.getP99Millis()))
+                .maxMillis(Math.max(first.getMaxMillis(), second.getMaxMillis()))
+                .build();
+    }
+
+    private static RunReport.EntityStats merge(RunReport.EntityStats first, RunReport.EntityStats second) {
+        return RunReport.EntityStats.builder()
+                .completed(first.getCompleted() + second.getCompleted())
+                .failed(first.getFailed() + second.getFailed())
+                .build();
+    }
+
+    private static <T> Collection<T> nullToEmpty(Collection<T> values) {
+        return values == null ? List.of() : values;
+    }
+}
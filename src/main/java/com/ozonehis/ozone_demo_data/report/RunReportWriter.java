@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.report;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.config.ShardConfig;
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.stream.Collectors;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RunReportWriter {
+
+    @Setter
+    @Value("${run-report.path:}")
+    private String reportPath;
+
+    private final ObjectMapper objectMapper;
+
+    @Setter
+    @Autowired
+    private ShardConfig shardConfig = new ShardConfig();
+
+    /**
+     * Logs a one-line summary of the report and writes it as JSON to {@code run-report.path} when configured. The
+     * report of a sharded run records its shard and is written to a path of its own, e.g.
+     * {@code run-report-shard-1-of-4.json}, so that the replicas can share the directory the reports are merged from.
+     *
+     * @param report the report to write
+     */
+    public void write(RunReport report) {
+        if (shardConfig.isSharded()) {
+            report.setShardCount(shardConfig.getCount());
+            report.setShards(List.of(shardConfig.getIndex()));
+        }
+        log.info(
+                "Run finished in {} ms (startup {} ms). {}",
+                report.getDurationMillis(),
+                report.getStartupMillis(),
+                summarize(report));
+        if (report.getTargets() != null) {
+            report.getTargets().forEach((name, target) -> log.info("Target {}: {}", name, summarize(target)));
+        }
+
+        if (reportPath == null || reportPath.isBlank()) {
+            return;
+        }
+        writeTo(report, shardPath(reportPath));
+    }
+
+    /**
+     * Writes the report as JSON to the given path.
+     */
+    public void writeTo(RunReport report, String reportPath) {
+        try {
+            File file = new File(reportPath);
+            if (file.getParentFile() != null) {
+                file.getParentFile().mkdirs();
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(file, report);
+            log.info("Run report written to {}", file.getAbsolutePath());
+        } catch (IOException e) {
+            log.error("Failed to write run report to {}: {}", reportPath, e.getMessage(), e);
+        }
+    }
+
+    private String shardPath(String path) {
+        String name = new File(path).getName();
+        int extension = name.lastIndexOf('.');
+        if (extension <= 0) {
+            return path + shardConfig.suffix();
+        }
+        int at = path.length() - name.length() + extension;
+        return path.substring(0, at) + shardConfig.suffix() + path.substring(at);
+    }
+
+    private static String summarize(RunReport report) {
+        return report.getEntities().entrySet().stream()
+                .map(entry -> String.format(
+                        "%s: %d completed, %d failed (%.1f/s)",
+                        entry.getKey(),
+                        entry.getValue().getCompleted(),
+                        entry.getValue().getFailed(),
+                        entry.getValue().getPerSecond()))
+                .collect(Collectors.joining("; "));
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.server;
+
+import java.time.Instant;
+import java.util.Map;
+import lombok.Getter;
+
+/**
+ * A seeding request submitted in server mode. Timestamps are ISO-8601 strings, {@link #getCompleted()} and
+ * {@link #getFailed()} count the entities processed by this job per entity type.
+ */
+@Getter
+public class SeedingJob {
+
+    public enum Type {
+        USERS,
+        USER_CHANGES,
+        PATIENTS
+    }
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        SUCCEEDED,
+        FAILED
+    }
+
+    private final String id;
+
+    private final Type type;
+
+    private final Map<String, Object> parameters;
+
+    private final String submittedAt = Instant.now().toString();
+
+    private volatile Status status = Status.QUEUED;
+
+    private volatile String startedAt;
+
+    private volatile String finishedAt;
+
+    private volatile String error;
+
+    private volatile Map<String, Long> completed = Map.of();
+
+    private volatile Map<String, Long> failed = Map.of();
+
+    SeedingJob(String id, Type type, Map<String, Object> parameters) {
+        this.id = id;
+        this.type = type;
+        this.parameters = parameters;
+    }
+
+    void started() {
+        startedAt = Instant.now().toString();
+        status = Status.RUNNING;
+    }
+
+    void finished(Map<String, Long> completed, Map<String, Long> failed, String error) {
+        this.completed = completed;
+        this.failed = failed;
+        this.error = error;
+        finishedAt = Instant.now().toString();
+        status = error == null ? Status.SUCCEEDED : Status.FAILED;
+    }
+}
@@ -0,0 +1,251 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.server;
+
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.report.RunReport;
+import com.ozonehis.ozone_demo_data.service.DemoDataService;
+import com.ozonehis.ozone_demo_data.service.KeycloakUserService;
+import com.ozonehis.ozone_demo_data.service.UserChanges;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.ToLongFunction;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs the seeding jobs submitted in server mode. Jobs run one at a time in submission order on the services of the
+ * application context, so that their connection pools, tokens and realm metadata stay warm from one job to the next.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "server-mode.enabled", havingValue = "true")
+public class SeedingJobService {
+
+    private final ObjectProvider<KeycloakUserService> keycloakUserService;
+
+    private final ObjectProvider<DemoDataService> demoDataService;
+
+    private final RunMetrics runMetrics;
+
+    // Each job processes its entities on the services' own pools, running jobs concurrently would only compete for them
+    private final ExecutorService executor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("seeding-jobs-"));
+
+    private final Map<String, SeedingJob> jobs = new LinkedHashMap<>();
+
+    @Setter
+    @Value("${server-mode.job-history:100}")
+    private int jobHistory = 100;
+
+    @Setter
+    @Value("${server-mode.users-dir:}")
+    private String usersDir = "";
+
+    public SeedingJobService(
+            ObjectProvider<KeycloakUserService> keycloakUserService,
+            ObjectProvider<DemoDataService> demoDataService,
+            RunMetrics runMetrics) {
+        this.keycloakUserService = keycloakUserService;
+        this.demoDataService = demoDataService;
+        this.runMetrics = runMetrics;
+    }
+
+    public boolean isUserCreationEnabled() {
+        return keycloakUserService.getIfAvailable() != null;
+    }
+
+    public boolean isDemoDataEnabled() {
+        return demoDataService.getIfAvailable() != null;
+    }
+
+    /**
+     * @param usersJsonPath users file to load relative to {@code server-mode.users-dir}, the configured one if null
+     * @param refreshRealmMetadata whether to drop the realm roles and clients cached by previous jobs
+     * @throws IllegalArgumentException if the users file is not inside {@code server-mode.users-dir}
+     */
+    public SeedingJob submitUsers(String usersJsonPath, boolean refreshRealmMetadata) {
+        KeycloakUserService service = keycloakUserService.getObject();
+        String usersFile = usersJsonPath != null ? resolveUsersFile(usersJsonPath) : null;
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        if (usersJsonPath != null) {
+            parameters.put("usersJsonPath", usersJsonPath);
+        }
+        parameters.put("refreshRealmMetadata", refreshRealmMetadata);
+        return submit(SeedingJob.Type.USERS, parameters, () -> {
+            if (refreshRealmMetadata) {
+                service.clearRealmMetadataCache();
+            }
+            if (usersFile == null) {
+                service.createUsers();
+            } else {
+                service.createUsers(usersFile);
+            }
+        });
+    }
+
+    /**
+     * Queues the changes found in the users file, see {@link UsersFileWatcher}.
+     *
+     * @param onApplied called with the usernames of the users whose change failed once the job has run, all of them
+     *     when the job failed as a whole
+     */
+    public SeedingJob submitUserChanges(UserChanges changes, Consumer<Set<String>> onApplied) {
+        KeycloakUserService service = keycloakUserService.getObject();
+        Map<String, Object> parameters = new LinkedHashMap<>();
+        parameters.put("added", changes.getAdded().size());
+        parameters.put("modified", changes.getModified().size());
+        parameters.put("removed", changes.getRemoved().size());
+        return submit(SeedingJob.Type.USER_CHANGES, parameters, () -> {
+            Set<String> failed = changes.getUsernames();
+            try {
+                failed = service.applyUserChanges(changes);
+            } finally {
+                onApplied.accept(failed);
+            }
+        });
+    }
+
+    /**
+     * @param numberOfPatients number of demo patients to generate, the configured number if null
+     */
+    public SeedingJob submitPatients(Integer numberOfPatients) {
+        DemoDataService service = demoDataService.getObject();
+        int patients = numberOfPatients != null ? numberOfPatients : service.getNumberOfDemoPatients();
+        return submit(SeedingJob.Type.PATIENTS, Map.of("count", patients), () -> {
+            if (!service.generateDemoData(patients)) {
+                throw new IllegalStateException("OpenMRS is not available");
+            }
+        });
+    }
+
+    /**
+     * Resolves the users file against the users directory, following symbolic links so that neither {@code ..} nor a
+     * link can reach a file outside of it.
+     */
+    private String resolveUsersFile(String usersJsonPath) {
+        if (usersDir == null || usersDir.isBlank()) {
+            throw new IllegalArgumentException("usersJsonPath is not accepted unless server-mode.users-dir is set");
+        }
+        try {
+            Path directory = Path.of(usersDir).toRealPath();
+            Path usersFile = directory.resolve(usersJsonPath).toRealPath();
+            if (usersFile.startsWith(directory) && !usersFile.equals(directory)) {
+                return usersFile.toString();
+            }
+        } catch (IOException | RuntimeException e) {
+            log.debug("Rejected users file {}: {}", usersJsonPath, e.getMessage());
+        }
+        throw new IllegalArgumentException("usersJsonPath must name an existing file inside server-mode.users-dir");
+    }
+
+    public Optional<SeedingJob> getJob(String id) {
+        synchronized (jobs) {
+            return Optional.ofNullable(jobs.get(id));
+        }
+    }
+
+    /**
+     * @return the retained jobs, oldest first
+     */
+    public List<SeedingJob> getJobs() {
+        synchronized (jobs) {
+            return new ArrayList<>(jobs.values());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private SeedingJob submit(SeedingJob.Type type, Map<String, Object> parameters, Job action) {
+        SeedingJob job = new SeedingJob(UUID.randomUUID().toString(), type, parameters);
+        synchronized (jobs) {
+            jobs.put(job.getId(), job);
+            evictFinishedJobs();
+        }
+        log.info("Queued {} job {} with parameters {}", type, job.getId(), parameters);
+        executor.execute(() -> run(job, action));
+        return job;
+    }
+
+    private void run(SeedingJob job, Job action) {
+        String taskName = "SeedingJob[" + job.getType() + "]";
+        log.info("Starting {} job {}", job.getType(), job.getId());
+        // Jobs run one at a time, so the difference between two snapshots is what this job processed
+        Map<String, RunReport.EntityStats> before = runMetrics.snapshot().getEntities();
+        job.started();
+        runMetrics.taskStarted(taskName);
+        String error = null;
+        try {
+            action.run();
+        } catch (Exception e) {
+            log.error("{} job {} failed: {}", job.getType(), job.getId(), e.getMessage(), e);
+            // The details stay in the server logs, the job status is readable by every client of the server
+            error = job.getType() + " job failed, see the server logs";
+        } finally {
+            runMetrics.taskFinished(taskName, error == null);
+        }
+        Map<String, RunReport.EntityStats> after = runMetrics.snapshot().getEntities();
+        job.finished(
+                difference(before, after, RunReport.EntityStats::getCompleted),
+                difference(before, after, RunReport.EntityStats::getFailed),
+                error);
+        log.info("Finished {} job {} with status {}", job.getType(), job.getId(), job.getStatus());
+    }
+
+    private void evictFinishedJobs() {
+        Iterator<SeedingJob> iterator = jobs.values().iterator();
+        while (jobs.size() > jobHistory && iterator.hasNext()) {
+            SeedingJob.Status status = iterator.next().getStatus();
+            if (status == SeedingJob.Status.SUCCEEDED || status == SeedingJob.Status.FAILED) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static Map<String, Long> difference(
+            Map<String, RunReport.EntityStats> before,
+            Map<String, RunReport.EntityStats> after,
+            ToLongFunction<RunReport.EntityStats> count) {
+        Map<String, Long> difference = new HashMap<>();
+        after.forEach((type, stats) -> {
+            RunReport.EntityStats previous = before.get(type);
+            long delta = count.applyAsLong(stats) - (previous == null ? 0 : count.applyAsLong(previous));
+            if (delta > 0) {
+                difference.put(type, delta);
+            }
+        });
+        return difference;
+    }
+
+    @FunctionalInterface
+    private interface Job {
+
+        void run() throws Exception;
+    }
+}
@@ -0,0 +1,234 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * HTTP endpoints of server mode, served by the JDK's built-in HTTP server as the application has no servlet container:
+ * <ul>
+ *   <li>{@code POST /jobs/users[?usersJsonPath=...&refreshRealmMetadata=true]} queues user provisioning</li>
+ *   <li>{@code POST /jobs/patients[?count=N]} queues demo patient generation</li>
+ *   <li>{@code GET /jobs} and {@code GET /jobs/{id}} return the status of the queued jobs</li>
+ *   <li>{@code GET /report} returns the run report accumulated since startup</li>
+ *   <li>{@code GET /health} returns 200 once the server is up</li>
+ * </ul>
+ *
+ * <p>The server listens on the loopback interface unless {@code server-mode.address} says otherwise, and every endpoint
+ * but {@code /health} requires the {@code Authorization: Bearer <server-mode.token>} header. The server refuses to start
+ * without a token.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "server-mode.enabled", havingValue = "true")
+public class SeedingServer implements SmartLifecycle {
+
+    private final SeedingJobService seedingJobService;
+
+    private final RunMetrics runMetrics;
+
+    private final ObjectMapper objectMapper;
+
+    private final String address;
+
+    private final int port;
+
+    private final String token;
+
+    /** The server is registered whenever server mode was enabled when an AOT artifact was built. */
+    @Setter
+    @Value("${server-mode.enabled:false}")
+    private boolean autoStartup = true;
+
+    private HttpServer server;
+
+    private ExecutorService executor;
+
+    public SeedingServer(
+            SeedingJobService seedingJobService,
+            RunMetrics runMetrics,
+            ObjectMapper objectMapper,
+            @Value("${server-mode.address:127.0.0.1}") String address,
+            @Value("${server-mode.port:8090}") int port,
+            @Value("${server-mode.token:}") String token) {
+        this.seedingJobService = seedingJobService;
+        this.runMetrics = runMetrics;
+        this.objectMapper = objectMapper;
+        this.address = address;
+        this.port = port;
+        this.token = token;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (token == null || token.isBlank()) {
+            throw new IllegalStateException("Server mode requires server-mode.token to be set");
+        }
+        try {
+            server = HttpServer.create(new InetSocketAddress(address, port), 0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start server on " + address + ":" + port, e);
+        }
+        // Non-daemon threads keep the application running once the context has started
+        executor = Executors.newFixedThreadPool(2, new CustomizableThreadFactory("seeding-server-"));
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+        log.info("Server mode enabled, listening for seeding requests on {}:{}", address, getPort());
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return autoStartup;
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (server != null) {
+            server.stop(0);
+            executor.shutdown();
+            server = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return server != null;
+    }
+
+    /**
+     * @return the port the server listens on, which differs from the configured one when that is 0
+     */
+    public synchronized int getPort() {
+        return server != null ? server.getAddress().getPort() : port;
+    }
+
+    void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            String method = exchange.getRequestMethod();
+            String path = exchange.getRequestURI().getPath().replaceAll("/+$", "");
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            if (!path.equals("/health") && !isAuthorized(exchange)) {
+                respond(exchange, 401, Map.of("error", "Missing or invalid bearer token"));
+                return;
+            }
+            try {
+                route(exchange, method, path, query);
+            } catch (NumberFormatException e) {
+                respond(exchange, 400, Map.of("error", "Invalid number: " + e.getMessage()));
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, Map.of("error", e.getMessage()));
+            } catch (Exception e) {
+                log.error("Failed to handle {} {}: {}", method, path, e.getMessage(), e);
+                respond(exchange, 500, Map.of("error", "Internal error, see the server logs"));
+            }
+        }
+    }
+
+    private void route(HttpExchange exchange, String method, String path, Map<String, String> query)
+            throws IOException {
+        if (path.equals("/health")) {
+            respond(exchange, 200, Map.of("status", "UP"));
+        } else if (path.equals("/report") && method.equals("GET")) {
+            respond(exchange, 200, runMetrics.snapshot());
+        } else if (path.equals("/jobs") && method.equals("GET")) {
+            respond(exchange, 200, seedingJobService.getJobs());
+        } else if (path.equals("/jobs/users") && method.equals("POST")) {
+            if (!seedingJobService.isUserCreationEnabled()) {
+                respond(
+                        exchange,
+                        409,
+                        Map.of("error", "User creation is disabled, set keycloak.user-creation.enabled"));
+                return;
+            }
+            accepted(
+                    exchange,
+                    seedingJobService.submitUsers(
+                            query.get("usersJsonPath"), Boolean.parseBoolean(query.get("refreshRealmMetadata"))));
+        } else if (path.equals("/jobs/patients") && method.equals("POST")) {
+            if (!seedingJobService.isDemoDataEnabled()) {
+                respond(
+                        exchange,
+                        409,
+                        Map.of("error", "Demo data generation is disabled, set openmrs.demo-data.enabled"));
+                return;
+            }
+            String count = query.get("count");
+            Integer numberOfPatients = count != null ? Integer.valueOf(count) : null;
+            if (numberOfPatients != null && numberOfPatients < 1) {
+                respond(exchange, 400, Map.of("error", "count must be positive"));
+                return;
+            }
+            accepted(exchange, seedingJobService.submitPatients(numberOfPatients));
+        } else if (path.startsWith("/jobs/") && method.equals("GET")) {
+            var job = seedingJobService.getJob(path.substring("/jobs/".length()));
+            if (job.isPresent()) {
+                respond(exchange, 200, job.get());
+            } else {
+                respond(exchange, 404, Map.of("error", "Unknown job"));
+            }
+        } else {
+            respond(exchange, 404, Map.of("error", "Not found: " + method + " " + path));
+        }
+    }
+
+    private boolean isAuthorized(HttpExchange exchange) {
+        String authorization = exchange.getRequestHeaders().getFirst("Authorization");
+        return authorization != null
+                && MessageDigest.isEqual(
+                        authorization.getBytes(StandardCharsets.UTF_8),
+                        ("Bearer " + token).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void accepted(HttpExchange exchange, SeedingJob job) throws IOException {
+        exchange.getResponseHeaders().add("Location", "/jobs/" + job.getId());
+        respond(exchange, 202, job);
+    }
+
+    private void respond(HttpExchange exchange, int status, Object body) throws IOException {
+        byte[] bytes = objectMapper.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        exchange.getResponseBody().write(bytes);
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String parameter : rawQuery.split("&")) {
+            int separator = parameter.indexOf('=');
+            String name = separator < 0 ? parameter : parameter.substring(0, separator);
+            String value = separator < 0 ? "" : parameter.substring(separator + 1);
+            query.put(
+                    URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.service.UserChanges;
+import com.ozonehis.ozone_demo_data.service.UsersSnapshot;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+/**
+ * Watches the users file in server mode and queues the users added, modified or removed by each change, so that
+ * editing a few users of a large file only costs the requests for those users. The file as it is at startup is the
+ * baseline, provisioning it as a whole is left to {@code POST /jobs/users}. Users whose change failed keep their
+ * previous version in the snapshot, so that their change is queued again with the next change of the file.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(
+        name = {"server-mode.enabled", "keycloak.user-creation.enabled", "keycloak.users.watch.enabled"},
+        havingValue = "true")
+public class UsersFileWatcher implements SmartLifecycle {
+
+    private final SeedingJobService seedingJobService;
+
+    private final ObjectMapper objectMapper;
+
+    private final Path usersFile;
+
+    private final long debounceMillis;
+
+    /** The watcher is registered whenever its flags were enabled when an AOT artifact was built. */
+    @Setter
+    @Value("#{${server-mode.enabled:false} and ${keycloak.user-creation.enabled:false}"
+            + " and ${keycloak.users.watch.enabled:false}}")
+    private boolean autoStartup = true;
+
+    private UsersSnapshot snapshot;
+
+    private WatchService watchService;
+
+    private Thread watcherThread;
+
+    public UsersFileWatcher(
+            SeedingJobService seedingJobService,
+            ObjectMapper objectMapper,
+            @Value("${keycloak.users.json.path}") String usersJsonPath,
+            @Value("${keycloak.users.watch.debounce.millis:200}") long debounceMillis) {
+        this.seedingJobService = seedingJobService;
+        this.objectMapper = objectMapper;
+        this.usersFile = Path.of(usersJsonPath).toAbsolutePath().normalize();
+        this.debounceMillis = debounceMillis;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return autoStartup;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (!Files.isRegularFile(usersFile)) {
+            log.warn("Users file {} is not on the file system, changes to it are not watched", usersFile);
+            return;
+        }
+        try {
+            snapshot = readSnapshot();
+            watchService = usersFile.getFileSystem().newWatchService();
+            // Editors often replace the file rather than write to it, so the directory is watched for both
+            usersFile
+                    .getParent()
+                    .register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to watch users file " + usersFile, e);
+        }
+        watcherThread = new Thread(this::watch, "users-file-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        log.info("Watching {} ({} users) for changes", usersFile, snapshot.size());
+    }
+
+    @Override
+    public synchronized void stop() {
+        if (watchService != null) {
+            try {
+                watchService.close();
+            } catch (IOException e) {
+                log.warn("Failed to close the users file watch service: {}", e.getMessage());
+            }
+            watcherThread.interrupt();
+            watchService = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return watchService != null;
+    }
+
+    private void watch() {
+        WatchService watching = watchService;
+        try {
+            while (true) {
+                WatchKey key = watching.take();
+                boolean changed = isUsersFileEvent(key);
+                if (!changed) {
+                    continue;
+                }
+                // Writes usually arrive as several events, wait for them to settle before reading the file
+                Thread.sleep(debounceMillis);
+                WatchKey pending;
+                while ((pending = watching.poll()) != null) {
+                    isUsersFileEvent(pending);
+                }
+                onChange();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Stopped watching {}", usersFile);
+        }
+    }
+
+    private boolean isUsersFileEvent(WatchKey key) {
+        boolean usersFileEvent = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            usersFileEvent |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                    || usersFile.getFileName().equals(event.context());
+        }
+        key.reset();
+        return usersFileEvent;
+    }
+
+    /**
+     * Compares the file with the previous snapshot and queues the differences, a file that cannot be parsed, e.g.
+     * because it is still being written, is skipped until its next change. Waits for the queued changes to be applied,
+     * the snapshot only moves on for the users whose change succeeded.
+     */
+    void onChange() throws InterruptedException {
+        long start = System.nanoTime();
+        UsersSnapshot current;
+        UserChanges changes;
+        try {
+            current = readSnapshot();
+            changes = current.changesSince(snapshot);
+        } catch (IOException e) {
+            log.warn("Failed to read users file {}, waiting for its next change: {}", usersFile, e.getMessage());
+            return;
+        }
+        log.info(
+                "Users file changed: {}, compared {} users in {} ms",
+                changes,
+                current.size(),
+                (System.nanoTime() - start) / 1_000_000);
+        if (changes.isEmpty()) {
+            snapshot = current;
+            return;
+        }
+        CompletableFuture<Set<String>> applied = new CompletableFuture<>();
+        seedingJobService.submitUserChanges(changes, applied::complete);
+        Set<String> failed;
+        try {
+            failed = applied.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to apply the user changes", e.getCause());
+        }
+        snapshot = current.revert(failed, snapshot);
+        if (!failed.isEmpty()) {
+            log.warn(
+                    "Changes of {} users failed, they are queued again with the next change of the file",
+                    failed.size());
+        }
+    }
+
+    private UsersSnapshot readSnapshot() throws IOException {
+        try (InputStream usersJson = Files.newInputStream(usersFile)) {
+            return UsersSnapshot.read(objectMapper, usersJson);
+        }
+    }
+}
@@ -0,0 +1,144 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
+import com.ozonehis.ozone_demo_data.config.WarmUpConfig;
+import com.ozonehis.ozone_demo_data.exceptions.DemoDataGenerationException;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.util.SystemAvailabilityChecker;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Warms up the caches of OpenMRS that the first users would otherwise fill: the concept dictionary, the Hibernate
+ * second-level caches, the patient search index and the metadata the frontend loads at login. Each configured endpoint
+ * is called {@code openmrs.warm-up.rounds} times, the endpoints of a round concurrently. The first call of each
+ * endpoint is recorded in the run report as the {@code openmrs.warm-up.<name>.cold} call type and the later ones as
+ * {@code openmrs.warm-up.<name>.warm}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(
+        name = {"openmrs.demo-data.enabled", "openmrs.warm-up.enabled"},
+        havingValue = "true")
+@RequiredArgsConstructor
+public class CacheWarmUpService {
+
+    private final DemoDataService demoDataService;
+
+    private final OpenmrsHttpClient openmrsHttpClient;
+
+    private final OpenmrsConfig openmrsConfig;
+
+    private final WarmUpConfig warmUpConfig;
+
+    private final SystemAvailabilityChecker systemAvailabilityChecker;
+
+    private final RunMetrics runMetrics;
+
+    /**
+     * @return the latencies of the endpoints by name, in the configured order
+     */
+    public Map<String, EndpointLatency> warmUp() {
+        try (var ignored = runMetrics.phase("openmrs.readiness-wait")) {
+            if (!systemAvailabilityChecker.waitForOpenMRSAvailability()) {
+                throw new DemoDataGenerationException("OpenMRS is not available, the caches were not warmed up");
+            }
+        }
+        Map<String, String> endpoints = warmUpConfig.getEndpoints();
+        Map<String, EndpointLatency> latencies = new LinkedHashMap<>();
+        endpoints.keySet().forEach(name -> latencies.put(name, new EndpointLatency()));
+        if (endpoints.isEmpty()) {
+            return latencies;
+        }
+        int rounds = Math.max(1, warmUpConfig.getRounds());
+        log.info("Warming up {} OpenMRS endpoints in {} rounds", endpoints.size(), rounds);
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(warmUpConfig.getConcurrency(), endpoints.size())),
+                new CustomizableThreadFactory("openmrs-warm-up-"));
+        try (var ignored = runMetrics.phase("openmrs.warm-up")) {
+            for (int round = 0; round < rounds; round++) {
+                boolean cold = round == 0;
+                HttpHeaders headers = demoDataService.createAuthenticationHeaders();
+                List<CompletableFuture<Void>> calls = new ArrayList<>();
+                endpoints.forEach((name, path) -> calls.add(CompletableFuture.runAsync(
+                        () -> latencies.get(name).record(cold, call(name, path, cold, headers)), executor)));
+                CompletableFuture.allOf(calls.toArray(CompletableFuture[]::new)).join();
+            }
+        } finally {
+            executor.shutdown();
+        }
+        latencies.forEach((name, latency) -> log.info(
+                "Warmed up {}: {} ms cold, {} ms warm{}",
+                name,
+                String.format(Locale.ROOT, "%.1f", latency.getColdMillis()),
+                String.format(Locale.ROOT, "%.1f", latency.getWarmMillis()),
+                latency.getErrors() > 0 ? ", " + latency.getErrors() + " calls failed" : ""));
+        return latencies;
+    }
+
+    /**
+     * @return the latency of the call in nanoseconds, or -1 if it failed
+     */
+    private long call(String name, String path, boolean cold, HttpHeaders headers) {
+        String url = openmrsConfig.getUrl() + path;
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            OpenmrsHttpClient.await(openmrsHttpClient.getJson(url, headers));
+            success = true;
+        } catch (Exception e) {
+            if (cold) {
+                log.warn("Failed to warm up {} with {}: {}", name, url, e.getMessage());
+            }
+        }
+        long nanos = System.nanoTime() - start;
+        // Recorded without the retries of the remote call executor, so that the latency is the one of a single call
+        runMetrics.recordCall("openmrs.warm-up." + name + (cold ? ".cold" : ".warm"), nanos, success);
+        return success ? nanos : -1;
+    }
+
+    /**
+     * Latency of the first call of an endpoint and mean latency of the later ones.
+     */
+    @Getter
+    public static class EndpointLatency {
+
+        private double coldMillis;
+
+        private double warmMillis;
+
+        private int errors;
+
+        private int warmCalls;
+
+        synchronized void record(boolean cold, long nanos) {
+            if (nanos < 0) {
+                errors++;
+            } else if (cold) {
+                coldMillis = nanos / 1_000_000.0;
+            } else {
+                warmMillis = (warmMillis * warmCalls + nanos / 1_000_000.0) / ++warmCalls;
+            }
+        }
+    }
+}
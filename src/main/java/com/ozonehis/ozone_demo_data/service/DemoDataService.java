@@ -7,32 +7,48 @@
  */
 package com.ozonehis.ozone_demo_data.service;
 
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutors;
 import com.ozonehis.ozone_demo_data.config.KeycloakConfig;
 import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
 import com.ozonehis.ozone_demo_data.exceptions.AuthenticationException;
 import com.ozonehis.ozone_demo_data.exceptions.DemoDataGenerationException;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.util.InputFingerprint;
 import com.ozonehis.ozone_demo_data.util.SystemAvailabilityChecker;
+import jakarta.annotation.PreDestroy;
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.util.Base64;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import lombok.Getter;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
 import org.keycloak.OAuth2Constants;
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.KeycloakBuilder;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
 
 @Slf4j
 @Service
+@ConditionalOnProperty(name = "openmrs.demo-data.enabled", havingValue = "true")
 @RequiredArgsConstructor
 public class DemoDataService {
 
@@ -45,40 +61,191 @@ public class DemoDataService {
 
     private static final String SYSTEM_SETTING_ENDPOINT = "/ws/rest/v1/systemsetting";
 
+    private static final String PATIENT_COUNT_ENDPOINT = "/ws/fhir2/R4/Patient?_summary=count";
+
+    static final String CLIENT_GENERATOR = "client";
+
+    static final String FHIR_BUNDLE_GENERATOR = "fhir-bundle";
+
+    static final String FHIR_HISTORY_GENERATOR = "fhir-history";
+
+    static final String FINGERPRINT_PROPERTY = "ozone-demo-data.fingerprint";
+
+    static final String PURGE_PATIENTS = "purge";
+
+    static final String KEEP_PATIENTS = "none";
+
     private final SystemAvailabilityChecker systemAvailabilityChecker;
 
     private final RestTemplate restTemplate;
 
+    private final OpenmrsHttpClient openmrsHttpClient;
+
+    private final SyntheticPatientService syntheticPatientService;
+
     private final OpenmrsConfig openmrsConfig;
 
     private final KeycloakConfig keycloakConfig;
 
+    private final RunMetrics runMetrics;
+
+    private final RemoteCallExecutors remoteCalls;
+
+    @Setter
     @Value("${openmrs.oauth.enabled:false}")
     boolean oauthEnabled;
 
+    @Getter
+    @Setter
     @Value("${openmrs.demo.patients:" + DEFAULT_DEMO_PATIENTS + "}")
     int numberOfDemoPatients;
 
+    /**
+     * Generates the patients with the reference demo data module ({@code referencedemodata}) or within this application,
+     * sent one by one ({@code client}) or in FHIR transaction bundles ({@code fhir-bundle}), see
+     * {@link SyntheticPatientService}.
+     */
+    @Setter
+    @Value("${openmrs.demo.generator:referencedemodata}")
+    String generator;
+
+    /** Whether runs store and compare the fingerprint of the demo data inputs, see {@link #triggerDemoData()}. */
+    @Setter
+    @Value("${fingerprint.enabled:true}")
+    boolean fingerprintEnabled;
+
+    /**
+     * What teardown does with the synthetic patients: {@code void} voids them, {@code purge} deletes them from the
+     * database and {@code none} keeps them, see {@link #removeDemoData()}.
+     */
+    @Setter
+    @Value("${teardown.openmrs.patients:void}")
+    String teardownPatients;
+
     private boolean isDemoDataGenerated = false;
 
+    private Keycloak oauthClient;
+
     public synchronized void triggerDemoData() {
         if (isDemoDataGenerated) {
             log.info("Demo data already generated. Skipping.");
             return;
         }
+        // Unlike generation, the check does not wait for OpenMRS, if it is not up yet demo data is generated once it is
+        if (fingerprintEnabled
+                && systemAvailabilityChecker.isOpenMRSAvailable()
+                && readFingerprint()
+                        .filter(stored -> stored.isComplete(inputsFingerprint(), numberOfDemoPatients))
+                        .isPresent()) {
+            log.info("Demo data inputs are unchanged since the last successful run. Skipping demo data generation.");
+            isDemoDataGenerated = true;
+            return;
+        }
+        isDemoDataGenerated = generateDemoData(numberOfDemoPatients);
+    }
+
+    /**
+     * Makes sure OpenMRS has at least the given number of patients of the generator, even when demo data was generated
+     * before. Only the missing patients are generated when they can be counted, see {@link #countDemoPatients()}.
+     *
+     * <p>The patients of the current inputs are numbered from the first index of the stored fingerprint. When the
+     * inputs changed since the stored fingerprint, e.g. the generator or its seed, the patients of the previous inputs
+     * do not count and the patients of the new inputs are numbered after them.
+     *
+     * @return {@code false} if OpenMRS did not become available
+     */
+    public synchronized boolean generateDemoData(int numberOfDemoPatients) {
         try {
-            if (!systemAvailabilityChecker.waitForOpenMRSAvailability()) {
-                log.error("OpenMRS is not available. Aborting demo data generation.");
-                return;
+            try (var ignored = runMetrics.phase("openmrs.readiness-wait")) {
+                if (!systemAvailabilityChecker.waitForOpenMRSAvailability()) {
+                    log.error("OpenMRS is not available. Aborting demo data generation.");
+                    return false;
+                }
             }
-            triggerDemoDataGeneration();
-            isDemoDataGenerated = true;
+            String inputs = inputsFingerprint();
+            Optional<StoredFingerprint> stored;
+            OptionalInt demoPatients;
+            try (var ignored = runMetrics.phase("openmrs.preflight")) {
+                stored = fingerprintEnabled ? readFingerprint() : Optional.empty();
+                demoPatients = countDemoPatients();
+            }
+            boolean inputsChanged =
+                    stored.isPresent() && !stored.get().getInputs().equals(inputs);
+            long firstIndex = inputsChanged
+                    ? demoPatients.orElse(0)
+                    : stored.map(StoredFingerprint::getFirstIndex).orElse(0L);
+            OptionalInt existingPatients = demoPatients.isPresent()
+                    ? OptionalInt.of((int) Math.max(0, demoPatients.getAsInt() - firstIndex))
+                    : OptionalInt.empty();
+            boolean complete = true;
+            if (existingPatients.isPresent() && existingPatients.getAsInt() >= numberOfDemoPatients) {
+                log.info(
+                        "OpenMRS already has {} demo patients, at least {} requested. Skipping demo data generation.",
+                        existingPatients.getAsInt(),
+                        numberOfDemoPatients);
+                updateCreateDemoPatientsOnNextStartupSetting();
+            } else {
+                int missingPatients = existingPatients.isPresent()
+                        ? numberOfDemoPatients - existingPatients.getAsInt()
+                        : numberOfDemoPatients;
+                if (inputsChanged) {
+                    // A run that fails part way resumes the patients of the new inputs instead of numbering after them
+                    storeFingerprint(new StoredFingerprint(inputs, firstIndex, OptionalInt.empty()));
+                }
+                try (var ignored = runMetrics.phase("openmrs.generation")) {
+                    complete = generatePatients(
+                            firstIndex + existingPatients.orElse(0), missingPatients, existingPatients.isEmpty());
+                }
+            }
+            if (fingerprintEnabled && complete) {
+                storeFingerprint(new StoredFingerprint(inputs, firstIndex, OptionalInt.of(numberOfDemoPatients)));
+            }
+            return true;
         } catch (Exception e) {
+            runMetrics.entityFailed("patient", "referencedemodata", e.getMessage());
             throw new DemoDataGenerationException("Failed to generate demo data", e);
         }
     }
 
-    @SuppressWarnings("unchecked")
+    /**
+     * Removes the patients generated by the client-side generators and resets the settings demo data generation left
+     * behind: the input fingerprint is cleared, so that the next run generates the demo data again, and with the
+     * reference demo data generator the module creates {@code openmrs.demo.patients} patients on the next startup
+     * again. The client-side generators leave the setting of the module alone. The patients are the ones with the
+     * identifiers of the indexes below the number of patients, the patients generated by the reference demo data module
+     * cannot be told apart from the others and are kept.
+     */
+    public synchronized void removeDemoData() {
+        try (var ignored = runMetrics.phase("openmrs.readiness-wait")) {
+            if (!systemAvailabilityChecker.waitForOpenMRSAvailability()) {
+                throw new DemoDataGenerationException("OpenMRS is not available, the demo data was not removed");
+            }
+        }
+        boolean clientSide = isClientSideGenerator();
+        if (KEEP_PATIENTS.equalsIgnoreCase(teardownPatients)) {
+            log.info("Keeping the demo patients");
+        } else if (!clientSide) {
+            log.warn("The patients of the {} generator cannot be told apart from the others, keeping them", generator);
+        } else {
+            // The synthetic patients are numbered from 0
+            int patients = countDemoPatients().orElse(numberOfDemoPatients);
+            try (var ignored = runMetrics.phase("openmrs.teardown")) {
+                syntheticPatientService.removePatients(
+                        0,
+                        patients,
+                        PURGE_PATIENTS.equalsIgnoreCase(teardownPatients),
+                        this::createAuthenticationHeaders);
+            }
+        }
+        if (!clientSide) {
+            // Every generator but the client-side ones hands generation over to the reference demo data module
+            putSystemSetting(CREATE_DEMO_PATIENTS_ON_NEXT_STARTUP_PROPERTY, String.valueOf(numberOfDemoPatients));
+        }
+        putSystemSetting(FINGERPRINT_PROPERTY, "");
+        isDemoDataGenerated = false;
+        log.info("Completed demo data removal");
+    }
+
     void updateCreateDemoPatientsOnNextStartupSetting() {
         try {
             // Get the system setting details
@@ -86,31 +253,26 @@ public class DemoDataService {
             headers.setContentType(MediaType.APPLICATION_JSON);
 
             // Get setting UUID
-            String settingUrl = openmrsConfig.getUrl() + SYSTEM_SETTING_ENDPOINT + "/?q="
-                    + CREATE_DEMO_PATIENTS_ON_NEXT_STARTUP_PROPERTY;
-            HttpEntity<Void> request = new HttpEntity<>(headers);
-
-            var response = restTemplate.exchange(settingUrl, HttpMethod.GET, request, Map.class);
-            if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
-                log.error("Failed to get {} system setting", CREATE_DEMO_PATIENTS_ON_NEXT_STARTUP_PROPERTY);
+            Optional<Map<String, Object>> setting =
+                    findSystemSetting(CREATE_DEMO_PATIENTS_ON_NEXT_STARTUP_PROPERTY, headers);
+            if (setting.isEmpty()) {
+                log.error(CREATE_DEMO_PATIENTS_ON_NEXT_STARTUP_PROPERTY + " system setting not found");
                 return;
             }
 
-            List<Map<String, Object>> results =
-                    (List<Map<String, Object>>) response.getBody().get("results");
-            if (results.isEmpty()) {
-                log.error(CREATE_DEMO_PATIENTS_ON_NEXT_STARTUP_PROPERTY + " system setting not found");
+            if ("0".equals(setting.get().get("value"))) {
+                log.debug("Demo data generation on the next startup is already disabled");
                 return;
             }
 
-            String uuid = (String) results.get(0).get("uuid");
+            String uuid = (String) setting.get().get("uuid");
             HttpEntity<Map<String, String>> updateRequest = new HttpEntity<>(Map.of("value", "0"), headers);
             String updateUrl = openmrsConfig.getUrl() + SYSTEM_SETTING_ENDPOINT + "/" + uuid;
 
-            restTemplate
-                    .exchange(updateUrl, HttpMethod.POST, updateRequest, String.class)
-                    .getStatusCode()
-                    .is2xxSuccessful();
+            call(
+                    "openmrs.systemsetting.update",
+                    true,
+                    () -> restTemplate.exchange(updateUrl, HttpMethod.POST, updateRequest, String.class));
 
             log.info("Successfully updated system setting to disable demo data generation on the next startup");
         } catch (Exception e) {
@@ -118,21 +280,281 @@ public class DemoDataService {
         }
     }
 
-    private void triggerDemoDataGeneration() {
+    /**
+     * @return a fingerprint that changes with the generator and, for the client-side generators, the settings the
+     *     generated patients depend on
+     */
+    String inputsFingerprint() {
+        return InputFingerprint.of(
+                "patients", generator, isClientSideGenerator() ? syntheticPatientService.inputFingerprint() : "");
+    }
+
+    private boolean isClientSideGenerator() {
+        return CLIENT_GENERATOR.equalsIgnoreCase(generator)
+                || FHIR_BUNDLE_GENERATOR.equalsIgnoreCase(generator)
+                || FHIR_HISTORY_GENERATOR.equalsIgnoreCase(generator);
+    }
+
+    /**
+     * @return the fingerprint stored in OpenMRS, empty if there is none, it cannot be read or it was stored by a
+     *     version that did not record the first index
+     */
+    Optional<StoredFingerprint> readFingerprint() {
+        try {
+            return findSystemSetting(FINGERPRINT_PROPERTY, createAuthenticationHeaders())
+                    .flatMap(setting -> StoredFingerprint.parse((String) setting.get("value")));
+        } catch (Exception e) {
+            log.warn("Failed to read the input fingerprint from OpenMRS: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    void storeFingerprint(StoredFingerprint fingerprint) {
+        try {
+            putSystemSetting(FINGERPRINT_PROPERTY, fingerprint.toString());
+            log.info("Stored input fingerprint {} in OpenMRS", fingerprint);
+        } catch (Exception e) {
+            log.warn(
+                    "Failed to store the input fingerprint in OpenMRS, the next run will generate demo data again: {}",
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * Creates or updates a system setting.
+     */
+    private void putSystemSetting(String property, String value) {
         HttpHeaders headers = createAuthenticationHeaders();
-        Map<String, Object> requestBody = createRequestBody();
+        Optional<Map<String, Object>> setting = findSystemSetting(property, headers);
+        String url = openmrsConfig.getUrl()
+                + SYSTEM_SETTING_ENDPOINT
+                + setting.map(existing -> "/" + existing.get("uuid")).orElse("");
+        HttpEntity<Map<String, String>> request = new HttpEntity<>(
+                setting.isPresent() ? Map.of("value", value) : Map.of("property", property, "value", value), headers);
+        // Creating the setting is not idempotent, a retry could fail on the setting created by a lost attempt
+        call(
+                setting.isPresent() ? "openmrs.systemsetting.update" : "openmrs.systemsetting.create",
+                setting.isPresent(),
+                () -> restTemplate.exchange(url, HttpMethod.POST, request, String.class));
+    }
 
-        HttpEntity<Map<String, Object>> request = new HttpEntity<>(requestBody, headers);
-        String generateDemoDataUrl = buildGenerateDemoDataUrl();
+    /**
+     * @return the system setting with the given property, the search also returns settings whose property merely
+     *     contains it
+     */
+    @SuppressWarnings("unchecked")
+    private Optional<Map<String, Object>> findSystemSetting(String property, HttpHeaders headers) {
+        String settingUrl = openmrsConfig.getUrl() + SYSTEM_SETTING_ENDPOINT + "/?q=" + property;
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+
+        var response = call(
+                "openmrs.systemsetting.get",
+                true,
+                () -> restTemplate.exchange(settingUrl, HttpMethod.GET, request, Map.class));
+        if (!response.getStatusCode().is2xxSuccessful() || response.getBody() == null) {
+            throw new DemoDataGenerationException("Failed to get " + property + " system setting");
+        }
 
-        ResponseEntity<String> response = restTemplate.postForEntity(generateDemoDataUrl, request, String.class);
+        List<Map<String, Object>> results =
+                (List<Map<String, Object>>) response.getBody().get("results");
+        return results.stream()
+                .filter(result ->
+                        result.get("property") == null || property.equalsIgnoreCase((String) result.get("property")))
+                .findFirst();
+    }
+
+    /**
+     * Counts the patients of the generator. The client-side generators count their own patients by identifier, see
+     * {@link SyntheticPatientService#countPatients}, unless the identifiers were reserved from idgen. The patients of
+     * the reference demo data module cannot be told apart from the others: none are counted while its
+     * {@code referencedemodata.createDemoPatientsOnNextStartup} setting shows that it did not generate them yet, else
+     * all the patients in OpenMRS are counted, as are they when the identifiers come from idgen.
+     *
+     * @return the number of patients of the generator, empty if it cannot be determined
+     */
+    OptionalInt countDemoPatients() {
+        if (isClientSideGenerator()) {
+            OptionalLong patients;
+            try {
+                patients = syntheticPatientService.countPatients(this::createAuthenticationHeaders);
+            } catch (Exception e) {
+                log.warn("Could not count the patients of the {} generator: {}", generator, e.getMessage());
+                return OptionalInt.empty();
+            }
+            if (patients.isPresent()) {
+                log.info("OpenMRS has {} patients of the {} generator", patients.getAsLong(), generator);
+                return OptionalInt.of(Math.toIntExact(patients.getAsLong()));
+            }
+        } else if (isGenerationPendingOnStartup()) {
+            log.info("The reference demo data module did not generate its patients yet");
+            return OptionalInt.of(0);
+        }
+        return countExistingPatients();
+    }
+
+    /**
+     * @return whether {@code referencedemodata.createDemoPatientsOnNextStartup} asks the module for patients, which it
+     *     resets once it generated them
+     */
+    private boolean isGenerationPendingOnStartup() {
+        try {
+            Object value = findSystemSetting(
+                            CREATE_DEMO_PATIENTS_ON_NEXT_STARTUP_PROPERTY, createAuthenticationHeaders())
+                    .map(setting -> setting.get("value"))
+                    .orElse(null);
+            return value != null && Integer.parseInt(value.toString().trim()) > 0;
+        } catch (Exception e) {
+            log.warn(
+                    "Could not read {}, counting all the patients: {}",
+                    CREATE_DEMO_PATIENTS_ON_NEXT_STARTUP_PROPERTY,
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * @return the number of patients in OpenMRS, empty if it cannot be determined, e.g. when the FHIR module is not
+     *     installed
+     */
+    @SuppressWarnings("unchecked")
+    OptionalInt countExistingPatients() {
+        try {
+            HttpEntity<Void> request = new HttpEntity<>(createAuthenticationHeaders());
+            String countUrl = openmrsConfig.getUrl() + PATIENT_COUNT_ENDPOINT;
+            // A count-only search returns the total without any patient resources
+            var response = call(
+                    "openmrs.patients.count",
+                    true,
+                    () -> restTemplate.exchange(countUrl, HttpMethod.GET, request, Map.class));
+            Object total =
+                    response.getBody() == null ? null : response.getBody().get("total");
+            if (!response.getStatusCode().is2xxSuccessful() || !(total instanceof Number)) {
+                log.warn("Could not count the existing patients, status: {}", response.getStatusCode());
+                return OptionalInt.empty();
+            }
+            log.info("OpenMRS has {} patients", total);
+            return OptionalInt.of(((Number) total).intValue());
+        } catch (Exception e) {
+            log.warn("Could not count the existing patients: {}", e.getMessage());
+            return OptionalInt.empty();
+        }
+    }
+
+    /**
+     * @param firstIndex the index of the first synthetic patient, after the existing patients of the generator so that
+     *     identifiers are not repeated
+     * @param uncounted whether the existing patients could not be counted
+     * @return whether all the missing patients were generated
+     */
+    private boolean generatePatients(long firstIndex, int missingPatients, boolean uncounted) {
+        boolean bundles = FHIR_BUNDLE_GENERATOR.equalsIgnoreCase(generator);
+        boolean history = FHIR_HISTORY_GENERATOR.equalsIgnoreCase(generator);
+        if (bundles || history || CLIENT_GENERATOR.equalsIgnoreCase(generator)) {
+            if (uncounted) {
+                log.warn(
+                        "The existing patients could not be counted, synthetic patients are numbered from {}",
+                        firstIndex);
+            }
+            int created;
+            if (bundles) {
+                created = syntheticPatientService.createPatientsInBundles(
+                        firstIndex, missingPatients, this::createAuthenticationHeaders);
+            } else if (history) {
+                created = syntheticPatientService.createPatientsWithHistory(
+                        firstIndex, missingPatients, this::createAuthenticationHeaders);
+            } else {
+                created = syntheticPatientService.createPatients(
+                        firstIndex, missingPatients, this::createAuthenticationHeaders);
+            }
+            return created == missingPatients;
+        }
+        // Without a count OpenMRS is left to skip the patients that already exist
+        triggerDemoDataGeneration(missingPatients, uncounted);
+        runMetrics.entityCompleted("patient", missingPatients);
+        return true;
+    }
+
+    private void triggerDemoDataGeneration(int numberOfDemoPatients, boolean createIfNotExists) {
+        HttpHeaders headers = createAuthenticationHeaders();
+        // Progress is the growth of the number of patients, whether or not they were counted as demo patients
+        OptionalInt existingPatients =
+                openmrsConfig.getProgressIntervalMillis() > 0 ? countExistingPatients() : OptionalInt.empty();
+        Map<String, Object> requestBody = createRequestBody(numberOfDemoPatients, createIfNotExists);
+        String generateDemoDataUrl = buildGenerateDemoDataUrl();
+        Duration timeout = OpenmrsHttpClient.timeout(openmrsConfig.getGenerationTimeoutMillis());
+
+        // Generation creates patients, it is only retried when OpenMRS rejected it before processing. It can take up to
+        // the generation timeout, so it is left out of the concurrency limit of the other calls
+        remoteCalls
+                .openmrs()
+                .executeWithoutLimit(
+                        "openmrs.referencedemodata.generate",
+                        false,
+                        () -> awaitGeneration(
+                                openmrsHttpClient.post(generateDemoDataUrl, headers, requestBody, timeout),
+                                numberOfDemoPatients,
+                                existingPatients));
 
-        validateResponse(response);
         updateCreateDemoPatientsOnNextStartupSetting();
         log.info("Demo data generation completed successfully");
     }
 
-    HttpHeaders createAuthenticationHeaders() {
+    /**
+     * Waits for the generation to complete, logging the number of patients created so far at every progress interval, if
+     * there is one.
+     *
+     * @return the response status of the generation
+     */
+    private int awaitGeneration(
+            CompletableFuture<Integer> generation, int numberOfDemoPatients, OptionalInt existingPatients) {
+        while (true) {
+            try {
+                long progressInterval = openmrsConfig.getProgressIntervalMillis();
+                return progressInterval > 0
+                        ? generation.get(progressInterval, TimeUnit.MILLISECONDS)
+                        : generation.get();
+            } catch (TimeoutException e) {
+                logGenerationProgress(numberOfDemoPatients, existingPatients);
+            } catch (InterruptedException e) {
+                generation.cancel(true);
+                Thread.currentThread().interrupt();
+                throw new DemoDataGenerationException("Interrupted while waiting for demo data generation", e);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw new DemoDataGenerationException("Demo data generation failed", e.getCause());
+            }
+        }
+    }
+
+    /**
+     * Polls the patient count without waiting for it, a slow or failed poll only delays or drops a progress line.
+     */
+    private void logGenerationProgress(int numberOfDemoPatients, OptionalInt existingPatients) {
+        openmrsHttpClient
+                .getJson(openmrsConfig.getUrl() + PATIENT_COUNT_ENDPOINT, createAuthenticationHeaders())
+                .thenAccept(bundle -> {
+                    if (!(bundle.get("total") instanceof Number)) {
+                        return;
+                    }
+                    int total = ((Number) bundle.get("total")).intValue();
+                    if (existingPatients.isPresent()) {
+                        log.info(
+                                "Demo data generation in progress, {} of {} patients created",
+                                total - existingPatients.getAsInt(),
+                                numberOfDemoPatients);
+                    } else {
+                        log.info("Demo data generation in progress, OpenMRS has {} patients", total);
+                    }
+                })
+                .exceptionally(e -> {
+                    log.debug("Could not poll the demo data generation progress: {}", e.getMessage());
+                    return null;
+                });
+    }
+
+    public HttpHeaders createAuthenticationHeaders() {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
 
@@ -147,38 +569,61 @@ public class DemoDataService {
         return headers;
     }
 
-    private Keycloak openKeycloak() {
-        return KeycloakBuilder.builder()
-                .serverUrl(keycloakConfig.getServerUrl())
-                .realm(keycloakConfig.getRealm())
-                .grantType(OAuth2Constants.CLIENT_CREDENTIALS)
-                .clientId(openmrsConfig.getClientId())
-                .clientSecret(openmrsConfig.getClientSecret())
-                .build();
+    /**
+     * The client is kept for the lifetime of the service, its token manager reuses the access token until it expires.
+     */
+    private synchronized Keycloak oauthClient() {
+        if (oauthClient == null) {
+            oauthClient = KeycloakBuilder.builder()
+                    .serverUrl(keycloakConfig.getServerUrl())
+                    .realm(keycloakConfig.getRealm())
+                    .grantType(OAuth2Constants.CLIENT_CREDENTIALS)
+                    .clientId(openmrsConfig.getClientId())
+                    .clientSecret(openmrsConfig.getClientSecret())
+                    .build();
+        }
+        return oauthClient;
     }
 
     private String obtainOAuthToken() {
-        log.info("OAuth2 authentication enabled. Obtaining OAuth token...");
-        try (Keycloak keycloak = openKeycloak()) {
-            return keycloak.tokenManager().getAccessToken().getToken();
+        log.debug("OAuth2 authentication enabled. Obtaining OAuth token...");
+        try {
+            return oauthClient().tokenManager().getAccessTokenString();
         } catch (Exception e) {
             throw new AuthenticationException("Failed to obtain OAuth token", e);
-        } finally {
-            openKeycloak().close();
+        }
+    }
+
+    @PreDestroy
+    public synchronized void close() {
+        if (oauthClient != null) {
+            oauthClient.close();
+            oauthClient = null;
         }
     }
 
     private String obtainBasicAuthToken() {
-        log.info("Basic authentication enabled. Obtaining basic auth token...");
+        log.debug("Basic authentication enabled. Obtaining basic auth token...");
         return Base64.getEncoder()
                 .encodeToString((openmrsConfig.getUsername() + ":" + openmrsConfig.getPassword())
                         .getBytes(StandardCharsets.UTF_8));
     }
 
     Map<String, Object> createRequestBody() {
+        return createRequestBody(numberOfDemoPatients);
+    }
+
+    Map<String, Object> createRequestBody(int numberOfDemoPatients) {
+        return createRequestBody(numberOfDemoPatients, true);
+    }
+
+    /**
+     * @param createIfNotExists whether OpenMRS only creates the patients missing to reach the requested number
+     */
+    Map<String, Object> createRequestBody(int numberOfDemoPatients, boolean createIfNotExists) {
         Map<String, Object> requestBody = new HashMap<>();
         requestBody.put("numberOfDemoPatients", numberOfDemoPatients);
-        requestBody.put("createIfNotExists", true);
+        requestBody.put("createIfNotExists", createIfNotExists);
         return requestBody;
     }
 
@@ -186,10 +631,57 @@ public class DemoDataService {
         return openmrsConfig.getUrl() + GENERATE_DEMO_DATA_ENDPOINT;
     }
 
-    private void validateResponse(ResponseEntity<String> response) {
-        if (!response.getStatusCode().is2xxSuccessful()) {
-            throw new DemoDataGenerationException(
-                    "Demo data generation failed with status: " + response.getStatusCode());
+    private <T> T call(String callType, boolean idempotent, Supplier<T> call) {
+        return remoteCalls.openmrs().execute(callType, idempotent, call);
+    }
+
+    /**
+     * Fingerprint stored in OpenMRS, the fingerprint of the inputs followed by the index of their first patient and,
+     * once they were all generated, the number of patients, e.g. {@code 3f2a...:50:50}.
+     */
+    @Getter
+    static final class StoredFingerprint {
+
+        private final String inputs;
+
+        private final long firstIndex;
+
+        private final OptionalInt patients;
+
+        StoredFingerprint(String inputs, long firstIndex, OptionalInt patients) {
+            this.inputs = inputs;
+            this.firstIndex = firstIndex;
+            this.patients = patients;
+        }
+
+        /**
+         * @return the stored fingerprint, empty if the value is not one, e.g. an empty value after a teardown
+         */
+        static Optional<StoredFingerprint> parse(String value) {
+            String[] parts = value == null ? new String[0] : value.split(":", -1);
+            if (parts.length != 3) {
+                return Optional.empty();
+            }
+            try {
+                return Optional.of(new StoredFingerprint(
+                        parts[0],
+                        Long.parseLong(parts[1]),
+                        parts[2].isEmpty() ? OptionalInt.empty() : OptionalInt.of(Integer.parseInt(parts[2]))));
+            } catch (NumberFormatException e) {
+                return Optional.empty();
+            }
+        }
+
+        /**
+         * @return whether the given number of patients of the inputs were all generated
+         */
+        boolean isComplete(String inputs, int patients) {
+            return this.inputs.equals(inputs) && this.patients.isPresent() && this.patients.getAsInt() == patients;
+        }
+
+        @Override
+        public String toString() {
+            return inputs + ":" + firstIndex + ":" + (patients.isPresent() ? patients.getAsInt() : "");
         }
     }
 }
@@ -0,0 +1,134 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+/**
+ * Identifiers reserved from an idgen source in blocks, so that creating a patient does not wait for a round trip to
+ * idgen. Identifiers are handed out from a lock-free queue, and the next block is reserved in the background once a
+ * quarter of a block is left, so that the creators only wait when they take identifiers faster than idgen reserves
+ * them. No more identifiers are reserved than the number of patients to create.
+ */
+@Slf4j
+class IdgenIdentifierPool implements AutoCloseable {
+
+    private final ConcurrentLinkedQueue<String> identifiers = new ConcurrentLinkedQueue<>();
+
+    private final AtomicInteger available = new AtomicInteger();
+
+    private final AtomicLong reserved = new AtomicLong();
+
+    private final AtomicReference<CompletableFuture<Void>> refill =
+            new AtomicReference<>(CompletableFuture.completedFuture(null));
+
+    private final ExecutorService refillExecutor =
+            Executors.newSingleThreadExecutor(new CustomizableThreadFactory("openmrs-idgen-"));
+
+    private final Reservation reservation;
+
+    private final int blockSize;
+
+    private final long total;
+
+    /**
+     * Reserves the first block right away.
+     *
+     * @param reservation reserves the given number of identifiers from idgen
+     * @param blockSize   the number of identifiers reserved at once
+     * @param total       the number of identifiers needed
+     */
+    IdgenIdentifierPool(Reservation reservation, int blockSize, long total) {
+        this.reservation = reservation;
+        this.blockSize = Math.max(1, blockSize);
+        this.total = total;
+        refill();
+    }
+
+    /**
+     * @return the next reserved identifier, waiting for a block when none is left
+     * @throws IllegalStateException when idgen cannot reserve identifiers or all the identifiers are handed out
+     */
+    String next() {
+        while (true) {
+            String identifier = identifiers.poll();
+            if (identifier != null) {
+                if (available.decrementAndGet() < blockSize / 4) {
+                    refill();
+                }
+                return identifier;
+            }
+            CompletableFuture<Void> pending = refill();
+            if (pending.isDone() && identifiers.isEmpty() && reserved.get() >= total) {
+                throw new IllegalStateException("All " + total + " identifiers reserved from idgen are used");
+            }
+            try {
+                pending.join();
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Failed to reserve identifiers from idgen: " + e.getMessage(), e);
+            }
+        }
+    }
+
+    /**
+     * Starts reserving the next block unless a block is being reserved or all the identifiers are reserved.
+     *
+     * @return the reservation in progress
+     */
+    private CompletableFuture<Void> refill() {
+        CompletableFuture<Void> current = refill.get();
+        if (!current.isDone() || reserved.get() >= total) {
+            return current;
+        }
+        CompletableFuture<Void> next = new CompletableFuture<>();
+        if (!refill.compareAndSet(current, next)) {
+            return refill.get();
+        }
+        int count = (int) Math.min(blockSize, total - reserved.get());
+        refillExecutor.execute(() -> {
+            try {
+                List<String> block = reservation.reserve(count);
+                if (block == null || block.isEmpty()) {
+                    throw new IllegalStateException("idgen returned no identifiers");
+                }
+                identifiers.addAll(block);
+                available.addAndGet(block.size());
+                reserved.addAndGet(block.size());
+                log.debug("Reserved {} identifiers from idgen, {} of {}", block.size(), reserved.get(), total);
+                next.complete(null);
+            } catch (Exception e) {
+                log.warn("Failed to reserve {} identifiers from idgen: {}", count, e.getMessage());
+                next.completeExceptionally(e);
+            }
+        });
+        return next;
+    }
+
+    @Override
+    public void close() {
+        refillExecutor.shutdownNow();
+    }
+
+    @FunctionalInterface
+    interface Reservation {
+
+        /**
+         * @return the reserved identifiers
+         */
+        List<String> reserve(int count) throws Exception;
+    }
+}
@@ -7,14 +7,39 @@
  */
 package com.ozonehis.ozone_demo_data.service;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.concurrency.FailureClassifier;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutors;
 import com.ozonehis.ozone_demo_data.config.KeycloakConfig;
+import com.ozonehis.ozone_demo_data.config.ShardConfig;
+import com.ozonehis.ozone_demo_data.report.ProgressReporter;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.util.InputFingerprint;
 import com.ozonehis.ozone_demo_data.util.SystemAvailabilityChecker;
+import jakarta.ws.rs.WebApplicationException;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.Setter;
@@ -23,17 +48,24 @@ import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.resource.RealmResource;
 import org.keycloak.admin.client.resource.UsersResource;
 import org.keycloak.representations.idm.ClientRepresentation;
+import org.keycloak.representations.idm.RealmRepresentation;
 import org.keycloak.representations.idm.RoleRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.core.io.ClassPathResource;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 
 @Slf4j
 @Service
+@ConditionalOnProperty(name = "keycloak.user-creation.enabled", havingValue = "true")
 @RequiredArgsConstructor
 public class KeycloakUserService {
 
+    static final String FINGERPRINT_ATTRIBUTE = "ozone-demo-data.fingerprint";
+
     @Setter
     @Value("${keycloak.users.json.path}")
     private String usersJsonPath;
@@ -46,6 +78,34 @@ public class KeycloakUserService {
 
     private final SystemAvailabilityChecker systemAvailabilityChecker;
 
+    private final RunMetrics runMetrics;
+
+    private final RemoteCallExecutors remoteCalls;
+
+    /** Whether runs store and compare the fingerprint of the users file, see {@link #createUsersIfChanged()}. */
+    @Setter
+    @Value("${fingerprint.enabled:true}")
+    private boolean fingerprintEnabled;
+
+    /** One in this many users is logged at DEBUG, progress is logged by {@link ProgressReporter} instead. */
+    @Setter
+    @Value("${logging.entity-sample-rate:100}")
+    private int logSampleRate;
+
+    private final AtomicLong loggedUsers = new AtomicLong();
+
+    /** The shard of a sharded run, only the users of this shard are created, updated and removed. */
+    @Setter
+    @Autowired
+    private ShardConfig shardConfig = new ShardConfig();
+
+    // Realm metadata is the same for every user, it is cached for the lifetime of the service
+    private final Map<String, RoleRepresentation> realmRoleCache = new ConcurrentHashMap<>();
+
+    private final Map<String, Optional<String>> clientCache = new ConcurrentHashMap<>();
+
+    private final Map<String, RoleRepresentation> clientRoleCache = new ConcurrentHashMap<>();
+
     @Data
     static class KeycloakUsers {
 
@@ -57,80 +117,373 @@ public class KeycloakUserService {
     }
 
     public void createUsers() throws IOException {
+        createUsers(usersJsonPath);
+    }
+
+    /**
+     * Creates the users listed in the given JSON file, which is looked up on the file system first and then on the
+     * classpath.
+     */
+    public void createUsers(String usersJsonPath) throws IOException {
         log.info("Starting user creation process from JSON file: {}", usersJsonPath);
-        if (!systemAvailabilityChecker.waitForKeycloakAvailability()) {
-            log.error("Keycloak is not available. Aborting user creation.");
-            return;
+        try (var ignored = runMetrics.phase("keycloak.readiness-wait")) {
+            if (!systemAvailabilityChecker.waitForKeycloakAvailability()) {
+                log.error("Keycloak is not available. Aborting user creation.");
+                return;
+            }
         }
 
-        KeycloakUsers users = loadUsersFromJson();
+        byte[] usersJson;
+        KeycloakUsers users;
+        try (var ignored = runMetrics.phase("keycloak.users-load")) {
+            usersJson = readUsersJson(usersJsonPath);
+            users = readOwnedUsers(usersJson);
+        }
         log.info("Found {} users to create", users.getUsers().size());
-        users.getUsers().forEach(this::createAndConfigureUser);
-        log.info("Completed user creation process");
+        runMetrics.entitiesExpected("user", users.getUsers().size());
+
+        AtomicInteger failedUsers = new AtomicInteger();
+        forEachInParallel(users.getUsers(), user -> {
+            if (!createAndConfigureUserSafely(user)) {
+                failedUsers.incrementAndGet();
+            }
+        });
+        log.info(
+                "Completed user creation process, final Keycloak concurrency limit: {}",
+                remoteCalls.keycloak().getLimiter().getLimit());
+        if (fingerprintEnabled && failedUsers.get() == 0) {
+            storeFingerprint(usersFingerprint(usersJson));
+        }
+    }
+
+    /**
+     * Creates the users of the configured users file, unless the realm holds the fingerprint of the same file from a
+     * previous successful run. The check does not wait for Keycloak, if it is not up yet the users are created once it
+     * is.
+     */
+    public void createUsersIfChanged() throws IOException {
+        if (fingerprintEnabled && systemAvailabilityChecker.isKeycloakAvailable()) {
+            String fingerprint = usersFingerprint(readUsersJson(usersJsonPath));
+            if (readFingerprint().filter(fingerprint::equals).isPresent()) {
+                log.info(
+                        "Users in {} are unchanged since the last successful run. Skipping user creation.",
+                        usersJsonPath);
+                return;
+            }
+        }
+        createUsers(usersJsonPath);
+    }
+
+    public void removeUsers() throws IOException {
+        removeUsers(usersJsonPath);
+    }
+
+    /**
+     * Deletes the users listed in the given users file from the realm, users that do not exist are skipped, and clears
+     * the fingerprint of the users file so that the next run creates them again.
+     */
+    public void removeUsers(String usersJsonPath) throws IOException {
+        log.info("Starting user removal process from JSON file: {}", usersJsonPath);
+        try (var ignored = runMetrics.phase("keycloak.readiness-wait")) {
+            if (!systemAvailabilityChecker.waitForKeycloakAvailability()) {
+                log.error("Keycloak is not available. Aborting user removal.");
+                return;
+            }
+        }
+        List<String> usernames;
+        try (var ignored = runMetrics.phase("keycloak.users-load")) {
+            usernames = readOwnedUsers(readUsersJson(usersJsonPath)).getUsers().stream()
+                    .map(UserRepresentation::getUsername)
+                    .collect(Collectors.toList());
+        }
+        log.info("Found {} users to remove", usernames.size());
+        runMetrics.entitiesExpected("removed-user", usernames.size());
+        try (var ignored = runMetrics.phase("keycloak.users-remove")) {
+            forEachInParallel(usernames, this::removeUserSafely);
+        }
+        if (fingerprintEnabled) {
+            storeFingerprint("");
+        }
+        log.info("Completed user removal process");
+    }
+
+    /**
+     * Applies the differences between two versions of the users file: added users are created, modified users are
+     * updated and removed users are deleted from the realm.
+     *
+     * @return the usernames of the users whose change failed
+     */
+    public Set<String> applyUserChanges(UserChanges changes) {
+        if (shardConfig.isSharded()) {
+            changes = new UserChanges(
+                    changes.getAdded().stream()
+                            .filter(user -> shardConfig.owns(user.getUsername()))
+                            .collect(Collectors.toList()),
+                    changes.getModified().stream()
+                            .filter(user -> shardConfig.owns(user.getCurrent().getUsername()))
+                            .collect(Collectors.toList()),
+                    changes.getRemoved().stream().filter(shardConfig::owns).collect(Collectors.toList()));
+        }
+        log.info("Applying user changes: {}", changes);
+        Set<String> failed = ConcurrentHashMap.newKeySet();
+        forEachInParallel(changes.getAdded(), user -> {
+            if (!createAndConfigureUserSafely(user)) {
+                failed.add(user.getUsername());
+            }
+        });
+        forEachInParallel(changes.getModified(), user -> {
+            if (!updateUserSafely(user)) {
+                failed.add(user.getCurrent().getUsername());
+            }
+        });
+        forEachInParallel(changes.getRemoved(), username -> {
+            if (!removeUserSafely(username)) {
+                failed.add(username);
+            }
+        });
+        log.info("Completed applying user changes: {}, {} failed", changes, failed.size());
+        return failed;
+    }
+
+    private <T> void forEachInParallel(List<T> items, Consumer<T> action) {
+        if (items.isEmpty()) {
+            return;
+        }
+        // Users are independent of each other, the limiter decides how many of them are in flight at once
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(keycloakConfig.getMaxConcurrency(), items.size())),
+                new CustomizableThreadFactory("keycloak-users-"));
+        try {
+            CompletableFuture.allOf(items.stream()
+                            .map(item -> CompletableFuture.runAsync(() -> action.accept(item), executor))
+                            .toArray(CompletableFuture[]::new))
+                    .join();
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    private boolean createAndConfigureUserSafely(UserRepresentation user) {
+        try {
+            return createAndConfigureUser(user);
+        } catch (Exception e) {
+            // Failures repeating a logged cause are summarized by the progress reporter
+            if (runMetrics.entityFailed("user", user.getUsername(), e.getMessage())) {
+                log.error("Failed to create and configure user {}: {}", user.getUsername(), e.getMessage(), e);
+            }
+            return false;
+        }
+    }
+
+    private boolean updateUserSafely(UserChanges.ModifiedUser user) {
+        String username = user.getCurrent().getUsername();
+        try {
+            updateUser(user.getPrevious(), user.getCurrent());
+            return true;
+        } catch (Exception e) {
+            if (runMetrics.entityFailed("user", username, e.getMessage())) {
+                log.error("Failed to update user {}: {}", username, e.getMessage(), e);
+            }
+            return false;
+        }
+    }
+
+    private boolean removeUserSafely(String username) {
+        try {
+            removeUser(username);
+            return true;
+        } catch (Exception e) {
+            if (runMetrics.entityFailed("removed-user", username, e.getMessage())) {
+                log.error("Failed to remove user {}: {}", username, e.getMessage(), e);
+            }
+            return false;
+        }
     }
 
     KeycloakUsers loadUsersFromJson() throws IOException {
+        return loadUsersFromJson(usersJsonPath);
+    }
+
+    KeycloakUsers loadUsersFromJson(String usersJsonPath) throws IOException {
+        return objectMapper.readValue(readUsersJson(usersJsonPath), KeycloakUsers.class);
+    }
+
+    /**
+     * Reads the users this replica creates, all of them unless the run is sharded. The users of other shards are only
+     * read as JSON trees to get their username, they are not bound to {@link UserRepresentation}.
+     */
+    KeycloakUsers readOwnedUsers(byte[] usersJson) throws IOException {
+        if (!shardConfig.isSharded()) {
+            return objectMapper.readValue(usersJson, KeycloakUsers.class);
+        }
+        List<UserRepresentation> owned = new ArrayList<>();
+        int skipped = 0;
+        try (JsonParser parser = objectMapper.createParser(usersJson)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                throw new IOException("The users file is not a JSON object");
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() != JsonToken.START_ARRAY || !"users".equals(field)) {
+                    parser.skipChildren();
+                    continue;
+                }
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    JsonNode user = parser.readValueAsTree();
+                    if (shardConfig.owns(user.path("username").asText(null))) {
+                        owned.add(objectMapper.treeToValue(user, UserRepresentation.class));
+                    } else {
+                        skipped++;
+                    }
+                }
+            }
+        }
+        log.info(
+                "{} owns {} users of the users file, skipping the {} users of other shards",
+                shardConfig,
+                owned.size(),
+                skipped);
+        KeycloakUsers users = new KeycloakUsers();
+        users.setUsers(owned);
+        return users;
+    }
+
+    byte[] readUsersJson(String usersJsonPath) throws IOException {
         log.debug("Loading users from JSON file: {}", usersJsonPath);
 
         // Try loading from external file system first
         File externalFile = new File(usersJsonPath);
         if (externalFile.exists()) {
             log.debug("Loading users from external file system");
-            return objectMapper.readValue(externalFile, KeycloakUsers.class);
+            return Files.readAllBytes(externalFile.toPath());
         }
 
         // Fallback to classpath resource
         log.debug("External file not found, loading from classpath");
         ClassPathResource resource = new ClassPathResource(usersJsonPath);
-        return objectMapper.readValue(resource.getInputStream(), KeycloakUsers.class);
+        try (InputStream usersJson = resource.getInputStream()) {
+            return usersJson.readAllBytes();
+        }
     }
 
-    void createAndConfigureUser(UserRepresentation user) {
-        log.info("Processing user creation for username: {}", user.getUsername());
-        Optional<String> userId = createKeycloakUser(user);
+    static String usersFingerprint(byte[] usersJson) {
+        return InputFingerprint.of("users", HexFormat.of().formatHex(InputFingerprint.sha256(usersJson)));
+    }
+
+    /**
+     * @return the fingerprint stored in the realm, empty if there is none or it cannot be read
+     */
+    Optional<String> readFingerprint() {
+        try {
+            Map<String, String> attributes = call(
+                            "keycloak.realm.get", () -> realmResource().toRepresentation())
+                    .getAttributes();
+            return Optional.ofNullable(attributes == null ? null : attributes.get(fingerprintAttribute()));
+        } catch (Exception e) {
+            log.warn("Failed to read the input fingerprint of realm {}: {}", keycloakConfig.getRealm(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * @return the realm attribute of the fingerprint, one per shard as each shard only creates its own users
+     */
+    String fingerprintAttribute() {
+        return FINGERPRINT_ATTRIBUTE + shardConfig.suffix();
+    }
+
+    void storeFingerprint(String fingerprint) {
+        try {
+            // Keycloak only updates the realm fields present in the representation
+            RealmRepresentation realm = new RealmRepresentation();
+            realm.setAttributes(Map.of(fingerprintAttribute(), fingerprint));
+            call("keycloak.realm.update", () -> realmResource().update(realm));
+            log.info("Stored input fingerprint {} in realm {}", fingerprint, keycloakConfig.getRealm());
+        } catch (Exception e) {
+            log.warn(
+                    "Failed to store the input fingerprint in realm {}, the next run will create the users again: {}",
+                    keycloakConfig.getRealm(),
+                    e.getMessage());
+        }
+    }
+
+    /**
+     * @return whether the user was created and configured
+     */
+    boolean createAndConfigureUser(UserRepresentation user) {
+        boolean sampled = sampled();
+        if (sampled) {
+            log.debug("Processing user creation for username: {}", user.getUsername());
+        }
+        Optional<String> userId;
+        try (var ignored = runMetrics.phase("keycloak.users-create")) {
+            userId = createKeycloakUser(user);
+        }
 
         if (userId.isPresent()) {
             log.debug("User {} created successfully with ID: {}", user.getUsername(), userId.get());
 
-            if (user.getRealmRoles() != null && !user.getRealmRoles().isEmpty()) {
-                log.debug(
-                        "Assigning {} realm roles to user {}",
-                        user.getRealmRoles().size(),
-                        user.getUsername());
-                assignRealmRoles(userId.get(), user.getRealmRoles());
-            }
+            try (var ignored = runMetrics.phase("keycloak.roles")) {
+                if (user.getRealmRoles() != null && !user.getRealmRoles().isEmpty()) {
+                    log.debug(
+                            "Assigning {} realm roles to user {}",
+                            user.getRealmRoles().size(),
+                            user.getUsername());
+                    assignRealmRoles(userId.get(), user.getRealmRoles());
+                }
 
-            if (user.getClientRoles() != null && !user.getClientRoles().isEmpty()) {
-                log.debug(
-                        "Assigning client roles from {} clients to user {}",
-                        user.getClientRoles().size(),
-                        user.getUsername());
-                assignClientRoles(userId.get(), user.getClientRoles());
+                if (user.getClientRoles() != null && !user.getClientRoles().isEmpty()) {
+                    log.debug(
+                            "Assigning client roles from {} clients to user {}",
+                            user.getClientRoles().size(),
+                            user.getUsername());
+                    assignClientRoles(userId.get(), user.getClientRoles());
+                }
             }
 
             if (user.getAttributes() != null && !user.getAttributes().isEmpty()) {
                 log.debug("Setting attributes for user {}", user.getUsername());
-                setUserAttributes(userId.get(), user.getAttributes());
+                try (var ignored = runMetrics.phase("keycloak.attributes")) {
+                    setUserAttributes(userId.get(), user.getAttributes());
+                }
             }
 
-            log.info("Successfully completed configuration for user: {}", user.getUsername());
+            runMetrics.entityCompleted("user");
+            if (sampled) {
+                log.debug("Successfully completed configuration for user: {}", user.getUsername());
+            }
+            return true;
         } else {
-            log.warn("Failed to create user: {}. Skipping role assignments", user.getUsername());
+            if (runMetrics.entityFailed("user", user.getUsername(), "User could not be created")) {
+                log.warn("Failed to create user: {}. Skipping role assignments", user.getUsername());
+            }
+            return false;
         }
     }
 
     Optional<String> createKeycloakUser(UserRepresentation userRep) {
         UsersResource usersResource = realmResource().users();
-        if (usersResource.search(userRep.getUsername()).isEmpty()) {
-            try (var response = usersResource.create(userRep)) {
-                if (response.getStatus() != 201) {
-                    log.error("Failed to create user: {}", userRep.getUsername());
-                    return Optional.empty();
+        if (call("keycloak.users.search", () -> usersResource.search(userRep.getUsername()))
+                .isEmpty()) {
+            int status = call("keycloak.users.create", () -> {
+                try (var response = usersResource.create(userRep)) {
+                    int createStatus = response.getStatus();
+                    if (FailureClassifier.isOverloadStatus(createStatus)) {
+                        // Surface overload as a failure so that the limiter backs off and the create is retried
+                        throw new WebApplicationException(createStatus);
+                    }
+                    return createStatus;
                 }
+            });
+            // A retried create may find the user created by an attempt whose response was lost
+            if (status != 201 && status != 409) {
+                log.error("Failed to create user: {}", userRep.getUsername());
+                return Optional.empty();
             }
         }
 
-        List<UserRepresentation> users = usersResource.search(userRep.getUsername());
+        List<UserRepresentation> users =
+                call("keycloak.users.search", () -> usersResource.search(userRep.getUsername()));
         if (users.isEmpty()) {
             log.error("User {} was not found after creation.", userRep.getUsername());
             return Optional.empty();
@@ -138,11 +491,96 @@ public class KeycloakUserService {
         return Optional.of(users.get(0).getId());
     }
 
+    /**
+     * Updates the profile, attributes and credentials of an existing user and applies the difference between the
+     * previous and current role lists. Roles granted outside the users file are left untouched.
+     */
+    void updateUser(UserRepresentation previous, UserRepresentation user) {
+        boolean sampled = sampled();
+        if (sampled) {
+            log.debug("Processing user update for username: {}", user.getUsername());
+        }
+        Optional<String> userId = findUserId(user.getUsername());
+        if (userId.isEmpty()) {
+            log.debug("User {} does not exist yet, creating it", user.getUsername());
+            createAndConfigureUser(user);
+            return;
+        }
+
+        try (var ignored = runMetrics.phase("keycloak.users-update")) {
+            UsersResource usersResource = realmResource().users();
+            UserRepresentation existing = call(
+                    "keycloak.users.get", () -> usersResource.get(userId.get()).toRepresentation());
+            existing.setFirstName(user.getFirstName());
+            existing.setLastName(user.getLastName());
+            existing.setEmail(user.getEmail());
+            existing.setEnabled(user.isEnabled());
+            existing.setEmailVerified(user.isEmailVerified());
+            existing.setAttributes(user.getAttributes());
+            existing.setCredentials(user.getCredentials());
+            call("keycloak.users.update", () -> usersResource.get(userId.get()).update(existing));
+        }
+
+        try (var ignored = runMetrics.phase("keycloak.roles")) {
+            assignRealmRoles(userId.get(), difference(user.getRealmRoles(), previous.getRealmRoles()));
+            removeRealmRoles(userId.get(), difference(previous.getRealmRoles(), user.getRealmRoles()));
+            assignClientRoles(userId.get(), difference(user.getClientRoles(), previous.getClientRoles()));
+            removeClientRoles(userId.get(), difference(previous.getClientRoles(), user.getClientRoles()));
+        }
+        runMetrics.entityCompleted("user");
+        if (sampled) {
+            log.debug("Successfully updated user: {}", user.getUsername());
+        }
+    }
+
+    void removeUser(String username) {
+        boolean sampled = sampled();
+        if (sampled) {
+            log.debug("Processing user removal for username: {}", username);
+        }
+        Optional<String> userId = findUserId(username);
+        if (userId.isEmpty()) {
+            log.debug("User {} does not exist, nothing to remove", username);
+            return;
+        }
+        int status = call("keycloak.users.delete", () -> {
+            try (var response = realmResource().users().delete(userId.get())) {
+                int deleteStatus = response.getStatus();
+                if (FailureClassifier.isOverloadStatus(deleteStatus)) {
+                    throw new WebApplicationException(deleteStatus);
+                }
+                return deleteStatus;
+            }
+        });
+        // A retried delete may find the user deleted by an attempt whose response was lost
+        if (status != 204 && status != 404) {
+            throw new IllegalStateException("Keycloak responded with status " + status);
+        }
+        runMetrics.entityCompleted("removed-user");
+        if (sampled) {
+            log.debug("Successfully removed user: {}", username);
+        }
+    }
+
+    /**
+     * @return whether the messages about the next user are logged, one in {@code logging.entity-sample-rate} users is
+     */
+    private boolean sampled() {
+        return log.isDebugEnabled() && loggedUsers.getAndIncrement() % Math.max(1, logSampleRate) == 0;
+    }
+
+    private Optional<String> findUserId(String username) {
+        return call("keycloak.users.search", () -> realmResource().users().searchByUsername(username, true)).stream()
+                .findFirst()
+                .map(UserRepresentation::getId);
+    }
+
     void setUserAttributes(String userId, Map<String, List<String>> attributes) {
         UsersResource usersResource = realmResource().users();
-        UserRepresentation user = usersResource.get(userId).toRepresentation();
+        UserRepresentation user =
+                call("keycloak.users.get", () -> usersResource.get(userId).toRepresentation());
         user.setAttributes(attributes);
-        usersResource.get(userId).update(user);
+        call("keycloak.users.update", () -> usersResource.get(userId).update(user));
         log.debug("Successfully set attributes for user ID: {}", userId);
     }
 
@@ -150,11 +588,11 @@ public class KeycloakUserService {
         if (realmRoles == null || realmRoles.isEmpty()) return;
 
         log.debug("Starting realm role assignment for user ID: {}", userId);
-        List<RoleRepresentation> roles = realmRoles.stream()
-                .map(roleName -> realmResource().roles().get(roleName).toRepresentation())
-                .toList();
+        List<RoleRepresentation> roles = realmRoles(realmRoles);
 
-        realmResource().users().get(userId).roles().realmLevel().add(roles);
+        call(
+                "keycloak.role-mappings.realm.add",
+                () -> realmResource().users().get(userId).roles().realmLevel().add(roles));
         log.debug("Successfully assigned {} realm roles to user ID: {}", roles.size(), userId);
     }
 
@@ -163,24 +601,150 @@ public class KeycloakUserService {
 
         log.debug("Starting client role assignment for user ID: {}", userId);
         clientRoles.forEach((clientId, roles) -> {
-            List<ClientRepresentation> clients = realmResource().clients().findByClientId(clientId);
-            if (clients.isEmpty()) {
+            Optional<String> client = clientUuid(clientId);
+            if (client.isEmpty()) {
                 log.warn("Client with ID {} not found. Skipping role assignment for this client.", clientId);
                 return;
             }
-            String client = clients.get(0).getId();
 
-            List<RoleRepresentation> clientRolesList = roles.stream()
-                    .map(roleName -> realmResource()
-                            .clients()
-                            .get(client)
-                            .roles()
-                            .get(roleName)
-                            .toRepresentation())
-                    .toList();
+            List<RoleRepresentation> clientRolesList = clientRoles(client.get(), roles);
 
-            realmResource().users().get(userId).roles().clientLevel(client).add(clientRolesList);
+            call("keycloak.role-mappings.client.add", () -> realmResource()
+                    .users()
+                    .get(userId)
+                    .roles()
+                    .clientLevel(client.get())
+                    .add(clientRolesList));
             log.debug("Successfully assigned {} roles for client {} to user ID: {}", roles.size(), clientId, userId);
         });
     }
+
+    void removeRealmRoles(String userId, List<String> realmRoles) {
+        if (realmRoles == null || realmRoles.isEmpty()) return;
+
+        List<RoleRepresentation> roles = realmRoles(realmRoles);
+        call(
+                "keycloak.role-mappings.realm.remove",
+                () -> realmResource().users().get(userId).roles().realmLevel().remove(roles));
+        log.debug("Successfully removed {} realm roles from user ID: {}", roles.size(), userId);
+    }
+
+    void removeClientRoles(String userId, Map<String, List<String>> clientRoles) {
+        if (clientRoles == null || clientRoles.isEmpty()) return;
+
+        clientRoles.forEach((clientId, roles) -> {
+            Optional<String> client = clientUuid(clientId);
+            if (client.isEmpty()) {
+                log.warn("Client with ID {} not found. Skipping role removal for this client.", clientId);
+                return;
+            }
+
+            List<RoleRepresentation> clientRolesList = clientRoles(client.get(), roles);
+
+            call("keycloak.role-mappings.client.remove", () -> realmResource()
+                    .users()
+                    .get(userId)
+                    .roles()
+                    .clientLevel(client.get())
+                    .remove(clientRolesList));
+            log.debug("Successfully removed {} roles for client {} from user ID: {}", roles.size(), clientId, userId);
+        });
+    }
+
+    private List<RoleRepresentation> realmRoles(List<String> roleNames) {
+        return roleNames.stream()
+                .map(roleName -> cached(
+                        realmRoleCache,
+                        roleName,
+                        () -> call(
+                                "keycloak.roles.get",
+                                () -> realmResource().roles().get(roleName).toRepresentation())))
+                .toList();
+    }
+
+    private Optional<String> clientUuid(String clientId) {
+        return cached(
+                clientCache,
+                clientId,
+                () -> call(
+                                "keycloak.clients.find",
+                                () -> realmResource().clients().findByClientId(clientId))
+                        .stream()
+                        .findFirst()
+                        .map(ClientRepresentation::getId));
+    }
+
+    private List<RoleRepresentation> clientRoles(String client, List<String> roleNames) {
+        return roleNames.stream()
+                .map(roleName -> cached(
+                        clientRoleCache,
+                        client + "/" + roleName,
+                        () -> call("keycloak.clients.roles.get", () -> realmResource()
+                                .clients()
+                                .get(client)
+                                .roles()
+                                .get(roleName)
+                                .toRepresentation())))
+                .toList();
+    }
+
+    private static List<String> difference(List<String> roles, List<String> excluded) {
+        if (roles == null) {
+            return List.of();
+        }
+        return roles.stream()
+                .filter(role -> excluded == null || !excluded.contains(role))
+                .toList();
+    }
+
+    private static Map<String, List<String>> difference(
+            Map<String, List<String>> clientRoles, Map<String, List<String>> excluded) {
+        if (clientRoles == null) {
+            return Map.of();
+        }
+        Map<String, List<String>> difference = new LinkedHashMap<>();
+        clientRoles.forEach((clientId, roles) -> {
+            List<String> remaining = difference(roles, excluded == null ? null : excluded.get(clientId));
+            if (!remaining.isEmpty()) {
+                difference.put(clientId, remaining);
+            }
+        });
+        return difference;
+    }
+
+    /**
+     * Drops the cached realm roles and clients, so that the next users pick up changes made to the realm meanwhile.
+     */
+    public void clearRealmMetadataCache() {
+        realmRoleCache.clear();
+        clientCache.clear();
+        clientRoleCache.clear();
+    }
+
+    /**
+     * Concurrent misses may both load the value, which is cheaper than holding a map lock during a remote call.
+     */
+    private static <T> T cached(Map<String, T> cache, String key, Supplier<T> loader) {
+        T value = cache.get(key);
+        if (value == null) {
+            value = loader.get();
+            cache.put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * All Keycloak calls made here are idempotent: lookups, PUT updates, role mapping additions and user creation, as a
+     * duplicate create is answered with 409 and then resolved by the lookup that follows.
+     */
+    private <T> T call(String callType, Supplier<T> call) {
+        return remoteCalls.keycloak().execute(callType, true, call);
+    }
+
+    private void call(String callType, Runnable call) {
+        call(callType, () -> {
+            call.run();
+            return null;
+        });
+    }
 }
@@ -0,0 +1,192 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.config.OdooConfig;
+import com.ozonehis.ozone_demo_data.exceptions.AuthenticationException;
+import com.ozonehis.ozone_demo_data.exceptions.OdooRpcException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * Odoo client for the JSON-RPC API at {@code /jsonrpc}, which every Odoo version since 8 serves. Calls go to the
+ * {@code common} service to log in and to the {@code object} service's {@code execute_kw} for model methods, with the
+ * password sent along each call instead of a session.
+ *
+ * <p>Error statuses throw the same exceptions {@code RestTemplate} throws, so that the failures are classified and
+ * retried the same way. Errors reported in the JSON-RPC response, e.g. a failed validation, throw an
+ * {@link OdooRpcException} and are never retried.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "odoo.seeding.enabled", havingValue = "true")
+public class OdooJsonRpcClient {
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final OdooConfig odooConfig;
+
+    private final AtomicLong requestIds = new AtomicLong();
+
+    @Autowired
+    public OdooJsonRpcClient(OdooConfig odooConfig, ObjectMapper objectMapper) {
+        this(httpClient(odooConfig), objectMapper, odooConfig);
+    }
+
+    OdooJsonRpcClient(HttpClient httpClient, ObjectMapper objectMapper, OdooConfig odooConfig) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.odooConfig = odooConfig;
+    }
+
+    /**
+     * @return the id of the configured user
+     * @throws AuthenticationException if Odoo rejects the credentials
+     */
+    public int login() {
+        Object uid = call(
+                "common",
+                "login",
+                List.of(odooConfig.getDatabase(), odooConfig.getUsername(), odooConfig.getPassword()));
+        if (!(uid instanceof Number)) {
+            // Odoo answers false instead of an error for wrong credentials
+            throw new AuthenticationException(
+                    "Failed to log in to Odoo database " + odooConfig.getDatabase() + " as " + odooConfig.getUsername(),
+                    null);
+        }
+        return ((Number) uid).intValue();
+    }
+
+    /**
+     * Calls a model method, e.g. {@code create} on {@code res.partner} with the list of the values of each record.
+     *
+     * @param uid    the id returned by {@link #login()}
+     * @param args   the positional arguments of the method
+     * @param kwargs the keyword arguments of the method
+     * @return the result of the method
+     */
+    public Object executeKw(int uid, String model, String method, List<?> args, Map<String, ?> kwargs) {
+        return call(
+                "object",
+                "execute_kw",
+                List.of(odooConfig.getDatabase(), uid, odooConfig.getPassword(), model, method, args, kwargs));
+    }
+
+    /**
+     * @return true if Odoo answers the version call
+     */
+    public boolean isAvailable() {
+        try {
+            call("common", "version", List.of());
+            return true;
+        } catch (Exception e) {
+            log.debug("Odoo is not available yet: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    Object call(String service, String method, List<?> args) {
+        Map<String, Object> params = new LinkedHashMap<>();
+        params.put("service", service);
+        params.put("method", method);
+        params.put("args", args);
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("jsonrpc", "2.0");
+        payload.put("method", "call");
+        payload.put("params", params);
+        payload.put("id", requestIds.incrementAndGet());
+
+        String url = odooConfig.getUrl() + "/jsonrpc";
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(url))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(payload)));
+        if (odooConfig.getRequestTimeoutMillis() > 0) {
+            request.timeout(Duration.ofMillis(odooConfig.getRequestTimeoutMillis()));
+        }
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Request to " + url + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OdooRpcException("Interrupted while calling " + service + "." + method, e);
+        }
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) {
+            String message = "Request to " + url + " failed with status " + status;
+            if (status >= 500) {
+                throw HttpServerErrorException.create(
+                        HttpStatusCode.valueOf(status), message, null, response.body(), StandardCharsets.UTF_8);
+            }
+            throw HttpClientErrorException.create(
+                    HttpStatusCode.valueOf(status), message, null, response.body(), StandardCharsets.UTF_8);
+        }
+        Map<String, Object> body;
+        try {
+            body = objectMapper.readValue(response.body(), Map.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid JSON-RPC response from " + url, e);
+        }
+        if (body.get("error") instanceof Map) {
+            throw new OdooRpcException(errorMessage(service, method, args, (Map<String, Object>) body.get("error")));
+        }
+        return body.get("result");
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String errorMessage(String service, String method, List<?> args, Map<String, Object> error) {
+        String call =
+                "object".equals(service) && args.size() > 4 ? args.get(3) + "." + args.get(4) : service + "." + method;
+        Object data = error.get("data");
+        if (data instanceof Map && ((Map<String, Object>) data).get("message") != null) {
+            // The name is the Python exception class, e.g. odoo.exceptions.ValidationError
+            return call + " failed with " + ((Map<String, Object>) data).get("name") + ": "
+                    + ((Map<String, Object>) data).get("message");
+        }
+        return call + " failed with " + error.get("message");
+    }
+
+    private byte[] toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize the JSON-RPC request", e);
+        }
+    }
+
+    private static HttpClient httpClient(OdooConfig odooConfig) {
+        HttpClient.Builder builder = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1);
+        if (odooConfig.getConnectTimeoutMillis() > 0) {
+            builder.connectTimeout(Duration.ofMillis(odooConfig.getConnectTimeoutMillis()));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,336 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutor;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutors;
+import com.ozonehis.ozone_demo_data.config.OdooConfig;
+import com.ozonehis.ozone_demo_data.exceptions.OdooRpcException;
+import com.ozonehis.ozone_demo_data.generator.DemographicDictionaries;
+import com.ozonehis.ozone_demo_data.generator.RandomStreams;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.util.SystemAvailabilityChecker;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Seeds Odoo with price lists, products and customers through its JSON-RPC API. Records are imported in batches of
+ * {@code odoo.batch-size} with a single {@code load} call per batch, several batches at a time. Odoo imports each batch
+ * in one transaction, a batch is either imported entirely or not at all.
+ *
+ * <p>Each seeded record is imported with an external ID in its {@code id} column, e.g.
+ * {@code ozone_demo_data.customer_42}, which Odoo registers along with the record. Before importing a batch, its
+ * external IDs are looked up in {@code ir.model.data} and the records that already exist are skipped, so that a run can
+ * be repeated or resumed after a failure without creating duplicates. Importing a record whose external ID exists
+ * updates it instead, which makes a repeated import of a batch harmless.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "odoo.seeding.enabled", havingValue = "true")
+public class OdooSeedingService {
+
+    static final String PRICE_LIST = "pricelist";
+
+    static final String PRODUCT = "product";
+
+    static final String CUSTOMER = "customer";
+
+    private static final String EXTERNAL_ID_MODEL = "ir.model.data";
+
+    private final OdooJsonRpcClient odooClient;
+
+    private final OdooConfig odooConfig;
+
+    private final SystemAvailabilityChecker systemAvailabilityChecker;
+
+    private final RunMetrics runMetrics;
+
+    private final RemoteCallExecutor remoteCall;
+
+    private final DemographicDictionaries dictionaries = DemographicDictionaries.builtIn();
+
+    @Autowired
+    public OdooSeedingService(
+            OdooJsonRpcClient odooClient,
+            OdooConfig odooConfig,
+            SystemAvailabilityChecker systemAvailabilityChecker,
+            RunMetrics runMetrics,
+            RemoteCallExecutors remoteCalls) {
+        this.odooClient = odooClient;
+        this.odooConfig = odooConfig;
+        this.systemAvailabilityChecker = systemAvailabilityChecker;
+        this.runMetrics = runMetrics;
+        this.remoteCall = remoteCalls.odoo();
+    }
+
+    /**
+     * Seeds the price lists, then the products and then the customers, which are assigned the price lists in turn.
+     *
+     * @return the number of records created by entity type, records that already existed are not counted
+     */
+    public Map<String, Integer> seed() {
+        try (var ignored = runMetrics.phase("odoo.readiness-wait")) {
+            if (!systemAvailabilityChecker.waitForOdooAvailability()) {
+                throw new OdooRpcException("Odoo is not available at " + odooConfig.getUrl() + ", it was not seeded");
+            }
+        }
+        int uid = remoteCall.execute("odoo.login", true, odooClient::login);
+        runMetrics.entitiesExpected(PRICE_LIST, odooConfig.getPriceLists());
+        runMetrics.entitiesExpected(PRODUCT, odooConfig.getProducts());
+        runMetrics.entitiesExpected(CUSTOMER, odooConfig.getCustomers());
+
+        Map<String, Integer> created = new LinkedHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, odooConfig.getMaxConcurrency()), new CustomizableThreadFactory("odoo-seeding-"));
+        try (var ignored = runMetrics.phase("odoo.seeding")) {
+            created.put(
+                    PRICE_LIST,
+                    seedRecords(
+                            uid,
+                            PRICE_LIST,
+                            "product.pricelist",
+                            odooConfig.getPriceLists(),
+                            this::priceList,
+                            executor));
+            created.put(
+                    PRODUCT,
+                    seedRecords(uid, PRODUCT, "product.product", odooConfig.getProducts(), this::product, executor));
+            List<String> priceLists = priceListExternalIds(uid);
+            created.put(
+                    CUSTOMER,
+                    seedRecords(
+                            uid,
+                            CUSTOMER,
+                            "res.partner",
+                            odooConfig.getCustomers(),
+                            index -> customer(index, priceLists),
+                            executor));
+        } finally {
+            executor.shutdown();
+        }
+        log.info(
+                "Seeded Odoo with {} price lists, {} products and {} customers",
+                created.get(PRICE_LIST),
+                created.get(PRODUCT),
+                created.get(CUSTOMER));
+        return created;
+    }
+
+    /**
+     * Imports the missing records from 0 to {@code count - 1}, one batch per thread of the executor at a time.
+     *
+     * @param values the import values of the record of an index by field, relational fields given by external ID in
+     *     their {@code field/id} column
+     * @return the number of records created
+     */
+    int seedRecords(
+            int uid,
+            String entityType,
+            String model,
+            int count,
+            IntFunction<Map<String, Object>> values,
+            ExecutorService executor) {
+        int batchSize = Math.max(1, odooConfig.getBatchSize());
+        List<CompletableFuture<Integer>> batches = new ArrayList<>();
+        for (int first = 0; first < count; first += batchSize) {
+            int from = first;
+            int to = Math.min(first + batchSize, count);
+            batches.add(
+                    CompletableFuture.supplyAsync(() -> seedBatch(uid, entityType, model, from, to, values), executor));
+        }
+        int created = batches.stream().mapToInt(CompletableFuture::join).sum();
+        log.info("Created {} Odoo {} records, {} already existed", created, entityType, count - created);
+        return created;
+    }
+
+    private int seedBatch(
+            int uid, String entityType, String model, int from, int to, IntFunction<Map<String, Object>> values) {
+        List<String> names = new ArrayList<>();
+        for (int index = from; index < to; index++) {
+            names.add(externalIdName(entityType, index));
+        }
+        try {
+            Map<String, Integer> existing = lookUpExternalIds(uid, model, names);
+            List<String> missingNames = new ArrayList<>();
+            List<Map<String, Object>> missingValues = new ArrayList<>();
+            for (int index = from; index < to; index++) {
+                String name = names.get(index - from);
+                if (!existing.containsKey(name)) {
+                    missingNames.add(name);
+                    missingValues.add(values.apply(index));
+                }
+            }
+            if (!missingNames.isEmpty()) {
+                load(uid, model, missingNames, missingValues);
+            }
+            runMetrics.entityCompleted(entityType, names.size());
+            log.debug("Seeded Odoo {} records {} to {}, {} created", entityType, from, to - 1, missingNames.size());
+            return missingNames.size();
+        } catch (Exception e) {
+            if (runMetrics.entitiesFailed(entityType, names, e.getMessage())) {
+                log.error("Failed to seed the Odoo {} records {} to {}: {}", entityType, from, to - 1, e.getMessage());
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * @return the ids of the records registered under the given external ID names of the model, by name
+     */
+    @SuppressWarnings("unchecked")
+    Map<String, Integer> lookUpExternalIds(int uid, String model, List<String> names) {
+        List<List<Object>> domain = List.of(
+                List.of("module", "=", odooConfig.getExternalIdModule()),
+                List.of("model", "=", model),
+                List.of("name", "in", names));
+        List<Map<String, Object>> records = (List<Map<String, Object>>) remoteCall.execute(
+                "odoo." + EXTERNAL_ID_MODEL + ".search_read",
+                true,
+                () -> odooClient.executeKw(
+                        uid,
+                        EXTERNAL_ID_MODEL,
+                        "search_read",
+                        List.of(domain),
+                        Map.of("fields", List.of("name", "res_id"))));
+        Map<String, Integer> ids = new HashMap<>();
+        for (Map<String, Object> record : records) {
+            ids.put((String) record.get("name"), ((Number) record.get("res_id")).intValue());
+        }
+        return ids;
+    }
+
+    /**
+     * Imports the records along with their external IDs with a single {@code load} call, which Odoo runs in one
+     * transaction: when any record is rejected, none is imported.
+     */
+    @SuppressWarnings("unchecked")
+    void load(int uid, String model, List<String> names, List<Map<String, Object>> values) {
+        List<String> fields = new ArrayList<>();
+        fields.add("id");
+        for (Map<String, Object> record : values) {
+            for (String field : record.keySet()) {
+                if (!fields.contains(field)) {
+                    fields.add(field);
+                }
+            }
+        }
+        List<List<String>> rows = new ArrayList<>();
+        for (int i = 0; i < names.size(); i++) {
+            List<String> row = new ArrayList<>();
+            row.add(odooConfig.getExternalIdModule() + "." + names.get(i));
+            for (String field : fields.subList(1, fields.size())) {
+                Object value = values.get(i).get(field);
+                row.add(value == null ? "" : String.valueOf(value));
+            }
+            rows.add(row);
+        }
+        // The rows carry their external IDs, importing them again updates the records instead of duplicating them
+        Map<String, Object> result = (Map<String, Object>) remoteCall.execute(
+                "odoo." + model + ".load",
+                true,
+                () -> odooClient.executeKw(uid, model, "load", List.of(fields, rows), Map.of()));
+        List<Map<String, Object>> messages = (List<Map<String, Object>>) result.getOrDefault("messages", List.of());
+        for (Map<String, Object> message : messages) {
+            if ("error".equals(message.get("type"))) {
+                throw new OdooRpcException(model + ".load failed: " + message.get("message"));
+            }
+        }
+        Object ids = result.get("ids");
+        if (!(ids instanceof List) || ((List<Object>) ids).size() != names.size()) {
+            throw new OdooRpcException("Odoo imported " + (ids instanceof List ? ((List<Object>) ids).size() : 0)
+                    + " of " + names.size() + " " + model + " records");
+        }
+    }
+
+    /**
+     * @return the external IDs of the seeded price lists, price lists that failed to be imported are left out
+     */
+    private List<String> priceListExternalIds(int uid) {
+        List<String> names = new ArrayList<>();
+        for (int index = 0; index < odooConfig.getPriceLists(); index++) {
+            names.add(externalIdName(PRICE_LIST, index));
+        }
+        if (names.isEmpty()) {
+            return List.of();
+        }
+        Map<String, Integer> ids = lookUpExternalIds(uid, "product.pricelist", names);
+        return names.stream()
+                .filter(ids::containsKey)
+                .map(name -> odooConfig.getExternalIdModule() + "." + name)
+                .toList();
+    }
+
+    Map<String, Object> priceList(int index) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("name", String.format(Locale.ROOT, "Demo Price List %d", index + 1));
+        // One global discount rule, imported along with the price list from the subfield columns of the same row
+        values.put("item_ids/applied_on", "3_global");
+        values.put("item_ids/compute_price", "percentage");
+        values.put("item_ids/percent_price", index % 5 * 5);
+        return values;
+    }
+
+    Map<String, Object> product(int index) {
+        SplittableRandom random = RandomStreams.of(odooConfig.getSeed(), "product", index);
+        String code = String.format(Locale.ROOT, "DEMO-%06d", index);
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("name", "Demo Product " + code);
+        values.put("default_code", code);
+        values.put("list_price", random.nextInt(100, 50_000) / 100.0);
+        values.put("sale_ok", true);
+        values.put("purchase_ok", true);
+        return values;
+    }
+
+    /**
+     * @param priceLists the external IDs of the price lists assigned to the customers in turn
+     */
+    Map<String, Object> customer(int index, List<String> priceLists) {
+        SplittableRandom random = RandomStreams.of(odooConfig.getSeed(), "customer", index);
+        String givenName = dictionaries
+                .get(
+                        random.nextBoolean()
+                                ? DemographicDictionaries.FEMALE_GIVEN_NAMES
+                                : DemographicDictionaries.MALE_GIVEN_NAMES)
+                .pick(random);
+        String familyName =
+                dictionaries.get(DemographicDictionaries.FAMILY_NAMES).pick(random);
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("name", givenName + " " + familyName);
+        values.put(
+                "email",
+                (givenName + "." + familyName).toLowerCase(Locale.ROOT).replaceAll("[^a-z.]", "") + "." + index
+                        + "@example.com");
+        values.put("phone", String.format(Locale.ROOT, "+1 555 %07d", index % 10_000_000));
+        values.put("street", dictionaries.get(DemographicDictionaries.STREETS).pick(random));
+        values.put("city", dictionaries.get(DemographicDictionaries.CITIES).pick(random));
+        values.put("customer_rank", 1);
+        if (!priceLists.isEmpty()) {
+            values.put("property_product_pricelist/id", priceLists.get(index % priceLists.size()));
+        }
+        return values;
+    }
+
+    static String externalIdName(String entityType, int index) {
+        return entityType + "_" + index;
+    }
+}
@@ -0,0 +1,211 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+
+/**
+ * Non-blocking OpenMRS client for calls that run for long or are polled while others are in flight. Requests are sent
+ * with {@link HttpClient#sendAsync}, so that no thread waits for the response, and each has its own timeout. Response
+ * bodies that are not needed are discarded as they arrive instead of being buffered.
+ *
+ * <p>Error statuses complete the returned future with the same exceptions {@code RestTemplate} throws, so that the
+ * failures are classified and retried the same way.
+ */
+@Component
+@ConditionalOnProperty(name = "openmrs.demo-data.enabled", havingValue = "true")
+public class OpenmrsHttpClient {
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final Duration requestTimeout;
+
+    @Autowired
+    public OpenmrsHttpClient(OpenmrsConfig openmrsConfig, ObjectMapper objectMapper) {
+        this(httpClient(openmrsConfig), objectMapper, timeout(openmrsConfig.getRequestTimeoutMillis()));
+    }
+
+    OpenmrsHttpClient(HttpClient httpClient, ObjectMapper objectMapper, Duration requestTimeout) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Posts the body as JSON and discards the response body. A {@code byte[]} body is sent as is.
+     *
+     * @param timeout the time allowed for the response, instead of the default request timeout, {@code null} for none
+     * @return the response status, or a failed future if it is not 2xx
+     */
+    public CompletableFuture<Integer> post(String url, HttpHeaders headers, Object body, Duration timeout) {
+        HttpRequest request = request(url, headers, timeout)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(body)))
+                .build();
+        return httpClient
+                .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> checkStatus(response, url).statusCode());
+    }
+
+    /**
+     * Posts the body as JSON and parses the JSON response body. The body of an error response is kept in the exception
+     * the future fails with, e.g. for the {@code OperationOutcome} of a failed FHIR request.
+     *
+     * @param timeout the time allowed for the response, instead of the default request timeout, {@code null} for none
+     * @return the JSON response body, or a failed future if the status is not 2xx
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Map<String, Object>> postJson(
+            String url, HttpHeaders headers, Object body, Duration timeout) {
+        HttpRequest request = request(url, headers, timeout)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(toJson(body)))
+                .build();
+        return httpClient
+                .sendAsync(request, HttpResponse.BodyHandlers.ofByteArray())
+                .thenApply(response -> {
+                    int status = response.statusCode();
+                    if (status < 200 || status >= 300) {
+                        throw statusException(status, url, response.body());
+                    }
+                    try {
+                        return (Map<String, Object>) objectMapper.readValue(response.body(), Map.class);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * @return the JSON response body, or a failed future if the status is not 2xx
+     */
+    @SuppressWarnings("unchecked")
+    public CompletableFuture<Map<String, Object>> getJson(String url, HttpHeaders headers) {
+        HttpRequest request = request(url, headers, requestTimeout).GET().build();
+        // The body is parsed from the stream, the failed responses are closed without reading it
+        return httpClient
+                .sendAsync(request, HttpResponse.BodyHandlers.ofInputStream())
+                .thenApply(response -> {
+                    try (InputStream body = checkStatus(response, url).body()) {
+                        return (Map<String, Object>) objectMapper.readValue(body, Map.class);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+    }
+
+    /**
+     * Sends a DELETE request and discards the response body.
+     *
+     * @return the response status, or a failed future if it is not 2xx
+     */
+    public CompletableFuture<Integer> delete(String url, HttpHeaders headers) {
+        HttpRequest request = request(url, headers, requestTimeout).DELETE().build();
+        return httpClient
+                .sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .thenApply(response -> checkStatus(response, url).statusCode());
+    }
+
+    /**
+     * Waits for a response, failing with the exception the request failed with instead of a
+     * {@link CompletionException} when it is unchecked.
+     */
+    public static <T> T await(CompletableFuture<T> response) {
+        try {
+            return response.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @param timeoutMillis the timeout in milliseconds, 0 or less for none
+     */
+    static Duration timeout(long timeoutMillis) {
+        return timeoutMillis > 0 ? Duration.ofMillis(timeoutMillis) : null;
+    }
+
+    private static HttpClient httpClient(OpenmrsConfig openmrsConfig) {
+        HttpClient.Builder builder = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1);
+        if (openmrsConfig.getConnectTimeoutMillis() > 0) {
+            builder.connectTimeout(Duration.ofMillis(openmrsConfig.getConnectTimeoutMillis()));
+        }
+        return builder.build();
+    }
+
+    private static HttpRequest.Builder request(String url, HttpHeaders headers, Duration timeout) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(url));
+        if (timeout != null) {
+            builder.timeout(timeout);
+        }
+        headers.forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+        return builder;
+    }
+
+    private static <T> HttpResponse<T> checkStatus(HttpResponse<T> response, String url) {
+        int status = response.statusCode();
+        if (status >= 200 && status < 300) {
+            return response;
+        }
+        if (response.body() instanceof InputStream) {
+            try {
+                ((InputStream) response.body()).close();
+            } catch (IOException ignored) {
+                // The connection is not reused
+            }
+        }
+        throw statusException(status, url, null);
+    }
+
+    private static HttpStatusCodeException statusException(int status, String url, byte[] body) {
+        String message = "Request to " + url + " failed with status " + status;
+        if (status >= 500) {
+            return HttpServerErrorException.create(
+                    HttpStatusCode.valueOf(status), message, null, body, StandardCharsets.UTF_8);
+        }
+        return HttpClientErrorException.create(
+                HttpStatusCode.valueOf(status), message, null, body, StandardCharsets.UTF_8);
+    }
+
+    private byte[] toJson(Object body) {
+        if (body instanceof byte[]) {
+            // Already serialized, e.g. replayed from the payload cache
+            return (byte[]) body;
+        }
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize the request body", e);
+        }
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutors;
+import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import com.ozonehis.ozone_demo_data.util.InputFingerprint;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Resolves the metadata the synthetic patients reference, e.g. {@code openmrs.patients.location.uuid}, when it is
+ * configured by name, as {@code name:<name>}, rather than by uuid. Each type of metadata is listed in a few paged
+ * requests rather than searched name by name, only concepts are searched as they are too many to list. The resolved
+ * uuids are kept in {@code openmrs.patients.metadata.cache-file} under a key made of the server URL and a checksum of
+ * the names looked up, so that a later run against the same server with the same names only fetches the cached uuids
+ * to check that they still exist, e.g. that OpenMRS was not rebuilt at the same URL since, rather than listing the
+ * metadata again.
+ */
+@Slf4j
+class OpenmrsMetadataResolver {
+
+    private static final String REST_ENDPOINT = "/ws/rest/v1/";
+
+    private static final int PAGE_SIZE = 100;
+
+    /** Prefix of the metadata given by name, e.g. {@code name:Outpatient Clinic}. */
+    static final String NAME_PREFIX = "name:";
+
+    private static final List<Reference> REFERENCES = List.of(
+            new Reference(
+                    "patientidentifiertype",
+                    PatientGeneratorConfig::getIdentifierTypeUuid,
+                    PatientGeneratorConfig::setIdentifierTypeUuid),
+            new Reference("location", PatientGeneratorConfig::getLocationUuid, PatientGeneratorConfig::setLocationUuid),
+            new Reference(
+                    "personattributetype",
+                    PatientGeneratorConfig::getPhoneAttributeTypeUuid,
+                    PatientGeneratorConfig::setPhoneAttributeTypeUuid),
+            new Reference(
+                    "personattributetype",
+                    PatientGeneratorConfig::getOccupationAttributeTypeUuid,
+                    PatientGeneratorConfig::setOccupationAttributeTypeUuid),
+            new Reference(
+                    "encountertype",
+                    PatientGeneratorConfig::getEncounterTypeUuid,
+                    PatientGeneratorConfig::setEncounterTypeUuid),
+            new Reference(
+                    "visittype", PatientGeneratorConfig::getVisitTypeUuid, PatientGeneratorConfig::setVisitTypeUuid),
+            new Reference(
+                    "concept",
+                    PatientGeneratorConfig::getWeightConceptUuid,
+                    PatientGeneratorConfig::setWeightConceptUuid));
+
+    private final OpenmrsHttpClient openmrsHttpClient;
+
+    private final OpenmrsConfig openmrsConfig;
+
+    private final ObjectMapper objectMapper;
+
+    private final RemoteCallExecutors remoteCalls;
+
+    private final Path cacheFile;
+
+    OpenmrsMetadataResolver(
+            OpenmrsHttpClient openmrsHttpClient,
+            OpenmrsConfig openmrsConfig,
+            ObjectMapper objectMapper,
+            RemoteCallExecutors remoteCalls,
+            Path cacheFile) {
+        this.openmrsHttpClient = openmrsHttpClient;
+        this.openmrsConfig = openmrsConfig;
+        this.objectMapper = objectMapper;
+        this.remoteCalls = remoteCalls;
+        this.cacheFile = cacheFile;
+    }
+
+    /**
+     * @return a copy of the configuration with the metadata given by name replaced by its uuid, or the configuration
+     *     itself when all the metadata is given by uuid
+     * @throws IllegalStateException when some metadata does not exist in OpenMRS
+     */
+    PatientGeneratorConfig resolve(PatientGeneratorConfig config, Supplier<HttpHeaders> headers) {
+        TreeSet<String> lookups = new TreeSet<>();
+        for (Reference reference : REFERENCES) {
+            String value = reference.getter.apply(config);
+            if (isName(value)) {
+                lookups.add(lookup(reference.resource, value));
+            }
+        }
+        if (lookups.isEmpty()) {
+            return config;
+        }
+        String key = InputFingerprint.of(openmrsConfig.getUrl(), lookups);
+        Map<String, String> uuids = readCache(key);
+        if (uuids.keySet().containsAll(lookups) && exist(uuids, lookups, headers)) {
+            log.info("Using {} cached metadata lookups of {}", lookups.size(), openmrsConfig.getUrl());
+        } else {
+            uuids = fetch(lookups, headers);
+            writeCache(key, uuids);
+        }
+        PatientGeneratorConfig resolved = config.copy();
+        for (Reference reference : REFERENCES) {
+            String value = reference.getter.apply(config);
+            if (isName(value)) {
+                reference.setter.accept(resolved, uuids.get(lookup(reference.resource, value)));
+            }
+        }
+        return resolved;
+    }
+
+    private Map<String, String> fetch(TreeSet<String> lookups, Supplier<HttpHeaders> headers) {
+        Map<String, String> uuids = new LinkedHashMap<>();
+        Map<String, Map<String, String>> uuidsByResource = new HashMap<>();
+        for (String lookup : lookups) {
+            int separator = lookup.indexOf(':');
+            String resource = lookup.substring(0, separator);
+            String name = lookup.substring(separator + 1);
+            String uuid = "concept".equals(resource)
+                    ? searchConcept(name, headers)
+                    : uuidsByResource
+                            .computeIfAbsent(resource, all -> listByName(resource, headers))
+                            .get(name);
+            if (uuid == null) {
+                throw new IllegalStateException("There is no " + resource + " named " + name + " in OpenMRS");
+            }
+            uuids.put(lookup, uuid);
+        }
+        log.info("Resolved {} metadata lookups of {}", lookups.size(), openmrsConfig.getUrl());
+        return uuids;
+    }
+
+    /**
+     * @return whether the metadata of each lookup still exists under its cached uuid
+     */
+    private boolean exist(Map<String, String> uuids, TreeSet<String> lookups, Supplier<HttpHeaders> headers) {
+        for (String lookup : lookups) {
+            String resource = lookup.substring(0, lookup.indexOf(':'));
+            try {
+                get(resource + "/" + uuids.get(lookup) + "?v=custom:(uuid)", headers);
+            } catch (HttpClientErrorException.NotFound e) {
+                log.info(
+                        "The cached {} uuid {} no longer exists, resolving the metadata again",
+                        resource,
+                        uuids.get(lookup));
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the uuids of all the metadata of the type by lower case name, read page by page
+     */
+    @SuppressWarnings("unchecked")
+    private Map<String, String> listByName(String resource, Supplier<HttpHeaders> headers) {
+        Map<String, String> uuids = new HashMap<>();
+        for (int startIndex = 0; ; startIndex += PAGE_SIZE) {
+            List<Map<String, Object>> results = (List<Map<String, Object>>)
+                    get(resource + "?v=custom:(uuid,name)&limit=" + PAGE_SIZE + "&startIndex=" + startIndex, headers)
+                            .getOrDefault("results", List.of());
+            results.forEach(result -> uuids.putIfAbsent(
+                    String.valueOf(result.get("name")).toLowerCase(Locale.ROOT), (String) result.get("uuid")));
+            if (results.size() < PAGE_SIZE) {
+                return uuids;
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private String searchConcept(String name, Supplier<HttpHeaders> headers) {
+        List<Map<String, Object>> results = (List<Map<String, Object>>)
+                get("concept?v=custom:(uuid,display)&q=" + URLEncoder.encode(name, StandardCharsets.UTF_8), headers)
+                        .getOrDefault("results", List.of());
+        // A search also returns concepts whose name merely contains the searched one
+        return results.stream()
+                .filter(result -> name.equalsIgnoreCase(String.valueOf(result.get("display"))))
+                .map(result -> (String) result.get("uuid"))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private Map<String, Object> get(String path, Supplier<HttpHeaders> headers) {
+        String url = openmrsConfig.getUrl() + REST_ENDPOINT + path;
+        HttpHeaders requestHeaders = headers.get();
+        return remoteCalls
+                .openmrs()
+                .execute(
+                        "openmrs.metadata.get",
+                        true,
+                        () -> OpenmrsHttpClient.await(openmrsHttpClient.getJson(url, requestHeaders)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, String> readCache(String key) {
+        if (cacheFile == null || !Files.isRegularFile(cacheFile)) {
+            return Map.of();
+        }
+        try {
+            Map<String, Object> cache = objectMapper.readValue(cacheFile.toFile(), Map.class);
+            if (!key.equals(cache.get("key")) || !(cache.get("uuids") instanceof Map)) {
+                log.info("The metadata cache {} is for other metadata or another server, ignoring it", cacheFile);
+                return Map.of();
+            }
+            return (Map<String, String>) cache.get("uuids");
+        } catch (IOException e) {
+            log.warn("Failed to read the metadata cache {}, ignoring it: {}", cacheFile, e.getMessage());
+            return Map.of();
+        }
+    }
+
+    /**
+     * Writes the cache through a temporary file, a failure only costs the lookups of the next run.
+     */
+    private void writeCache(String key, Map<String, String> uuids) {
+        if (cacheFile == null) {
+            return;
+        }
+        try {
+            Path directory = cacheFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temporary =
+                    Files.createTempFile(directory, cacheFile.getFileName().toString(), ".tmp");
+            objectMapper.writeValue(temporary.toFile(), Map.of("key", key, "uuids", uuids));
+            Files.move(temporary, cacheFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Failed to write the metadata cache {}: {}", cacheFile, e.getMessage());
+        }
+    }
+
+    private static boolean isName(String value) {
+        return value != null && value.startsWith(NAME_PREFIX);
+    }
+
+    private static String lookup(String resource, String name) {
+        return resource + ":" + name.substring(NAME_PREFIX.length()).trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static class Reference {
+
+        private final String resource;
+
+        private final Function<PatientGeneratorConfig, String> getter;
+
+        private final BiConsumer<PatientGeneratorConfig, String> setter;
+
+        Reference(
+                String resource,
+                Function<PatientGeneratorConfig, String> getter,
+                BiConsumer<PatientGeneratorConfig, String> setter) {
+            this.resource = resource;
+            this.getter = getter;
+            this.setter = setter;
+        }
+    }
+}
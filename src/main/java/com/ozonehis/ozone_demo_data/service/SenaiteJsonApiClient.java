@@ -0,0 +1,175 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.config.SenaiteConfig;
+import com.ozonehis.ozone_demo_data.exceptions.SenaiteException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * SENAITE client for the senaite.jsonapi routes under {@code @@API/senaite/v1}, authenticated with HTTP basic auth.
+ * Objects are listed a page at a time by portal type and created with the {@code create} route, which takes a list of
+ * records and creates them in a single request.
+ *
+ * <p>Error statuses throw the same exceptions {@code RestTemplate} throws, so that the failures are classified and
+ * retried the same way, with the message of the JSON API in the exception message.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "senaite.seeding.enabled", havingValue = "true")
+public class SenaiteJsonApiClient {
+
+    private static final String API_PATH = "/@@API/senaite/v1";
+
+    private final HttpClient httpClient;
+
+    private final ObjectMapper objectMapper;
+
+    private final SenaiteConfig senaiteConfig;
+
+    @Autowired
+    public SenaiteJsonApiClient(SenaiteConfig senaiteConfig, ObjectMapper objectMapper) {
+        this(httpClient(senaiteConfig), objectMapper, senaiteConfig);
+    }
+
+    SenaiteJsonApiClient(HttpClient httpClient, ObjectMapper objectMapper, SenaiteConfig senaiteConfig) {
+        this.httpClient = httpClient;
+        this.objectMapper = objectMapper;
+        this.senaiteConfig = senaiteConfig;
+    }
+
+    /**
+     * @param start the index of the first object of the page
+     * @param limit the maximum number of objects of the page
+     * @return the objects of the page, each with its {@code uid}, {@code title} and {@code path}
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> page(String portalType, int start, int limit) {
+        String path =
+                "/" + URLEncoder.encode(portalType, StandardCharsets.UTF_8) + "?limit=" + limit + "&b_start=" + start;
+        Map<String, Object> response = send(path, request(path).GET());
+        return (List<Map<String, Object>>) response.getOrDefault("items", List.of());
+    }
+
+    /**
+     * Creates the objects of the records in a single request, each record has the {@code portal_type} and
+     * {@code parent_path} of the object along with its field values.
+     *
+     * @return the created objects, in the order of the records
+     */
+    @SuppressWarnings("unchecked")
+    public List<Map<String, Object>> create(List<Map<String, Object>> records) {
+        Map<String, Object> response =
+                send("/create", request("/create").POST(HttpRequest.BodyPublishers.ofByteArray(toJson(records))));
+        return (List<Map<String, Object>>) response.getOrDefault("items", List.of());
+    }
+
+    /**
+     * @return true if SENAITE answers the version route
+     */
+    public boolean isAvailable() {
+        try {
+            send("/version", request("/version").GET());
+            return true;
+        } catch (Exception e) {
+            log.debug("SENAITE is not available yet: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    private HttpRequest.Builder request(String path) {
+        String credentials = senaiteConfig.getUsername() + ":" + senaiteConfig.getPassword();
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(senaiteConfig.getUrl() + API_PATH + path))
+                .header("Content-Type", "application/json")
+                .header(
+                        "Authorization",
+                        "Basic " + Base64.getEncoder().encodeToString(credentials.getBytes(StandardCharsets.UTF_8)));
+        if (senaiteConfig.getRequestTimeoutMillis() > 0) {
+            builder.timeout(Duration.ofMillis(senaiteConfig.getRequestTimeoutMillis()));
+        }
+        return builder;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<String, Object> send(String path, HttpRequest.Builder request) {
+        String url = senaiteConfig.getUrl() + API_PATH + path;
+        HttpResponse<byte[]> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Request to " + url + " failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SenaiteException("Interrupted while calling " + url, e);
+        }
+        int status = response.statusCode();
+        if (status < 200 || status >= 300) {
+            String message = "Request to " + url + " failed with status " + status + errorMessage(response.body());
+            if (status >= 500) {
+                throw HttpServerErrorException.create(
+                        HttpStatusCode.valueOf(status), message, null, response.body(), StandardCharsets.UTF_8);
+            }
+            throw HttpClientErrorException.create(
+                    HttpStatusCode.valueOf(status), message, null, response.body(), StandardCharsets.UTF_8);
+        }
+        try {
+            return objectMapper.readValue(response.body(), Map.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid JSON API response from " + url, e);
+        }
+    }
+
+    /**
+     * @return the message of a JSON API error response, e.g. a failed validation, or an empty string
+     */
+    private String errorMessage(byte[] body) {
+        try {
+            Object message = objectMapper.readValue(body, Map.class).get("message");
+            return message == null ? "" : ": " + message;
+        } catch (IOException e) {
+            // Not a JSON API error, e.g. a proxy error page
+            return "";
+        }
+    }
+
+    private byte[] toJson(Object body) {
+        try {
+            return objectMapper.writeValueAsBytes(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize the request body", e);
+        }
+    }
+
+    private static HttpClient httpClient(SenaiteConfig senaiteConfig) {
+        HttpClient.Builder builder = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1);
+        if (senaiteConfig.getConnectTimeoutMillis() > 0) {
+            builder.connectTimeout(Duration.ofMillis(senaiteConfig.getConnectTimeoutMillis()));
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,267 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutor;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutors;
+import com.ozonehis.ozone_demo_data.config.SenaiteConfig;
+import com.ozonehis.ozone_demo_data.exceptions.SenaiteException;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.util.SystemAvailabilityChecker;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntFunction;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Seeds SENAITE with sample types, clients and analysis services through its JSON API. The existing objects of each
+ * portal type are listed once into an index by title, and only the objects missing from it are created, in batches of
+ * {@code senaite.batch-size} records per create request, several batches at a time. Objects created by this run are
+ * added to the index, so that a run can be repeated or resumed after a failure without creating duplicates.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "senaite.seeding.enabled", havingValue = "true")
+public class SenaiteSeedingService {
+
+    static final String SAMPLE_TYPE = "sample-type";
+
+    static final String CLIENT = "lab-client";
+
+    static final String ANALYSIS_SERVICE = "analysis-service";
+
+    /** Number of existing objects listed per request while building the index. */
+    static final int PAGE_SIZE = 500;
+
+    private final SenaiteJsonApiClient senaiteClient;
+
+    private final SenaiteConfig senaiteConfig;
+
+    private final SystemAvailabilityChecker systemAvailabilityChecker;
+
+    private final RunMetrics runMetrics;
+
+    private final RemoteCallExecutor remoteCall;
+
+    @Autowired
+    public SenaiteSeedingService(
+            SenaiteJsonApiClient senaiteClient,
+            SenaiteConfig senaiteConfig,
+            SystemAvailabilityChecker systemAvailabilityChecker,
+            RunMetrics runMetrics,
+            RemoteCallExecutors remoteCalls) {
+        this.senaiteClient = senaiteClient;
+        this.senaiteConfig = senaiteConfig;
+        this.systemAvailabilityChecker = systemAvailabilityChecker;
+        this.runMetrics = runMetrics;
+        this.remoteCall = remoteCalls.senaite();
+    }
+
+    /**
+     * Seeds the sample types, then the clients and then the analysis services, which are assigned the configured
+     * analysis category.
+     *
+     * @return the number of objects created by entity type, objects that already existed are not counted
+     */
+    public Map<String, Integer> seed() {
+        try (var ignored = runMetrics.phase("senaite.readiness-wait")) {
+            if (!systemAvailabilityChecker.waitForSenaiteAvailability()) {
+                throw new SenaiteException(
+                        "SENAITE is not available at " + senaiteConfig.getUrl() + ", it was not seeded");
+            }
+        }
+        runMetrics.entitiesExpected(SAMPLE_TYPE, senaiteConfig.getSampleTypes());
+        runMetrics.entitiesExpected(CLIENT, senaiteConfig.getClients());
+        runMetrics.entitiesExpected(ANALYSIS_SERVICE, senaiteConfig.getAnalysisServices());
+
+        Map<String, Integer> created = new LinkedHashMap<>();
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, senaiteConfig.getMaxConcurrency()), new CustomizableThreadFactory("senaite-seeding-"));
+        try (var ignored = runMetrics.phase("senaite.seeding")) {
+            created.put(
+                    SAMPLE_TYPE,
+                    seedObjects(SAMPLE_TYPE, "SampleType", senaiteConfig.getSampleTypes(), this::sampleType, executor));
+            created.put(CLIENT, seedObjects(CLIENT, "Client", senaiteConfig.getClients(), this::client, executor));
+            if (senaiteConfig.getAnalysisServices() > 0) {
+                // Resolved last, so that a missing category only leaves the analysis services out
+                String categoryUid = analysisCategoryUid();
+                created.put(
+                        ANALYSIS_SERVICE,
+                        seedObjects(
+                                ANALYSIS_SERVICE,
+                                "AnalysisService",
+                                senaiteConfig.getAnalysisServices(),
+                                index -> analysisService(index, categoryUid),
+                                executor));
+            } else {
+                created.put(ANALYSIS_SERVICE, 0);
+            }
+        } finally {
+            executor.shutdown();
+        }
+        log.info(
+                "Seeded SENAITE with {} sample types, {} clients and {} analysis services",
+                created.get(SAMPLE_TYPE),
+                created.get(CLIENT),
+                created.get(ANALYSIS_SERVICE));
+        return created;
+    }
+
+    /**
+     * Creates the objects from 0 to {@code count - 1} whose title is not in the index of the portal type, one batch
+     * per thread of the executor at a time.
+     *
+     * @return the number of objects created
+     */
+    int seedObjects(
+            String entityType,
+            String portalType,
+            int count,
+            IntFunction<Map<String, Object>> records,
+            ExecutorService executor) {
+        Map<String, String> index = index(portalType);
+        List<Map<String, Object>> missing = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Map<String, Object> record = records.apply(i);
+            if (!index.containsKey((String) record.get("title"))) {
+                missing.add(record);
+            }
+        }
+        runMetrics.entityCompleted(entityType, count - missing.size());
+
+        int batchSize = Math.max(1, senaiteConfig.getBatchSize());
+        List<CompletableFuture<Integer>> batches = new ArrayList<>();
+        for (int first = 0; first < missing.size(); first += batchSize) {
+            List<Map<String, Object>> batch = missing.subList(first, Math.min(first + batchSize, missing.size()));
+            batches.add(
+                    CompletableFuture.supplyAsync(() -> createBatch(entityType, portalType, batch, index), executor));
+        }
+        int created = batches.stream().mapToInt(CompletableFuture::join).sum();
+        log.info("Created {} SENAITE {} objects, {} already existed", created, portalType, count - missing.size());
+        return created;
+    }
+
+    private int createBatch(
+            String entityType, String portalType, List<Map<String, Object>> records, Map<String, String> index) {
+        try {
+            // Creating the same objects twice is not idempotent, only retried when rejected before processing
+            List<Map<String, Object>> created =
+                    remoteCall.execute("senaite." + portalType + ".create", false, () -> senaiteClient.create(records));
+            if (created.size() != records.size()) {
+                throw new SenaiteException(
+                        "SENAITE created " + created.size() + " of " + records.size() + " " + portalType + " objects");
+            }
+            for (Map<String, Object> object : created) {
+                index.put(String.valueOf(object.get("title")), String.valueOf(object.get("uid")));
+            }
+            runMetrics.entityCompleted(entityType, records.size());
+            return records.size();
+        } catch (Exception e) {
+            List<String> titles =
+                    records.stream().map(record -> (String) record.get("title")).toList();
+            if (runMetrics.entitiesFailed(entityType, titles, e.getMessage())) {
+                log.error("Failed to create {} SENAITE {} objects: {}", records.size(), portalType, e.getMessage());
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * Lists the existing objects of the portal type, a page at a time.
+     *
+     * @return the uids of the objects by title
+     */
+    Map<String, String> index(String portalType) {
+        Map<String, String> index = new ConcurrentHashMap<>();
+        for (int start = 0; ; start += PAGE_SIZE) {
+            int pageStart = start;
+            List<Map<String, Object>> page = remoteCall.execute(
+                    "senaite." + portalType + ".list",
+                    true,
+                    () -> senaiteClient.page(portalType, pageStart, PAGE_SIZE));
+            for (Map<String, Object> object : page) {
+                index.putIfAbsent(String.valueOf(object.get("title")), String.valueOf(object.get("uid")));
+            }
+            if (page.size() < PAGE_SIZE) {
+                log.debug("Found {} existing SENAITE {} objects", index.size(), portalType);
+                return index;
+            }
+        }
+    }
+
+    private String analysisCategoryUid() {
+        Map<String, String> categories = index("AnalysisCategory");
+        String title = senaiteConfig.getAnalysisCategory();
+        if (title != null && !title.isBlank()) {
+            String uid = categories.get(title);
+            if (uid == null) {
+                throw new SenaiteException(
+                        "SENAITE has no analysis category " + title + ", the analysis services were not seeded");
+            }
+            return uid;
+        }
+        return categories.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .map(Map.Entry::getValue)
+                .findFirst()
+                .orElseThrow(() -> new SenaiteException(
+                        "SENAITE has no analysis category, the analysis services were not seeded"));
+    }
+
+    Map<String, Object> sampleType(int index) {
+        String number = String.format(Locale.ROOT, "%03d", index + 1);
+        Map<String, Object> record =
+                record("SampleType", senaiteConfig.getSampleTypesPath(), "Demo Sample Type " + number);
+        record.put("Prefix", "DST" + number);
+        record.put("MinimumVolume", "10 ml");
+        record.put("RetentionPeriod", Map.of("days", "30", "hours", "0", "minutes", "0"));
+        return record;
+    }
+
+    Map<String, Object> client(int index) {
+        String number = String.format(Locale.ROOT, "%04d", index + 1);
+        Map<String, Object> record = record("Client", senaiteConfig.getClientsPath(), "Demo Clinic " + number);
+        // The title of a client is its name
+        record.put("Name", record.get("title"));
+        record.put("ClientID", "DEMO-" + number);
+        record.put("EmailAddress", "clinic" + number + "@example.com");
+        record.put("Phone", String.format(Locale.ROOT, "+1 555 %07d", index % 10_000_000));
+        return record;
+    }
+
+    Map<String, Object> analysisService(int index, String categoryUid) {
+        String number = String.format(Locale.ROOT, "%04d", index + 1);
+        Map<String, Object> record =
+                record("AnalysisService", senaiteConfig.getAnalysisServicesPath(), "Demo Analysis " + number);
+        // Keywords are unique and only letters, digits and underscores
+        record.put("Keyword", "DemoAnalysis" + number);
+        record.put("Category", categoryUid);
+        record.put("Price", String.format(Locale.ROOT, "%.2f", 5 + index % 96 * 0.5));
+        record.put("PointOfCapture", "lab");
+        return record;
+    }
+
+    private static Map<String, Object> record(String portalType, String parentPath, String title) {
+        Map<String, Object> record = new LinkedHashMap<>();
+        record.put("portal_type", portalType);
+        record.put("parent_path", parentPath);
+        record.put("title", title);
+        return record;
+    }
+}
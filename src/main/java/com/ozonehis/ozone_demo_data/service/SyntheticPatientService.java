@@ -0,0 +1,924 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutors;
+import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import com.ozonehis.ozone_demo_data.generator.ClinicalHistoryGenerator;
+import com.ozonehis.ozone_demo_data.generator.DemographicDictionaries;
+import com.ozonehis.ozone_demo_data.generator.FhirBundleFactory;
+import com.ozonehis.ozone_demo_data.generator.PayloadCache;
+import com.ozonehis.ozone_demo_data.generator.SyntheticPatientFactory;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.util.InputFingerprint;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongFunction;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+
+/**
+ * Creates synthetic patients through the OpenMRS REST API, one request per patient, or the FHIR API, one transaction
+ * bundle per batch of patients, instead of the reference demo data module. The patients are built as they are sent, so
+ * that the number of patients is only bounded by OpenMRS, and sent by up to {@code openmrs.concurrency.max} workers, the
+ * limiter decides how many requests are in flight at once. Patients can also be created with a clinical history, which
+ * is streamed to the FHIR API in transaction bundles of up to {@code openmrs.patients.history.batch-size} entries.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "openmrs.demo-data.enabled", havingValue = "true")
+public class SyntheticPatientService {
+
+    private static final String PATIENT_ENDPOINT = "/ws/rest/v1/patient";
+
+    private static final String FHIR_ENDPOINT = "/ws/fhir2/R4";
+
+    private static final String IDGEN_ENDPOINT = "/ws/rest/v1/idgen/identifiersource";
+
+    /**
+     * Bumped when the same settings generate different patients, so that the payloads cached and the fingerprints
+     * stored by older versions are not used.
+     */
+    private static final int GENERATOR_VERSION = 3;
+
+    /** Number of consecutive identifiers searched at once while counting the synthetic patients. */
+    static final int COUNT_WINDOW = 10;
+
+    private static final byte[] BUNDLE_PREFIX =
+            "{\"resourceType\":\"Bundle\",\"type\":\"transaction\",\"entry\":[".getBytes(StandardCharsets.UTF_8);
+
+    private static final byte[] BUNDLE_SUFFIX = "]}".getBytes(StandardCharsets.UTF_8);
+
+    private final OpenmrsHttpClient openmrsHttpClient;
+
+    private final OpenmrsConfig openmrsConfig;
+
+    private final OpenmrsMetadataResolver metadataResolver;
+
+    // Replaced once the metadata configured by name is resolved
+    private PatientGeneratorConfig patientGeneratorConfig;
+
+    private SyntheticPatientFactory patientFactory;
+
+    private FhirBundleFactory bundleFactory;
+
+    private ClinicalHistoryGenerator historyGenerator;
+
+    private PayloadCache patientPayloads;
+
+    private PayloadCache bundleEntryPayloads;
+
+    private boolean metadataResolved;
+
+    private final ObjectMapper objectMapper;
+
+    private final RunMetrics runMetrics;
+
+    private final RemoteCallExecutors remoteCalls;
+
+    /** Fingerprint of the configured settings the generated patients depend on, see {@link #inputFingerprint()}. */
+    private final String inputFingerprint;
+
+    @Autowired
+    public SyntheticPatientService(
+            OpenmrsHttpClient openmrsHttpClient,
+            OpenmrsConfig openmrsConfig,
+            PatientGeneratorConfig patientGeneratorConfig,
+            ObjectMapper objectMapper,
+            RunMetrics runMetrics,
+            RemoteCallExecutors remoteCalls) {
+        this(
+                openmrsHttpClient,
+                openmrsConfig,
+                patientGeneratorConfig,
+                new SyntheticPatientFactory(patientGeneratorConfig),
+                objectMapper,
+                runMetrics,
+                remoteCalls);
+    }
+
+    SyntheticPatientService(
+            OpenmrsHttpClient openmrsHttpClient,
+            OpenmrsConfig openmrsConfig,
+            PatientGeneratorConfig patientGeneratorConfig,
+            SyntheticPatientFactory patientFactory,
+            ObjectMapper objectMapper,
+            RunMetrics runMetrics,
+            RemoteCallExecutors remoteCalls) {
+        this.openmrsHttpClient = openmrsHttpClient;
+        this.openmrsConfig = openmrsConfig;
+        this.objectMapper = objectMapper;
+        this.runMetrics = runMetrics;
+        this.remoteCalls = remoteCalls;
+        String metadataCacheFile = patientGeneratorConfig.getMetadataCacheFile();
+        this.metadataResolver = new OpenmrsMetadataResolver(
+                openmrsHttpClient,
+                openmrsConfig,
+                objectMapper,
+                remoteCalls,
+                metadataCacheFile == null || metadataCacheFile.isBlank() ? null : Path.of(metadataCacheFile));
+        // Taken before the metadata is resolved, and with the reference date as configured, so that it stays the same
+        // from one run to the next when the settings do
+        this.inputFingerprint = generatorFingerprint(
+                patientGeneratorConfig, patientGeneratorConfig.getReferenceDate(), patientFactory.getDictionaries());
+        use(patientGeneratorConfig, patientFactory);
+    }
+
+    /**
+     * @return a fingerprint that changes with the settings the generated patients depend on
+     */
+    public String inputFingerprint() {
+        return inputFingerprint;
+    }
+
+    private void use(PatientGeneratorConfig patientGeneratorConfig, SyntheticPatientFactory patientFactory) {
+        this.patientGeneratorConfig = patientGeneratorConfig;
+        this.patientFactory = patientFactory;
+        FhirBundleFactory bundleFactory = new FhirBundleFactory(patientGeneratorConfig, patientFactory);
+        this.bundleFactory = bundleFactory;
+        this.historyGenerator = new ClinicalHistoryGenerator(patientGeneratorConfig, patientFactory.getReferenceDate());
+        Path cacheDirectory = patientGeneratorConfig.getCacheDir() == null
+                        || patientGeneratorConfig.getCacheDir().isBlank()
+                ? null
+                : Path.of(patientGeneratorConfig.getCacheDir());
+        this.patientPayloads = new PayloadCache(
+                cacheDirectory,
+                cacheKey("rest"),
+                patientGeneratorConfig.getCacheChunkSize(),
+                index -> toJson(patientFactory.patient(index)));
+        this.bundleEntryPayloads = new PayloadCache(
+                cacheDirectory,
+                cacheKey("fhir"),
+                patientGeneratorConfig.getCacheChunkSize(),
+                index -> toJson(bundleFactory.entries(index)));
+    }
+
+    /**
+     * Resolves the metadata configured by name the first time patients are created, the generators then use the
+     * resolved uuids.
+     */
+    private synchronized void resolveMetadata(Supplier<HttpHeaders> headers) {
+        if (metadataResolved) {
+            return;
+        }
+        PatientGeneratorConfig resolved = metadataResolver.resolve(patientGeneratorConfig, headers);
+        if (resolved != patientGeneratorConfig) {
+            use(
+                    resolved,
+                    new SyntheticPatientFactory(
+                            resolved, patientFactory.getReferenceDate(), patientFactory.getDictionaries()));
+        }
+        metadataResolved = true;
+    }
+
+    /**
+     * @return a key that changes with anything the generated payloads depend on
+     */
+    private String cacheKey(String payloadType) {
+        return payloadType + "-"
+                + InputFingerprint.of(
+                        payloadType,
+                        generatorFingerprint(
+                                patientGeneratorConfig,
+                                patientFactory.getReferenceDate(),
+                                patientFactory.getDictionaries()),
+                        patientGeneratorConfig.getCacheChunkSize());
+    }
+
+    private static String generatorFingerprint(
+            PatientGeneratorConfig config, Object referenceDate, DemographicDictionaries dictionaries) {
+        return InputFingerprint.of(
+                GENERATOR_VERSION,
+                config.getSeed(),
+                referenceDate,
+                config.getFemaleRatio(),
+                config.getMinAge(),
+                config.getMaxAge(),
+                config.getIdentifierPrefix(),
+                config.getIdentifierSource(),
+                config.getIdentifierTypeUuid(),
+                config.getLocationUuid(),
+                config.getPhoneAttributeTypeUuid(),
+                config.getOccupationAttributeTypeUuid(),
+                dictionaries.fingerprint(),
+                config.getEncounterTypeUuid(),
+                config.getWeightConceptUuid(),
+                config.getHistoryYears(),
+                config.getVisitsPerYear(),
+                config.getLabRatio(),
+                config.getVisitTypeUuid());
+    }
+
+    /**
+     * @param firstIndex the index of the first patient, patients with the same index have the same identifier
+     * @param count      the number of patients to create
+     * @param headers    supplies the authentication headers of each request
+     * @return the number of patients created, the others are recorded as failed
+     */
+    public int createPatients(long firstIndex, int count, Supplier<HttpHeaders> headers) {
+        log.info("Creating {} synthetic patients starting at index {}", count, firstIndex);
+        resolveMetadata(headers);
+        try (IdgenIdentifierPool identifiers = identifierPool(count, headers)) {
+            return inParallel(
+                    firstIndex, count, 1, (index, size) -> createPatientSafely(index, identifiers, headers) ? 1 : 0);
+        }
+    }
+
+    /**
+     * Creates the patients, each with an encounter and an observation, in FHIR transaction bundles of
+     * {@code openmrs.patients.fhir.bundle-size} patients.
+     *
+     * @see #createPatients(long, int, Supplier)
+     */
+    public int createPatientsInBundles(long firstIndex, int count, Supplier<HttpHeaders> headers) {
+        int bundleSize = Math.max(1, patientGeneratorConfig.getBundleSize());
+        log.info("Creating {} synthetic patients starting at index {} in bundles of {}", count, firstIndex, bundleSize);
+        resolveMetadata(headers);
+        try (IdgenIdentifierPool identifiers = identifierPool(count, headers)) {
+            return inParallel(
+                    firstIndex,
+                    count,
+                    bundleSize,
+                    (index, size) -> createBundleSafely(index, size, identifiers, headers));
+        }
+    }
+
+    /**
+     * Creates the patients through the REST API, then the visits, encounters and observations of each patient in FHIR
+     * transaction bundles. The history of a patient is generated while it is sent: the next bundle is built and
+     * serialized on the common fork/join pool while the current one is in flight, so each worker holds at most two
+     * bundles whatever the length of the history.
+     *
+     * @see #createPatients(long, int, Supplier)
+     */
+    public int createPatientsWithHistory(long firstIndex, int count, Supplier<HttpHeaders> headers) {
+        log.info(
+                "Creating {} synthetic patients starting at index {} with {} years of clinical history",
+                count,
+                firstIndex,
+                patientGeneratorConfig.getHistoryYears());
+        resolveMetadata(headers);
+        try (IdgenIdentifierPool identifiers = identifierPool(count, headers)) {
+            return inParallel(
+                    firstIndex,
+                    count,
+                    1,
+                    (index, size) -> createPatientWithHistorySafely(index, identifiers, headers) ? 1 : 0);
+        }
+    }
+
+    /**
+     * Voids or purges the synthetic patients with the identifiers of the given indexes, the indexes without a patient
+     * are skipped. The patients are looked up through FHIR by identifier in batches of
+     * {@code openmrs.patients.fhir.bundle-size}. Each batch is voided with one transaction of DELETE entries, or purged
+     * patient by patient through the REST API after their encounters and visits, which OpenMRS does not purge with
+     * the patient.
+     *
+     * @param purge whether the patients are purged from the database instead of being voided
+     * @return the number of patients removed, the others are recorded as failed
+     */
+    public int removePatients(long firstIndex, int count, boolean purge, Supplier<HttpHeaders> headers) {
+        if (patientGeneratorConfig.isIdgenIdentifiers()) {
+            log.warn(
+                    "The identifiers of the patients were reserved from idgen and cannot be derived, not removing them");
+            return 0;
+        }
+        int batchSize = Math.max(1, patientGeneratorConfig.getBundleSize());
+        log.info(
+                "{} the synthetic patients of indexes {} to {} in batches of {}",
+                purge ? "Purging" : "Voiding",
+                firstIndex,
+                firstIndex + count - 1,
+                batchSize);
+        return inParallel(firstIndex, count, batchSize, "Removed", (index, size) -> {
+            try {
+                List<String> uuids = findPatients(index, size, headers.get());
+                return purge ? purgePatients(uuids, headers) : voidPatients(uuids, headers.get());
+            } catch (Exception e) {
+                if (runMetrics.entityFailed("removed-patient", patientFactory.identifier(index), e.getMessage())) {
+                    log.error(
+                            "Failed to look up the patients of indexes {} to {}: {}",
+                            index,
+                            index + size - 1,
+                            e.getMessage());
+                }
+                return 0;
+            }
+        });
+    }
+
+    /**
+     * Counts the synthetic patients as the index after the last one, the patients being numbered from 0. The last
+     * patient is searched for through FHIR by identifier, doubling the index while patients are found and then halving
+     * the range, which takes two searches per doubling of the number of patients. Each search covers the identifiers
+     * of {@link #COUNT_WINDOW} indexes, so that a few failed patients do not hide the ones after them.
+     *
+     * @return the number of synthetic patients, empty when the identifiers were reserved from idgen and cannot be
+     *     derived
+     */
+    public OptionalLong countPatients(Supplier<HttpHeaders> headers) {
+        if (patientGeneratorConfig.isIdgenIdentifiers()) {
+            return OptionalLong.empty();
+        }
+        HttpHeaders requestHeaders = headers.get();
+        if (!hasPatients(0, requestHeaders)) {
+            return OptionalLong.of(0);
+        }
+        // The window at found has patients, the one at notFound has none
+        long found = 0;
+        long notFound = 1;
+        while (hasPatients(notFound, requestHeaders)) {
+            found = notFound;
+            notFound *= 2;
+        }
+        while (notFound - found > 1) {
+            long middle = (found + notFound) >>> 1;
+            if (hasPatients(middle, requestHeaders)) {
+                found = middle;
+            } else {
+                notFound = middle;
+            }
+        }
+        // The window at found has a patient that the next window does not have, the one at found itself
+        return OptionalLong.of(found + 1);
+    }
+
+    /**
+     * @return whether a patient has the identifier of one of the {@link #COUNT_WINDOW} indexes from the first one
+     */
+    private boolean hasPatients(long firstIndex, HttpHeaders headers) {
+        String identifiers = LongStream.range(firstIndex, firstIndex + COUNT_WINDOW)
+                .mapToObj(index -> URLEncoder.encode(patientFactory.identifier(index), StandardCharsets.UTF_8))
+                .collect(Collectors.joining(","));
+        String url = openmrsConfig.getUrl() + FHIR_ENDPOINT + "/Patient?identifier=" + identifiers + "&_summary=count";
+        Map<String, Object> bundle = remoteCalls
+                .openmrs()
+                .execute(
+                        "openmrs.fhir.patient.count",
+                        true,
+                        () -> OpenmrsHttpClient.await(openmrsHttpClient.getJson(url, headers)));
+        Object total = bundle.get("total");
+        if (!(total instanceof Number)) {
+            throw new IllegalStateException("OpenMRS did not return the number of patients with the identifiers");
+        }
+        return ((Number) total).longValue() > 0;
+    }
+
+    /**
+     * @return the uuids of the patients with the identifiers of the indexes
+     */
+    @SuppressWarnings("unchecked")
+    private List<String> findPatients(long firstIndex, int size, HttpHeaders headers) {
+        String identifiers = LongStream.range(firstIndex, firstIndex + size)
+                .mapToObj(index -> URLEncoder.encode(patientFactory.identifier(index), StandardCharsets.UTF_8))
+                .collect(Collectors.joining(","));
+        String url = openmrsConfig.getUrl() + FHIR_ENDPOINT + "/Patient?identifier=" + identifiers
+                + "&_elements=id&_count=" + size;
+        Map<String, Object> bundle = remoteCalls
+                .openmrs()
+                .execute(
+                        "openmrs.fhir.patient.search",
+                        true,
+                        () -> OpenmrsHttpClient.await(openmrsHttpClient.getJson(url, headers)));
+        List<Map<String, Object>> entries = (List<Map<String, Object>>) bundle.getOrDefault("entry", List.of());
+        return entries.stream()
+                .map(entry -> (String) ((Map<String, Object>) entry.get("resource")).get("id"))
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private int voidPatients(List<String> uuids, HttpHeaders headers) {
+        if (uuids.isEmpty()) {
+            return 0;
+        }
+        ByteArrayOutputStream bundle = new ByteArrayOutputStream(uuids.size() * 64);
+        bundle.writeBytes(BUNDLE_PREFIX);
+        for (int i = 0; i < uuids.size(); i++) {
+            if (i > 0) {
+                bundle.write(',');
+            }
+            bundle.writeBytes(("{\"request\":{\"method\":\"DELETE\",\"url\":\"Patient/" + uuids.get(i) + "\"}}")
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+        bundle.writeBytes(BUNDLE_SUFFIX);
+        Map<String, Object> response;
+        try {
+            response = transaction(bundle.toByteArray(), headers);
+        } catch (Exception e) {
+            String reason = e instanceof HttpStatusCodeException
+                    ? ((HttpStatusCodeException) e).getStatusCode() + " " + diagnostics((HttpStatusCodeException) e)
+                    : e.getMessage();
+            if (runMetrics.entitiesFailed("removed-patient", uuids, reason)) {
+                log.error("Failed to void {} patients: {}", uuids.size(), reason);
+            }
+            return 0;
+        }
+        List<Map<String, Object>> responseEntries =
+                (List<Map<String, Object>>) response.getOrDefault("entry", List.of());
+        int voided = 0;
+        for (int i = 0; i < uuids.size(); i++) {
+            Map<String, Object> outcome = i < responseEntries.size()
+                    ? (Map<String, Object>) responseEntries.get(i).getOrDefault("response", Map.of())
+                    : Map.of();
+            String status = String.valueOf(outcome.getOrDefault("status", "missing"));
+            if (status.startsWith("2")) {
+                runMetrics.entityCompleted("removed-patient");
+                voided++;
+            } else {
+                String reason = (status + " " + issues(outcome.get("outcome"))).trim();
+                if (runMetrics.entityFailed("removed-patient", uuids.get(i), reason)) {
+                    log.error("Failed to void patient {}: {}", uuids.get(i), reason);
+                }
+            }
+        }
+        return voided;
+    }
+
+    private int purgePatients(List<String> uuids, Supplier<HttpHeaders> headers) {
+        int purged = 0;
+        for (String uuid : uuids) {
+            try {
+                HttpHeaders requestHeaders = headers.get();
+                purgeAll("encounter", uuid, requestHeaders);
+                purgeAll("visit", uuid, requestHeaders);
+                purge(PATIENT_ENDPOINT + "/" + uuid, "openmrs.patient.purge", requestHeaders);
+                runMetrics.entityCompleted("removed-patient");
+                purged++;
+            } catch (Exception e) {
+                if (runMetrics.entityFailed("removed-patient", uuid, e.getMessage())) {
+                    log.error("Failed to purge patient {}: {}", uuid, e.getMessage());
+                }
+            }
+        }
+        return purged;
+    }
+
+    /**
+     * Purges the encounters or visits of a patient, page by page until none are left.
+     */
+    @SuppressWarnings("unchecked")
+    private void purgeAll(String resource, String patientUuid, HttpHeaders headers) {
+        String url = openmrsConfig.getUrl() + "/ws/rest/v1/" + resource + "?patient=" + patientUuid
+                + "&includeInactive=true&v=custom:(uuid)&limit=100";
+        while (true) {
+            Map<String, Object> page = remoteCalls
+                    .openmrs()
+                    .execute(
+                            "openmrs." + resource + ".search",
+                            true,
+                            () -> OpenmrsHttpClient.await(openmrsHttpClient.getJson(url, headers)));
+            List<Map<String, Object>> results = (List<Map<String, Object>>) page.getOrDefault("results", List.of());
+            if (results.isEmpty()) {
+                return;
+            }
+            for (Map<String, Object> result : results) {
+                purge("/ws/rest/v1/" + resource + "/" + result.get("uuid"), "openmrs." + resource + ".purge", headers);
+            }
+        }
+    }
+
+    private void purge(String path, String callType, HttpHeaders headers) {
+        String url = openmrsConfig.getUrl() + path + "?purge=true";
+        // Purging is idempotent, a retry of a purge whose response was lost finds nothing to purge
+        remoteCalls.openmrs().execute(callType, true, () -> {
+            try {
+                return OpenmrsHttpClient.await(openmrsHttpClient.delete(url, headers));
+            } catch (HttpClientErrorException e) {
+                if (e.getStatusCode().value() != 404) {
+                    throw e;
+                }
+                return 404;
+            }
+        });
+    }
+
+    /**
+     * @return the pool of identifiers reserved from idgen, {@code null} unless {@code openmrs.patients.identifier-source}
+     *     is {@code idgen}
+     */
+    private IdgenIdentifierPool identifierPool(int count, Supplier<HttpHeaders> headers) {
+        if (!patientGeneratorConfig.isIdgenIdentifiers() || count <= 0) {
+            return null;
+        }
+        // The payloads hold the identifier, so they are not cached when idgen assigns it
+        log.info(
+                "Reserving identifiers from idgen source {} in blocks of {}",
+                patientGeneratorConfig.getIdgenSourceUuid(),
+                patientGeneratorConfig.getIdgenBlockSize());
+        return new IdgenIdentifierPool(
+                reserved -> reserveIdentifiers(reserved, headers), patientGeneratorConfig.getIdgenBlockSize(), count);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> reserveIdentifiers(int count, Supplier<HttpHeaders> headers) {
+        String url = openmrsConfig.getUrl() + IDGEN_ENDPOINT;
+        Map<String, Object> body = Map.of(
+                "generateIdentifiers",
+                true,
+                "sourceUuid",
+                patientGeneratorConfig.getIdgenSourceUuid(),
+                "numberToGenerate",
+                count,
+                "comment",
+                "Ozone demo data");
+        HttpHeaders requestHeaders = headers.get();
+        // Reserving identifiers uses them up, it is only retried when OpenMRS rejected it before processing
+        Map<String, Object> response = remoteCalls
+                .openmrs()
+                .execute(
+                        "openmrs.idgen.reserve",
+                        false,
+                        () -> OpenmrsHttpClient.await(openmrsHttpClient.postJson(
+                                url,
+                                requestHeaders,
+                                body,
+                                OpenmrsHttpClient.timeout(openmrsConfig.getRequestTimeoutMillis()))));
+        Object identifiers = response == null ? null : response.get("identifiers");
+        if (!(identifiers instanceof List)) {
+            throw new IllegalStateException("idgen did not return identifiers");
+        }
+        return ((List<Object>) identifiers).stream().map(String::valueOf).collect(Collectors.toList());
+    }
+
+    /**
+     * @return the REST payload of the patient, with the next idgen identifier when there is a pool
+     */
+    private byte[] patientPayload(long index, IdgenIdentifierPool identifiers) {
+        return identifiers == null
+                ? patientPayloads.get(index)
+                : toJson(patientFactory.patient(index, identifiers.next()));
+    }
+
+    /**
+     * Runs the work on up to {@code openmrs.concurrency.max} workers, each taking the next batch of indexes once its
+     * previous batch is done.
+     *
+     * @return the number of patients created
+     */
+    private int inParallel(long firstIndex, int count, int batchSize, Batch batch) {
+        runMetrics.entitiesExpected("patient", Math.max(count, 0));
+        return inParallel(firstIndex, count, batchSize, "Created", batch);
+    }
+
+    private int inParallel(long firstIndex, int count, int batchSize, String outcome, Batch batch) {
+        if (count <= 0) {
+            return 0;
+        }
+        long end = firstIndex + count;
+        AtomicLong nextIndex = new AtomicLong(firstIndex);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger processed = new AtomicInteger();
+        int progressStep = Math.max(batchSize, count / 10);
+        int batches = (count + batchSize - 1) / batchSize;
+        int workers = Math.max(1, Math.min(openmrsConfig.getMaxConcurrency(), batches));
+        ExecutorService executor =
+                Executors.newFixedThreadPool(workers, new CustomizableThreadFactory("openmrs-patients-"));
+        try {
+            CompletableFuture.allOf(IntStream.range(0, workers)
+                            .mapToObj(worker -> CompletableFuture.runAsync(
+                                    () -> {
+                                        for (long index = nextIndex.getAndAdd(batchSize);
+                                                index < end;
+                                                index = nextIndex.getAndAdd(batchSize)) {
+                                            int size = (int) Math.min(batchSize, end - index);
+                                            created.addAndGet(batch.create(index, size));
+                                            int done = processed.addAndGet(size);
+                                            if (done / progressStep != (done - size) / progressStep) {
+                                                log.debug("Processed {} of {} synthetic patients", done, count);
+                                            }
+                                        }
+                                    },
+                                    executor))
+                            .toArray(CompletableFuture[]::new))
+                    .join();
+        } finally {
+            executor.shutdown();
+        }
+        log.info("{} {} of {} synthetic patients", outcome, created.get(), count);
+        return created.get();
+    }
+
+    private boolean createPatientSafely(long index, IdgenIdentifierPool identifiers, Supplier<HttpHeaders> headers) {
+        try {
+            createPatient(index, identifiers, headers.get());
+            runMetrics.entityCompleted("patient");
+            return true;
+        } catch (Exception e) {
+            String identifier = patientFactory.identifier(index);
+            if (runMetrics.entityFailed("patient", identifier, e.getMessage())) {
+                log.error("Failed to create patient {}: {}", identifier, e.getMessage());
+            }
+            return false;
+        }
+    }
+
+    private void createPatient(long index, IdgenIdentifierPool identifiers, HttpHeaders headers) {
+        byte[] patient = patientPayload(index, identifiers);
+        String url = openmrsConfig.getUrl() + PATIENT_ENDPOINT;
+        // Creating a patient is not idempotent, it is only retried when OpenMRS rejected it before processing
+        remoteCalls
+                .openmrs()
+                .execute(
+                        "openmrs.patient.create",
+                        false,
+                        () -> OpenmrsHttpClient.await(openmrsHttpClient.post(
+                                url,
+                                headers,
+                                patient,
+                                OpenmrsHttpClient.timeout(openmrsConfig.getRequestTimeoutMillis()))));
+    }
+
+    /**
+     * @return whether the patient was created, failures of its history are recorded but do not undo it
+     */
+    private boolean createPatientWithHistorySafely(
+            long index, IdgenIdentifierPool identifiers, Supplier<HttpHeaders> headers) {
+        String identifier = patientFactory.identifier(index);
+        String patientUuid;
+        try {
+            patientUuid = createPatientForHistory(index, identifiers, headers.get());
+            runMetrics.entityCompleted("patient");
+        } catch (Exception e) {
+            if (runMetrics.entityFailed("patient", identifier, e.getMessage())) {
+                log.error("Failed to create patient {}: {}", identifier, e.getMessage());
+            }
+            return false;
+        }
+        Iterator<ClinicalHistoryGenerator.Visit> visits = historyGenerator
+                .visits(index, patientFactory.birthdate(index), "Patient/" + patientUuid)
+                .iterator();
+        int batchSize = Math.max(1, patientGeneratorConfig.getHistoryBatchSize());
+        // The iterator is only used by one batch at a time, each batch starts once the previous one is joined
+        CompletableFuture<HistoryBatch> next = CompletableFuture.supplyAsync(() -> historyBatch(visits, batchSize));
+        for (HistoryBatch batch = next.join(); batch != null; batch = next.join()) {
+            next = CompletableFuture.supplyAsync(() -> historyBatch(visits, batchSize));
+            createHistoryBatchSafely(identifier, batch, headers);
+        }
+        return true;
+    }
+
+    /**
+     * @return the uuid of the created patient, which the entries of its history refer to
+     */
+    private String createPatientForHistory(long index, IdgenIdentifierPool identifiers, HttpHeaders headers) {
+        byte[] patient = patientPayload(index, identifiers);
+        String url = openmrsConfig.getUrl() + PATIENT_ENDPOINT;
+        Map<String, Object> response = remoteCalls
+                .openmrs()
+                .execute(
+                        "openmrs.patient.create",
+                        false,
+                        () -> OpenmrsHttpClient.await(openmrsHttpClient.postJson(
+                                url,
+                                headers,
+                                patient,
+                                OpenmrsHttpClient.timeout(openmrsConfig.getRequestTimeoutMillis()))));
+        Object uuid = response == null ? null : response.get("uuid");
+        if (uuid == null) {
+            throw new IllegalStateException("OpenMRS did not return the uuid of the patient");
+        }
+        return uuid.toString();
+    }
+
+    /**
+     * @return the next visits serialized as a transaction bundle of about {@code batchSize} entries, a visit is never
+     *     split across bundles, or {@code null} once all the visits are taken
+     */
+    private HistoryBatch historyBatch(Iterator<ClinicalHistoryGenerator.Visit> visits, int batchSize) {
+        if (!visits.hasNext()) {
+            return null;
+        }
+        ByteArrayOutputStream bundle = new ByteArrayOutputStream(batchSize * 512);
+        List<String> entityTypes = new ArrayList<>(batchSize + 10);
+        bundle.writeBytes(BUNDLE_PREFIX);
+        while (entityTypes.size() < batchSize && visits.hasNext()) {
+            ClinicalHistoryGenerator.Visit visit = visits.next();
+            for (Map<String, Object> entry : visit.getEntries()) {
+                if (bundle.size() > BUNDLE_PREFIX.length) {
+                    bundle.write(',');
+                }
+                bundle.writeBytes(toJson(entry));
+            }
+            entityTypes.addAll(visit.getEntityTypes());
+        }
+        bundle.writeBytes(BUNDLE_SUFFIX);
+        return new HistoryBatch(bundle.toByteArray(), entityTypes);
+    }
+
+    private void createHistoryBatchSafely(String identifier, HistoryBatch batch, Supplier<HttpHeaders> headers) {
+        try {
+            Map<String, Object> response = transaction(batch.getBundle(), headers.get());
+            recordOutcomes(batch.getEntityTypes(), entry -> identifier, response);
+        } catch (Exception e) {
+            String reason = e instanceof HttpStatusCodeException
+                    ? ((HttpStatusCodeException) e).getStatusCode() + " " + diagnostics((HttpStatusCodeException) e)
+                    : e.getMessage();
+            boolean firstOfItsCause = false;
+            for (String entityType : batch.getEntityTypes()) {
+                firstOfItsCause |= runMetrics.entityFailed(entityType, identifier, reason);
+            }
+            if (firstOfItsCause) {
+                log.error(
+                        "Failed to create {} history entries of patient {}: {}",
+                        batch.getEntityTypes().size(),
+                        identifier,
+                        reason);
+            }
+        }
+    }
+
+    /**
+     * @return the number of patients created, every entry of a rejected bundle is recorded as failed
+     */
+    private int createBundleSafely(
+            long firstIndex, int size, IdgenIdentifierPool identifiers, Supplier<HttpHeaders> headers) {
+        try {
+            Map<String, Object> response = transaction(bundle(firstIndex, size, identifiers), headers.get());
+            return recordOutcomes(firstIndex, size, response);
+        } catch (HttpStatusCodeException e) {
+            return recordRejectedBundle(firstIndex, size, e.getStatusCode() + " " + diagnostics(e));
+        } catch (Exception e) {
+            return recordRejectedBundle(firstIndex, size, e.getMessage());
+        }
+    }
+
+    private Map<String, Object> transaction(byte[] bundle, HttpHeaders headers) {
+        String url = openmrsConfig.getUrl() + FHIR_ENDPOINT;
+        // A transaction is applied as a whole, it is only retried when OpenMRS rejected it before processing
+        return remoteCalls
+                .openmrs()
+                .execute(
+                        "openmrs.fhir.transaction",
+                        false,
+                        () -> OpenmrsHttpClient.await(openmrsHttpClient.postJson(
+                                url,
+                                headers,
+                                bundle,
+                                OpenmrsHttpClient.timeout(openmrsConfig.getRequestTimeoutMillis()))));
+    }
+
+    /**
+     * Joins the cached entries of the patients into a transaction bundle without parsing them.
+     */
+    private byte[] bundle(long firstIndex, int size, IdgenIdentifierPool identifiers) {
+        ByteArrayOutputStream bundle = new ByteArrayOutputStream(size * 2048);
+        bundle.writeBytes(BUNDLE_PREFIX);
+        for (long index = firstIndex; index < firstIndex + size; index++) {
+            // Each payload is the JSON array of the entries of one patient
+            byte[] entries = identifiers == null
+                    ? bundleEntryPayloads.get(index)
+                    : toJson(bundleFactory.entries(index, identifiers.next()));
+            if (index > firstIndex) {
+                bundle.write(',');
+            }
+            bundle.write(entries, 1, entries.length - 2);
+        }
+        bundle.writeBytes(BUNDLE_SUFFIX);
+        return bundle.toByteArray();
+    }
+
+    private int recordOutcomes(long firstIndex, int size, Map<String, Object> response) {
+        List<String> entityTypes = new ArrayList<>(size * FhirBundleFactory.ENTRY_TYPES.size());
+        for (int i = 0; i < size; i++) {
+            FhirBundleFactory.ENTRY_TYPES.forEach(resourceType -> entityTypes.add(resourceType.toLowerCase()));
+        }
+        int entriesPerPatient = FhirBundleFactory.ENTRY_TYPES.size();
+        return recordOutcomes(
+                entityTypes, entry -> patientFactory.identifier(firstIndex + entry / entriesPerPatient), response);
+    }
+
+    /**
+     * Records the outcome of each entry, the entries of the response are in the order of the request entries.
+     *
+     * @param entityTypes the entity type of each request entry
+     * @param identifiers the identifier of the patient of each request entry
+     * @return the number of patients created
+     */
+    @SuppressWarnings("unchecked")
+    private int recordOutcomes(
+            List<String> entityTypes, LongFunction<String> identifiers, Map<String, Object> response) {
+        List<Map<String, Object>> responseEntries =
+                (List<Map<String, Object>>) response.getOrDefault("entry", List.of());
+        int created = 0;
+        for (int i = 0; i < entityTypes.size(); i++) {
+            String entityType = entityTypes.get(i);
+            Map<String, Object> outcome = i < responseEntries.size()
+                    ? (Map<String, Object>) responseEntries.get(i).getOrDefault("response", Map.of())
+                    : Map.of();
+            String status = String.valueOf(outcome.getOrDefault("status", "missing"));
+            if (status.startsWith("2")) {
+                runMetrics.entityCompleted(entityType);
+                created += "patient".equals(entityType) ? 1 : 0;
+            } else {
+                String identifier = identifiers.apply(i);
+                String reason = (status + " " + issues(outcome.get("outcome"))).trim();
+                if (runMetrics.entityFailed(entityType, identifier, reason)) {
+                    log.error("Failed to create {} of patient {}: {}", entityType, identifier, reason);
+                }
+            }
+        }
+        return created;
+    }
+
+    private int recordRejectedBundle(long firstIndex, int size, String reason) {
+        boolean firstOfItsCause = false;
+        for (long index = firstIndex; index < firstIndex + size; index++) {
+            firstOfItsCause |= runMetrics.entityFailed("patient", patientFactory.identifier(index), reason);
+        }
+        // Failures repeating a logged cause are summarized by the progress reporter
+        if (firstOfItsCause) {
+            log.error(
+                    "Failed to create the bundle of patients {} to {}: {}",
+                    patientFactory.identifier(firstIndex),
+                    patientFactory.identifier(firstIndex + size - 1),
+                    reason);
+        }
+        return 0;
+    }
+
+    /**
+     * @return the diagnostics of the {@code OperationOutcome} in the body of the error response, or its message
+     */
+    private String diagnostics(HttpStatusCodeException failure) {
+        try {
+            String issues = issues(objectMapper.readValue(failure.getResponseBodyAsByteArray(), Map.class));
+            return issues.isEmpty() ? failure.getMessage() : issues;
+        } catch (IOException | RuntimeException e) {
+            return failure.getMessage();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static String issues(Object operationOutcome) {
+        if (!(operationOutcome instanceof Map)) {
+            return "";
+        }
+        List<Map<String, Object>> issues =
+                (List<Map<String, Object>>) ((Map<String, Object>) operationOutcome).getOrDefault("issue", List.of());
+        return issues.stream()
+                .map(issue -> String.valueOf(issue.getOrDefault("diagnostics", issue.get("code"))))
+                .collect(Collectors.joining("; "));
+    }
+
+    private byte[] toJson(Object payload) {
+        try {
+            return objectMapper.writeValueAsBytes(payload);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Failed to serialize the payload", e);
+        }
+    }
+
+    /**
+     * A serialized transaction bundle of history entries with the entity type of each entry.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class HistoryBatch {
+
+        private final byte[] bundle;
+
+        private final List<String> entityTypes;
+    }
+
+    @FunctionalInterface
+    private interface Batch {
+
+        /**
+         * @return the number of patients created, or removed
+         */
+        int create(long firstIndex, int size);
+    }
+}
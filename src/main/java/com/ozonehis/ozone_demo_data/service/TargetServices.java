@@ -0,0 +1,41 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.keycloak.admin.client.Keycloak;
+
+/**
+ * The services provisioning a single target, each target has its own clients, connection pools and limiters. Closing
+ * it releases the target's Keycloak admin client.
+ */
+@Getter
+@RequiredArgsConstructor
+public class TargetServices implements AutoCloseable {
+
+    private final String name;
+
+    /** Null when user creation is disabled for the target. */
+    private final KeycloakUserService keycloakUserService;
+
+    /** Null when demo data generation is disabled for the target. */
+    private final DemoDataService demoDataService;
+
+    private final Keycloak keycloak;
+
+    @Override
+    public void close() {
+        if (keycloak != null) {
+            keycloak.close();
+        }
+        if (demoDataService != null) {
+            demoDataService.close();
+        }
+    }
+}
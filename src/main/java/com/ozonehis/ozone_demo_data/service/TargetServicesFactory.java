@@ -0,0 +1,185 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.concurrency.ConcurrencyLimiters;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutors;
+import com.ozonehis.ozone_demo_data.config.KeycloakConfig;
+import com.ozonehis.ozone_demo_data.config.OdooConfig;
+import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import com.ozonehis.ozone_demo_data.config.ProvisioningTargetsConfig;
+import com.ozonehis.ozone_demo_data.config.ResilienceConfig;
+import com.ozonehis.ozone_demo_data.config.SenaiteConfig;
+import com.ozonehis.ozone_demo_data.config.ShardConfig;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.util.SystemAvailabilityChecker;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import org.keycloak.admin.client.Keycloak;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+/**
+ * Builds the services of a provisioning target from its configuration, falling back to the {@code keycloak.*} and
+ * {@code openmrs.*} settings for anything the target leaves empty.
+ */
+@Component
+@RequiredArgsConstructor
+public class TargetServicesFactory {
+
+    private final KeycloakConfig keycloakConfig;
+
+    private final OpenmrsConfig openmrsConfig;
+
+    private final ResilienceConfig resilienceConfig;
+
+    private final ObjectMapper objectMapper;
+
+    private final PatientGeneratorConfig patientGeneratorConfig;
+
+    private final ShardConfig shardConfig;
+
+    // Odoo and SENAITE are seeded once per run, not per target, the targets get the same settings and clients
+    private final OdooConfig odooConfig;
+
+    private final SenaiteConfig senaiteConfig;
+
+    private final ObjectProvider<OdooJsonRpcClient> odooClient;
+
+    private final ObjectProvider<SenaiteJsonApiClient> senaiteClient;
+
+    @Setter
+    @Value("${keycloak.users.json.path}")
+    private String usersJsonPath;
+
+    @Setter
+    @Value("${openmrs.demo.patients:50}")
+    private int numberOfDemoPatients;
+
+    @Setter
+    @Value("${openmrs.demo.generator:referencedemodata}")
+    private String generator;
+
+    @Setter
+    @Value("${fingerprint.enabled:true}")
+    private boolean fingerprintEnabled;
+
+    /**
+     * @param target     the target configuration
+     * @param runMetrics the metrics the target's calls and entities are recorded in
+     * @return the target's services, to be closed once the target is provisioned
+     */
+    public TargetServices create(ProvisioningTargetsConfig.Target target, RunMetrics runMetrics) {
+        KeycloakConfig targetKeycloakConfig = keycloakConfig(target);
+        OpenmrsConfig targetOpenmrsConfig = openmrsConfig(target);
+
+        RestTemplate restTemplate = new RestTemplate();
+        SystemAvailabilityChecker systemAvailabilityChecker = new SystemAvailabilityChecker(
+                targetOpenmrsConfig,
+                targetKeycloakConfig,
+                odooConfig,
+                senaiteConfig,
+                restTemplate,
+                odooClient,
+                senaiteClient);
+        RemoteCallExecutors remoteCalls = new RemoteCallExecutors(
+                new ConcurrencyLimiters(
+                        targetKeycloakConfig, targetOpenmrsConfig, odooConfig, senaiteConfig, resilienceConfig),
+                systemAvailabilityChecker,
+                runMetrics,
+                resilienceConfig);
+
+        Keycloak keycloak = null;
+        KeycloakUserService keycloakUserService = null;
+        if (target.isUserCreationEnabled()) {
+            keycloak = targetKeycloakConfig.keycloak();
+            keycloakUserService = new KeycloakUserService(
+                    keycloak, targetKeycloakConfig, objectMapper, systemAvailabilityChecker, runMetrics, remoteCalls);
+            keycloakUserService.setUsersJsonPath(
+                    target.getUsersJsonPath() != null ? target.getUsersJsonPath() : usersJsonPath);
+            keycloakUserService.setFingerprintEnabled(fingerprintEnabled);
+            keycloakUserService.setShardConfig(shardConfig);
+        }
+
+        DemoDataService demoDataService = null;
+        // As for the default target, the demo patients are generated by the first shard of a sharded run
+        if (target.isDemoDataEnabled() && shardConfig.isFirstShard()) {
+            OpenmrsHttpClient openmrsHttpClient = new OpenmrsHttpClient(targetOpenmrsConfig, objectMapper);
+            demoDataService = new DemoDataService(
+                    systemAvailabilityChecker,
+                    restTemplate,
+                    openmrsHttpClient,
+                    new SyntheticPatientService(
+                            openmrsHttpClient,
+                            targetOpenmrsConfig,
+                            patientGeneratorConfig,
+                            objectMapper,
+                            runMetrics,
+                            remoteCalls),
+                    targetOpenmrsConfig,
+                    targetKeycloakConfig,
+                    runMetrics,
+                    remoteCalls);
+            demoDataService.setOauthEnabled(targetOpenmrsConfig.isEnabled());
+            demoDataService.setFingerprintEnabled(fingerprintEnabled);
+            demoDataService.setGenerator(generator);
+            demoDataService.setNumberOfDemoPatients(
+                    target.getOpenmrs().getDemoPatients() != null
+                            ? target.getOpenmrs().getDemoPatients()
+                            : numberOfDemoPatients);
+        }
+        return new TargetServices(target.displayName(), keycloakUserService, demoDataService, keycloak);
+    }
+
+    KeycloakConfig keycloakConfig(ProvisioningTargetsConfig.Target target) {
+        ProvisioningTargetsConfig.KeycloakTarget keycloak = target.getKeycloak();
+        KeycloakConfig config = new KeycloakConfig();
+        config.setServerUrl(valueOrDefault(keycloak.getServerUrl(), keycloakConfig.getServerUrl()));
+        config.setRealm(valueOrDefault(keycloak.getRealm(), keycloakConfig.getRealm()));
+        config.setClientId(valueOrDefault(keycloak.getClientId(), keycloakConfig.getClientId()));
+        config.setClientSecret(valueOrDefault(keycloak.getClientSecret(), keycloakConfig.getClientSecret()));
+        config.setMaxRetries(keycloakConfig.getMaxRetries());
+        config.setRetryDelayMillis(keycloakConfig.getRetryDelayMillis());
+        int maxConcurrency = valueOrDefault(target.getMaxConcurrency(), keycloakConfig.getMaxConcurrency());
+        config.setMaxConcurrency(maxConcurrency);
+        config.setInitialConcurrency(Math.min(keycloakConfig.getInitialConcurrency(), maxConcurrency));
+        return config;
+    }
+
+    OpenmrsConfig openmrsConfig(ProvisioningTargetsConfig.Target target) {
+        ProvisioningTargetsConfig.OpenmrsTarget openmrs = target.getOpenmrs();
+        OpenmrsConfig config = new OpenmrsConfig();
+        config.setUrl(valueOrDefault(openmrs.getUrl(), openmrsConfig.getUrl()));
+        config.setUsername(valueOrDefault(openmrs.getUsername(), openmrsConfig.getUsername()));
+        config.setPassword(valueOrDefault(openmrs.getPassword(), openmrsConfig.getPassword()));
+        config.setEnabled(valueOrDefault(openmrs.getOauthEnabled(), openmrsConfig.isEnabled()));
+        config.setClientId(valueOrDefault(openmrs.getClientId(), openmrsConfig.getClientId()));
+        config.setClientSecret(valueOrDefault(openmrs.getClientSecret(), openmrsConfig.getClientSecret()));
+        config.setMaxRetries(openmrsConfig.getMaxRetries());
+        config.setRetryDelayMillis(openmrsConfig.getRetryDelayMillis());
+        int maxConcurrency = valueOrDefault(target.getMaxConcurrency(), openmrsConfig.getMaxConcurrency());
+        config.setMaxConcurrency(maxConcurrency);
+        config.setInitialConcurrency(Math.min(openmrsConfig.getInitialConcurrency(), maxConcurrency));
+        config.setConnectTimeoutMillis(openmrsConfig.getConnectTimeoutMillis());
+        config.setRequestTimeoutMillis(openmrsConfig.getRequestTimeoutMillis());
+        config.setGenerationTimeoutMillis(openmrsConfig.getGenerationTimeoutMillis());
+        config.setProgressIntervalMillis(openmrsConfig.getProgressIntervalMillis());
+        return config;
+    }
+
+    private static <T> T valueOrDefault(T value, T defaultValue) {
+        if (value == null || (value instanceof String && ((String) value).isBlank())) {
+            return defaultValue;
+        }
+        return value;
+    }
+}
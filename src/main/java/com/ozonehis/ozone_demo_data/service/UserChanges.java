@@ -0,0 +1,59 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.keycloak.representations.idm.UserRepresentation;
+
+/**
+ * Users added, modified and removed between two versions of the users file, see {@link UsersSnapshot}.
+ */
+@Getter
+@RequiredArgsConstructor
+public class UserChanges {
+
+    private final List<UserRepresentation> added;
+
+    private final List<ModifiedUser> modified;
+
+    /** Usernames of the removed users. */
+    private final List<String> removed;
+
+    public boolean isEmpty() {
+        return added.isEmpty() && modified.isEmpty() && removed.isEmpty();
+    }
+
+    /**
+     * @return the usernames of the added, modified and removed users
+     */
+    public Set<String> getUsernames() {
+        Set<String> usernames = new LinkedHashSet<>();
+        added.forEach(user -> usernames.add(user.getUsername()));
+        modified.forEach(user -> usernames.add(user.getCurrent().getUsername()));
+        usernames.addAll(removed);
+        return usernames;
+    }
+
+    @Override
+    public String toString() {
+        return added.size() + " added, " + modified.size() + " modified, " + removed.size() + " removed";
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class ModifiedUser {
+
+        private final UserRepresentation previous;
+
+        private final UserRepresentation current;
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.util.InputFingerprint;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.keycloak.representations.idm.UserRepresentation;
+
+/**
+ * Content hashes of the users of a users file, keyed by username. Only the compact JSON of each user is kept, users
+ * are bound to {@link UserRepresentation} when they show up in {@link #changesSince(UsersSnapshot)}, so comparing
+ * two versions of a large file costs a hash per user rather than a full bind.
+ */
+@Slf4j
+public class UsersSnapshot {
+
+    private final ObjectMapper objectMapper;
+
+    private final Map<String, Entry> users;
+
+    private UsersSnapshot(ObjectMapper objectMapper, Map<String, Entry> users) {
+        this.objectMapper = objectMapper;
+        this.users = users;
+    }
+
+    public static UsersSnapshot empty(ObjectMapper objectMapper) {
+        return new UsersSnapshot(objectMapper, Map.of());
+    }
+
+    /**
+     * Reads the {@code users} array of a users file, users without a username are skipped.
+     */
+    public static UsersSnapshot read(ObjectMapper objectMapper, InputStream usersJson) throws IOException {
+        JsonNode usersNode = objectMapper.readTree(usersJson).path("users");
+        Map<String, Entry> users = new LinkedHashMap<>();
+        for (JsonNode userNode : usersNode) {
+            String username = userNode.path("username").asText(null);
+            if (username == null) {
+                log.warn("Skipping user without username: {}", userNode);
+                continue;
+            }
+            byte[] json = userNode.toString().getBytes(StandardCharsets.UTF_8);
+            users.put(username, new Entry(InputFingerprint.sha256(json), json));
+        }
+        return new UsersSnapshot(objectMapper, users);
+    }
+
+    public int size() {
+        return users.size();
+    }
+
+    /**
+     * @return this snapshot with the given users as they are in the previous one, so that their changes show up again
+     *     when the next snapshot is compared with it
+     */
+    public UsersSnapshot revert(Collection<String> usernames, UsersSnapshot previous) {
+        if (usernames.isEmpty()) {
+            return this;
+        }
+        Map<String, Entry> reverted = new LinkedHashMap<>(users);
+        for (String username : usernames) {
+            Entry previousEntry = previous.users.get(username);
+            if (previousEntry == null) {
+                reverted.remove(username);
+            } else {
+                reverted.put(username, previousEntry);
+            }
+        }
+        return new UsersSnapshot(objectMapper, reverted);
+    }
+
+    /**
+     * @return the users added, modified or removed in this snapshot compared to the previous one
+     */
+    public UserChanges changesSince(UsersSnapshot previous) throws IOException {
+        List<UserRepresentation> added = new ArrayList<>();
+        List<UserChanges.ModifiedUser> modified = new ArrayList<>();
+        for (Map.Entry<String, Entry> user : users.entrySet()) {
+            Entry previousEntry = previous.users.get(user.getKey());
+            if (previousEntry == null) {
+                added.add(user.getValue().toUser(objectMapper));
+            } else if (!Arrays.equals(previousEntry.hash, user.getValue().hash)) {
+                modified.add(new UserChanges.ModifiedUser(
+                        previousEntry.toUser(objectMapper), user.getValue().toUser(objectMapper)));
+            }
+        }
+        List<String> removed = previous.users.keySet().stream()
+                .filter(username -> !users.containsKey(username))
+                .toList();
+        return new UserChanges(added, modified, removed);
+    }
+
+    private static class Entry {
+
+        private final byte[] hash;
+
+        private final byte[] json;
+
+        Entry(byte[] hash, byte[] json) {
+            this.hash = hash;
+            this.json = json;
+        }
+
+        UserRepresentation toUser(ObjectMapper objectMapper) throws IOException {
+            return objectMapper.readValue(json, UserRepresentation.class);
+        }
+    }
+}
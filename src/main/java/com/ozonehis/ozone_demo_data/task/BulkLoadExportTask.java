@@ -0,0 +1,60 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.task;
+
+import com.ozonehis.ozone_demo_data.config.BulkLoadConfig;
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import com.ozonehis.ozone_demo_data.generator.OpenmrsTableExporter;
+import com.ozonehis.ozone_demo_data.generator.SyntheticPatientFactory;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes the synthetic patients as files for the OpenMRS database tables, to be loaded with the generated
+ * {@code load.sql} script while OpenMRS is stopped, see {@link OpenmrsTableExporter}.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "openmrs.bulk-load.enabled", havingValue = "true")
+public class BulkLoadExportTask implements TaskExecutor {
+
+    private final BulkLoadConfig bulkLoadConfig;
+
+    private final PatientGeneratorConfig patientGeneratorConfig;
+
+    private final RunMetrics runMetrics;
+
+    @Override
+    public void executeAsync(CountDownLatch latch) {
+        try {
+            OpenmrsTableExporter exporter = new OpenmrsTableExporter(
+                    patientGeneratorConfig, bulkLoadConfig, new SyntheticPatientFactory(patientGeneratorConfig));
+            Path dir = Path.of(bulkLoadConfig.getDir());
+            Map<OpenmrsTableExporter.Table, Long> rows =
+                    exporter.export(dir, bulkLoadConfig.getFirstIndex(), bulkLoadConfig.getPatients());
+            rows.forEach((table, count) -> runMetrics.entityCompleted(table.getTableName(), count));
+            log.info("Load the files with: cd {} && mysql openmrs < load.sql", dir.toAbsolutePath());
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to export the bulk load files", e);
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return bulkLoadConfig.isEnabled();
+    }
+}
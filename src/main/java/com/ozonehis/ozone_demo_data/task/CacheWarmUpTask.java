@@ -0,0 +1,64 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.task;
+
+import com.ozonehis.ozone_demo_data.service.CacheWarmUpService;
+import java.util.concurrent.CountDownLatch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Warms up the OpenMRS caches once the demo data generation task of this run has completed, successfully or not.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(
+        name = {"openmrs.demo-data.enabled", "openmrs.warm-up.enabled"},
+        havingValue = "true")
+public class CacheWarmUpTask implements TaskExecutor {
+
+    @Autowired
+    private CacheWarmUpService cacheWarmUpService;
+
+    @Autowired
+    private ObjectProvider<DemoDataGenerationTask> demoDataGenerationTask;
+
+    @Value("${openmrs.warm-up.enabled:false}")
+    private boolean enabled;
+
+    @Value("${openmrs.demo-data.enabled:false}")
+    private boolean demoData;
+
+    @Value("${teardown.enabled:false}")
+    private boolean teardown;
+
+    @Override
+    public void executeAsync(CountDownLatch latch) {
+        try {
+            DemoDataGenerationTask generation = demoDataGenerationTask.getIfAvailable();
+            if (generation != null && generation.isEnabled()) {
+                log.info("Waiting for the demo data generation to complete before warming up the caches");
+                generation.completion().join();
+            }
+            cacheWarmUpService.warmUp();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to warm up the OpenMRS caches", e);
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled && demoData && !teardown;
+    }
+}
@@ -7,21 +7,34 @@
  */
 package com.ozonehis.ozone_demo_data.task;
 
+import com.ozonehis.ozone_demo_data.config.ShardConfig;
 import com.ozonehis.ozone_demo_data.service.DemoDataService;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnProperty(name = "openmrs.demo-data.enabled", havingValue = "true")
 public class DemoDataGenerationTask implements TaskExecutor {
 
     @Autowired
     private DemoDataService demoDataService;
 
+    @Autowired
+    private ShardConfig shardConfig;
+
     @Value("${openmrs.demo-data.enabled:false}")
     private boolean enabled;
 
+    /** In teardown mode {@link TeardownTask} removes the demo data instead. */
+    @Value("${teardown.enabled:false}")
+    private boolean teardown;
+
+    private final CompletableFuture<Void> completion = new CompletableFuture<>();
+
     @Override
     public void executeAsync(CountDownLatch latch) {
         try {
@@ -29,12 +42,21 @@ public class DemoDataGenerationTask implements TaskExecutor {
         } catch (Exception e) {
             throw new RuntimeException("Failed to trigger generate demo data", e);
         } finally {
+            completion.complete(null);
             latch.countDown();
         }
     }
 
+    /**
+     * @return completes once the demo data generation has run, whether it succeeded or not
+     */
+    public CompletableFuture<Void> completion() {
+        return completion;
+    }
+
     @Override
     public boolean isEnabled() {
-        return enabled;
+        // The demo patients are generated once per run, by the first shard of a sharded run
+        return enabled && !teardown && shardConfig.isFirstShard();
     }
 }
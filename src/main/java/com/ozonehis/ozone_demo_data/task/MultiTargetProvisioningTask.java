@@ -0,0 +1,126 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.task;
+
+import com.ozonehis.ozone_demo_data.config.ProvisioningTargetsConfig;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.service.TargetServices;
+import com.ozonehis.ozone_demo_data.service.TargetServicesFactory;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Provisions the targets listed under {@code provisioning.targets} concurrently, each with its own clients, connection
+ * pools and limiters. Within a target, users are created while the demo data is generated, as the separate tasks do
+ * for the default target.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MultiTargetProvisioningTask implements TaskExecutor {
+
+    private final ProvisioningTargetsConfig provisioningTargetsConfig;
+
+    private final TargetServicesFactory targetServicesFactory;
+
+    private final RunMetrics runMetrics;
+
+    /** Teardown only covers the default target. */
+    @Setter
+    @Value("${teardown.enabled:false}")
+    private boolean teardown;
+
+    @Override
+    public void executeAsync(CountDownLatch latch) {
+        List<ProvisioningTargetsConfig.Target> targets = provisioningTargetsConfig.getTargets();
+        int maxParallelTargets = provisioningTargetsConfig.getMaxParallelTargets();
+        int parallelTargets = maxParallelTargets > 0 ? Math.min(maxParallelTargets, targets.size()) : targets.size();
+        log.info("Provisioning {} targets, {} at a time", targets.size(), parallelTargets);
+
+        ExecutorService targetExecutor =
+                Executors.newFixedThreadPool(parallelTargets, new CustomizableThreadFactory("target-"));
+        // Demo data generation runs on its own threads so that it never waits for a target thread
+        ExecutorService demoDataExecutor =
+                Executors.newFixedThreadPool(parallelTargets, new CustomizableThreadFactory("target-demo-data-"));
+        try {
+            CompletableFuture.allOf(targets.stream()
+                            .map(target -> CompletableFuture.runAsync(
+                                    () -> provision(target, demoDataExecutor), targetExecutor))
+                            .toArray(CompletableFuture[]::new))
+                    .join();
+            log.info("Completed provisioning of {} targets", targets.size());
+        } finally {
+            targetExecutor.shutdown();
+            demoDataExecutor.shutdown();
+            latch.countDown();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return !teardown && !provisioningTargetsConfig.getTargets().isEmpty();
+    }
+
+    void provision(ProvisioningTargetsConfig.Target target, Executor demoDataExecutor) {
+        String name = target.displayName();
+        RunMetrics targetMetrics = runMetrics.target(name);
+        log.info("Provisioning target {}", name);
+        try (TargetServices services = targetServicesFactory.create(target, targetMetrics)) {
+            CompletableFuture<Void> demoData = CompletableFuture.completedFuture(null);
+            if (services.getDemoDataService() != null) {
+                demoData = CompletableFuture.runAsync(
+                        () -> runStep(
+                                name,
+                                targetMetrics,
+                                "DemoDataGenerationTask",
+                                services.getDemoDataService()::triggerDemoData),
+                        demoDataExecutor);
+            }
+            if (services.getKeycloakUserService() != null) {
+                runStep(
+                        name,
+                        targetMetrics,
+                        "UserCreationTask",
+                        services.getKeycloakUserService()::createUsersIfChanged);
+            }
+            demoData.join();
+            log.info("Completed provisioning of target {}", name);
+        } catch (Exception e) {
+            log.error("Failed to provision target {}: {}", name, e.getMessage(), e);
+        }
+    }
+
+    private void runStep(String target, RunMetrics targetMetrics, String step, Step action) {
+        targetMetrics.taskStarted(step);
+        boolean succeeded = false;
+        try {
+            action.run();
+            succeeded = true;
+        } catch (Exception e) {
+            log.error("Error executing {} for target {}: {}", step, target, e.getMessage(), e);
+        } finally {
+            targetMetrics.taskFinished(step, succeeded);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Step {
+
+        void run() throws Exception;
+    }
+}
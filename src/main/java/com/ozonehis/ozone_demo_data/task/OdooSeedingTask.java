@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.task;
+
+import com.ozonehis.ozone_demo_data.config.ShardConfig;
+import com.ozonehis.ozone_demo_data.service.OdooSeedingService;
+import java.util.concurrent.CountDownLatch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds Odoo with customers, products and price lists, alongside the users and the demo patients.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "odoo.seeding.enabled", havingValue = "true")
+public class OdooSeedingTask implements TaskExecutor {
+
+    @Autowired
+    private OdooSeedingService odooSeedingService;
+
+    @Autowired
+    private ShardConfig shardConfig;
+
+    @Value("${odoo.seeding.enabled:false}")
+    private boolean enabled;
+
+    /** Teardown does not cover Odoo, the seeded records are left in place. */
+    @Value("${teardown.enabled:false}")
+    private boolean teardown;
+
+    @Override
+    public void executeAsync(CountDownLatch latch) {
+        try {
+            odooSeedingService.seed();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to seed Odoo", e);
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        // The ERP records are seeded once per run, by the first shard of a sharded run
+        return enabled && !teardown && shardConfig.isFirstShard();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.task;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.report.RunReport;
+import com.ozonehis.ozone_demo_data.report.RunReportMerger;
+import com.ozonehis.ozone_demo_data.report.RunReportWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Merges the run reports of the replicas of a sharded run, found in {@code run-report.merge.dir}, into one summary.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RunReportMergeTask implements TaskExecutor {
+
+    static final String DEFAULT_MERGED_REPORT = "run-report-merged.json";
+
+    private final ObjectMapper objectMapper;
+
+    private final RunReportWriter runReportWriter;
+
+    @Setter
+    @Value("${run-report.merge.dir:}")
+    private String mergeDir;
+
+    @Setter
+    @Value("${run-report.merge.path:}")
+    private String mergePath;
+
+    @Override
+    public void executeAsync(CountDownLatch latch) {
+        try {
+            Path dir = Path.of(mergeDir);
+            Path merged =
+                    mergePath == null || mergePath.isBlank() ? dir.resolve(DEFAULT_MERGED_REPORT) : Path.of(mergePath);
+            List<RunReport> reports = new ArrayList<>();
+            List<Path> files;
+            try (Stream<Path> list = Files.list(dir)) {
+                files = list.filter(file -> file.getFileName().toString().endsWith(".json"))
+                        .filter(file -> !file.toAbsolutePath().equals(merged.toAbsolutePath()))
+                        .sorted()
+                        .collect(Collectors.toList());
+            }
+            for (Path file : files) {
+                reports.add(objectMapper.readValue(file.toFile(), RunReport.class));
+            }
+            log.info("Merging {} run reports from {}", reports.size(), dir);
+            RunReport report = RunReportMerger.merge(reports);
+            List<Integer> missingShards = RunReportMerger.missingShards(report);
+            if (!missingShards.isEmpty()) {
+                log.warn("The reports of shards {} of {} are missing", missingShards, report.getShardCount());
+            }
+            runReportWriter.writeTo(report, merged.toString());
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to merge the run reports of " + mergeDir, e);
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return mergeDir != null && !mergeDir.isBlank();
+    }
+}
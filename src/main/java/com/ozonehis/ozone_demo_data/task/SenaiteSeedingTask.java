@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.task;
+
+import com.ozonehis.ozone_demo_data.config.ShardConfig;
+import com.ozonehis.ozone_demo_data.service.SenaiteSeedingService;
+import java.util.concurrent.CountDownLatch;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Seeds SENAITE with sample types, clients and analysis services, alongside the users and the demo patients.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "senaite.seeding.enabled", havingValue = "true")
+public class SenaiteSeedingTask implements TaskExecutor {
+
+    @Autowired
+    private SenaiteSeedingService senaiteSeedingService;
+
+    @Autowired
+    private ShardConfig shardConfig;
+
+    @Value("${senaite.seeding.enabled:false}")
+    private boolean enabled;
+
+    /** Teardown does not cover SENAITE, the seeded objects are left in place. */
+    @Value("${teardown.enabled:false}")
+    private boolean teardown;
+
+    @Override
+    public void executeAsync(CountDownLatch latch) {
+        try {
+            senaiteSeedingService.seed();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to seed SENAITE", e);
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        // The LIS objects are seeded once per run, by the first shard of a sharded run
+        return enabled && !teardown && shardConfig.isFirstShard();
+    }
+}
@@ -7,10 +7,16 @@
  */
 package com.ozonehis.ozone_demo_data.task;
 
+import com.ozonehis.ozone_demo_data.report.ProgressReporter;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.report.RunReportWriter;
+import java.lang.management.ManagementFactory;
 import java.util.List;
 import java.util.concurrent.CountDownLatch;
 import lombok.RequiredArgsConstructor;
+import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
 import org.springframework.context.ApplicationContext;
@@ -26,8 +32,27 @@ public class TaskCoordinator implements ApplicationListener<ApplicationReadyEven
 
     private final ApplicationContext applicationContext;
 
+    private final RunMetrics runMetrics;
+
+    private final RunReportWriter runReportWriter;
+
+    private final ProgressReporter progressReporter;
+
+    /** In server mode tasks are triggered through the seeding endpoints and the application keeps running. */
+    @Setter
+    @Value("${server-mode.enabled:false}")
+    private boolean serverMode;
+
     @Override
     public void onApplicationEvent(ApplicationReadyEvent event) {
+        long startupMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        log.info("Ready to execute tasks {} ms after JVM start", startupMillis);
+        runMetrics.startupCompleted(startupMillis);
+        if (serverMode) {
+            log.info("Server mode enabled. Tasks run on demand instead of at startup.");
+            progressReporter.start();
+            return;
+        }
         executeTasks();
     }
 
@@ -37,19 +62,25 @@ public class TaskCoordinator implements ApplicationListener<ApplicationReadyEven
                 (int) taskExecutors.stream().filter(TaskExecutor::isEnabled).count();
 
         CountDownLatch latch = new CountDownLatch(enabledTaskCount);
+        // Tasks count down the latch themselves, this one ensures their timings are recorded before reporting
+        CountDownLatch recorded = new CountDownLatch(enabledTaskCount);
+        progressReporter.start();
 
         taskExecutors.forEach(task -> {
             new Thread(() -> {
                         if (task.isEnabled()) {
-                            log.info("Executing task: {}", task.getClass().getSimpleName());
+                            String taskName = task.getClass().getSimpleName();
+                            log.info("Executing task: {}", taskName);
+                            runMetrics.taskStarted(taskName);
+                            boolean succeeded = false;
                             try {
                                 task.executeAsync(latch);
+                                succeeded = true;
                             } catch (Exception e) {
-                                log.error(
-                                        "Error executing task {}: {}",
-                                        task.getClass().getSimpleName(),
-                                        e.getMessage(),
-                                        e);
+                                log.error("Error executing task {}: {}", taskName, e.getMessage(), e);
+                            } finally {
+                                runMetrics.taskFinished(taskName, succeeded);
+                                recorded.countDown();
                             }
                         } else {
                             log.info(
@@ -63,6 +94,9 @@ public class TaskCoordinator implements ApplicationListener<ApplicationReadyEven
         new Thread(() -> {
                     try {
                         latch.await();
+                        recorded.await();
+                        progressReporter.stop();
+                        runReportWriter.write(runMetrics.snapshot());
                         log.info("All tasks completed. Shutting down the application.");
                         SpringApplication.exit(applicationContext, () -> 0);
                     } catch (InterruptedException e) {
@@ -0,0 +1,76 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.task;
+
+import com.ozonehis.ozone_demo_data.config.ShardConfig;
+import com.ozonehis.ozone_demo_data.service.DemoDataService;
+import com.ozonehis.ozone_demo_data.service.KeycloakUserService;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Resets a demo environment instead of provisioning it: removes the users of the users file from Keycloak when user
+ * creation is enabled and the synthetic patients from OpenMRS when demo data is enabled, both at the same time.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "teardown.enabled", havingValue = "true")
+public class TeardownTask implements TaskExecutor {
+
+    private final ObjectProvider<KeycloakUserService> keycloakUserService;
+
+    private final ObjectProvider<DemoDataService> demoDataService;
+
+    private final ShardConfig shardConfig;
+
+    @Value("${teardown.enabled:false}")
+    private boolean enabled;
+
+    @Override
+    public void executeAsync(CountDownLatch latch) {
+        try {
+            CompletableFuture<Void> users = CompletableFuture.completedFuture(null);
+            KeycloakUserService userService = keycloakUserService.getIfAvailable();
+            if (userService != null) {
+                users = CompletableFuture.runAsync(() -> {
+                    try {
+                        userService.removeUsers();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            CompletableFuture<Void> patients = CompletableFuture.completedFuture(null);
+            DemoDataService demoData = demoDataService.getIfAvailable();
+            // The demo data is shared by the shards of a sharded run, as when it is generated
+            if (demoData != null && shardConfig.isFirstShard()) {
+                patients = CompletableFuture.runAsync(demoData::removeDemoData);
+            }
+            // Waits for both removals even when one fails, so that none is still running once the latch counts down
+            CompletableFuture.allOf(users, patients).join();
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to tear down the demo environment", e);
+        } finally {
+            latch.countDown();
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return enabled;
+    }
+}
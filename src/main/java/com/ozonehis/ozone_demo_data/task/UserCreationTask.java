@@ -11,9 +11,11 @@ import com.ozonehis.ozone_demo_data.service.KeycloakUserService;
 import java.util.concurrent.CountDownLatch;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 @Component
+@ConditionalOnProperty(name = "keycloak.user-creation.enabled", havingValue = "true")
 public class UserCreationTask implements TaskExecutor {
 
     @Autowired
@@ -22,10 +24,14 @@ public class UserCreationTask implements TaskExecutor {
     @Value("${keycloak.user-creation.enabled:false}")
     private boolean enabled;
 
+    /** In teardown mode {@link TeardownTask} removes the users instead. */
+    @Value("${teardown.enabled:false}")
+    private boolean teardown;
+
     @Override
     public void executeAsync(CountDownLatch latch) {
         try {
-            keycloakUserService.createUsers();
+            keycloakUserService.createUsersIfChanged();
         } catch (Exception e) {
             throw new RuntimeException("Failed to initialize Keycloak users", e);
         } finally {
@@ -35,6 +41,6 @@ public class UserCreationTask implements TaskExecutor {
 
     @Override
     public boolean isEnabled() {
-        return enabled;
+        return enabled && !teardown;
     }
 }
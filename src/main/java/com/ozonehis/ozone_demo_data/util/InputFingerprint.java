@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 fingerprints of the inputs of a run, stored at the targets after a successful run so that the next run with
+ * the same inputs can skip them.
+ */
+public final class InputFingerprint {
+
+    /** Bumped when the fingerprinted inputs change meaning, so that fingerprints of older versions never match. */
+    private static final String VERSION = "1";
+
+    private InputFingerprint() {}
+
+    /**
+     * @return the hex encoded fingerprint of the given named inputs
+     */
+    public static String of(Object... inputs) {
+        StringBuilder content = new StringBuilder(VERSION);
+        for (Object input : inputs) {
+            content.append('\n').append(input);
+        }
+        return HexFormat.of().formatHex(sha256(content.toString().getBytes(StandardCharsets.UTF_8)));
+    }
+
+    public static byte[] sha256(byte[] content) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(content);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -10,25 +10,39 @@ package com.ozonehis.ozone_demo_data.util;
 import static java.lang.Thread.sleep;
 
 import com.ozonehis.ozone_demo_data.config.KeycloakConfig;
+import com.ozonehis.ozone_demo_data.config.OdooConfig;
 import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
+import com.ozonehis.ozone_demo_data.config.SenaiteConfig;
+import com.ozonehis.ozone_demo_data.service.OdooJsonRpcClient;
+import com.ozonehis.ozone_demo_data.service.SenaiteJsonApiClient;
+import java.util.function.BooleanSupplier;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
 @Slf4j
 @Component
+@RequiredArgsConstructor
 public class SystemAvailabilityChecker {
 
-    @Autowired
-    private OpenmrsConfig openmrsConfig;
+    private final OpenmrsConfig openmrsConfig;
 
-    @Autowired
-    private KeycloakConfig keycloakConfig;
+    private final KeycloakConfig keycloakConfig;
 
-    @Autowired
-    private RestTemplate restTemplate;
+    private final OdooConfig odooConfig;
+
+    private final SenaiteConfig senaiteConfig;
+
+    private final RestTemplate restTemplate;
+
+    /** Only registered when Odoo is seeded, Odoo is not available otherwise. */
+    private final ObjectProvider<OdooJsonRpcClient> odooClient;
+
+    /** Only registered when SENAITE is seeded, SENAITE is not available otherwise. */
+    private final ObjectProvider<SenaiteJsonApiClient> senaiteClient;
 
     public boolean isOpenMRSAvailable() {
         return isSystemAvailable(openmrsConfig.getUrl() + "/health/started", "OpenMRS");
@@ -41,7 +55,7 @@ public class SystemAvailabilityChecker {
      */
     public boolean waitForOpenMRSAvailability() {
         return waitForSystemAvailability(
-                openmrsConfig.getUrl() + "/health/started",
+                this::isOpenMRSAvailable,
                 openmrsConfig.getMaxRetries(),
                 openmrsConfig.getRetryDelayMillis(),
                 "OpenMRS");
@@ -58,12 +72,45 @@ public class SystemAvailabilityChecker {
      */
     public boolean waitForKeycloakAvailability() {
         return waitForSystemAvailability(
-                keycloakConfig.getServerUrl() + "/health/ready",
+                this::isKeycloakAvailable,
                 keycloakConfig.getMaxRetries(),
                 keycloakConfig.getRetryDelayMillis(),
                 "Keycloak");
     }
 
+    public boolean isOdooAvailable() {
+        OdooJsonRpcClient client = odooClient.getIfAvailable();
+        return client != null && client.isAvailable();
+    }
+
+    /**
+     * Wait for Odoo server to be available
+     *
+     * @return true if Odoo server is available, false otherwise
+     */
+    public boolean waitForOdooAvailability() {
+        return waitForSystemAvailability(
+                this::isOdooAvailable, odooConfig.getMaxRetries(), odooConfig.getRetryDelayMillis(), "Odoo");
+    }
+
+    public boolean isSenaiteAvailable() {
+        SenaiteJsonApiClient client = senaiteClient.getIfAvailable();
+        return client != null && client.isAvailable();
+    }
+
+    /**
+     * Wait for SENAITE server to be available
+     *
+     * @return true if SENAITE server is available, false otherwise
+     */
+    public boolean waitForSenaiteAvailability() {
+        return waitForSystemAvailability(
+                this::isSenaiteAvailable,
+                senaiteConfig.getMaxRetries(),
+                senaiteConfig.getRetryDelayMillis(),
+                "SENAITE");
+    }
+
     /**
      * Check if the system is available
      *
@@ -75,32 +122,37 @@ public class SystemAvailabilityChecker {
         try {
             HttpStatusCode status = restTemplate.getForEntity(url, String.class).getStatusCode();
             if (status.is2xxSuccessful()) {
-                log.info("{} server is available", systemName);
+                log.debug("{} server is available", systemName);
                 return true;
             } else {
-                log.warn("{} server is not available. Status code: {}", systemName, status);
+                log.debug("{} server is not available. Status code: {}", systemName, status);
                 return false;
             }
         } catch (Exception e) {
-            log.warn("{} Server not ready: {}", systemName, e.getMessage());
+            log.debug("{} Server not ready: {}", systemName, e.getMessage());
             return false;
         }
     }
 
     /**
-     * Wait for the system to be available
+     * Wait for the system to be available. Polls are logged at DEBUG, only the start and the end of the wait are logged
+     * at INFO.
      *
-     * @param url              the URL to check
+     * @param probe            checks whether the system is available
      * @param maxRetries       the maximum number of retries
      * @param retryDelayMillis the delay between retries in milliseconds
      * @param systemName       the name of the system
      * @return true if the system is available, false otherwise
      */
-    private boolean waitForSystemAvailability(String url, int maxRetries, long retryDelayMillis, String systemName) {
+    private boolean waitForSystemAvailability(
+            BooleanSupplier probe, int maxRetries, long retryDelayMillis, String systemName) {
         int attempts = 0;
         boolean isAvailable;
 
-        while (!(isAvailable = isSystemAvailable(url, systemName)) && attempts < maxRetries) {
+        while (!(isAvailable = probe.getAsBoolean()) && attempts < maxRetries) {
+            if (attempts == 0) {
+                log.info("Waiting for {} server to be available...", systemName);
+            }
             try {
                 sleep(retryDelayMillis);
             } catch (InterruptedException e) {
@@ -108,9 +160,13 @@ public class SystemAvailabilityChecker {
                 Thread.currentThread().interrupt();
                 return false;
             }
-            log.info("Waiting for {} server to be available...", systemName);
             attempts++;
         }
+        if (isAvailable) {
+            log.info("{} server is available", systemName);
+        } else {
+            log.warn("{} server is still not available after {} attempts", systemName, attempts + 1);
+        }
         return isAvailable;
     }
 }
@@ -0,0 +1,152 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.config.ConditionalBeansVerifier;
+import com.ozonehis.ozone_demo_data.config.KeycloakConfig;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.server.SeedingJobService;
+import com.ozonehis.ozone_demo_data.server.SeedingServer;
+import com.ozonehis.ozone_demo_data.server.UsersFileWatcher;
+import com.ozonehis.ozone_demo_data.service.DemoDataService;
+import com.ozonehis.ozone_demo_data.service.KeycloakUserService;
+import com.ozonehis.ozone_demo_data.task.DemoDataGenerationTask;
+import com.ozonehis.ozone_demo_data.task.UserCreationTask;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.keycloak.admin.client.Keycloak;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.support.GenericApplicationContext;
+
+class ConditionalBeansTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withPropertyValues(
+                    "keycloak.server.url=http://localhost:8080/auth",
+                    "keycloak.demo.data.realm=ozone",
+                    "keycloak.demo.data.client.id=ozone-demo-data",
+                    "keycloak.demo.data.client.secret=secret",
+                    "keycloak.healthcheck.max.retries=1",
+                    "keycloak.healthcheck.retry.delay.millis=1");
+
+    @Test
+    void shouldRegisterKeycloakClientOnlyWhenUserCreationIsEnabled() {
+        contextRunner
+                .withUserConfiguration(KeycloakConfig.class)
+                .withPropertyValues("keycloak.user-creation.enabled=true")
+                .run(context -> assertThat(context).hasSingleBean(Keycloak.class));
+
+        contextRunner
+                .withUserConfiguration(KeycloakConfig.class)
+                .withPropertyValues("keycloak.user-creation.enabled=false")
+                .run(context -> assertThat(context).doesNotHaveBean(Keycloak.class));
+    }
+
+    @Test
+    void shouldNotRegisterDisabledTasksOrTheirServices() {
+        contextRunner
+                .withUserConfiguration(
+                        KeycloakConfig.class,
+                        KeycloakUserService.class,
+                        UserCreationTask.class,
+                        DemoDataService.class,
+                        DemoDataGenerationTask.class)
+                .run(context -> assertThat(context)
+                        .hasNotFailed()
+                        .doesNotHaveBean(Keycloak.class)
+                        .doesNotHaveBean(KeycloakUserService.class)
+                        .doesNotHaveBean(UserCreationTask.class)
+                        .doesNotHaveBean(DemoDataService.class)
+                        .doesNotHaveBean(DemoDataGenerationTask.class));
+    }
+
+    @Test
+    void shouldFailWhenAFlagIsEnabledButItsBeansAreNotRegistered() {
+        // As with an AOT artifact built with demo data generation disabled
+        contextRunner
+                .withUserConfiguration(ConditionalBeansVerifier.class)
+                .withPropertyValues("openmrs.demo-data.enabled=true")
+                .run(context -> assertThat(context)
+                        .hasFailed()
+                        .getFailure()
+                        .isInstanceOf(IllegalStateException.class)
+                        .hasMessageContaining("openmrs.demo-data.enabled"));
+
+        contextRunner
+                .withUserConfiguration(ConditionalBeansVerifier.class)
+                .withBean(DemoDataService.class, () -> mock(DemoDataService.class))
+                .withPropertyValues("openmrs.demo-data.enabled=true")
+                .run(context -> assertThat(context).hasNotFailed());
+    }
+
+    @Test
+    void shouldNotStartSeedingEndpointsRegisteredAheadOfTimeWhenServerModeIsDisabled() {
+        // Bean definitions generated ahead of time are registered without evaluating their conditions again
+        contextRunner
+                .withUserConfiguration(RunMetrics.class, ObjectMapper.class)
+                .withInitializer(context -> {
+                    GenericApplicationContext aotContext = (GenericApplicationContext) context;
+                    aotContext.registerBeanDefinition(
+                            "seedingJobService", new RootBeanDefinition(SeedingJobService.class));
+                    aotContext.registerBeanDefinition("seedingServer", new RootBeanDefinition(SeedingServer.class));
+                })
+                .withPropertyValues("server-mode.enabled=false", "server-mode.port=0")
+                .run(context -> {
+                    assertThat(context).hasNotFailed().hasSingleBean(SeedingServer.class);
+                    assertThat(context.getBean(SeedingServer.class).isRunning()).isFalse();
+                });
+    }
+
+    @Test
+    void shouldNotWatchTheUsersFileWhenWatchingIsDisabledAtRuntime(@TempDir Path directory) throws Exception {
+        Path usersFile = Files.writeString(directory.resolve("users.json"), "[]");
+        contextRunner
+                .withUserConfiguration(ObjectMapper.class)
+                .withBean(SeedingJobService.class, () -> mock(SeedingJobService.class))
+                .withInitializer(context -> ((GenericApplicationContext) context)
+                        .registerBeanDefinition("usersFileWatcher", new RootBeanDefinition(UsersFileWatcher.class)))
+                .withPropertyValues(
+                        "server-mode.enabled=true",
+                        "keycloak.user-creation.enabled=true",
+                        "keycloak.users.watch.enabled=false",
+                        "keycloak.users.json.path=" + usersFile)
+                .run(context -> {
+                    assertThat(context).hasNotFailed().hasSingleBean(UsersFileWatcher.class);
+                    assertThat(context.getBean(UsersFileWatcher.class).isRunning())
+                            .isFalse();
+                });
+    }
+
+    @Test
+    void shouldRegisterSeedingEndpointsOnlyInServerMode() {
+        contextRunner
+                .withUserConfiguration(SeedingServer.class, SeedingJobService.class, RunMetrics.class)
+                .run(context -> assertThat(context)
+                        .hasNotFailed()
+                        .doesNotHaveBean(SeedingServer.class)
+                        .doesNotHaveBean(SeedingJobService.class));
+
+        contextRunner
+                .withUserConfiguration(
+                        SeedingServer.class, SeedingJobService.class, RunMetrics.class, ObjectMapper.class)
+                .withPropertyValues("server-mode.enabled=true", "server-mode.port=0", "server-mode.token=secret")
+                .run(context -> {
+                    assertThat(context).hasSingleBean(SeedingServer.class);
+                    assertThat(context.getBean(SeedingServer.class).isRunning()).isTrue();
+                    assertThat(context.getBean(SeedingJobService.class).isUserCreationEnabled())
+                            .isFalse();
+                });
+    }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.ws.rs.WebApplicationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private static final long ONE_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    @Test
+    void shouldGrowLimitWhileSaturatedAndHealthy() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 10, 2.0, null);
+
+        for (int i = 0; i < 20; i++) {
+            limiter.acquire();
+            limiter.acquire();
+            limiter.release(ONE_MILLI, false);
+            limiter.release(ONE_MILLI, false);
+        }
+
+        assertTrue(limiter.getLimit() > 2);
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void shouldNotGrowLimitBeyondMax() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 1, 3, 2.0, null);
+
+        for (int i = 0; i < 200; i++) {
+            limiter.acquire();
+            limiter.acquire();
+            limiter.release(ONE_MILLI, false);
+            limiter.release(ONE_MILLI, false);
+        }
+
+        assertEquals(3, limiter.getLimit());
+    }
+
+    @Test
+    void shouldCutLimitOnOverload() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 10, 2.0, null);
+
+        limiter.acquire();
+        limiter.release(ONE_MILLI, true);
+
+        assertEquals(7, limiter.getLimit());
+    }
+
+    @Test
+    void shouldCutLimitWhenLatencyDegrades() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 10, 2.0, null);
+
+        for (int i = 0; i < AdaptiveConcurrencyLimiter.WARM_UP_SAMPLES; i++) {
+            limiter.acquire();
+            limiter.release(ONE_MILLI, false);
+        }
+        assertEquals(10, limiter.getLimit());
+
+        for (int i = 0; i < 20 && limiter.getLimit() == 10; i++) {
+            limiter.acquire();
+            limiter.release(10 * ONE_MILLI, false);
+        }
+
+        assertEquals(7, limiter.getLimit());
+    }
+
+    @Test
+    void shouldNotCutLimitBelowMin() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 2, 2, 10, 2.0, null);
+
+        limiter.acquire();
+        limiter.release(ONE_MILLI, true);
+
+        assertEquals(2, limiter.getLimit());
+    }
+
+    @Test
+    void shouldClassifyOverloadFailuresThrownByCalls() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 10, 1, 10, 2.0, null);
+
+        assertThrows(
+                WebApplicationException.class,
+                () -> limiter.execute(() -> {
+                    throw new WebApplicationException(404);
+                }));
+        assertEquals(10, limiter.getLimit());
+
+        assertThrows(
+                WebApplicationException.class,
+                () -> limiter.execute(() -> {
+                    throw new WebApplicationException(429);
+                }));
+        assertEquals(7, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    @Test
+    void shouldBlockCallsOverTheLimitUntilAPermitIsReleased() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 2.0, null);
+        limiter.acquire();
+
+        CompletableFuture<String> blocked = CompletableFuture.supplyAsync(() -> limiter.execute(() -> "done"));
+        Thread.sleep(100);
+        assertFalse(blocked.isDone());
+
+        limiter.release(ONE_MILLI, false);
+        assertEquals("done", blocked.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shouldShareCapAcrossLimiters() throws Exception {
+        Semaphore sharedCap = new Semaphore(1);
+        AdaptiveConcurrencyLimiter keycloak = new AdaptiveConcurrencyLimiter("keycloak", 4, 1, 4, 2.0, sharedCap);
+        AdaptiveConcurrencyLimiter openmrs = new AdaptiveConcurrencyLimiter("openmrs", 4, 1, 4, 2.0, sharedCap);
+        keycloak.acquire();
+
+        CompletableFuture<String> blocked = CompletableFuture.supplyAsync(() -> openmrs.execute(() -> "done"));
+        Thread.sleep(100);
+        assertFalse(blocked.isDone());
+
+        keycloak.release(ONE_MILLI, false);
+        assertEquals("done", blocked.get(5, TimeUnit.SECONDS));
+        assertEquals(1, sharedCap.availablePermits());
+    }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.ozonehis.ozone_demo_data.exceptions.CircuitOpenException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class CircuitBreakerTest {
+
+    @Test
+    void shouldOpenAfterConsecutiveTransientFailures() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 3, 0, 0, () -> true);
+
+        breaker.onFailure(true);
+        breaker.onFailure(true);
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+
+        breaker.onFailure(true);
+        assertEquals(CircuitBreaker.State.OPEN, breaker.getState());
+    }
+
+    @Test
+    void shouldResetFailureCountOnSuccessOrNonTransientFailure() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 2, 0, 0, () -> true);
+
+        breaker.onFailure(true);
+        breaker.onSuccess();
+        breaker.onFailure(true);
+        breaker.onFailure(false);
+        breaker.onFailure(true);
+
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldResumeOnceHealthProbeSucceeds() {
+        AtomicInteger probes = new AtomicInteger();
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 1, 10_000, () -> probes.incrementAndGet() >= 3);
+        breaker.onFailure(true);
+
+        breaker.awaitClosed();
+
+        assertEquals(3, probes.get());
+        assertEquals(CircuitBreaker.State.CLOSED, breaker.getState());
+    }
+
+    @Test
+    void shouldGiveUpWhenTargetDoesNotRecoverWithinMaxPause() {
+        CircuitBreaker breaker = new CircuitBreaker("test", 1, 1, 50, () -> false);
+        breaker.onFailure(true);
+
+        assertThrows(CircuitOpenException.class, breaker::awaitClosed);
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.concurrency;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class ConcurrencyLimitersTest {
+
+    @Test
+    void shouldShareTheLimiterOfSystemsOnTheSameHost() {
+        assertTrue(ConcurrencyLimiters.sameHost("http://ozone:8080/openmrs", "http://ozone:8084"));
+        assertFalse(ConcurrencyLimiters.sameHost("http://openmrs:8080/openmrs", "http://keycloak:8084"));
+    }
+
+    @Test
+    void shouldNotShareTheLimiterOfSystemsWithoutAValidUrl() {
+        assertFalse(ConcurrencyLimiters.sameHost(null, "http://ozone:8084"));
+        assertFalse(ConcurrencyLimiters.sameHost("http://ozone:8080/openmrs", null));
+        assertFalse(ConcurrencyLimiters.sameHost("http://ozone:8080/open mrs", "http://ozone:8084"));
+        assertFalse(ConcurrencyLimiters.sameHost("openmrs", "openmrs"));
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import jakarta.ws.rs.ProcessingException;
+import jakarta.ws.rs.WebApplicationException;
+import java.net.SocketException;
+import java.net.SocketTimeoutException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+class FailureClassifierTest {
+
+    @Test
+    void shouldTreatRateLimitingAndServerErrorsAsOverload() {
+        assertTrue(FailureClassifier.isOverload(new WebApplicationException(429)));
+        assertTrue(FailureClassifier.isOverload(new WebApplicationException(503)));
+        assertTrue(FailureClassifier.isOverload(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS)));
+        assertTrue(FailureClassifier.isOverload(new HttpServerErrorException(HttpStatus.BAD_GATEWAY)));
+    }
+
+    @Test
+    void shouldTreatTimeoutsAsOverload() {
+        assertTrue(FailureClassifier.isOverload(new ProcessingException(new SocketTimeoutException("Read timed out"))));
+        assertTrue(FailureClassifier.isOverload(
+                new ResourceAccessException("I/O error", new SocketTimeoutException("Read timed out"))));
+        assertTrue(FailureClassifier.isOverload(new ProcessingException(new SocketException("Connection reset"))));
+    }
+
+    @Test
+    void shouldNotTreatClientErrorsAsOverload() {
+        assertFalse(FailureClassifier.isOverload(new WebApplicationException(404)));
+        assertFalse(FailureClassifier.isOverload(new HttpClientErrorException(HttpStatus.CONFLICT)));
+        assertFalse(FailureClassifier.isOverload(new IllegalStateException("boom")));
+    }
+}
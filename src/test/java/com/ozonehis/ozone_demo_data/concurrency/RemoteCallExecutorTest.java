@@ -0,0 +1,127 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import jakarta.ws.rs.WebApplicationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+class RemoteCallExecutorTest {
+
+    private final RunMetrics runMetrics = new RunMetrics();
+
+    private RemoteCallExecutor executor(int maxAttempts, RetryBudget retryBudget) {
+        return new RemoteCallExecutor(
+                new AdaptiveConcurrencyLimiter("test", 4, 1, 4, 2.0, null),
+                new CircuitBreaker("test", 100, 0, 0, () -> true),
+                retryBudget,
+                runMetrics,
+                maxAttempts,
+                0,
+                0);
+    }
+
+    @Test
+    void shouldRetryTransientFailuresOfIdempotentCalls() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = executor(4, new RetryBudget(0.2, 10)).execute("test.get", true, () -> {
+            if (attempts.incrementAndGet() < 3) {
+                throw new WebApplicationException(503);
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, runMetrics.snapshot().getCalls().get("test.get").getCount());
+        assertEquals(2, runMetrics.snapshot().getCalls().get("test.get").getRetries());
+    }
+
+    @Test
+    void shouldNotRetryClientErrors() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(WebApplicationException.class, () -> executor(4, new RetryBudget(0.2, 10))
+                .execute("test.get", true, () -> {
+                    attempts.incrementAndGet();
+                    throw new WebApplicationException(404);
+                }));
+
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void shouldOnlyRetryNonIdempotentCallsRejectedBeforeProcessing() {
+        AtomicInteger attempts = new AtomicInteger();
+        RemoteCallExecutor executor = executor(4, new RetryBudget(0.2, 10));
+
+        assertThrows(
+                WebApplicationException.class,
+                () -> executor.execute("test.post", false, () -> {
+                    attempts.incrementAndGet();
+                    throw new WebApplicationException(503);
+                }));
+        assertEquals(1, attempts.get());
+
+        attempts.set(0);
+        assertThrows(
+                WebApplicationException.class,
+                () -> executor.execute("test.post", false, () -> {
+                    attempts.incrementAndGet();
+                    throw new WebApplicationException(429);
+                }));
+        assertEquals(4, attempts.get());
+    }
+
+    @Test
+    void shouldOnlyHoldAPermitOfTheLimiterForLimitedCalls() {
+        RemoteCallExecutor executor = executor(4, new RetryBudget(0.2, 10));
+
+        assertEquals(1, executor.execute("test.get", true, () -> executor.getLimiter()
+                .getInFlight()));
+        assertEquals(0, executor.executeWithoutLimit("test.generate", false, () -> executor.getLimiter()
+                .getInFlight()));
+        assertEquals(1, runMetrics.snapshot().getCalls().get("test.generate").getCount());
+    }
+
+    @Test
+    void shouldStopRetryingWhenBudgetIsExhausted() {
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThrows(WebApplicationException.class, () -> executor(10, new RetryBudget(0, 2))
+                .execute("test.get", true, () -> {
+                    attempts.incrementAndGet();
+                    throw new WebApplicationException(503);
+                }));
+
+        assertEquals(3, attempts.get());
+    }
+
+    @Test
+    void shouldKeepBackoffWithinExponentialCeiling() {
+        RemoteCallExecutor executor = new RemoteCallExecutor(
+                new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 2.0, null),
+                new CircuitBreaker("test", 1, 0, 0, () -> true),
+                new RetryBudget(0, 0),
+                runMetrics,
+                4,
+                100,
+                1000);
+
+        for (int i = 0; i < 100; i++) {
+            assertTrue(executor.backoffMillis(1) <= 100);
+            assertTrue(executor.backoffMillis(3) <= 400);
+            assertTrue(executor.backoffMillis(10) <= 1000);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.concurrency;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+class RetryBudgetTest {
+
+    @Test
+    void shouldStopRetriesOnceTokensAreSpent() {
+        RetryBudget budget = new RetryBudget(0.5, 2);
+
+        assertTrue(budget.tryAcquireRetry());
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+    }
+
+    @Test
+    void shouldEarnTokensFromCallsUpToTheMaximum() {
+        RetryBudget budget = new RetryBudget(0.5, 1);
+        budget.tryAcquireRetry();
+
+        budget.onCall();
+        assertFalse(budget.tryAcquireRetry());
+        budget.onCall();
+        budget.onCall();
+        budget.onCall();
+
+        assertTrue(budget.tryAcquireRetry());
+        assertFalse(budget.tryAcquireRetry());
+    }
+}
@@ -0,0 +1,34 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ProvisioningTargetsConfigTest {
+
+    @Test
+    void shouldNameTheTargetsWithoutANameOrARealmAfterTheirIndex() {
+        ProvisioningTargetsConfig.Target named = new ProvisioningTargetsConfig.Target();
+        named.setName("tenant-a");
+        ProvisioningTargetsConfig.Target realm = new ProvisioningTargetsConfig.Target();
+        realm.getKeycloak().setRealm("tenant-b");
+        ProvisioningTargetsConfig.Target unnamed = new ProvisioningTargetsConfig.Target();
+        unnamed.getKeycloak().setRealm(" ");
+        ProvisioningTargetsConfig config = new ProvisioningTargetsConfig();
+        config.setTargets(List.of(named, realm, unnamed));
+
+        config.nameTargets();
+
+        assertEquals("tenant-a", named.displayName());
+        assertEquals("tenant-b", realm.displayName());
+        assertEquals("target-2", unnamed.displayName());
+    }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.config;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class ShardConfigTest {
+
+    @Test
+    void shouldOwnEveryUserWhenNotSharded() {
+        ShardConfig shardConfig = new ShardConfig();
+
+        assertFalse(shardConfig.isSharded());
+        assertTrue(shardConfig.isFirstShard());
+        assertTrue(shardConfig.owns("jdoe"));
+        assertEquals("", shardConfig.suffix());
+    }
+
+    @Test
+    void shouldGiveEachUserToExactlyOneShard() {
+        ShardConfig[] shards =
+                IntStream.range(0, 4).mapToObj(index -> shard(index, 4)).toArray(ShardConfig[]::new);
+        int[] owned = new int[4];
+
+        for (int user = 0; user < 10_000; user++) {
+            String username = "user" + user;
+            int owners = 0;
+            for (int shard = 0; shard < 4; shard++) {
+                if (shards[shard].owns(username)) {
+                    owners++;
+                    owned[shard]++;
+                }
+            }
+            assertEquals(1, owners, username);
+        }
+        // Similar usernames are spread evenly
+        for (int count : owned) {
+            assertTrue(count > 2_250 && count < 2_750, "Uneven shard of " + count + " users");
+        }
+        assertEquals(ShardConfig.shardOf("JDoe", 4), ShardConfig.shardOf("jdoe", 4));
+        assertEquals("-shard-1-of-4", shards[1].suffix());
+    }
+
+    @Test
+    void shouldRejectAnIndexOutsideOfTheShards() {
+        assertThrows(IllegalArgumentException.class, () -> shard(4, 4).validate());
+        assertThrows(IllegalArgumentException.class, () -> shard(0, 0).validate());
+    }
+
+    private static ShardConfig shard(int index, int count) {
+        ShardConfig shardConfig = new ShardConfig();
+        shardConfig.setIndex(index);
+        shardConfig.setCount(count);
+        return shardConfig;
+    }
+}
@@ -0,0 +1,166 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class ClinicalHistoryGeneratorTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    private PatientGeneratorConfig config;
+
+    private ClinicalHistoryGenerator generator;
+
+    @BeforeEach
+    void setUp() {
+        config = new PatientGeneratorConfig();
+        config.setSeed(42);
+        config.setLocationUuid("location-uuid");
+        config.setEncounterTypeUuid("encounter-type-uuid");
+        config.setWeightConceptUuid("weight-uuid");
+        config.setVisitTypeUuid("visit-type-uuid");
+        config.setHistoryYears(5);
+        config.setVisitsPerYear(4);
+        config.setLabRatio(0.25);
+        generator = new ClinicalHistoryGenerator(config, TODAY);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldGenerateVisitsWithVitalsEncounterAndObservations() {
+        List<ClinicalHistoryGenerator.Visit> visits = generator
+                .visits(3, LocalDate.of(1980, 1, 1), "Patient/patient-uuid")
+                .collect(Collectors.toList());
+
+        assertEquals(20, visits.size());
+        ClinicalHistoryGenerator.Visit visit = visits.get(0);
+        assertEquals("visit", visit.getEntityTypes().get(0));
+        assertEquals("encounter", visit.getEntityTypes().get(1));
+        assertTrue(visit.getEntityTypes().subList(2, visit.getEntityTypes().size()).stream()
+                .allMatch("observation"::equals));
+        assertEquals(visit.getEntries().size(), visit.getEntityTypes().size());
+        Map<String, Object> visitEntry = visit.getEntries().get(0);
+        Map<String, Object> encounter = resource(visit.getEntries().get(1));
+        Map<String, Object> observation = resource(visit.getEntries().get(2));
+        assertEquals(
+                Map.of("reference", "Patient/patient-uuid"),
+                resource(visitEntry).get("subject"));
+        assertEquals(Map.of("reference", visitEntry.get("fullUrl")), encounter.get("partOf"));
+        assertEquals(Map.of("reference", visit.getEntries().get(1).get("fullUrl")), observation.get("encounter"));
+        assertEquals(
+                "weight-uuid",
+                ((List<Map<String, Object>>) ((Map<String, Object>) observation.get("code")).get("coding"))
+                        .get(0)
+                        .get("code"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldNotGenerateVisitsBeforeBirthOrAfterTheReferenceDate() {
+        LocalDate birthdate = TODAY.minusYears(1);
+
+        List<ClinicalHistoryGenerator.Visit> visits =
+                generator.visits(7, birthdate, "Patient/patient-uuid").collect(Collectors.toList());
+
+        assertEquals(4, visits.size());
+        for (ClinicalHistoryGenerator.Visit visit : visits) {
+            Map<String, Object> period =
+                    (Map<String, Object>) resource(visit.getEntries().get(0)).get("period");
+            LocalDate start = LocalDate.parse((String) period.get("start"));
+            assertFalse(start.isBefore(birthdate));
+            assertFalse(start.isAfter(TODAY));
+        }
+    }
+
+    @Test
+    void shouldGenerateTheSameHistoryForTheSamePatient() {
+        LocalDate birthdate = LocalDate.of(1990, 5, 1);
+
+        List<ClinicalHistoryGenerator.Visit> first =
+                generator.visits(11, birthdate, "Patient/a").collect(Collectors.toList());
+        List<ClinicalHistoryGenerator.Visit> second =
+                generator.visits(11, birthdate, "Patient/a").collect(Collectors.toList());
+        List<ClinicalHistoryGenerator.Visit> other =
+                generator.visits(12, birthdate, "Patient/a").collect(Collectors.toList());
+
+        for (int i = 0; i < first.size(); i++) {
+            assertEquals(first.get(i).getEntries(), second.get(i).getEntries());
+        }
+        assertNotEquals(first.get(0).getEntries(), other.get(0).getEntries());
+    }
+
+    @Test
+    void shouldNotShareTheVisitNoiseOfNeighbouringPatients() {
+        config.setVisitsPerYear(12);
+        LocalDate birthdate = LocalDate.of(1990, 5, 1);
+
+        List<ClinicalHistoryGenerator.Visit> first =
+                generator.visits(3, birthdate, "Patient/a").collect(Collectors.toList());
+        List<ClinicalHistoryGenerator.Visit> next =
+                generator.visits(4, birthdate, "Patient/a").collect(Collectors.toList());
+
+        assertEquals(60, first.size());
+        // A linear seed of the patient and its visit gives visit v + 31 of a patient the stream of visit v of the next
+        assertNotEquals(
+                first.subList(31, 60).stream()
+                        .map(ClinicalHistoryGeneratorTest::noise)
+                        .collect(Collectors.toList()),
+                next.subList(0, 29).stream()
+                        .map(ClinicalHistoryGeneratorTest::noise)
+                        .collect(Collectors.toList()));
+    }
+
+    @Test
+    void shouldAddLabResultsToTheConfiguredShareOfVisits() {
+        config.setLabRatio(1.0);
+        assertEquals(
+                9,
+                generator
+                        .visits(1, LocalDate.of(1980, 1, 1), "Patient/a")
+                        .findFirst()
+                        .orElseThrow()
+                        .getEntries()
+                        .size());
+
+        config.setLabRatio(0.0);
+        assertEquals(
+                8,
+                generator
+                        .visits(1, LocalDate.of(1980, 1, 1), "Patient/a")
+                        .findFirst()
+                        .orElseThrow()
+                        .getEntries()
+                        .size());
+    }
+
+    /**
+     * @return the temperature and pulse of the visit, which only depend on the random stream of the visit
+     */
+    @SuppressWarnings("unchecked")
+    private static List<Object> noise(ClinicalHistoryGenerator.Visit visit) {
+        return List.of(4, 7).stream()
+                .map(i -> ((Map<String, Object>)
+                                resource(visit.getEntries().get(i)).get("valueQuantity"))
+                        .get("value"))
+                .collect(Collectors.toList());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> resource(Map<String, Object> entry) {
+        return (Map<String, Object>) entry.get("resource");
+    }
+}
@@ -0,0 +1,139 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class DemographicDictionaryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReadBackTheValuesOfAMappedDictionary() throws IOException {
+        Path file = tempDir.resolve("family-names.dict");
+        DemographicDictionary.write(file, List.of("Otieno", "Muñoz", "Nguyễn"), new long[] {1, 1, 1});
+
+        DemographicDictionary dictionary = DemographicDictionary.open(file);
+
+        assertEquals(3, dictionary.size());
+        assertEquals("Otieno", dictionary.get(0));
+        assertEquals("Muñoz", dictionary.get(1));
+        assertEquals("Nguyễn", dictionary.get(2));
+        assertThrows(IndexOutOfBoundsException.class, () -> dictionary.get(3));
+    }
+
+    @Test
+    void shouldReadTheChecksumWrittenInTheHeader() throws IOException {
+        Path file = tempDir.resolve("counties.dict");
+        DemographicDictionary.write(file, List.of("Kisii", "Nyeri"), new long[] {1, 1});
+        Path reweighted = tempDir.resolve("reweighted-counties.dict");
+        DemographicDictionary.write(reweighted, List.of("Kisii", "Nyeri"), new long[] {1, 2});
+
+        long checksum = DemographicDictionary.open(file).getChecksum();
+
+        assertEquals(DemographicDictionary.of("counties", "Kisii", "Nyeri").getChecksum(), checksum);
+        assertNotEquals(DemographicDictionary.open(reweighted).getChecksum(), checksum);
+    }
+
+    @Test
+    void shouldSampleAccordingToTheWeights() throws IOException {
+        Path file = tempDir.resolve("cities.dict");
+        DemographicDictionary.write(file, List.of("Nairobi", "Kisumu", "Lamu"), new long[] {70, 29, 1});
+        DemographicDictionary dictionary = DemographicDictionary.open(file);
+        SplittableRandom random = new SplittableRandom(1);
+
+        int[] counts = new int[3];
+        for (int i = 0; i < 100_000; i++) {
+            counts[dictionary.sample(random)]++;
+        }
+
+        assertEquals(0.70, counts[0] / 100_000.0, 0.01);
+        assertEquals(0.29, counts[1] / 100_000.0, 0.01);
+        assertEquals(0.01, counts[2] / 100_000.0, 0.005);
+    }
+
+    @Test
+    void shouldDrawTheSameValuesFromAllThreads() throws IOException {
+        Path file = tempDir.resolve("streets.dict");
+        DemographicDictionary.write(
+                file,
+                IntStream.range(0, 1000).mapToObj(i -> "Street " + i).toList(),
+                IntStream.range(0, 1000).mapToLong(i -> i + 1).toArray());
+        DemographicDictionary dictionary = DemographicDictionary.open(file);
+
+        List<CompletableFuture<String>> draws = IntStream.range(0, 8)
+                .mapToObj(thread -> CompletableFuture.supplyAsync(() -> {
+                    SplittableRandom random = new SplittableRandom(7);
+                    StringBuilder values = new StringBuilder();
+                    for (int i = 0; i < 10_000; i++) {
+                        values.append(dictionary.pick(random)).append(',');
+                    }
+                    return values.toString();
+                }))
+                .toList();
+
+        String first = draws.get(0).join();
+        draws.forEach(draw -> assertEquals(first, draw.join()));
+    }
+
+    @Test
+    void shouldCompileATextFileWithOptionalWeights() throws IOException {
+        Path source = tempDir.resolve("occupations.tsv");
+        Files.writeString(source, "# occupation\tweight\nFarmer\t3\n\nTeacher\n", StandardCharsets.UTF_8);
+        Path target = tempDir.resolve("occupations.dict");
+
+        DemographicDictionary.compile(source, target);
+
+        DemographicDictionary dictionary = DemographicDictionary.open(target);
+        assertEquals(2, dictionary.size());
+        assertEquals("Farmer", dictionary.get(0));
+        assertEquals("Teacher", dictionary.get(1));
+    }
+
+    @Test
+    void shouldRejectAFileThatIsNotADictionary() throws IOException {
+        Path file = tempDir.resolve("names.dict");
+        Files.writeString(file, "Amina\nGrace\nFatima\nMary\nAisha\nJoyce\n", StandardCharsets.UTF_8);
+
+        assertThrows(IllegalArgumentException.class, () -> DemographicDictionary.open(file));
+    }
+
+    @Test
+    void shouldUseTheDictionariesOfTheConfiguredLocaleAndFallBackToTheBuiltInOnes() throws IOException {
+        DemographicDictionary.write(
+                tempDir.resolve("sw_KE").resolve(DemographicDictionaries.CITIES + ".dict"),
+                List.of("Nakuru"),
+                new long[] {1});
+        PatientGeneratorConfig config = new PatientGeneratorConfig();
+        config.setDictionariesDir(tempDir.toString());
+        config.setDictionariesLocale("sw_KE");
+
+        DemographicDictionaries dictionaries = DemographicDictionaries.load(config);
+
+        assertEquals("Nakuru", dictionaries.get(DemographicDictionaries.CITIES).pick(new SplittableRandom(3)));
+        assertEquals(
+                DemographicDictionaries.builtIn()
+                        .get(DemographicDictionaries.STREETS)
+                        .size(),
+                dictionaries.get(DemographicDictionaries.STREETS).size());
+        assertNotEquals(DemographicDictionaries.builtIn().fingerprint(), dictionaries.fingerprint());
+    }
+}
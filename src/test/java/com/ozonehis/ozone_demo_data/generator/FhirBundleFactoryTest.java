@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class FhirBundleFactoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    private FhirBundleFactory factory;
+
+    @BeforeEach
+    void setUp() {
+        PatientGeneratorConfig config = new PatientGeneratorConfig();
+        config.setSeed(42);
+        config.setFemaleRatio(0.5);
+        config.setMaxAge(90);
+        config.setIdentifierPrefix("DEMO-");
+        config.setIdentifierTypeUuid("identifier-type-uuid");
+        config.setLocationUuid("location-uuid");
+        config.setEncounterTypeUuid("encounter-type-uuid");
+        config.setWeightConceptUuid("weight-uuid");
+        factory = new FhirBundleFactory(config, new SyntheticPatientFactory(config, TODAY), TODAY);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldBuildTransactionWithPatientEncounterAndObservationPerPatient() {
+        Map<String, Object> bundle = factory.transaction(5, 3);
+
+        assertEquals("transaction", bundle.get("type"));
+        List<Map<String, Object>> entries = (List<Map<String, Object>>) bundle.get("entry");
+        assertEquals(9, entries.size());
+        Map<String, Object> patient = entries.get(0);
+        Map<String, Object> encounter = entries.get(1);
+        Map<String, Object> observation = entries.get(2);
+        assertEquals("Patient", resource(patient).get("resourceType"));
+        assertEquals(
+                "DEMO-0000005",
+                ((List<Map<String, Object>>) resource(patient).get("identifier"))
+                        .get(0)
+                        .get("value"));
+        assertEquals(Map.of("method", "POST", "url", "Patient"), patient.get("request"));
+        assertEquals("Encounter", resource(encounter).get("resourceType"));
+        assertEquals(
+                Map.of("reference", patient.get("fullUrl")), resource(encounter).get("subject"));
+        assertEquals("Observation", resource(observation).get("resourceType"));
+        assertEquals(
+                Map.of("reference", patient.get("fullUrl")),
+                resource(observation).get("subject"));
+        assertEquals(
+                Map.of("reference", encounter.get("fullUrl")),
+                resource(observation).get("encounter"));
+        assertTrue(((String) patient.get("fullUrl")).startsWith("urn:uuid:"));
+    }
+
+    @Test
+    void shouldBuildTheSameBundleForTheSameIndexes() {
+        assertEquals(factory.transaction(10, 2), factory.transaction(10, 2));
+        assertNotEquals(factory.transaction(10, 2), factory.transaction(12, 2));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> resource(Map<String, Object> entry) {
+        return (Map<String, Object>) entry.get("resource");
+    }
+}
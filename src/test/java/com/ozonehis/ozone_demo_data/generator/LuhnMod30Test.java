@@ -0,0 +1,67 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Test;
+
+class LuhnMod30Test {
+
+    @Test
+    void shouldDetectEverySingleCharacterError() {
+        String identifier = LuhnMod30.withCheckCharacter("10A7F");
+
+        assertTrue(LuhnMod30.isValid(identifier));
+        for (int position = 0; position < identifier.length(); position++) {
+            for (char character : LuhnMod30.CHARACTERS.toCharArray()) {
+                if (character != identifier.charAt(position)) {
+                    String changed = identifier.substring(0, position) + character + identifier.substring(position + 1);
+                    assertFalse(LuhnMod30.isValid(changed), changed);
+                }
+            }
+        }
+    }
+
+    @Test
+    void shouldDetectAdjacentTranspositions() {
+        String identifier = LuhnMod30.withCheckCharacter("3C9K2");
+        String transposed = "C3" + identifier.substring(2);
+
+        assertFalse(LuhnMod30.isValid(transposed));
+    }
+
+    @Test
+    void shouldEncodeNumbersWithOpenmrsIdCharacters() {
+        assertEquals("000000", LuhnMod30.encode(0, 6));
+        assertEquals("00000Y", LuhnMod30.encode(29, 6));
+        assertEquals("000010", LuhnMod30.encode(30, 6));
+        assertThrows(IllegalArgumentException.class, () -> LuhnMod30.checkCharacter("DEMO-1"));
+        assertFalse(LuhnMod30.isValid("B1"));
+    }
+
+    @Test
+    void shouldBuildValidLuhnMod30PatientIdentifiers() {
+        PatientGeneratorConfig config = new PatientGeneratorConfig();
+        config.setIdentifierSource(PatientGeneratorConfig.LUHN_MOD30_IDENTIFIERS);
+        config.setIdentifierPrefix("1");
+        SyntheticPatientFactory factory = new SyntheticPatientFactory(config, LocalDate.of(2025, 6, 15));
+
+        assertEquals(8, factory.identifier(0).length());
+        assertTrue(factory.identifier(0).startsWith("1000000"));
+        for (long index = 0; index < 1000; index++) {
+            assertTrue(LuhnMod30.isValid(factory.identifier(index)));
+        }
+        assertNotEquals(factory.identifier(1), factory.identifier(2));
+
+        config.setIdentifierPrefix("DEMO-");
+        assertThrows(IllegalArgumentException.class, () -> new SyntheticPatientFactory(config, LocalDate.now()));
+    }
+}
@@ -0,0 +1,239 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ozonehis.ozone_demo_data.config.BulkLoadConfig;
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import com.ozonehis.ozone_demo_data.generator.OpenmrsTableExporter.Table;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class OpenmrsTableExporterTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    @TempDir
+    private Path tempDir;
+
+    private PatientGeneratorConfig patientConfig;
+
+    private BulkLoadConfig config;
+
+    @BeforeEach
+    void setUp() {
+        patientConfig = new PatientGeneratorConfig();
+        patientConfig.setSeed(42);
+        patientConfig.setIdentifierPrefix("DEMO-");
+        patientConfig.setFemaleRatio(0.5);
+        patientConfig.setMinAge(0);
+        patientConfig.setMaxAge(90);
+        patientConfig.setLocationUuid("location-uuid");
+        patientConfig.setEncounterTypeUuid("encounter-type-uuid");
+        patientConfig.setVisitTypeUuid("visit-type-uuid");
+        patientConfig.setWeightConceptUuid("5089AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA");
+        patientConfig.setHistoryYears(2);
+        patientConfig.setVisitsPerYear(4);
+        patientConfig.setLabRatio(0.5);
+        config = new BulkLoadConfig();
+        config.setFormat(BulkLoadConfig.CSV_FORMAT);
+        config.setRowsPerStatement(7);
+        config.setChunkSize(5);
+        config.setFirstId(1000);
+        config.setHistoryEnabled(true);
+        config.setCreatorId(1);
+        config.setIdentifierTypeId(2);
+        config.setLocationId(3);
+        config.setEncounterTypeId(4);
+        config.setVisitTypeId(5);
+    }
+
+    @Test
+    void shouldWriteSortedRowsThatOnlyReferenceExportedRows() throws IOException {
+        Map<Table, Long> rows = exporter().export(tempDir, 10, 23);
+
+        Map<Table, List<List<String>>> tables = readCsv(tempDir);
+        for (Table table : Table.values()) {
+            assertEquals(rows.get(table), tables.get(table).size(), table.getTableName());
+            List<Long> ids = column(tables.get(table), 0);
+            for (int i = 1; i < ids.size(); i++) {
+                assertTrue(ids.get(i - 1) < ids.get(i), table.getTableName() + " is not sorted by id");
+            }
+        }
+        assertEquals(23, rows.get(Table.PERSON));
+        assertEquals(23, rows.get(Table.PATIENT_IDENTIFIER));
+        assertTrue(rows.get(Table.VISIT) > 0);
+        assertEquals(rows.get(Table.VISIT), rows.get(Table.ENCOUNTER));
+        assertTrue(rows.get(Table.OBS) >= rows.get(Table.ENCOUNTER) * 6);
+
+        Set<Long> persons = new HashSet<>(column(tables.get(Table.PERSON), 0));
+        assertEquals(persons, new HashSet<>(column(tables.get(Table.PATIENT), 0)));
+        assertTrue(persons.containsAll(column(tables.get(Table.PERSON_NAME), 2)));
+        assertTrue(persons.containsAll(column(tables.get(Table.PATIENT_IDENTIFIER), 1)));
+        assertTrue(persons.containsAll(column(tables.get(Table.VISIT), 1)));
+        assertTrue(persons.containsAll(column(tables.get(Table.ENCOUNTER), 2)));
+        assertTrue(persons.containsAll(column(tables.get(Table.OBS), 1)));
+        assertTrue(
+                new HashSet<>(column(tables.get(Table.VISIT), 0)).containsAll(column(tables.get(Table.ENCOUNTER), 5)));
+        assertTrue(new HashSet<>(column(tables.get(Table.ENCOUNTER), 0)).containsAll(column(tables.get(Table.OBS), 3)));
+        assertTrue(column(tables.get(Table.OBS), 2).containsAll(List.of(5089L, 5090L, 5085L)));
+
+        List<String> identifiers = tables.get(Table.PATIENT_IDENTIFIER).stream()
+                .map(row -> row.get(2))
+                .collect(Collectors.toList());
+        assertEquals("DEMO-0000010", identifiers.get(0));
+        assertEquals(23, new HashSet<>(identifiers).size());
+    }
+
+    @Test
+    void shouldNotReuseVisitIdsWhenTheHistorySpansLeapDays() throws IOException {
+        // 8 years from June 2017 are 2922 days, one daily visit more than 8 times 365
+        patientConfig.setHistoryYears(8);
+        patientConfig.setVisitsPerYear(365);
+        patientConfig.setMinAge(20);
+
+        Map<Table, Long> rows = exporter().export(tempDir, 0, 3);
+
+        Map<Table, List<List<String>>> tables = readCsv(tempDir);
+        assertEquals(3 * 2922, rows.get(Table.VISIT));
+        assertEquals(rows.get(Table.VISIT), new HashSet<>(column(tables.get(Table.VISIT), 0)).size());
+        assertEquals(rows.get(Table.OBS), new HashSet<>(column(tables.get(Table.OBS), 0)).size());
+    }
+
+    @Test
+    void shouldWriteTheSameFilesWhateverTheChunkSize() throws IOException {
+        Path first = Files.createDirectory(tempDir.resolve("first"));
+        Path second = Files.createDirectory(tempDir.resolve("second"));
+        exporter().export(first, 0, 17);
+        config.setChunkSize(100);
+        exporter().export(second, 0, 17);
+
+        for (Table table : Table.values()) {
+            String fileName = table.getTableName() + ".csv";
+            assertEquals(Files.readString(first.resolve(fileName)), Files.readString(second.resolve(fileName)));
+        }
+    }
+
+    @Test
+    void shouldWriteALoadScriptThatLoadsParentsBeforeChildren() throws IOException {
+        exporter().export(tempDir, 0, 3);
+
+        String script = Files.readString(tempDir.resolve("load.sql"));
+        assertTrue(script.startsWith("-- 3 synthetic patients"));
+        int previous = script.indexOf("SET FOREIGN_KEY_CHECKS = 0;");
+        assertTrue(previous > 0);
+        for (Table table : Table.values()) {
+            int load = script.indexOf("LOAD DATA LOCAL INFILE '" + table.getTableName() + ".csv' INTO TABLE "
+                    + table.getTableName() + " ");
+            assertTrue(load > previous, table.getTableName() + " is not loaded after its parents");
+            previous = load;
+        }
+        assertTrue(script.indexOf("SET FOREIGN_KEY_CHECKS = 1;") > previous);
+        assertTrue(script.endsWith("DELETE FROM global_property WHERE property = 'search.indexVersion';\n"));
+    }
+
+    @Test
+    void shouldWriteMultiRowInsertsWithTheSqlFormat() throws IOException {
+        config.setFormat(BulkLoadConfig.SQL_FORMAT);
+        config.setHistoryEnabled(false);
+        Map<Table, Long> rows = exporter().export(tempDir, 0, 16);
+
+        assertEquals(0, rows.get(Table.VISIT));
+        String persons = Files.readString(tempDir.resolve("person.sql"));
+        // 16 rows in statements of 7 rows, across the chunks of 5 patients they are generated in
+        assertEquals(3, countOf(persons, "INSERT INTO person (person_id, gender, birthdate, "));
+        assertEquals(3, countOf(persons, ";\n"));
+        assertEquals(16, countOf(persons, "'F'") + countOf(persons, "'M'"));
+        assertTrue(persons.startsWith("INSERT INTO person"));
+        assertTrue(Files.readString(tempDir.resolve("load.sql")).contains("SOURCE obs.sql;\n"));
+    }
+
+    @Test
+    void shouldOnlyDeriveConceptIdsOfCielConcepts() {
+        assertEquals(5089, OpenmrsTableExporter.conceptId("5089AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA"));
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> OpenmrsTableExporter.conceptId("a09ab2c5-878e-4905-b25d-5784167d0216"));
+    }
+
+    @Test
+    void shouldRejectUnknownFormats() {
+        config.setFormat("parquet");
+
+        assertThrows(IllegalArgumentException.class, this::exporter);
+    }
+
+    private OpenmrsTableExporter exporter() {
+        return new OpenmrsTableExporter(
+                patientConfig,
+                config,
+                new SyntheticPatientFactory(patientConfig, TODAY, DemographicDictionaries.builtIn()));
+    }
+
+    private static Map<Table, List<List<String>>> readCsv(Path dir) throws IOException {
+        Map<Table, List<List<String>>> tables = new EnumMap<>(Table.class);
+        for (Table table : Table.values()) {
+            List<String> lines = Files.readAllLines(dir.resolve(table.getTableName() + ".csv"));
+            assertEquals(String.join(",", table.getColumns()), lines.get(0));
+            List<List<String>> rows = new ArrayList<>();
+            for (String line : lines.subList(1, lines.size())) {
+                List<String> row = parseCsvLine(line);
+                assertEquals(table.getColumns().size(), row.size(), line);
+                rows.add(row);
+            }
+            tables.put(table, rows);
+        }
+        return tables;
+    }
+
+    private static List<String> parseCsvLine(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char character = line.charAt(i);
+            if (character == '\\' && quoted) {
+                value.append(line.charAt(++i));
+            } else if (character == '"') {
+                quoted = !quoted;
+            } else if (character == ',' && !quoted) {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(character);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static List<Long> column(List<List<String>> rows, int column) {
+        return rows.stream().map(row -> Long.parseLong(row.get(column))).collect(Collectors.toList());
+    }
+
+    private static int countOf(String text, String part) {
+        int count = 0;
+        for (int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}
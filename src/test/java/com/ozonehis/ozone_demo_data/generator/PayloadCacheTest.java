@@ -0,0 +1,80 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongFunction;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class PayloadCacheTest {
+
+    @TempDir
+    Path cacheDir;
+
+    private final AtomicInteger generated = new AtomicInteger();
+
+    private final LongFunction<byte[]> generator = index -> {
+        generated.incrementAndGet();
+        return ("{\"index\":" + index + "}").getBytes(StandardCharsets.UTF_8);
+    };
+
+    @Test
+    void shouldReplayPayloadsFromDiskWithoutGenerating() {
+        PayloadCache cache = new PayloadCache(cacheDir, "key", 10, generator);
+        assertEquals("{\"index\":13}", new String(cache.get(13), StandardCharsets.UTF_8));
+        // The whole chunk is generated and written at once
+        assertEquals(10, generated.get());
+        assertTrue(Files.isRegularFile(cacheDir.resolve("key").resolve("chunk-1.ndjson.gz")));
+
+        generated.set(0);
+        PayloadCache replay = new PayloadCache(cacheDir, "key", 10, generator);
+
+        assertEquals("{\"index\":10}", new String(replay.get(10), StandardCharsets.UTF_8));
+        assertEquals("{\"index\":19}", new String(replay.get(19), StandardCharsets.UTF_8));
+        assertEquals(0, generated.get());
+    }
+
+    @Test
+    void shouldKeepPayloadsOfDifferentKeysApart() {
+        new PayloadCache(cacheDir, "seed-1", 10, generator).get(0);
+
+        generated.set(0);
+        new PayloadCache(cacheDir, "seed-2", 10, generator).get(0);
+
+        assertEquals(10, generated.get());
+    }
+
+    @Test
+    void shouldRegenerateUnreadableChunk() throws IOException {
+        Path chunk = cacheDir.resolve("key").resolve("chunk-0.ndjson.gz");
+        Files.createDirectories(chunk.getParent());
+        Files.write(chunk, new byte[] {1, 2, 3});
+
+        PayloadCache cache = new PayloadCache(cacheDir, "key", 10, generator);
+
+        assertEquals("{\"index\":3}", new String(cache.get(3), StandardCharsets.UTF_8));
+        assertEquals(10, generated.get());
+    }
+
+    @Test
+    void shouldGenerateEveryTimeWithoutDirectory() {
+        PayloadCache cache = new PayloadCache(null, "key", 10, generator);
+
+        cache.get(1);
+        cache.get(1);
+
+        assertEquals(2, generated.get());
+    }
+}
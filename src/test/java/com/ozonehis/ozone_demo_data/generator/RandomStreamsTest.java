@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.Set;
+import org.junit.jupiter.api.Test;
+
+class RandomStreamsTest {
+
+    @Test
+    void shouldGiveTheSameStreamForTheSameSeedSaltAndIndexes() {
+        assertEquals(
+                RandomStreams.of(42, "encounter", 7).nextLong(),
+                RandomStreams.of(42, "encounter", 7).nextLong());
+    }
+
+    @Test
+    void shouldGiveEachSaltAndIndexesItsOwnStream() {
+        Set<Long> firstValues = new HashSet<>();
+        for (String salt : new String[] {"encounter", "visit"}) {
+            for (long index = 0; index < 100; index++) {
+                for (long visit = 0; visit < 100; visit++) {
+                    firstValues.add(RandomStreams.of(42, salt, index, visit).nextLong());
+                }
+            }
+        }
+
+        assertEquals(2 * 100 * 100, firstValues.size());
+        assertNotEquals(
+                RandomStreams.of(42, "encounter", 1, 0).nextLong(),
+                RandomStreams.of(42, "encounter", 0, 1).nextLong());
+        assertNotEquals(
+                RandomStreams.of(42, "encounter", 7).nextLong(),
+                RandomStreams.of(43, "encounter", 7).nextLong());
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.generator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class SyntheticPatientFactoryTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 6, 15);
+
+    private PatientGeneratorConfig config;
+
+    @BeforeEach
+    void setUp() {
+        config = new PatientGeneratorConfig();
+        config.setSeed(42);
+        config.setFemaleRatio(0.5);
+        config.setMinAge(18);
+        config.setMaxAge(30);
+        config.setIdentifierPrefix("DEMO-");
+        config.setIdentifierTypeUuid("identifier-type-uuid");
+        config.setLocationUuid("location-uuid");
+        config.setPhoneAttributeTypeUuid("");
+    }
+
+    @Test
+    void shouldBuildTheSamePatientForTheSameSeedAndIndex() {
+        SyntheticPatientFactory factory = new SyntheticPatientFactory(config, TODAY);
+
+        assertEquals(factory.patient(7), new SyntheticPatientFactory(config, TODAY).patient(7));
+        assertNotEquals(factory.patient(7), factory.patient(8));
+
+        Map<String, Object> patient = factory.patient(7);
+        config.setSeed(43);
+        assertNotEquals(patient, new SyntheticPatientFactory(config, TODAY).patient(7));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldBuildPatientWithinTheConfiguredDistribution() {
+        SyntheticPatientFactory factory = new SyntheticPatientFactory(config, TODAY);
+
+        Map<String, Object> patient = factory.patient(12);
+
+        Map<String, Object> identifier = ((List<Map<String, Object>>) patient.get("identifiers")).get(0);
+        assertEquals("DEMO-0000012", identifier.get("identifier"));
+        assertEquals("identifier-type-uuid", identifier.get("identifierType"));
+        assertEquals("location-uuid", identifier.get("location"));
+        Map<String, Object> person = (Map<String, Object>) patient.get("person");
+        assertTrue(((List<?>) person.get("attributes")).isEmpty());
+        LongStream.range(0, 200).forEach(index -> {
+            LocalDate birthdate = LocalDate.parse(
+                    (String) ((Map<String, Object>) factory.patient(index).get("person")).get("birthdate"));
+            assertFalse(birthdate.isAfter(TODAY.minusYears(18)));
+            assertTrue(birthdate.isAfter(TODAY.minusYears(31)));
+        });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldFollowTheConfiguredFemaleRatio() {
+        config.setFemaleRatio(1.0);
+        config.setPhoneAttributeTypeUuid("phone-uuid");
+        SyntheticPatientFactory factory = new SyntheticPatientFactory(config, TODAY);
+
+        LongStream.range(0, 50).forEach(index -> {
+            Map<String, Object> person =
+                    (Map<String, Object>) factory.patient(index).get("person");
+            assertEquals("F", person.get("gender"));
+            assertEquals(
+                    "phone-uuid",
+                    ((List<Map<String, Object>>) person.get("attributes"))
+                            .get(0)
+                            .get("attributeType"));
+        });
+    }
+}
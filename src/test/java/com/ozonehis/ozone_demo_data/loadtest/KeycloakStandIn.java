@@ -0,0 +1,181 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.loadtest;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for the Keycloak token and admin REST endpoints used by the user creation task. Users are kept in memory,
+ * roles and clients are created on first lookup so that any user source can be replayed against it.
+ */
+public class KeycloakStandIn extends StandInServer {
+
+    private static final String REALM = "/admin/realms/([^/]+)";
+
+    private final Map<String, Map<String, Object>> usersById = new ConcurrentHashMap<>();
+
+    private final Map<String, String> userIdsByUsername = new ConcurrentHashMap<>();
+
+    private final Map<String, String> clientIdsByClientId = new ConcurrentHashMap<>();
+
+    private final AtomicInteger roleMappings = new AtomicInteger();
+
+    private final Map<String, String> realmAttributes = new ConcurrentHashMap<>();
+
+    public KeycloakStandIn(int workerThreads) {
+        super("Keycloak", workerThreads);
+        route("GET", "/health/ready", "health", request -> Response.ok(Map.of("status", "UP")));
+        route(
+                "POST",
+                "/realms/([^/]+)/protocol/openid-connect/token",
+                "token",
+                request -> Response.ok(Map.of(
+                        "access_token",
+                        "stand-in-token",
+                        "token_type",
+                        "Bearer",
+                        "expires_in",
+                        3600,
+                        "refresh_expires_in",
+                        0)));
+        route(
+                "GET",
+                REALM,
+                "realm.get",
+                request ->
+                        Response.ok(Map.of("realm", request.pathParam(1), "attributes", Map.copyOf(realmAttributes))));
+        route("PUT", REALM, "realm.update", this::updateRealm);
+        route("GET", REALM + "/users", "users.search", this::searchUsers);
+        route("POST", REALM + "/users", "users.create", this::createUser);
+        route("GET", REALM + "/users/([^/]+)", "users.get", this::getUser);
+        route("PUT", REALM + "/users/([^/]+)", "users.update", this::updateUser);
+        route("DELETE", REALM + "/users/([^/]+)", "users.delete", this::deleteUser);
+        route("POST", REALM + "/users/([^/]+)/role-mappings/realm", "role-mappings.realm", this::addRoleMapping);
+        route(
+                "POST",
+                REALM + "/users/([^/]+)/role-mappings/clients/([^/]+)",
+                "role-mappings.client",
+                this::addRoleMapping);
+        route("GET", REALM + "/roles/([^/]+)", "roles.get", request -> Response.ok(role(request.pathParam(2))));
+        route("GET", REALM + "/clients", "clients.find", this::findClients);
+        route(
+                "GET",
+                REALM + "/clients/([^/]+)/roles/([^/]+)",
+                "clients.roles.get",
+                request -> Response.ok(role(request.pathParam(3))));
+        route("POST", REALM + "/partialImport", "partialImport", this::partialImport);
+    }
+
+    public int userCount() {
+        return usersById.size();
+    }
+
+    public int roleMappingCount() {
+        return roleMappings.get();
+    }
+
+    public boolean hasUser(String username) {
+        return userIdsByUsername.containsKey(username);
+    }
+
+    public String realmAttribute(String name) {
+        return realmAttributes.get(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Response updateRealm(Request request) throws IOException {
+        Map<String, String> attributes =
+                (Map<String, String>) request.bodyAs(Map.class).get("attributes");
+        if (attributes != null) {
+            realmAttributes.putAll(attributes);
+        }
+        return Response.noContent();
+    }
+
+    private Response searchUsers(Request request) {
+        // Exact match only, Keycloak's substring matching would make the stand-in O(n) per lookup
+        String username = request.getQuery().get("username");
+        if (username == null) {
+            return Response.ok(List.copyOf(usersById.values()));
+        }
+        String id = userIdsByUsername.get(username);
+        return Response.ok(id == null ? List.of() : List.of(usersById.get(id)));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Response createUser(Request request) throws IOException {
+        Map<String, Object> user = Collections.synchronizedMap(new LinkedHashMap<>(request.bodyAs(Map.class)));
+        String username = (String) user.get("username");
+        String id = UUID.randomUUID().toString();
+        if (userIdsByUsername.putIfAbsent(username, id) != null) {
+            return new Response(409, Map.of("errorMessage", "User exists with same username"));
+        }
+        user.put("id", id);
+        user.remove("credentials");
+        usersById.put(id, user);
+        String location = baseUrl() + "/admin/realms/" + request.pathParam(1) + "/users/" + id;
+        return new Response(201, null, Map.of("Location", location));
+    }
+
+    private Response getUser(Request request) {
+        Map<String, Object> user = usersById.get(request.pathParam(2));
+        return user == null ? Response.notFound() : Response.ok(user);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Response updateUser(Request request) throws IOException {
+        Map<String, Object> user = usersById.get(request.pathParam(2));
+        if (user == null) {
+            return Response.notFound();
+        }
+        user.putAll(request.bodyAs(Map.class));
+        return Response.noContent();
+    }
+
+    private Response deleteUser(Request request) {
+        Map<String, Object> user = usersById.remove(request.pathParam(2));
+        if (user == null) {
+            return Response.notFound();
+        }
+        userIdsByUsername.remove((String) user.get("username"));
+        return Response.noContent();
+    }
+
+    private Response addRoleMapping(Request request) {
+        if (!usersById.containsKey(request.pathParam(2))) {
+            return Response.notFound();
+        }
+        roleMappings.incrementAndGet();
+        return Response.noContent();
+    }
+
+    private Response findClients(Request request) {
+        String clientId = request.getQuery().get("clientId");
+        if (clientId == null) {
+            return Response.ok(List.of());
+        }
+        String id = clientIdsByClientId.computeIfAbsent(
+                clientId, key -> UUID.randomUUID().toString());
+        return Response.ok(List.of(Map.of("id", id, "clientId", clientId)));
+    }
+
+    private Response partialImport(Request request) {
+        return Response.ok(Map.of("overwritten", 0, "added", 0, "skipped", 0, "results", List.of()));
+    }
+
+    private static Map<String, Object> role(String name) {
+        return Map.of("id", UUID.nameUUIDFromBytes(name.getBytes()).toString(), "name", name);
+    }
+}
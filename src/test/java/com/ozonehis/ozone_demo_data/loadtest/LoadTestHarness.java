@@ -0,0 +1,194 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.loadtest;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.OzoneDemoDataApplication;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Runs the full application against in-process Keycloak, OpenMRS, Odoo and SENAITE stand-ins and reports throughput
+ * and per-endpoint tail latency.
+ */
+@Slf4j
+public class LoadTestHarness implements AutoCloseable {
+
+    private final KeycloakStandIn keycloak;
+
+    private final OpenmrsStandIn openmrs;
+
+    private final OdooStandIn odoo;
+
+    private final SenaiteStandIn senaite;
+
+    private final Map<String, Object> properties = new HashMap<>();
+
+    public LoadTestHarness(int workerThreads) {
+        this.keycloak = new KeycloakStandIn(workerThreads);
+        this.openmrs = new OpenmrsStandIn(workerThreads);
+        this.odoo = new OdooStandIn(workerThreads);
+        this.senaite = new SenaiteStandIn(workerThreads);
+        keycloak.start();
+        openmrs.start();
+        odoo.start();
+        senaite.start();
+
+        properties.put("keycloak.server.url", keycloak.baseUrl());
+        properties.put("keycloak.demo.data.realm", "ozone");
+        properties.put("keycloak.demo.data.client.id", "ozone-demo-data");
+        properties.put("keycloak.demo.data.client.secret", "secret");
+        properties.put("keycloak.healthcheck.max.retries", 3);
+        properties.put("keycloak.healthcheck.retry.delay.millis", 100);
+        properties.put("keycloak.user-creation.enabled", true);
+        properties.put("openmrs.server.url", openmrs.baseUrl());
+        properties.put("openmrs.oauth.enabled", false);
+        properties.put("openmrs.demo-data.enabled", true);
+        properties.put("openmrs.healthcheck.max.retries", 3);
+        properties.put("openmrs.healthcheck.retry.delay.millis", 100);
+        properties.put("odoo.server.url", odoo.baseUrl());
+        properties.put("odoo.password", OdooStandIn.PASSWORD);
+        properties.put("odoo.healthcheck.max.retries", 3);
+        properties.put("odoo.healthcheck.retry.delay.millis", 100);
+        properties.put("senaite.server.url", senaite.siteUrl());
+        properties.put("senaite.password", SenaiteStandIn.PASSWORD);
+        properties.put("senaite.healthcheck.max.retries", 3);
+        properties.put("senaite.healthcheck.retry.delay.millis", 100);
+    }
+
+    public KeycloakStandIn keycloak() {
+        return keycloak;
+    }
+
+    public OpenmrsStandIn openmrs() {
+        return openmrs;
+    }
+
+    public OdooStandIn odoo() {
+        return odoo;
+    }
+
+    public SenaiteStandIn senaite() {
+        return senaite;
+    }
+
+    /**
+     * Overrides an application property for the next run.
+     */
+    public LoadTestHarness property(String name, Object value) {
+        properties.put(name, value);
+        return this;
+    }
+
+    /**
+     * Writes {@code count} synthetic users, each with realm roles, client roles and attributes, to a JSON file in the
+     * format expected by {@code keycloak.users.json.path}.
+     */
+    public Path writeSyntheticUsers(Path directory, int count) throws IOException {
+        Path usersFile = directory.resolve("users.json");
+        try (JsonGenerator generator =
+                new ObjectMapper().getFactory().createGenerator(usersFile.toFile(), JsonEncoding.UTF8)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("users");
+            for (int i = 0; i < count; i++) {
+                String username = "user" + i;
+                generator.writeStartObject();
+                generator.writeStringField("username", username);
+                generator.writeStringField("firstName", "First" + i);
+                generator.writeStringField("lastName", "Last" + i);
+                generator.writeStringField("email", username + "@example.com");
+                generator.writeBooleanField("enabled", true);
+                generator.writeArrayFieldStart("realmRoles");
+                generator.writeString("default-roles-ozone");
+                generator.writeEndArray();
+                generator.writeObjectFieldStart("clientRoles");
+                generator.writeArrayFieldStart("openmrs");
+                generator.writeString("Organizational: Doctor");
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeObjectFieldStart("attributes");
+                generator.writeArrayFieldStart("locale");
+                generator.writeString("en");
+                generator.writeEndArray();
+                generator.writeEndObject();
+                generator.writeEndObject();
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+        properties.put("keycloak.users.json.path", usersFile.toString());
+        return usersFile;
+    }
+
+    /**
+     * Starts the application and waits for {@code TaskCoordinator} to shut it down.
+     *
+     * @param timeout the maximum time to wait for the run to finish
+     * @return the wall clock duration of the run
+     */
+    public Duration run(Duration timeout) throws InterruptedException {
+        long start = System.nanoTime();
+        // Command line arguments take precedence over application.properties, default properties do not
+        String[] args = properties.entrySet().stream()
+                .map(entry -> "--" + entry.getKey() + "=" + entry.getValue())
+                .toArray(String[]::new);
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(OzoneDemoDataApplication.class).run(args);
+        long deadline = start + timeout.toNanos();
+        while (context.isActive()) {
+            if (System.nanoTime() > deadline) {
+                context.close();
+                throw new IllegalStateException("Application did not finish within " + timeout);
+            }
+            Thread.sleep(50);
+        }
+        return Duration.ofNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * Logs throughput and the p50/p95/p99 server side latency of every endpoint hit during the run.
+     */
+    public void report(int users, Duration elapsed) {
+        log.info(
+                "Provisioned {} users in {} ms ({} users/sec)",
+                users,
+                elapsed.toMillis(),
+                String.format("%.1f", users * 1000.0 / Math.max(1, elapsed.toMillis())));
+        logStats("Keycloak", keycloak);
+        logStats("OpenMRS", openmrs);
+        logStats("Odoo", odoo);
+        logStats("SENAITE", senaite);
+    }
+
+    private static void logStats(String system, StandInServer server) {
+        server.getStats()
+                .forEach((endpoint, stats) -> log.info(
+                        "{} {}: count={} p50={}ms p95={}ms p99={}ms",
+                        system,
+                        endpoint,
+                        stats.count(),
+                        String.format("%.2f", stats.percentileMillis(50)),
+                        String.format("%.2f", stats.percentileMillis(95)),
+                        String.format("%.2f", stats.percentileMillis(99))));
+    }
+
+    @Override
+    public void close() {
+        keycloak.close();
+        openmrs.close();
+        odoo.close();
+        senaite.close();
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.loadtest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Stand-in for the Odoo JSON-RPC endpoint used by the Odoo seeding task. It answers {@code common.version} and
+ * {@code common.login}, {@code load} on any model and {@code search_read} on {@code ir.model.data} through
+ * {@code execute_kw}. Records are kept in memory by model. Like in Odoo, {@code load} registers the external ID of the
+ * {@code id} column, updates the record an existing external ID points to, resolves {@code field/id} columns by
+ * external ID, imports the {@code field/subfield} columns of a row as one related record, and imports nothing when a
+ * row is rejected.
+ */
+public class OdooStandIn extends StandInServer {
+
+    static final String PASSWORD = "admin";
+
+    private static final int UID = 2;
+
+    private final Map<String, Map<Integer, Map<String, Object>>> recordsByModel = new ConcurrentHashMap<>();
+
+    private final Map<String, Map<String, Object>> externalIds = new ConcurrentHashMap<>();
+
+    private final Map<String, AtomicInteger> callCounts = new ConcurrentHashMap<>();
+
+    private final AtomicInteger nextId = new AtomicInteger(1);
+
+    public OdooStandIn(int workerThreads) {
+        super("Odoo", workerThreads);
+        route("POST", "/jsonrpc", "jsonrpc", this::jsonRpc);
+    }
+
+    /**
+     * @return the number of records of the model, not counting external IDs
+     */
+    public int recordCount(String model) {
+        Map<Integer, Map<String, Object>> records = recordsByModel.get(model);
+        return records == null ? 0 : records.size();
+    }
+
+    public int externalIdCount() {
+        return externalIds.size();
+    }
+
+    /**
+     * @param method the model and method, e.g. {@code res.partner.load}
+     */
+    public int callCount(String method) {
+        AtomicInteger count = callCounts.get(method);
+        return count == null ? 0 : count.get();
+    }
+
+    /**
+     * @return the values of the record registered under the external ID, e.g. {@code ozone_demo_data.customer_0}
+     */
+    public Map<String, Object> recordByExternalId(String externalId) {
+        Map<String, Object> data = externalIds.get(externalId);
+        if (data == null) {
+            return null;
+        }
+        return recordsByModel.get((String) data.get("model")).get((Integer) data.get("res_id"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Response jsonRpc(Request request) throws IOException {
+        Map<String, Object> body = request.bodyAs(Map.class);
+        Map<String, Object> params = (Map<String, Object>) body.get("params");
+        List<Object> args = (List<Object>) params.get("args");
+        Object result;
+        try {
+            result = call((String) params.get("service"), (String) params.get("method"), args);
+        } catch (IllegalArgumentException e) {
+            return Response.ok(Map.of(
+                    "jsonrpc",
+                    "2.0",
+                    "id",
+                    body.get("id"),
+                    "error",
+                    Map.of(
+                            "code",
+                            200,
+                            "message",
+                            "Odoo Server Error",
+                            "data",
+                            Map.of("name", "odoo.exceptions.ValidationError", "message", e.getMessage()))));
+        }
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("jsonrpc", "2.0");
+        response.put("id", body.get("id"));
+        response.put("result", result);
+        return Response.ok(response);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object call(String service, String method, List<Object> args) {
+        if ("common".equals(service) && "version".equals(method)) {
+            return Map.of("server_version", "17.0", "protocol_version", 1);
+        }
+        if ("common".equals(service) && "login".equals(method)) {
+            return PASSWORD.equals(args.get(2)) ? UID : false;
+        }
+        if (!"object".equals(service) || !"execute_kw".equals(method)) {
+            throw new IllegalArgumentException("Unsupported call " + service + "." + method);
+        }
+        if (!PASSWORD.equals(args.get(2))) {
+            throw new IllegalArgumentException("Access denied");
+        }
+        String model = (String) args.get(3);
+        String modelMethod = (String) args.get(4);
+        List<Object> methodArgs = (List<Object>) args.get(5);
+        callCounts
+                .computeIfAbsent(model + "." + modelMethod, key -> new AtomicInteger())
+                .incrementAndGet();
+        if ("load".equals(modelMethod)) {
+            return load(model, (List<String>) methodArgs.get(0), (List<List<String>>) methodArgs.get(1));
+        }
+        if ("search_read".equals(modelMethod) && "ir.model.data".equals(model)) {
+            return searchExternalIds((List<List<Object>>) methodArgs.get(0));
+        }
+        throw new IllegalArgumentException("Unsupported method " + model + "." + modelMethod);
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized Map<String, Object> load(String model, List<String> fields, List<List<String>> rows) {
+        // All or nothing, as the rows are imported in a single transaction
+        List<Map<String, Object>> records = new ArrayList<>();
+        for (int row = 0; row < rows.size(); row++) {
+            Map<String, Object> record = new LinkedHashMap<>();
+            Map<String, Object> related = new LinkedHashMap<>();
+            for (int column = 0; column < fields.size(); column++) {
+                String field = fields.get(column);
+                String value = rows.get(row).get(column);
+                if (field.equals("id") || value.isEmpty()) {
+                    record.put(field, value);
+                } else if (field.endsWith("/id")) {
+                    Map<String, Object> data = externalIds.get(value);
+                    if (data == null) {
+                        return Map.of(
+                                "ids",
+                                false,
+                                "messages",
+                                List.of(Map.of(
+                                        "type",
+                                        "error",
+                                        "record",
+                                        row,
+                                        "field",
+                                        field,
+                                        "message",
+                                        "No matching record found for external id '" + value + "'")));
+                    }
+                    record.put(field.substring(0, field.length() - "/id".length()), data.get("res_id"));
+                } else if (field.contains("/")) {
+                    String[] path = field.split("/", 2);
+                    ((Map<String, Object>) related.computeIfAbsent(path[0], key -> new LinkedHashMap<>()))
+                            .put(path[1], value);
+                } else {
+                    record.put(field, value);
+                }
+            }
+            related.forEach((field, values) -> record.put(field, List.of(values)));
+            records.add(record);
+        }
+        List<Integer> ids = new ArrayList<>();
+        for (Map<String, Object> record : records) {
+            String externalId = (String) record.remove("id");
+            Map<String, Object> data = externalIds.get(externalId);
+            Map<Integer, Map<String, Object>> modelRecords =
+                    recordsByModel.computeIfAbsent(model, key -> new ConcurrentHashMap<>());
+            int id;
+            if (data != null) {
+                id = (Integer) data.get("res_id");
+                modelRecords.get(id).putAll(record);
+            } else {
+                id = nextId.getAndIncrement();
+                modelRecords.put(id, record);
+                String[] moduleAndName = externalId.split("\\.", 2);
+                Map<String, Object> externalIdData = new LinkedHashMap<>();
+                externalIdData.put("id", nextId.getAndIncrement());
+                externalIdData.put("module", moduleAndName[0]);
+                externalIdData.put("name", moduleAndName[1]);
+                externalIdData.put("model", model);
+                externalIdData.put("res_id", id);
+                externalIds.put(externalId, externalIdData);
+            }
+            ids.add(id);
+        }
+        return Map.of("ids", ids, "messages", List.of());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<String, Object>> searchExternalIds(List<List<Object>> domain) {
+        List<Map<String, Object>> matches = new ArrayList<>();
+        for (Map<String, Object> data : externalIds.values()) {
+            boolean matching = true;
+            for (List<Object> condition : domain) {
+                Object value = data.get((String) condition.get(0));
+                matching &= "in".equals(condition.get(1))
+                        ? ((List<Object>) condition.get(2)).contains(value)
+                        : condition.get(2).equals(value);
+            }
+            if (matching) {
+                matches.add(Map.of("id", data.get("id"), "name", data.get("name"), "res_id", data.get("res_id")));
+            }
+        }
+        return matches;
+    }
+}
@@ -0,0 +1,263 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.loadtest;
+
+import com.ozonehis.ozone_demo_data.generator.LuhnMod30;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stand-in for the OpenMRS REST endpoints used by the demo data generation task, served under the {@code /openmrs}
+ * context path. System settings are kept in memory and the generate endpoint only counts the requested patients.
+ * Patients are kept by identifier, voiding or purging a patient frees its identifier.
+ */
+public class OpenmrsStandIn extends StandInServer {
+
+    public static final String CONTEXT_PATH = "/openmrs";
+
+    private static final String REST = CONTEXT_PATH + "/ws/rest/v1";
+
+    private final Map<String, Setting> settingsByProperty = new ConcurrentHashMap<>();
+
+    private final AtomicInteger generatedPatients = new AtomicInteger();
+
+    private final Map<String, String> patientUuidsByIdentifier = new ConcurrentHashMap<>();
+
+    private final AtomicLong nextIdgenIdentifier = new AtomicLong(100_000);
+
+    public OpenmrsStandIn(int workerThreads) {
+        super("OpenMRS", workerThreads);
+        putSetting("referencedemodata.createDemoPatientsOnNextStartup", "0");
+        route("GET", CONTEXT_PATH + "/health/started", "health", request -> Response.ok(Map.of("status", "UP")));
+        route("GET", CONTEXT_PATH + "/ws/fhir2/R4/Patient", "patient.search", this::searchPatients);
+        route("POST", REST + "/referencedemodata/generate", "referencedemodata.generate", this::generate);
+        route("POST", REST + "/patient/?", "patient.create", this::createPatient);
+        route("DELETE", REST + "/patient/([^/]+)", "patient.purge", this::purgePatient);
+        route("GET", REST + "/encounter/?", "encounter.search", request -> Response.ok(Map.of("results", List.of())));
+        route("GET", REST + "/visit/?", "visit.search", request -> Response.ok(Map.of("results", List.of())));
+        route(
+                "GET",
+                REST + "/(session|location|visittype|concept|patient)/?",
+                "warm-up.rest",
+                request -> Response.ok(Map.of("results", List.of())));
+        route(
+                "GET",
+                CONTEXT_PATH + "/ws/fhir2/R4/(Encounter|Observation)",
+                "warm-up.fhir",
+                request -> Response.ok(Map.of("resourceType", "Bundle", "type", "searchset", "total", 0)));
+        route("POST", CONTEXT_PATH + "/ws/fhir2/R4/?", "fhir.transaction", this::transaction);
+        route("POST", REST + "/idgen/identifiersource/?", "idgen.reserve", this::reserveIdentifiers);
+        route("GET", REST + "/systemsetting/?", "systemsetting.search", this::searchSettings);
+        route("POST", REST + "/systemsetting/?", "systemsetting.create", this::createSetting);
+        route("POST", REST + "/systemsetting/([^/]+)", "systemsetting.update", this::updateSetting);
+    }
+
+    @Override
+    public String baseUrl() {
+        return super.baseUrl() + CONTEXT_PATH;
+    }
+
+    public int generatedPatientCount() {
+        return generatedPatients.get();
+    }
+
+    /**
+     * @return the number of patients created through the REST API
+     */
+    public int createdPatientCount() {
+        return patientUuidsByIdentifier.size();
+    }
+
+    public String settingValue(String property) {
+        Setting setting = settingsByProperty.get(property);
+        return setting == null ? null : setting.value;
+    }
+
+    public void putSetting(String property, String value) {
+        settingsByProperty.put(property, new Setting(UUID.randomUUID().toString(), property, value));
+    }
+
+    private Response generate(Request request) throws IOException {
+        Map<?, ?> body = request.bodyAs(Map.class);
+        Object requested = body.get("numberOfDemoPatients");
+        generatedPatients.addAndGet(requested instanceof Number ? ((Number) requested).intValue() : 0);
+        return Response.ok(Map.of("message", "Demo data generated"));
+    }
+
+    /**
+     * Looks up patients by identifier, or counts all patients when no identifier is given.
+     */
+    private Response searchPatients(Request request) {
+        String identifiers = request.getQuery().get("identifier");
+        if (identifiers == null) {
+            int total = generatedPatients.get() + patientUuidsByIdentifier.size();
+            return Response.ok(Map.of("resourceType", "Bundle", "type", "searchset", "total", total));
+        }
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (String identifier : identifiers.split(",")) {
+            String uuid = patientUuidsByIdentifier.get(identifier);
+            if (uuid != null) {
+                entries.add(Map.of("resource", Map.of("resourceType", "Patient", "id", uuid)));
+            }
+        }
+        return Response.ok(
+                Map.of("resourceType", "Bundle", "type", "searchset", "total", entries.size(), "entry", entries));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Response createPatient(Request request) throws IOException {
+        Map<String, Object> body = request.bodyAs(Map.class);
+        List<Map<String, Object>> identifiers = (List<Map<String, Object>>) body.get("identifiers");
+        String identifier = identifiers == null || identifiers.isEmpty()
+                ? null
+                : (String) identifiers.get(0).get("identifier");
+        String uuid = UUID.randomUUID().toString();
+        // OpenMRS rejects a patient whose identifier is in use
+        if (identifier == null || patientUuidsByIdentifier.putIfAbsent(identifier, uuid) != null) {
+            return new Response(400, Map.of("error", Map.of("message", "Identifier " + identifier + " is in use")));
+        }
+        return new Response(201, Map.of("uuid", uuid));
+    }
+
+    private Response purgePatient(Request request) {
+        return patientUuidsByIdentifier.values().remove(request.pathParam(1))
+                ? Response.noContent()
+                : Response.notFound();
+    }
+
+    /**
+     * Applies a transaction bundle as a whole, a patient whose identifier is in use rejects it with an
+     * {@code OperationOutcome}. A bundle of DELETE entries voids the patients.
+     */
+    @SuppressWarnings("unchecked")
+    private Response transaction(Request request) throws IOException {
+        Map<String, Object> bundle = request.bodyAs(Map.class);
+        List<Map<String, Object>> entries = (List<Map<String, Object>>) bundle.get("entry");
+        if (!entries.isEmpty() && !entries.get(0).containsKey("resource")) {
+            return voidPatients(entries);
+        }
+        List<String> identifiers = new ArrayList<>();
+        for (Map<String, Object> entry : entries) {
+            Map<String, Object> resource = (Map<String, Object>) entry.get("resource");
+            if ("Patient".equals(resource.get("resourceType"))) {
+                identifiers.add((String) ((List<Map<String, Object>>) resource.get("identifier"))
+                        .get(0)
+                        .get("value"));
+            }
+        }
+        synchronized (patientUuidsByIdentifier) {
+            for (String identifier : identifiers) {
+                if (patientUuidsByIdentifier.containsKey(identifier)) {
+                    return new Response(
+                            400,
+                            Map.of(
+                                    "resourceType",
+                                    "OperationOutcome",
+                                    "issue",
+                                    List.of(Map.of(
+                                            "severity",
+                                            "error",
+                                            "code",
+                                            "duplicate",
+                                            "diagnostics",
+                                            "Identifier " + identifier + " is in use"))));
+                }
+            }
+            identifiers.forEach(identifier ->
+                    patientUuidsByIdentifier.put(identifier, UUID.randomUUID().toString()));
+        }
+        List<Map<String, Object>> outcomes = new ArrayList<>();
+        for (Map<String, Object> entry : entries) {
+            Map<String, Object> resource = (Map<String, Object>) entry.get("resource");
+            outcomes.add(Map.of(
+                    "response",
+                    Map.of(
+                            "status",
+                            "201 Created",
+                            "location",
+                            resource.get("resourceType") + "/" + UUID.randomUUID())));
+        }
+        return Response.ok(Map.of("resourceType", "Bundle", "type", "transaction-response", "entry", outcomes));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Response voidPatients(List<Map<String, Object>> entries) {
+        List<Map<String, Object>> outcomes = new ArrayList<>();
+        for (Map<String, Object> entry : entries) {
+            String url = (String) ((Map<String, Object>) entry.get("request")).get("url");
+            boolean voided = patientUuidsByIdentifier.values().remove(url.substring(url.indexOf('/') + 1));
+            outcomes.add(Map.of("response", Map.of("status", voided ? "204 No Content" : "404 Not Found")));
+        }
+        return Response.ok(Map.of("resourceType", "Bundle", "type", "transaction-response", "entry", outcomes));
+    }
+
+    /**
+     * Reserves the requested number of OpenMRS IDs, as the idgen module does for a {@code generateIdentifiers} request.
+     */
+    private Response reserveIdentifiers(Request request) throws IOException {
+        Map<?, ?> body = request.bodyAs(Map.class);
+        int count = ((Number) body.get("numberToGenerate")).intValue();
+        long first = nextIdgenIdentifier.getAndAdd(count);
+        List<String> identifiers = new ArrayList<>(count);
+        for (long identifier = first; identifier < first + count; identifier++) {
+            identifiers.add(LuhnMod30.withCheckCharacter(LuhnMod30.encode(identifier, 6)));
+        }
+        return new Response(201, Map.of("identifiers", identifiers));
+    }
+
+    private Response searchSettings(Request request) {
+        String property = request.getQuery().get("q");
+        Setting setting = property == null ? null : settingsByProperty.get(property);
+        return Response.ok(Map.of("results", setting == null ? List.of() : List.of(setting.toMap())));
+    }
+
+    private Response createSetting(Request request) throws IOException {
+        Map<?, ?> body = request.bodyAs(Map.class);
+        String property = (String) body.get("property");
+        putSetting(property, (String) body.get("value"));
+        return new Response(201, settingsByProperty.get(property).toMap());
+    }
+
+    private Response updateSetting(Request request) throws IOException {
+        String uuid = request.pathParam(1);
+        Setting setting = settingsByProperty.values().stream()
+                .filter(candidate -> candidate.uuid.equals(uuid))
+                .findFirst()
+                .orElse(null);
+        if (setting == null) {
+            return Response.notFound();
+        }
+        setting.value = (String) request.bodyAs(Map.class).get("value");
+        return Response.ok(setting.toMap());
+    }
+
+    private static final class Setting {
+
+        private final String uuid;
+
+        private final String property;
+
+        private volatile String value;
+
+        private Setting(String uuid, String property, String value) {
+            this.uuid = uuid;
+            this.property = property;
+            this.value = value;
+        }
+
+        private Map<String, Object> toMap() {
+            return Map.of("uuid", uuid, "property", property, "value", value == null ? "" : value);
+        }
+    }
+}
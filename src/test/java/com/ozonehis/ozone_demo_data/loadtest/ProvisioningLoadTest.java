@@ -0,0 +1,52 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * End-to-end load test of the full application against the stand-ins. Excluded from the default build, run it with
+ * {@code mvn test -Pload-test} and tune it through the {@code loadtest.*} system properties, e.g.
+ * {@code -Dloadtest.users=100000 -Dloadtest.latency.millis=10 -Dloadtest.error.rate=0.01}.
+ */
+@Tag("load")
+class ProvisioningLoadTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReportThroughputAndTailLatency() throws Exception {
+        int users = Integer.getInteger("loadtest.users", 10_000);
+        StandInBehaviour behaviour = StandInBehaviour.builder()
+                .latency(Duration.ofMillis(Long.getLong("loadtest.latency.millis", 5)))
+                .latencyJitter(Duration.ofMillis(Long.getLong("loadtest.latency.jitter.millis", 5)))
+                .errorRate(Double.parseDouble(System.getProperty("loadtest.error.rate", "0")))
+                .rateLimitPerSecond(Integer.getInteger("loadtest.rate.limit", 0))
+                .build();
+
+        try (LoadTestHarness harness = new LoadTestHarness(Integer.getInteger("loadtest.server.threads", 64))) {
+            harness.keycloak().setBehaviour(behaviour);
+            harness.openmrs().setBehaviour(behaviour);
+            harness.writeSyntheticUsers(tempDir, users);
+
+            Duration elapsed = harness.run(Duration.ofMinutes(Long.getLong("loadtest.timeout.minutes", 60)));
+            harness.report(users, elapsed);
+
+            if (behaviour.getErrorRate() == 0 && behaviour.getRateLimitPerSecond() == 0) {
+                assertEquals(users, harness.keycloak().userCount());
+            }
+        }
+    }
+}
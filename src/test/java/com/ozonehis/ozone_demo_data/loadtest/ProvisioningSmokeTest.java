@@ -0,0 +1,313 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.file.Path;
+import java.time.Duration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class ProvisioningSmokeTest {
+
+    private static final int USERS = 20;
+
+    @TempDir
+    Path tempDir;
+
+    private LoadTestHarness harness;
+
+    @BeforeEach
+    void setUp() {
+        harness = new LoadTestHarness(8);
+    }
+
+    @AfterEach
+    void tearDown() {
+        harness.close();
+    }
+
+    @Test
+    void shouldProvisionUsersAndGenerateDemoDataAgainstStandIns() throws Exception {
+        harness.openmrs().putSetting("referencedemodata.createDemoPatientsOnNextStartup", "50");
+        harness.writeSyntheticUsers(tempDir, USERS);
+        harness.property("openmrs.demo.patients", 25);
+        Path reportFile = tempDir.resolve("run-report.json");
+        harness.property("run-report.path", reportFile);
+
+        Duration elapsed = harness.run(Duration.ofMinutes(2));
+        harness.report(USERS, elapsed);
+
+        assertEquals(USERS, harness.keycloak().userCount());
+        assertTrue(harness.keycloak().hasUser("user0"));
+        // One realm role mapping and one client role mapping per user
+        assertEquals(USERS * 2, harness.keycloak().roleMappingCount());
+        assertEquals(25, harness.openmrs().generatedPatientCount());
+        assertEquals("0", harness.openmrs().settingValue("referencedemodata.createDemoPatientsOnNextStartup"));
+
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        assertEquals(USERS, report.at("/entities/user/completed").asInt());
+        assertEquals(USERS, report.at("/calls/keycloak.users.create/count").asInt());
+        assertEquals(2, report.at("/tasks").size());
+    }
+
+    @Test
+    void shouldSkipSecondRunWithUnchangedInputs() throws Exception {
+        harness.writeSyntheticUsers(tempDir, USERS);
+        harness.property("openmrs.demo.patients", 25);
+        harness.run(Duration.ofMinutes(2));
+        assertEquals(USERS, harness.keycloak().requestCount("users.create"));
+        assertNotNull(harness.keycloak().realmAttribute("ozone-demo-data.fingerprint"));
+        assertNotNull(harness.openmrs().settingValue("ozone-demo-data.fingerprint"));
+
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(USERS, harness.keycloak().requestCount("users.create"));
+        assertEquals(25, harness.openmrs().generatedPatientCount());
+
+        harness.property("openmrs.demo.patients", 30);
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(USERS, harness.keycloak().requestCount("users.create"));
+        assertEquals(30, harness.openmrs().generatedPatientCount());
+    }
+
+    @Test
+    void shouldCreateClientSidePatientsContinuingAfterExistingOnes() throws Exception {
+        harness.writeSyntheticUsers(tempDir, USERS);
+        harness.property("openmrs.demo.generator", "client");
+        harness.property("openmrs.demo.patients", 200);
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(200, harness.openmrs().createdPatientCount());
+        assertEquals(0, harness.openmrs().generatedPatientCount());
+
+        harness.property("openmrs.demo.patients", 250);
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(250, harness.openmrs().createdPatientCount());
+        assertEquals(250, harness.openmrs().requestCount("patient.create"));
+    }
+
+    @Test
+    void shouldCreatePatientsInFhirTransactionBundles() throws Exception {
+        harness.writeSyntheticUsers(tempDir, USERS);
+        harness.property("openmrs.demo.generator", "fhir-bundle");
+        harness.property("openmrs.patients.fhir.bundle-size", 100);
+        harness.property("openmrs.demo.patients", 250);
+        Path reportFile = tempDir.resolve("run-report.json");
+        harness.property("run-report.path", reportFile);
+
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(250, harness.openmrs().createdPatientCount());
+        assertEquals(3, harness.openmrs().requestCount("fhir.transaction"));
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        assertEquals(250, report.at("/entities/patient/completed").asInt());
+        assertEquals(250, report.at("/entities/observation/completed").asInt());
+    }
+
+    @Test
+    void shouldCreatePatientsWithTheirClinicalHistory() throws Exception {
+        harness.writeSyntheticUsers(tempDir, USERS);
+        harness.property("openmrs.demo.generator", "fhir-history");
+        harness.property("openmrs.patients.min-age", 2);
+        harness.property("openmrs.patients.history.years", 2);
+        harness.property("openmrs.patients.history.visits-per-year", 4);
+        harness.property("openmrs.demo.patients", 20);
+        Path reportFile = tempDir.resolve("run-report.json");
+        harness.property("run-report.path", reportFile);
+
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(20, harness.openmrs().createdPatientCount());
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        assertEquals(20, report.at("/entities/patient/completed").asInt());
+        assertEquals(160, report.at("/entities/visit/completed").asInt());
+        assertEquals(160, report.at("/entities/encounter/completed").asInt());
+    }
+
+    @Test
+    void shouldCreatePatientsWithIdentifiersReservedFromIdgenInBlocks() throws Exception {
+        harness.writeSyntheticUsers(tempDir, USERS);
+        harness.property("openmrs.demo.generator", "client");
+        harness.property("openmrs.patients.identifier-source", "idgen");
+        harness.property("openmrs.patients.idgen.source.uuid", "openmrs-id-source-uuid");
+        harness.property("openmrs.patients.idgen.block-size", 50);
+        harness.property("openmrs.demo.patients", 120);
+
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(120, harness.openmrs().createdPatientCount());
+        assertEquals(3, harness.openmrs().requestCount("idgen.reserve"));
+    }
+
+    @Test
+    void shouldTearDownTheProvisionedUsersAndPatientsThenSeedAgain() throws Exception {
+        harness.writeSyntheticUsers(tempDir, USERS);
+        harness.property("openmrs.demo.generator", "client");
+        harness.property("openmrs.patients.fhir.bundle-size", 50);
+        harness.property("openmrs.demo.patients", 120);
+        harness.run(Duration.ofMinutes(2));
+        assertEquals(USERS, harness.keycloak().userCount());
+        assertEquals(120, harness.openmrs().createdPatientCount());
+
+        harness.property("teardown.enabled", true);
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(0, harness.keycloak().userCount());
+        assertEquals(USERS, harness.keycloak().requestCount("users.delete"));
+        assertEquals(0, harness.openmrs().createdPatientCount());
+        assertEquals(3, harness.openmrs().requestCount("fhir.transaction"));
+        // The client generator leaves the setting of the reference demo data module alone
+        assertEquals("0", harness.openmrs().settingValue("referencedemodata.createDemoPatientsOnNextStartup"));
+
+        harness.property("teardown.enabled", false);
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(USERS, harness.keycloak().userCount());
+        assertEquals(120, harness.openmrs().createdPatientCount());
+    }
+
+    @Test
+    void shouldWarmUpTheCachesOnceTheDemoDataIsGenerated() throws Exception {
+        harness.writeSyntheticUsers(tempDir, USERS);
+        harness.property("openmrs.demo.generator", "client");
+        harness.property("openmrs.demo.patients", 50);
+        harness.property("openmrs.warm-up.enabled", true);
+        harness.property("openmrs.warm-up.rounds", 2);
+        Path reportFile = tempDir.resolve("run-report.json");
+        harness.property("run-report.path", reportFile);
+
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(50, harness.openmrs().createdPatientCount());
+        // Session, login locations, visit types, concept search and patient search
+        assertEquals(10, harness.openmrs().requestCount("warm-up.rest"));
+        assertEquals(4, harness.openmrs().requestCount("warm-up.fhir"));
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        assertEquals(
+                1, report.at("/calls/openmrs.warm-up.concept-search.cold/count").asInt());
+        assertEquals(
+                1, report.at("/calls/openmrs.warm-up.concept-search.warm/count").asInt());
+        assertEquals(
+                0, report.at("/calls/openmrs.warm-up.fhir-patients.warm/errors").asInt());
+    }
+
+    @Test
+    void shouldSeedOdooInBatchesAndSkipExistingRecordsOnTheNextRun() throws Exception {
+        harness.writeSyntheticUsers(tempDir, USERS);
+        harness.property("openmrs.demo.patients", 25);
+        harness.property("odoo.seeding.enabled", true);
+        harness.property("odoo.customers", 250);
+        harness.property("odoo.products", 120);
+        harness.property("odoo.price-lists", 3);
+        harness.property("odoo.batch-size", 50);
+        Path reportFile = tempDir.resolve("run-report.json");
+        harness.property("run-report.path", reportFile);
+
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(USERS, harness.keycloak().userCount());
+        assertEquals(250, harness.odoo().recordCount("res.partner"));
+        assertEquals(120, harness.odoo().recordCount("product.product"));
+        assertEquals(3, harness.odoo().recordCount("product.pricelist"));
+        assertEquals(373, harness.odoo().externalIdCount());
+        assertEquals(5, harness.odoo().callCount("res.partner.load"));
+        assertEquals(3, harness.odoo().callCount("product.product.load"));
+        assertNotNull(
+                harness.odoo().recordByExternalId("ozone_demo_data.customer_0").get("property_product_pricelist"));
+        assertNotNull(
+                harness.odoo().recordByExternalId("ozone_demo_data.pricelist_0").get("item_ids"));
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        assertEquals(250, report.at("/entities/customer/completed").asInt());
+        assertEquals(5, report.at("/calls/odoo.res.partner.load/count").asInt());
+
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(250, harness.odoo().recordCount("res.partner"));
+        assertEquals(5, harness.odoo().callCount("res.partner.load"));
+    }
+
+    @Test
+    void shouldSeedSenaiteInBatchesAndSkipExistingObjectsOnTheNextRun() throws Exception {
+        harness.writeSyntheticUsers(tempDir, USERS);
+        harness.property("openmrs.demo.patients", 25);
+        harness.property("senaite.seeding.enabled", true);
+        harness.property("senaite.clients", 30);
+        harness.property("senaite.sample-types", 12);
+        harness.property("senaite.analysis-services", 45);
+        harness.property("senaite.batch-size", 10);
+        Path reportFile = tempDir.resolve("run-report.json");
+        harness.property("run-report.path", reportFile);
+
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(USERS, harness.keycloak().userCount());
+        assertEquals(30, harness.senaite().objectCount("Client"));
+        assertEquals(12, harness.senaite().objectCount("SampleType"));
+        assertEquals(45, harness.senaite().objectCount("AnalysisService"));
+        // 2 + 3 + 5 batches
+        assertEquals(10, harness.senaite().requestCount("create"));
+        assertEquals(
+                harness.senaite()
+                        .objectByTitle("AnalysisCategory", "Hematology")
+                        .get("uid"),
+                harness.senaite()
+                        .objectByTitle("AnalysisService", "Demo Analysis 0001")
+                        .get("Category"));
+        JsonNode report = new ObjectMapper().readTree(reportFile.toFile());
+        assertEquals(45, report.at("/entities/analysis-service/completed").asInt());
+        assertEquals(3, report.at("/calls/senaite.Client.create/count").asInt());
+
+        harness.run(Duration.ofMinutes(2));
+
+        assertEquals(30, harness.senaite().objectCount("Client"));
+        assertEquals(10, harness.senaite().requestCount("create"));
+    }
+
+    @Test
+    void shouldSplitUsersBetweenShardsAndMergeTheirReports() throws Exception {
+        harness.writeSyntheticUsers(tempDir, USERS);
+        harness.property("openmrs.demo.patients", 25);
+        harness.property("shard.count", 3);
+        harness.property("run-report.path", tempDir.resolve("reports/run-report.json"));
+
+        for (int shard = 0; shard < 3; shard++) {
+            harness.property("shard.index", shard);
+            harness.run(Duration.ofMinutes(2));
+        }
+
+        assertEquals(USERS, harness.keycloak().userCount());
+        assertEquals(USERS, harness.keycloak().requestCount("users.create"));
+        assertNotNull(harness.keycloak().realmAttribute("ozone-demo-data.fingerprint-shard-2-of-3"));
+        assertEquals(25, harness.openmrs().generatedPatientCount());
+
+        harness.property("shard.count", 1);
+        harness.property("shard.index", 0);
+        harness.property("keycloak.user-creation.enabled", false);
+        harness.property("openmrs.demo-data.enabled", false);
+        harness.property("run-report.path", "");
+        harness.property("run-report.merge.dir", tempDir.resolve("reports"));
+        harness.run(Duration.ofMinutes(2));
+
+        JsonNode report = new ObjectMapper()
+                .readTree(tempDir.resolve("reports/run-report-merged.json").toFile());
+        assertEquals(USERS, report.at("/entities/user/completed").asInt());
+        assertEquals(USERS, report.at("/calls/keycloak.users.create/count").asInt());
+        assertEquals(3, report.at("/shards").size());
+        assertEquals(3, report.at("/shardCount").asInt());
+    }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.loadtest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+/**
+ * Stand-in for the senaite.jsonapi routes used by the SENAITE seeding task. Objects are kept in memory by portal type,
+ * listed a page at a time and created from a list of records in one request. Analysis service keywords are unique like
+ * in SENAITE, and one analysis category exists from the start.
+ */
+public class SenaiteStandIn extends StandInServer {
+
+    static final String PASSWORD = "admin";
+
+    private static final String API = "/senaite/@@API/senaite/v1";
+
+    private static final String AUTHORIZATION =
+            "Basic " + Base64.getEncoder().encodeToString(("admin:" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+
+    /** Objects of each portal type by uid, in creation order like a catalog listing sorted by creation date. */
+    private final Map<String, Map<String, Map<String, Object>>> objectsByPortalType = new HashMap<>();
+
+    public SenaiteStandIn(int workerThreads) {
+        super("SENAITE", workerThreads);
+        store(Map.of(
+                "portal_type",
+                "AnalysisCategory",
+                "parent_path",
+                "/senaite/bika_setup/bika_analysiscategories",
+                "title",
+                "Hematology"));
+        route("GET", API + "/version", "version", request -> Response.ok(Map.of("version", "2.6.0")));
+        route("POST", API + "/create", "create", this::create);
+        route("GET", API + "/([A-Za-z]+)", "list", this::list);
+    }
+
+    public String siteUrl() {
+        return baseUrl() + "/senaite";
+    }
+
+    public synchronized int objectCount(String portalType) {
+        Map<String, Map<String, Object>> objects = objectsByPortalType.get(portalType);
+        return objects == null ? 0 : objects.size();
+    }
+
+    /**
+     * @return the fields of the object with the title, e.g. {@code Demo Analysis 0001}
+     */
+    public synchronized Map<String, Object> objectByTitle(String portalType, String title) {
+        return objectsByPortalType.getOrDefault(portalType, Map.of()).values().stream()
+                .filter(object -> title.equals(object.get("title")))
+                .findFirst()
+                .orElse(null);
+    }
+
+    private synchronized Response list(Request request) {
+        if (!AUTHORIZATION.equals(request.getAuthorization())) {
+            return new Response(401, Map.of("success", false, "message", "Unauthorized"));
+        }
+        List<Map<String, Object>> objects = new ArrayList<>(
+                objectsByPortalType.getOrDefault(request.pathParam(1), Map.of()).values());
+        int start = Integer.parseInt(request.getQuery().getOrDefault("b_start", "0"));
+        int limit = Integer.parseInt(request.getQuery().getOrDefault("limit", "25"));
+        List<Map<String, Object>> page = objects.stream()
+                .skip(start)
+                .limit(limit)
+                .map(object -> Map.of("uid", object.get("uid"), "title", object.get("title")))
+                .collect(Collectors.toList());
+        return Response.ok(Map.of("count", objects.size(), "items", page));
+    }
+
+    @SuppressWarnings("unchecked")
+    private synchronized Response create(Request request) throws IOException {
+        if (!AUTHORIZATION.equals(request.getAuthorization())) {
+            return new Response(401, Map.of("success", false, "message", "Unauthorized"));
+        }
+        List<Map<String, Object>> records = request.bodyAs(List.class);
+        // All or nothing, as the objects are created in a single transaction
+        for (Map<String, Object> record : records) {
+            if (record.get("Keyword") != null
+                    && objectsByPortalType.getOrDefault("AnalysisService", Map.of()).values().stream()
+                            .anyMatch(object -> record.get("Keyword").equals(object.get("Keyword")))) {
+                return new Response(
+                        400,
+                        Map.of("success", false, "message", "Keyword " + record.get("Keyword") + " is already in use"));
+            }
+        }
+        List<Map<String, Object>> items = new ArrayList<>();
+        for (Map<String, Object> record : records) {
+            Map<String, Object> object = store(record);
+            items.add(Map.of("uid", object.get("uid"), "title", object.get("title")));
+        }
+        return Response.ok(Map.of("count", items.size(), "items", items));
+    }
+
+    private synchronized Map<String, Object> store(Map<String, Object> record) {
+        Map<String, Object> object = new LinkedHashMap<>(record);
+        object.put("uid", UUID.randomUUID().toString().replace("-", ""));
+        objectsByPortalType
+                .computeIfAbsent((String) record.get("portal_type"), key -> new LinkedHashMap<>())
+                .put((String) object.get("uid"), object);
+        return object;
+    }
+}
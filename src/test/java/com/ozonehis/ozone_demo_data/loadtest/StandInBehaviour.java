@@ -0,0 +1,44 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.loadtest;
+
+import java.time.Duration;
+import lombok.Builder;
+import lombok.Getter;
+
+/**
+ * Describes how a stand-in server behaves under load: how long each request takes, how often it fails and how many
+ * requests per second it accepts before answering with 429.
+ */
+@Getter
+@Builder
+public class StandInBehaviour {
+
+    /** Fixed latency added to every request. */
+    @Builder.Default
+    private final Duration latency = Duration.ZERO;
+
+    /** Upper bound of the uniformly distributed extra latency added on top of {@link #latency}. */
+    @Builder.Default
+    private final Duration latencyJitter = Duration.ZERO;
+
+    /** Fraction of requests, between 0 and 1, answered with {@link #errorStatus}. */
+    @Builder.Default
+    private final double errorRate = 0.0;
+
+    @Builder.Default
+    private final int errorStatus = 503;
+
+    /** Maximum number of requests accepted per second, 0 disables rate limiting. */
+    @Builder.Default
+    private final int rateLimitPerSecond = 0;
+
+    public static StandInBehaviour instant() {
+        return StandInBehaviour.builder().build();
+    }
+}
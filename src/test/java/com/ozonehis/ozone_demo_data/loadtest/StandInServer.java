@@ -0,0 +1,330 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Minimal in-process HTTP server used as a stand-in for the remote systems this application talks to. Subclasses
+ * register routes, the base class applies the configured {@link StandInBehaviour} and records per-endpoint latency.
+ */
+@Slf4j
+public abstract class StandInServer implements AutoCloseable {
+
+    protected static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    static {
+        // Without TCP_NODELAY small responses wait on delayed ACKs and every request costs ~40ms
+        System.setProperty("sun.net.httpserver.nodelay", "true");
+    }
+
+    private final List<Route> routes = new ArrayList<>();
+
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+
+    private final String name;
+
+    private final HttpServer server;
+
+    private final ExecutorService executor;
+
+    private final Object rateLimitLock = new Object();
+
+    private long rateLimitWindowStart = System.nanoTime();
+
+    private int rateLimitWindowCount;
+
+    @Getter
+    @Setter
+    private volatile StandInBehaviour behaviour = StandInBehaviour.instant();
+
+    protected StandInServer(String name, int workerThreads) {
+        this.name = name;
+        try {
+            this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 512);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to start " + name + " stand-in", e);
+        }
+        this.executor = Executors.newFixedThreadPool(workerThreads);
+        this.server.setExecutor(executor);
+        this.server.createContext("/", this::handle);
+    }
+
+    public void start() {
+        server.start();
+        log.info("{} stand-in listening on {}", name, baseUrl());
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * @return a snapshot of the recorded latency statistics, keyed by endpoint name
+     */
+    public Map<String, EndpointStats> getStats() {
+        return new LinkedHashMap<>(stats);
+    }
+
+    public long requestCount(String endpoint) {
+        EndpointStats endpointStats = stats.get(endpoint);
+        return endpointStats == null ? 0 : endpointStats.count();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    protected void route(String method, String pathPattern, String endpoint, Handler handler) {
+        routes.add(new Route(method, Pattern.compile(pathPattern), endpoint, handler));
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        long start = System.nanoTime();
+        String path = exchange.getRequestURI().getPath();
+        Route route = null;
+        Matcher matcher = null;
+        for (Route candidate : routes) {
+            if (!candidate.getMethod().equals(exchange.getRequestMethod())) {
+                continue;
+            }
+            Matcher candidateMatcher = candidate.getPattern().matcher(path);
+            if (candidateMatcher.matches()) {
+                route = candidate;
+                matcher = candidateMatcher;
+                break;
+            }
+        }
+
+        try (exchange) {
+            if (route == null) {
+                log.warn("{} stand-in has no route for {} {}", name, exchange.getRequestMethod(), path);
+                respond(exchange, new Response(404, null));
+                return;
+            }
+            respond(exchange, applyBehaviour(exchange, route, matcher));
+        } finally {
+            String endpoint = route == null ? "unmatched" : route.getEndpoint();
+            stats.computeIfAbsent(endpoint, key -> new EndpointStats()).record(System.nanoTime() - start);
+        }
+    }
+
+    private Response applyBehaviour(HttpExchange exchange, Route route, Matcher matcher) throws IOException {
+        StandInBehaviour current = behaviour;
+        if (isRateLimited(current)) {
+            return new Response(429, null);
+        }
+        sleep(current);
+        if (current.getErrorRate() > 0 && ThreadLocalRandom.current().nextDouble() < current.getErrorRate()) {
+            return new Response(current.getErrorStatus(), null);
+        }
+        try (InputStream body = exchange.getRequestBody()) {
+            Request request = new Request(
+                    matcher,
+                    parseQuery(exchange.getRequestURI().getRawQuery()),
+                    body.readAllBytes(),
+                    exchange.getRequestHeaders().getFirst("Authorization"));
+            return route.getHandler().handle(request);
+        }
+    }
+
+    private boolean isRateLimited(StandInBehaviour current) {
+        if (current.getRateLimitPerSecond() <= 0) {
+            return false;
+        }
+        synchronized (rateLimitLock) {
+            long now = System.nanoTime();
+            if (now - rateLimitWindowStart >= TimeUnit.SECONDS.toNanos(1)) {
+                rateLimitWindowStart = now;
+                rateLimitWindowCount = 0;
+            }
+            return ++rateLimitWindowCount > current.getRateLimitPerSecond();
+        }
+    }
+
+    private static void sleep(StandInBehaviour current) {
+        long millis = current.getLatency().toMillis();
+        long jitter = current.getLatencyJitter().toMillis();
+        if (jitter > 0) {
+            millis += ThreadLocalRandom.current().nextLong(jitter + 1);
+        }
+        if (millis <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void respond(HttpExchange exchange, Response response) throws IOException {
+        if (response.getHeaders() != null) {
+            response.getHeaders()
+                    .forEach((key, value) -> exchange.getResponseHeaders().add(key, value));
+        }
+        if (response.getBody() == null) {
+            exchange.sendResponseHeaders(response.getStatus(), -1);
+            return;
+        }
+        byte[] bytes = OBJECT_MAPPER.writeValueAsBytes(response.getBody());
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(response.getStatus(), bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new LinkedHashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        Arrays.stream(rawQuery.split("&")).forEach(pair -> {
+            int separator = pair.indexOf('=');
+            String key = separator < 0 ? pair : pair.substring(0, separator);
+            String value = separator < 0 ? "" : pair.substring(separator + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        });
+        return query;
+    }
+
+    @FunctionalInterface
+    protected interface Handler {
+
+        Response handle(Request request) throws IOException;
+    }
+
+    /**
+     * An incoming request, with the path matcher of the route that accepted it.
+     */
+    @Getter
+    @AllArgsConstructor
+    protected static class Request {
+
+        private final Matcher path;
+
+        private final Map<String, String> query;
+
+        private final byte[] body;
+
+        private final String authorization;
+
+        String pathParam(int group) {
+            return URLDecoder.decode(path.group(group), StandardCharsets.UTF_8);
+        }
+
+        <T> T bodyAs(Class<T> type) throws IOException {
+            return OBJECT_MAPPER.readValue(body, type);
+        }
+    }
+
+    /**
+     * A response to send back, the body is serialized as JSON when present.
+     */
+    @Getter
+    @AllArgsConstructor
+    protected static class Response {
+
+        private final int status;
+
+        private final Object body;
+
+        private final Map<String, String> headers;
+
+        Response(int status, Object body) {
+            this(status, body, null);
+        }
+
+        static Response ok(Object body) {
+            return new Response(200, body);
+        }
+
+        static Response noContent() {
+            return new Response(204, null);
+        }
+
+        static Response notFound() {
+            return new Response(404, null);
+        }
+    }
+
+    @Getter
+    @AllArgsConstructor
+    private static class Route {
+
+        private final String method;
+
+        private final Pattern pattern;
+
+        private final String endpoint;
+
+        private final Handler handler;
+    }
+
+    /**
+     * Latency samples recorded for a single endpoint.
+     */
+    public static class EndpointStats {
+
+        private long[] samples = new long[1024];
+
+        private int size;
+
+        synchronized void record(long nanos) {
+            if (size == samples.length) {
+                samples = Arrays.copyOf(samples, size * 2);
+            }
+            samples[size++] = nanos;
+        }
+
+        public synchronized long count() {
+            return size;
+        }
+
+        /**
+         * @param percentile the percentile to compute, between 0 and 100
+         * @return the latency at the given percentile in milliseconds
+         */
+        public synchronized double percentileMillis(double percentile) {
+            if (size == 0) {
+                return 0;
+            }
+            long[] sorted = Arrays.copyOf(samples, size);
+            Arrays.sort(sorted);
+            int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+            return sorted[Math.max(0, Math.min(index, size - 1))] / 1_000_000.0;
+        }
+    }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.report;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+class LatencyRecorderTest {
+
+    @Test
+    void shouldNumberTheBucketsWithoutGapsOrOverlaps() {
+        for (long micros = 0; micros < 1 << 20; micros++) {
+            int bucket = LatencyRecorder.bucket(micros);
+            assertTrue(LatencyRecorder.lowestMicros(bucket) <= micros, String.valueOf(micros));
+            assertTrue(micros < LatencyRecorder.lowestMicros(bucket + 1), String.valueOf(micros));
+        }
+    }
+
+    @Test
+    void shouldKeepPercentilesWithinOnePercentOfTheLatencies() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        // A million calls from 1 microsecond to about 17 minutes
+        for (int i = 1; i <= 1_000_000; i++) {
+            recorder.record((long) Math.pow(1.00002, i) * 1_000, true);
+        }
+
+        RunReport.CallStats stats = recorder.snapshot();
+
+        assertEquals(1_000_000, stats.getCount());
+        assertEquals(Math.pow(1.00002, 500_000) / 1_000, stats.getP50Millis(), stats.getP50Millis() * 0.01);
+        assertEquals(Math.pow(1.00002, 990_000) / 1_000, stats.getP99Millis(), stats.getP99Millis() * 0.01);
+        assertEquals((long) Math.pow(1.00002, 1_000_000) * 1_000 / 1_000_000.0, stats.getMaxMillis());
+    }
+
+    @Test
+    void shouldRecordLatenciesBeyondTheLastBucketInIt() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        long day = 24L * 3_600 * 1_000_000_000;
+
+        recorder.record(day, false);
+
+        RunReport.CallStats stats = recorder.snapshot();
+        assertEquals(1, stats.getErrors());
+        assertEquals(day / 1_000_000.0, stats.getMaxMillis());
+        assertTrue(stats.getP99Millis() <= stats.getMaxMillis());
+    }
+}
@@ -0,0 +1,56 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class ProgressReporterTest {
+
+    private final RunMetrics runMetrics = new RunMetrics();
+
+    private final ProgressReporter progressReporter = new ProgressReporter(runMetrics);
+
+    @Test
+    void shouldReportProcessedEntitiesAgainstExpectedWithRateAndEta() {
+        runMetrics.entitiesExpected("user", 200);
+        runMetrics.entityCompleted("user", 49);
+        runMetrics.entityFailed("user", "jdoe", "409 Conflict");
+        runMetrics.entityCompleted("observation", 10);
+
+        List<String> lines = progressReporter.progressLines();
+
+        assertEquals(2, lines.size());
+        assertTrue(lines.get(0).startsWith("Progress observation: 10, "), lines.get(0));
+        assertTrue(lines.get(1).startsWith("Progress user: 50/200 (25%), "), lines.get(1));
+        assertTrue(lines.get(1).contains("/s, ETA "), lines.get(1));
+        assertTrue(lines.get(1).endsWith(", 1 failed"), lines.get(1));
+    }
+
+    @Test
+    void shouldSkipEntityTypesWithoutProgressSinceThePreviousReport() {
+        runMetrics.entityCompleted("user", 10);
+        progressReporter.progressLines();
+        runMetrics.entityCompleted("patient", 5);
+
+        List<String> lines = progressReporter.progressLines();
+
+        assertEquals(1, lines.size());
+        assertTrue(lines.get(0).startsWith("Progress patient: 5, "), lines.get(0));
+    }
+
+    @Test
+    void shouldFormatDurations() {
+        assertEquals("42s", ProgressReporter.formatDuration(42));
+        assertEquals("2m05s", ProgressReporter.formatDuration(125));
+        assertEquals("1h01m", ProgressReporter.formatDuration(3660));
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RunMetricsTest {
+
+    private final RunMetrics runMetrics = new RunMetrics();
+
+    @Test
+    void shouldRecordCallCountsErrorsAndPercentiles() {
+        for (int i = 1; i <= 100; i++) {
+            runMetrics.recordCall("keycloak.users.create", i * 1_000_000L, i != 100);
+        }
+
+        RunReport.CallStats stats = runMetrics.snapshot().getCalls().get("keycloak.users.create");
+
+        assertEquals(100, stats.getCount());
+        assertEquals(1, stats.getErrors());
+        // Percentiles come from histogram buckets within 1% of the latencies
+        assertEquals(50.0, stats.getP50Millis(), 0.5);
+        assertEquals(95.0, stats.getP95Millis(), 0.95);
+        assertEquals(99.0, stats.getP99Millis(), 0.99);
+        assertEquals(100.0, stats.getMaxMillis());
+    }
+
+    @Test
+    void shouldCountThrowingCallAsError() {
+        assertThrows(
+                IllegalStateException.class,
+                () -> runMetrics.recordCall("openmrs.generate", () -> {
+                    throw new IllegalStateException("boom");
+                }));
+
+        assertEquals(1, runMetrics.snapshot().getCalls().get("openmrs.generate").getErrors());
+    }
+
+    @Test
+    void shouldAccumulatePhaseTimings() {
+        try (var ignored = runMetrics.phase("keycloak.roles")) {
+            // no-op
+        }
+        try (var ignored = runMetrics.phase("keycloak.roles")) {
+            // no-op
+        }
+
+        assertEquals(2, runMetrics.snapshot().getPhases().get("keycloak.roles").getCount());
+    }
+
+    @Test
+    void shouldReportEntitiesAndFailures() {
+        runMetrics.entityCompleted("user");
+        runMetrics.entityCompleted("user");
+        runMetrics.entityFailed("user", "jdoe", "Conflict");
+
+        RunReport report = runMetrics.snapshot();
+
+        assertEquals(2, report.getEntities().get("user").getCompleted());
+        assertEquals(1, report.getEntities().get("user").getFailed());
+        assertTrue(report.getEntities().get("user").getPerSecond() > 0);
+        assertEquals(1, report.getFailures().size());
+        assertEquals("jdoe", report.getFailures().get(0).getId());
+    }
+
+    @Test
+    void shouldCapRecordedFailures() {
+        for (int i = 0; i < RunMetrics.MAX_RECORDED_FAILURES + 10; i++) {
+            runMetrics.entityFailed("user", "user" + i, "Conflict");
+        }
+
+        RunReport report = runMetrics.snapshot();
+
+        assertEquals(RunMetrics.MAX_RECORDED_FAILURES, report.getFailures().size());
+        assertEquals(
+                RunMetrics.MAX_RECORDED_FAILURES + 10,
+                report.getEntities().get("user").getFailed());
+    }
+
+    @Test
+    void shouldReportTaskTimings() {
+        runMetrics.taskStarted("UserCreationTask");
+        runMetrics.taskStarted("DemoDataGenerationTask");
+        runMetrics.taskFinished("UserCreationTask", true);
+
+        RunReport report = runMetrics.snapshot();
+
+        assertEquals(2, report.getTasks().size());
+        assertEquals("DemoDataGenerationTask", report.getTasks().get(0).getName());
+        assertFalse(report.getTasks().get(0).isSucceeded());
+        assertTrue(report.getTasks().get(1).isSucceeded());
+    }
+
+    @Test
+    void shouldReportTargetsSeparatelyAndIncludeThemInTotals() {
+        runMetrics.entityCompleted("user", 2);
+        RunMetrics tenantA = runMetrics.target("tenant-a");
+        tenantA.entityCompleted("user", 3);
+        tenantA.entityFailed("user", "jdoe", "boom");
+        tenantA.recordCall("keycloak.users.create", 1_000_000L, true);
+
+        RunReport report = runMetrics.snapshot();
+
+        assertEquals(5, report.getEntities().get("user").getCompleted());
+        assertEquals(1, report.getEntities().get("user").getFailed());
+        assertTrue(report.getFailures().isEmpty());
+        assertFalse(report.getCalls().containsKey("keycloak.users.create"));
+
+        RunReport tenantReport = report.getTargets().get("tenant-a");
+        assertEquals(3, tenantReport.getEntities().get("user").getCompleted());
+        assertEquals(1, tenantReport.getFailures().size());
+        assertEquals(1, tenantReport.getCalls().get("keycloak.users.create").getCount());
+    }
+
+    @Test
+    void shouldReportProgressAgainstExpectedEntities() {
+        RunMetrics target = runMetrics.target("tenant-a");
+        target.entitiesExpected("user", 10);
+        runMetrics.entitiesExpected("user", 5);
+        target.entityCompleted("user", 3);
+        target.entityFailed("user", "jdoe", "409 Conflict");
+
+        RunMetrics.EntityProgress progress = runMetrics.progress().get("user");
+
+        assertEquals(3, progress.getCompleted());
+        assertEquals(1, progress.getFailed());
+        assertEquals(15, progress.getExpected());
+        assertEquals(4, progress.processed());
+    }
+
+    @Test
+    void shouldAggregateFailuresByCause() {
+        assertTrue(runMetrics.entityFailed("patient", "DEMO-0000001", "Identifier DEMO-0000001 is in use"));
+        assertFalse(runMetrics.entityFailed("patient", "DEMO-0000002", "Identifier DEMO-0000002 is in use"));
+        assertFalse(runMetrics
+                .target("tenant-a")
+                .entityFailed("patient", "DEMO-0000003", "Identifier DEMO-0000003 is in use"));
+        assertTrue(runMetrics.entityFailed("patient", "DEMO-0000004", "503 Service Unavailable"));
+        assertTrue(runMetrics.entityFailed("user", "jdoe", "503 Service Unavailable"));
+
+        assertEquals(Map.of("patient: Identifier DEMO-0000001 is in use", 2L), runMetrics.drainRepeatedFailures());
+        assertTrue(runMetrics.drainRepeatedFailures().isEmpty());
+        assertFalse(runMetrics.entityFailed("user", "asmith", "503 Service Unavailable"));
+        assertEquals(Map.of("user: 503 Service Unavailable", 1L), runMetrics.drainRepeatedFailures());
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class RunReportMergerTest {
+
+    @Test
+    void shouldAddUpTheCountsOfTheShards() {
+        RunReport first = report(0, "2025-06-15T10:00:00Z", "2025-06-15T10:00:10Z", 600, 2, 20.0);
+        RunReport second = report(1, "2025-06-15T10:00:02Z", "2025-06-15T10:00:20Z", 400, 1, 35.0);
+
+        RunReport merged = RunReportMerger.merge(List.of(first, second));
+
+        assertEquals("2025-06-15T10:00:00Z", merged.getStartedAt());
+        assertEquals("2025-06-15T10:00:20Z", merged.getFinishedAt());
+        assertEquals(20_000, merged.getDurationMillis());
+        RunReport.EntityStats users = merged.getEntities().get("user");
+        assertEquals(1000, users.getCompleted());
+        assertEquals(3, users.getFailed());
+        assertEquals(50.0, users.getPerSecond(), 0.001);
+        RunReport.CallStats calls = merged.getCalls().get("keycloak.users.create");
+        assertEquals(1003, calls.getCount());
+        assertEquals(35.0, calls.getP95Millis());
+        assertEquals(2, merged.getPhases().get("keycloak.users-create").getCount());
+        assertEquals(
+                List.of("shard-0/UserCreationTask", "shard-1/UserCreationTask"),
+                merged.getTasks().stream().map(RunReport.TaskTiming::getName).toList());
+        assertEquals(3, merged.getFailures().size());
+        assertEquals(
+                1000,
+                merged.getTargets().get("tenant-a").getEntities().get("user").getCompleted());
+        assertEquals(List.of(0, 1), merged.getShards());
+        assertEquals(List.of(2), RunReportMerger.missingShards(merged));
+        // The merged reports are left as they were
+        assertEquals(600, first.getEntities().get("user").getCompleted());
+    }
+
+    @Test
+    void shouldRejectAnEmptyListOfReports() {
+        assertThrows(IllegalArgumentException.class, () -> RunReportMerger.merge(List.of()));
+    }
+
+    private static RunReport report(
+            int shard, String startedAt, String finishedAt, long users, int failed, double p95Millis) {
+        RunReport target = RunReport.builder()
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .entities(Map.of("user", new RunReport.EntityStats(users, failed, 1.0)))
+                .build();
+        return RunReport.builder()
+                .startedAt(startedAt)
+                .finishedAt(finishedAt)
+                .tasks(List.of(new RunReport.TaskTiming("UserCreationTask", startedAt, finishedAt, 1, true)))
+                .phases(Map.of("keycloak.users-create", new RunReport.PhaseTiming(1, 100.0)))
+                .calls(Map.of(
+                        "keycloak.users.create",
+                        new RunReport.CallStats(users + failed, failed, 0, 10.0, p95Millis, p95Millis, p95Millis)))
+                .entities(Map.of("user", new RunReport.EntityStats(users, failed, 1.0)))
+                .failures(Collections.nCopies(failed, new RunReport.FailedEntity("user", "u", "409")))
+                .targets(Map.of("tenant-a", target))
+                .shardCount(3)
+                .shards(List.of(shard))
+                .build();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.report;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.config.ShardConfig;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class RunReportWriterTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldWriteReportAsJson() throws IOException {
+        RunMetrics runMetrics = new RunMetrics();
+        runMetrics.recordCall("keycloak.users.create", 2_000_000L, true);
+        runMetrics.entityCompleted("user");
+        Path reportFile = tempDir.resolve("reports/run-report.json");
+
+        RunReportWriter writer = new RunReportWriter(objectMapper);
+        writer.setReportPath(reportFile.toString());
+        writer.write(runMetrics.snapshot());
+
+        JsonNode report = objectMapper.readTree(reportFile.toFile());
+        assertEquals(1, report.at("/calls/keycloak.users.create/count").asInt());
+        assertEquals(1, report.at("/entities/user/completed").asInt());
+        assertTrue(report.has("phases"));
+        assertTrue(report.has("failures"));
+    }
+
+    @Test
+    void shouldNotWriteFileWhenPathIsBlank() throws IOException {
+        RunReportWriter writer = new RunReportWriter(objectMapper);
+        writer.setReportPath("");
+
+        writer.write(new RunMetrics().snapshot());
+
+        try (var files = Files.list(tempDir)) {
+            assertEquals(0, files.count());
+        }
+    }
+
+    @Test
+    void shouldWriteTheReportOfEachShardToItsOwnFile() throws IOException {
+        ShardConfig shardConfig = new ShardConfig();
+        shardConfig.setIndex(1);
+        shardConfig.setCount(4);
+        RunReportWriter writer = new RunReportWriter(objectMapper);
+        writer.setShardConfig(shardConfig);
+        writer.setReportPath(tempDir.resolve("run-report.json").toString());
+
+        writer.write(new RunMetrics().snapshot());
+
+        JsonNode report = objectMapper.readTree(
+                tempDir.resolve("run-report-shard-1-of-4.json").toFile());
+        assertEquals(4, report.at("/shardCount").asInt());
+        assertEquals(1, report.at("/shards/0").asInt());
+    }
+}
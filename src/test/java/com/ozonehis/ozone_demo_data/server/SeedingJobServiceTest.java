@@ -0,0 +1,202 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.service.DemoDataService;
+import com.ozonehis.ozone_demo_data.service.KeycloakUserService;
+import com.ozonehis.ozone_demo_data.service.UserChanges;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+
+@ExtendWith(MockitoExtension.class)
+class SeedingJobServiceTest {
+
+    @Mock
+    private ObjectProvider<KeycloakUserService> keycloakUserServiceProvider;
+
+    @Mock
+    private ObjectProvider<DemoDataService> demoDataServiceProvider;
+
+    @Mock
+    private KeycloakUserService keycloakUserService;
+
+    @Mock
+    private DemoDataService demoDataService;
+
+    private final RunMetrics runMetrics = new RunMetrics();
+
+    private SeedingJobService seedingJobService;
+
+    @TempDir
+    private Path usersDir;
+
+    @BeforeEach
+    void setUp() {
+        seedingJobService = new SeedingJobService(keycloakUserServiceProvider, demoDataServiceProvider, runMetrics);
+        seedingJobService.setUsersDir(usersDir.toString());
+    }
+
+    @AfterEach
+    void tearDown() {
+        seedingJobService.shutdown();
+    }
+
+    @Test
+    void shouldRunUserJobWithParametersAndCountProcessedUsers() throws Exception {
+        Files.createDirectories(usersDir.resolve("qa"));
+        String usersFile = Files.writeString(usersDir.resolve("qa/users.json"), "[]")
+                .toRealPath()
+                .toString();
+        when(keycloakUserServiceProvider.getObject()).thenReturn(keycloakUserService);
+        doAnswer(invocation -> {
+                    runMetrics.entityCompleted("user", 3);
+                    runMetrics.entityFailed("user", "jdoe", "boom");
+                    return null;
+                })
+                .when(keycloakUserService)
+                .createUsers(usersFile);
+
+        SeedingJob job = seedingJobService.submitUsers("qa/users.json", true);
+        awaitCompletion(job);
+
+        InOrder inOrder = inOrder(keycloakUserService);
+        inOrder.verify(keycloakUserService).clearRealmMetadataCache();
+        inOrder.verify(keycloakUserService).createUsers(usersFile);
+        assertEquals(SeedingJob.Status.SUCCEEDED, job.getStatus());
+        assertEquals(Map.of("user", 3L), job.getCompleted());
+        assertEquals(Map.of("user", 1L), job.getFailed());
+        assertNull(job.getError());
+        assertEquals(job, seedingJobService.getJob(job.getId()).orElseThrow());
+    }
+
+    @Test
+    void shouldRejectUsersFilesOutsideTheUsersDirectory() throws Exception {
+        when(keycloakUserServiceProvider.getObject()).thenReturn(keycloakUserService);
+        Path outside = Files.writeString(usersDir.getParent().resolve(usersDir.getFileName() + "-outside.json"), "[]");
+        try {
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> seedingJobService.submitUsers("../" + outside.getFileName(), false));
+            assertThrows(
+                    IllegalArgumentException.class, () -> seedingJobService.submitUsers(outside.toString(), false));
+            assertThrows(IllegalArgumentException.class, () -> seedingJobService.submitUsers("missing.json", false));
+            seedingJobService.setUsersDir("");
+            assertThrows(IllegalArgumentException.class, () -> seedingJobService.submitUsers("users.json", false));
+        } finally {
+            Files.delete(outside);
+        }
+        verify(keycloakUserService, never()).createUsers(anyString());
+        assertTrue(seedingJobService.getJobs().isEmpty());
+    }
+
+    @Test
+    void shouldReportTheFailedUsersOfUserChanges() throws Exception {
+        when(keycloakUserServiceProvider.getObject()).thenReturn(keycloakUserService);
+        UserChanges changes = new UserChanges(List.of(), List.of(), List.of("alice", "bob"));
+        when(keycloakUserService.applyUserChanges(changes))
+                .thenReturn(Set.of("bob"))
+                .thenThrow(new IllegalStateException("Keycloak is not available"));
+
+        CompletableFuture<Set<String>> first = new CompletableFuture<>();
+        seedingJobService.submitUserChanges(changes, first::complete);
+        CompletableFuture<Set<String>> second = new CompletableFuture<>();
+        SeedingJob failedJob = seedingJobService.submitUserChanges(changes, second::complete);
+
+        assertEquals(Set.of("bob"), first.get());
+        assertEquals(Set.of("alice", "bob"), second.get());
+        awaitCompletion(failedJob);
+        assertEquals(SeedingJob.Status.FAILED, failedJob.getStatus());
+    }
+
+    @Test
+    void shouldCountOnlyEntitiesOfTheJobItself() throws Exception {
+        when(demoDataServiceProvider.getObject()).thenReturn(demoDataService);
+        when(demoDataService.getNumberOfDemoPatients()).thenReturn(50);
+        doAnswer(invocation -> {
+                    runMetrics.entityCompleted("patient", invocation.<Integer>getArgument(0));
+                    return true;
+                })
+                .when(demoDataService)
+                .generateDemoData(anyInt());
+
+        SeedingJob first = seedingJobService.submitPatients(null);
+        SeedingJob second = seedingJobService.submitPatients(5);
+        awaitCompletion(first);
+        awaitCompletion(second);
+
+        verify(demoDataService).generateDemoData(50);
+        verify(demoDataService).generateDemoData(5);
+        assertEquals(Map.of("patient", 50L), first.getCompleted());
+        assertEquals(Map.of("patient", 5L), second.getCompleted());
+        assertEquals(2, seedingJobService.getJobs().size());
+    }
+
+    @Test
+    void shouldMarkJobAsFailedWhenOpenmrsIsNotAvailable() throws Exception {
+        when(demoDataServiceProvider.getObject()).thenReturn(demoDataService);
+        when(demoDataService.generateDemoData(10)).thenReturn(false);
+
+        SeedingJob job = seedingJobService.submitPatients(10);
+        awaitCompletion(job);
+
+        assertEquals(SeedingJob.Status.FAILED, job.getStatus());
+        assertEquals("PATIENTS job failed, see the server logs", job.getError());
+        assertFalse(runMetrics.snapshot().getTasks().get(0).isSucceeded());
+    }
+
+    @Test
+    void shouldEvictOldestFinishedJobsBeyondHistory() throws Exception {
+        when(demoDataServiceProvider.getObject()).thenReturn(demoDataService);
+        when(demoDataService.generateDemoData(1)).thenReturn(true);
+        seedingJobService.setJobHistory(1);
+
+        SeedingJob first = seedingJobService.submitPatients(1);
+        awaitCompletion(first);
+        SeedingJob second = seedingJobService.submitPatients(1);
+        awaitCompletion(second);
+
+        assertTrue(seedingJobService.getJob(first.getId()).isEmpty());
+        assertEquals(1, seedingJobService.getJobs().size());
+    }
+
+    private static void awaitCompletion(SeedingJob job) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (job.getFinishedAt() == null && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.getFinishedAt() != null, "Job did not finish in time");
+    }
+}
@@ -0,0 +1,172 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Map;
+import java.util.Optional;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class SeedingServerTest {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private static final String TOKEN = "secret";
+
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+
+    @Mock
+    private SeedingJobService seedingJobService;
+
+    private SeedingServer seedingServer;
+
+    @BeforeEach
+    void setUp() {
+        seedingServer = new SeedingServer(seedingJobService, new RunMetrics(), OBJECT_MAPPER, "127.0.0.1", 0, TOKEN);
+        seedingServer.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        seedingServer.stop();
+    }
+
+    @Test
+    void shouldQueueUserJobWithQueryParameters() throws Exception {
+        SeedingJob job = new SeedingJob("job-1", SeedingJob.Type.USERS, Map.of("usersJsonPath", "qa/users.json"));
+        when(seedingJobService.isUserCreationEnabled()).thenReturn(true);
+        when(seedingJobService.submitUsers("qa/users.json", true)).thenReturn(job);
+
+        HttpResponse<String> response =
+                send("POST", "/jobs/users?usersJsonPath=qa%2Fusers.json&refreshRealmMetadata=true");
+
+        assertEquals(202, response.statusCode());
+        assertEquals("/jobs/job-1", response.headers().firstValue("Location").orElseThrow());
+        JsonNode body = OBJECT_MAPPER.readTree(response.body());
+        assertEquals("job-1", body.get("id").asText());
+        assertEquals("QUEUED", body.get("status").asText());
+    }
+
+    @Test
+    void shouldRejectPatientJobWhenDemoDataIsDisabled() throws Exception {
+        when(seedingJobService.isDemoDataEnabled()).thenReturn(false);
+
+        HttpResponse<String> response = send("POST", "/jobs/patients?count=5");
+
+        assertEquals(409, response.statusCode());
+        verify(seedingJobService, never()).submitPatients(any());
+    }
+
+    @Test
+    void shouldRejectInvalidPatientCount() throws Exception {
+        when(seedingJobService.isDemoDataEnabled()).thenReturn(true);
+
+        assertEquals(400, send("POST", "/jobs/patients?count=many").statusCode());
+        assertEquals(400, send("POST", "/jobs/patients?count=0").statusCode());
+        verify(seedingJobService, never()).submitPatients(any());
+    }
+
+    @Test
+    void shouldReturnJobStatusAndReport() throws Exception {
+        SeedingJob job = new SeedingJob("job-2", SeedingJob.Type.PATIENTS, Map.of("count", 5));
+        job.started();
+        job.finished(Map.of("patient", 5L), Map.of(), null);
+        when(seedingJobService.getJob("job-2")).thenReturn(Optional.of(job));
+        when(seedingJobService.getJob("unknown")).thenReturn(Optional.empty());
+
+        HttpResponse<String> response = send("GET", "/jobs/job-2");
+        assertEquals(200, response.statusCode());
+        JsonNode body = OBJECT_MAPPER.readTree(response.body());
+        assertEquals("SUCCEEDED", body.get("status").asText());
+        assertEquals(5, body.get("completed").get("patient").asInt());
+
+        assertEquals(404, send("GET", "/jobs/unknown").statusCode());
+        HttpResponse<String> report = send("GET", "/report");
+        assertEquals(200, report.statusCode());
+        assertTrue(OBJECT_MAPPER.readTree(report.body()).has("entities"));
+        assertEquals(200, send("GET", "/health").statusCode());
+        assertEquals(404, send("DELETE", "/jobs").statusCode());
+    }
+
+    @Test
+    void shouldRejectRequestsWithoutTheBearerToken() throws Exception {
+        assertEquals(401, send("POST", "/jobs/patients?count=5", null).statusCode());
+        assertEquals(401, send("GET", "/report", "Bearer wrong").statusCode());
+        assertEquals(401, send("GET", "/jobs", TOKEN).statusCode());
+        assertEquals(200, send("GET", "/health", null).statusCode());
+        verify(seedingJobService, never()).submitPatients(any());
+    }
+
+    @Test
+    void shouldRejectUsersFilesOutsideTheUsersDirectory() throws Exception {
+        when(seedingJobService.isUserCreationEnabled()).thenReturn(true);
+        when(seedingJobService.submitUsers("../etc/passwd", false))
+                .thenThrow(new IllegalArgumentException("usersJsonPath must name a file inside server-mode.users-dir"));
+
+        HttpResponse<String> response = send("POST", "/jobs/users?usersJsonPath=..%2Fetc%2Fpasswd");
+
+        assertEquals(400, response.statusCode());
+        assertTrue(response.body().contains("server-mode.users-dir"));
+    }
+
+    @Test
+    void shouldHideTheDetailsOfUnexpectedErrors() throws Exception {
+        when(seedingJobService.getJobs()).thenThrow(new IllegalStateException("jdbc://secret-host"));
+
+        HttpResponse<String> response = send("GET", "/jobs");
+
+        assertEquals(500, response.statusCode());
+        assertFalse(response.body().contains("secret-host"));
+    }
+
+    @Test
+    void shouldRefuseToStartWithoutToken() {
+        SeedingServer server =
+                new SeedingServer(seedingJobService, new RunMetrics(), OBJECT_MAPPER, "127.0.0.1", 0, "");
+
+        assertThrows(IllegalStateException.class, server::start);
+        assertFalse(server.isRunning());
+    }
+
+    private HttpResponse<String> send(String method, String path) throws IOException, InterruptedException {
+        return send(method, path, "Bearer " + TOKEN);
+    }
+
+    private HttpResponse<String> send(String method, String path, String authorization)
+            throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(
+                        URI.create("http://127.0.0.1:" + seedingServer.getPort() + path))
+                .method(method, HttpRequest.BodyPublishers.noBody());
+        if (authorization != null) {
+            request.header("Authorization", authorization);
+        }
+        return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.server;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.service.UserChanges;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class UsersFileWatcherTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private SeedingJobService seedingJobService;
+
+    private UsersFileWatcher watcher;
+
+    private void appliedWithFailures(Set<String> failed) {
+        doAnswer(invocation -> {
+                    invocation.<Consumer<Set<String>>>getArgument(1).accept(failed);
+                    return null;
+                })
+                .when(seedingJobService)
+                .submitUserChanges(any(), any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (watcher != null) {
+            watcher.stop();
+        }
+    }
+
+    @Test
+    void shouldQueueOnlyTheChangedUsers() throws Exception {
+        appliedWithFailures(Set.of());
+        Path usersFile = directory.resolve("users.json");
+        Files.writeString(usersFile, "{\"users\":[{\"username\":\"alice\"},{\"username\":\"bob\"}]}");
+        watcher = new UsersFileWatcher(seedingJobService, new ObjectMapper(), usersFile.toString(), 50);
+        watcher.start();
+        assertTrue(watcher.isRunning());
+
+        Files.writeString(
+                usersFile, "{\"users\":[{\"username\":\"alice\",\"firstName\":\"Alice\"},{\"username\":\"carol\"}]}");
+
+        ArgumentCaptor<UserChanges> changes = ArgumentCaptor.forClass(UserChanges.class);
+        verify(seedingJobService, timeout(10_000)).submitUserChanges(changes.capture(), any());
+        assertEquals("carol", changes.getValue().getAdded().get(0).getUsername());
+        assertEquals(
+                "Alice", changes.getValue().getModified().get(0).getCurrent().getFirstName());
+        assertEquals("bob", changes.getValue().getRemoved().get(0));
+    }
+
+    @Test
+    void shouldQueueTheChangesOfFailedUsersAgainWithTheNextChange() throws Exception {
+        List<UserChanges> submitted = new CopyOnWriteArrayList<>();
+        doAnswer(invocation -> {
+                    UserChanges changes = invocation.getArgument(0);
+                    submitted.add(changes);
+                    // The first change of alice fails, the others succeed
+                    invocation
+                            .<Consumer<Set<String>>>getArgument(1)
+                            .accept(submitted.size() == 1 ? Set.of("alice") : Set.of());
+                    return null;
+                })
+                .when(seedingJobService)
+                .submitUserChanges(any(), any());
+        Path usersFile = directory.resolve("users.json");
+        Files.writeString(usersFile, "{\"users\":[{\"username\":\"alice\"}]}");
+        watcher = new UsersFileWatcher(seedingJobService, new ObjectMapper(), usersFile.toString(), 50);
+        watcher.start();
+
+        Files.writeString(usersFile, "{\"users\":[{\"username\":\"alice\",\"firstName\":\"Alice\"}]}");
+        verify(seedingJobService, timeout(10_000)).submitUserChanges(any(), any());
+        Files.writeString(
+                usersFile, "{\"users\":[{\"username\":\"alice\",\"firstName\":\"Alice\"},{\"username\":\"bob\"}]}");
+        verify(seedingJobService, timeout(10_000).times(2)).submitUserChanges(any(), any());
+
+        UserChanges retried = submitted.get(1);
+        assertEquals("alice", retried.getModified().get(0).getCurrent().getUsername());
+        assertEquals("bob", retried.getAdded().get(0).getUsername());
+    }
+
+    @Test
+    void shouldSkipUnparsableFileAndNotWatchMissingFile() throws Exception {
+        Path usersFile = directory.resolve("users.json");
+        Files.writeString(usersFile, "{\"users\":[{\"username\":\"alice\"}]}");
+        watcher = new UsersFileWatcher(seedingJobService, new ObjectMapper(), usersFile.toString(), 0);
+        watcher.start();
+
+        Files.writeString(usersFile, "{\"users\":[{\"username\":");
+        watcher.onChange();
+        verify(seedingJobService, never()).submitUserChanges(any(), any());
+
+        UsersFileWatcher missing = new UsersFileWatcher(
+                seedingJobService,
+                new ObjectMapper(),
+                directory.resolve("missing.json").toString(),
+                0);
+        missing.start();
+        assertFalse(missing.isRunning());
+    }
+}
@@ -0,0 +1,101 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
+import com.ozonehis.ozone_demo_data.config.WarmUpConfig;
+import com.ozonehis.ozone_demo_data.exceptions.DemoDataGenerationException;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.report.RunReport;
+import com.ozonehis.ozone_demo_data.util.SystemAvailabilityChecker;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+class CacheWarmUpServiceTest {
+
+    private final RunMetrics runMetrics = new RunMetrics();
+
+    private final WarmUpConfig warmUpConfig = new WarmUpConfig();
+
+    private OpenmrsHttpClient openmrsHttpClient;
+
+    private SystemAvailabilityChecker systemAvailabilityChecker;
+
+    private CacheWarmUpService service;
+
+    @BeforeEach
+    void setUp() {
+        openmrsHttpClient = mock(OpenmrsHttpClient.class);
+        systemAvailabilityChecker = mock(SystemAvailabilityChecker.class);
+        DemoDataService demoDataService = mock(DemoDataService.class);
+        when(demoDataService.createAuthenticationHeaders()).thenReturn(new HttpHeaders());
+        when(systemAvailabilityChecker.waitForOpenMRSAvailability()).thenReturn(true);
+        OpenmrsConfig openmrsConfig = new OpenmrsConfig();
+        openmrsConfig.setUrl("http://openmrs/openmrs");
+        Map<String, String> endpoints = new LinkedHashMap<>();
+        endpoints.put("concept-search", "/ws/rest/v1/concept?q=blood");
+        endpoints.put("fhir-patients", "/ws/fhir2/R4/Patient?_count=20");
+        warmUpConfig.setEndpoints(endpoints);
+        warmUpConfig.setRounds(3);
+        service = new CacheWarmUpService(
+                demoDataService, openmrsHttpClient, openmrsConfig, warmUpConfig, systemAvailabilityChecker, runMetrics);
+    }
+
+    @Test
+    void shouldCallEachEndpointOncePerRoundAndRecordColdAndWarmLatencies() {
+        when(openmrsHttpClient.getJson(anyString(), any())).thenReturn(CompletableFuture.completedFuture(Map.of()));
+
+        Map<String, CacheWarmUpService.EndpointLatency> latencies = service.warmUp();
+
+        assertEquals(2, latencies.size());
+        verify(openmrsHttpClient, times(3)).getJson(eq("http://openmrs/openmrs/ws/rest/v1/concept?q=blood"), any());
+        verify(openmrsHttpClient, times(3)).getJson(eq("http://openmrs/openmrs/ws/fhir2/R4/Patient?_count=20"), any());
+        Map<String, RunReport.CallStats> calls = runMetrics.snapshot().getCalls();
+        assertEquals(1, calls.get("openmrs.warm-up.concept-search.cold").getCount());
+        assertEquals(2, calls.get("openmrs.warm-up.concept-search.warm").getCount());
+        assertEquals(0, latencies.get("fhir-patients").getErrors());
+    }
+
+    @Test
+    void shouldRecordFailedEndpointsAndContinue() {
+        when(openmrsHttpClient.getJson(contains("/concept"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new HttpClientErrorException(HttpStatus.NOT_FOUND)));
+        when(openmrsHttpClient.getJson(contains("/Patient"), any()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of()));
+
+        Map<String, CacheWarmUpService.EndpointLatency> latencies = service.warmUp();
+
+        assertEquals(3, latencies.get("concept-search").getErrors());
+        assertEquals(0, latencies.get("fhir-patients").getErrors());
+        assertEquals(
+                1,
+                runMetrics
+                        .snapshot()
+                        .getCalls()
+                        .get("openmrs.warm-up.concept-search.cold")
+                        .getErrors());
+    }
+
+    @Test
+    void shouldFailWhenOpenmrsIsNotAvailable() {
+        when(systemAvailabilityChecker.waitForOpenMRSAvailability()).thenReturn(false);
+
+        assertThrows(DemoDataGenerationException.class, () -> service.warmUp());
+        verifyNoInteractions(openmrsHttpClient);
+    }
+}
@@ -10,21 +10,37 @@ package com.ozonehis.ozone_demo_data.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import com.ozonehis.ozone_demo_data.concurrency.AdaptiveConcurrencyLimiter;
+import com.ozonehis.ozone_demo_data.concurrency.CircuitBreaker;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutor;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutors;
+import com.ozonehis.ozone_demo_data.concurrency.RetryBudget;
 import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
+import com.ozonehis.ozone_demo_data.exceptions.DemoDataGenerationException;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
 import com.ozonehis.ozone_demo_data.util.SystemAvailabilityChecker;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.OptionalInt;
+import java.util.OptionalLong;
+import java.util.concurrent.CompletableFuture;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
+import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
 import org.springframework.web.client.RestTemplate;
 
 @ExtendWith(SpringExtension.class)
@@ -36,12 +52,36 @@ class DemoDataServiceTest {
     @Mock
     private OpenmrsConfig openmrsConfig;
 
+    @Spy
+    private RunMetrics runMetrics = new RunMetrics();
+
+    @Spy
+    private RemoteCallExecutors remoteCalls =
+            new RemoteCallExecutors(remoteCallExecutor(), remoteCallExecutor(), null, null);
+
     @InjectMocks
     private DemoDataService service;
 
     @Mock
     private RestTemplate restTemplate;
 
+    @Mock
+    private OpenmrsHttpClient openmrsHttpClient;
+
+    @Mock
+    private SyntheticPatientService syntheticPatientService;
+
+    private RemoteCallExecutor remoteCallExecutor() {
+        return new RemoteCallExecutor(
+                new AdaptiveConcurrencyLimiter("test", 1, 1, 1, 2.0, null),
+                new CircuitBreaker("test", 10, 0, 0, () -> true),
+                new RetryBudget(0.2, 10),
+                runMetrics,
+                3,
+                0,
+                0);
+    }
+
     @BeforeEach
     void setUp() {
         // Configure common mock behaviors
@@ -143,4 +183,354 @@ class DemoDataServiceTest {
         verify(restTemplate, never())
                 .exchange(contains("/systemsetting/"), eq(HttpMethod.POST), any(), eq(String.class));
     }
+
+    @Test
+    void shouldRetryTransientFailureWhenLookingUpSetting() {
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenThrow(new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE))
+                .thenReturn(ResponseEntity.ok(Map.of("results", List.of(Map.of("uuid", "test-uuid")))));
+        when(restTemplate.exchange(contains("/systemsetting/test-uuid"), eq(HttpMethod.POST), any(), eq(String.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        service.updateCreateDemoPatientsOnNextStartupSetting();
+
+        verify(restTemplate, times(2)).exchange(anyString(), eq(HttpMethod.GET), any(), eq(Map.class));
+        verify(restTemplate)
+                .exchange(contains("/systemsetting/test-uuid"), eq(HttpMethod.POST), any(), eq(String.class));
+    }
+
+    @Test
+    void shouldNotRetryDemoDataGenerationOnServerError() {
+        service.oauthEnabled = false;
+        when(openmrsHttpClient.post(anyString(), any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new HttpServerErrorException(HttpStatus.BAD_GATEWAY)));
+
+        assertThrows(DemoDataGenerationException.class, () -> service.triggerDemoData());
+
+        verify(openmrsHttpClient, times(1)).post(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void shouldRetryDemoDataGenerationRejectedWithTooManyRequests() {
+        service.oauthEnabled = false;
+        when(openmrsHttpClient.post(anyString(), any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new HttpClientErrorException(HttpStatus.TOO_MANY_REQUESTS)))
+                .thenReturn(CompletableFuture.completedFuture(200));
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok().build());
+
+        service.triggerDemoData();
+
+        verify(openmrsHttpClient, times(2)).post(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void shouldSkipGenerationWhenEnoughPatientsExist() {
+        service.oauthEnabled = false;
+        service.fingerprintEnabled = false;
+        when(restTemplate.exchange(contains("/Patient?_summary=count"), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("resourceType", "Bundle", "total", 80)));
+        when(restTemplate.exchange(contains("/systemsetting/?q="), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("results", List.of())));
+
+        assertTrue(service.generateDemoData(50));
+
+        verify(openmrsHttpClient, never()).post(anyString(), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldGenerateOnlyMissingPatients() {
+        service.oauthEnabled = false;
+        service.fingerprintEnabled = false;
+        when(restTemplate.exchange(contains("/Patient?_summary=count"), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("resourceType", "Bundle", "total", 35)));
+        when(restTemplate.exchange(contains("/systemsetting/?q="), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("results", List.of())));
+        when(openmrsHttpClient.post(anyString(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(200));
+
+        assertTrue(service.generateDemoData(50));
+
+        ArgumentCaptor<Map<String, Object>> requestBody = ArgumentCaptor.forClass(Map.class);
+        verify(openmrsHttpClient).post(anyString(), any(), requestBody.capture(), any());
+        assertEquals(15, requestBody.getValue().get("numberOfDemoPatients"));
+        assertFalse((Boolean) requestBody.getValue().get("createIfNotExists"));
+    }
+
+    @Test
+    void shouldPollProgressWhileGenerationIsInFlight() {
+        service.oauthEnabled = false;
+        service.fingerprintEnabled = false;
+        when(openmrsConfig.getProgressIntervalMillis()).thenReturn(10L);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("results", List.of())));
+        CompletableFuture<Integer> generation = new CompletableFuture<>();
+        when(openmrsHttpClient.post(anyString(), any(), any(), any())).thenReturn(generation);
+        when(openmrsHttpClient.getJson(contains("/Patient?_summary=count"), any()))
+                .thenAnswer(invocation -> {
+                    generation.complete(200);
+                    return CompletableFuture.completedFuture(Map.of("total", 20));
+                });
+
+        assertTrue(service.generateDemoData(50));
+
+        verify(openmrsHttpClient, atLeastOnce()).getJson(contains("/Patient?_summary=count"), any());
+    }
+
+    @Test
+    void shouldCreateMissingPatientsWithClientGenerator() {
+        service.oauthEnabled = false;
+        service.fingerprintEnabled = true;
+        service.generator = DemoDataService.CLIENT_GENERATOR;
+        when(syntheticPatientService.countPatients(any())).thenReturn(OptionalLong.of(35));
+        when(syntheticPatientService.createPatients(eq(35L), eq(15), any())).thenReturn(14);
+
+        assertTrue(service.generateDemoData(50));
+
+        verify(syntheticPatientService).createPatients(eq(35L), eq(15), any());
+        verify(openmrsHttpClient, never()).post(anyString(), any(), any(), any());
+        // Patients failed, the fingerprint is not stored so that the next run creates them
+        verify(restTemplate, never())
+                .exchange(contains("/systemsetting"), eq(HttpMethod.POST), any(), eq(String.class));
+    }
+
+    @Test
+    void shouldOnlyCountThePatientsOfTheClientSideGenerators() {
+        service.oauthEnabled = false;
+        service.fingerprintEnabled = false;
+        service.generator = DemoDataService.FHIR_BUNDLE_GENERATOR;
+        when(restTemplate.exchange(contains("/Patient?_summary=count"), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("resourceType", "Bundle", "total", 80)));
+        when(syntheticPatientService.countPatients(any())).thenReturn(OptionalLong.of(0));
+        when(syntheticPatientService.createPatientsInBundles(eq(0L), eq(50), any()))
+                .thenReturn(50);
+
+        assertTrue(service.generateDemoData(50));
+
+        verify(syntheticPatientService).createPatientsInBundles(eq(0L), eq(50), any());
+        verify(restTemplate, never())
+                .exchange(contains("/Patient?_summary=count"), eq(HttpMethod.GET), any(), eq(Map.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldGenerateWhenTheReferenceDemoDataModuleDidNotGenerateItsPatients() {
+        service.oauthEnabled = false;
+        service.fingerprintEnabled = false;
+        when(restTemplate.exchange(contains("/Patient?_summary=count"), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("resourceType", "Bundle", "total", 80)));
+        when(restTemplate.exchange(
+                        contains("/systemsetting/?q=referencedemodata.createDemoPatientsOnNextStartup"),
+                        eq(HttpMethod.GET),
+                        any(),
+                        eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("results", List.of(Map.of("uuid", "test-uuid", "value", "50")))));
+        when(openmrsHttpClient.post(anyString(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(200));
+
+        assertTrue(service.generateDemoData(50));
+
+        ArgumentCaptor<Map<String, Object>> requestBody = ArgumentCaptor.forClass(Map.class);
+        verify(openmrsHttpClient).post(anyString(), any(), requestBody.capture(), any());
+        assertEquals(50, requestBody.getValue().get("numberOfDemoPatients"));
+        // The module does not generate them again on its next startup
+        verify(restTemplate)
+                .exchange(contains("/systemsetting/test-uuid"), eq(HttpMethod.POST), any(), eq(String.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldRemoveSyntheticPatientsAndResetSettings() {
+        service.oauthEnabled = false;
+        service.numberOfDemoPatients = 50;
+        service.generator = DemoDataService.CLIENT_GENERATOR;
+        service.teardownPatients = DemoDataService.PURGE_PATIENTS;
+        when(syntheticPatientService.countPatients(any())).thenReturn(OptionalLong.of(60));
+        when(restTemplate.exchange(contains("q=ozone-demo-data.fingerprint"), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("results", List.of())));
+
+        service.removeDemoData();
+
+        verify(syntheticPatientService).removePatients(eq(0L), eq(60), eq(true), any());
+        // The client-side generators do not hand generation over to the reference demo data module
+        verify(restTemplate, never())
+                .exchange(
+                        contains("/systemsetting/?q=referencedemodata.createDemoPatientsOnNextStartup"),
+                        any(),
+                        any(),
+                        eq(Map.class));
+        ArgumentCaptor<HttpEntity<Map<String, String>>> setting = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate)
+                .exchange(endsWith("/systemsetting"), eq(HttpMethod.POST), setting.capture(), eq(String.class));
+        assertEquals(
+                DemoDataService.FINGERPRINT_PROPERTY,
+                setting.getValue().getBody().get("property"));
+        assertEquals("", setting.getValue().getBody().get("value"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldKeepPatientsOfReferenceDemoDataModuleOnRemoval() {
+        service.oauthEnabled = false;
+        service.numberOfDemoPatients = 50;
+        service.generator = "referencedemodata";
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("results", List.of())));
+
+        service.removeDemoData();
+
+        verify(syntheticPatientService, never()).removePatients(anyLong(), anyInt(), anyBoolean(), any());
+        ArgumentCaptor<HttpEntity<Map<String, String>>> settings = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2))
+                .exchange(endsWith("/systemsetting"), eq(HttpMethod.POST), settings.capture(), eq(String.class));
+        Map<String, String> createDemoPatients = settings.getAllValues().get(0).getBody();
+        assertEquals("referencedemodata.createDemoPatientsOnNextStartup", createDemoPatients.get("property"));
+        assertEquals("50", createDemoPatients.get("value"));
+    }
+
+    @Test
+    void shouldNotUpdateCreateDemoPatientsOnNextStartupSettingWhenAlreadyDisabled() {
+        when(restTemplate.exchange(
+                        contains("/systemsetting/?q=referencedemodata.createDemoPatientsOnNextStartup"),
+                        eq(HttpMethod.GET),
+                        any(),
+                        eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("results", List.of(Map.of("uuid", "test-uuid", "value", "0")))));
+
+        service.updateCreateDemoPatientsOnNextStartupSetting();
+
+        verify(restTemplate, never())
+                .exchange(contains("/systemsetting/test-uuid"), eq(HttpMethod.POST), any(), eq(String.class));
+    }
+
+    @Test
+    void shouldSkipGenerationWhenFingerprintIsUnchanged() {
+        service.oauthEnabled = false;
+        service.fingerprintEnabled = true;
+        service.numberOfDemoPatients = 50;
+        when(systemAvailabilityChecker.isOpenMRSAvailable()).thenReturn(true);
+        when(restTemplate.exchange(contains("q=ozone-demo-data.fingerprint"), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of(
+                        "results",
+                        List.of(Map.of(
+                                "uuid",
+                                "fingerprint-uuid",
+                                "property",
+                                DemoDataService.FINGERPRINT_PROPERTY,
+                                "value",
+                                new DemoDataService.StoredFingerprint(
+                                                service.inputsFingerprint(), 0, OptionalInt.of(50))
+                                        .toString())))));
+
+        service.triggerDemoData();
+
+        verify(openmrsHttpClient, never()).post(anyString(), any(), any(), any());
+        verify(systemAvailabilityChecker, never()).waitForOpenMRSAvailability();
+    }
+
+    @Test
+    void shouldGenerateAndStoreFingerprintWhenInputsChanged() {
+        service.oauthEnabled = false;
+        service.fingerprintEnabled = true;
+        service.numberOfDemoPatients = 20;
+        when(systemAvailabilityChecker.isOpenMRSAvailable()).thenReturn(true);
+        when(restTemplate.exchange(anyString(), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of("results", List.of())));
+        when(openmrsHttpClient.post(anyString(), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(200));
+
+        service.triggerDemoData();
+
+        verify(openmrsHttpClient).post(anyString(), any(), any(), any());
+        ArgumentCaptor<HttpEntity<Map<String, String>>> request = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate)
+                .exchange(
+                        eq("http://test-openmrs.com/ws/rest/v1/systemsetting"),
+                        eq(HttpMethod.POST),
+                        request.capture(),
+                        eq(String.class));
+        assertEquals(
+                DemoDataService.FINGERPRINT_PROPERTY,
+                request.getValue().getBody().get("property"));
+        assertEquals(
+                new DemoDataService.StoredFingerprint(service.inputsFingerprint(), 0, OptionalInt.of(20)).toString(),
+                request.getValue().getBody().get("value"));
+    }
+
+    @Test
+    void shouldChangeFingerprintWithTheGeneratorAndItsSettings() {
+        service.generator = "referencedemodata";
+        String referenceDemoData = service.inputsFingerprint();
+        service.generator = DemoDataService.FHIR_BUNDLE_GENERATOR;
+        when(syntheticPatientService.inputFingerprint()).thenReturn("seed-42", "seed-43");
+
+        String seed42 = service.inputsFingerprint();
+        String seed43 = service.inputsFingerprint();
+
+        assertNotEquals(referenceDemoData, seed42);
+        assertNotEquals(seed42, seed43);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldGenerateThePatientsOfChangedInputsAfterTheExistingOnes() {
+        service.oauthEnabled = false;
+        service.fingerprintEnabled = true;
+        service.numberOfDemoPatients = 50;
+        service.generator = DemoDataService.CLIENT_GENERATOR;
+        when(systemAvailabilityChecker.isOpenMRSAvailable()).thenReturn(true);
+        when(syntheticPatientService.inputFingerprint()).thenReturn("seed-42");
+        String seed42 = service.inputsFingerprint();
+        when(syntheticPatientService.inputFingerprint()).thenReturn("seed-43");
+        storedFingerprint(new DemoDataService.StoredFingerprint(seed42, 0, OptionalInt.of(50)));
+        // OpenMRS already has the 50 patients of the previous seed
+        when(syntheticPatientService.countPatients(any())).thenReturn(OptionalLong.of(50));
+        when(syntheticPatientService.createPatients(eq(50L), eq(50), any())).thenReturn(50);
+
+        service.triggerDemoData();
+
+        verify(syntheticPatientService).createPatients(eq(50L), eq(50), any());
+        ArgumentCaptor<HttpEntity<Map<String, String>>> requests = ArgumentCaptor.forClass(HttpEntity.class);
+        verify(restTemplate, times(2))
+                .exchange(
+                        eq("http://test-openmrs.com/ws/rest/v1/systemsetting/fingerprint-uuid"),
+                        eq(HttpMethod.POST),
+                        requests.capture(),
+                        eq(String.class));
+        String seed43 = service.inputsFingerprint();
+        assertEquals(
+                List.of(seed43 + ":50:", seed43 + ":50:50"),
+                requests.getAllValues().stream()
+                        .map(request -> request.getBody().get("value"))
+                        .toList());
+    }
+
+    @Test
+    void shouldResumeThePatientsOfTheInputsFromTheirFirstIndex() {
+        service.oauthEnabled = false;
+        service.fingerprintEnabled = true;
+        service.generator = DemoDataService.CLIENT_GENERATOR;
+        when(syntheticPatientService.inputFingerprint()).thenReturn("seed-43");
+        storedFingerprint(new DemoDataService.StoredFingerprint(service.inputsFingerprint(), 50, OptionalInt.empty()));
+        when(syntheticPatientService.countPatients(any())).thenReturn(OptionalLong.of(70));
+        when(syntheticPatientService.createPatients(eq(70L), eq(30), any())).thenReturn(30);
+
+        assertTrue(service.generateDemoData(50));
+
+        verify(syntheticPatientService).createPatients(eq(70L), eq(30), any());
+    }
+
+    private void storedFingerprint(DemoDataService.StoredFingerprint fingerprint) {
+        when(restTemplate.exchange(contains("q=ozone-demo-data.fingerprint"), eq(HttpMethod.GET), any(), eq(Map.class)))
+                .thenReturn(ResponseEntity.ok(Map.of(
+                        "results",
+                        List.of(Map.of(
+                                "uuid",
+                                "fingerprint-uuid",
+                                "property",
+                                DemoDataService.FINGERPRINT_PROPERTY,
+                                "value",
+                                fingerprint.toString())))));
+    }
 }
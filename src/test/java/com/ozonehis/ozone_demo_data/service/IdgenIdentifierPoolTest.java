@@ -0,0 +1,82 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.Test;
+
+class IdgenIdentifierPoolTest {
+
+    @Test
+    void shouldHandOutEachReservedIdentifierOnceToConcurrentCreators() {
+        AtomicInteger nextIdentifier = new AtomicInteger();
+        AtomicInteger reservations = new AtomicInteger();
+        Set<String> handedOut = ConcurrentHashMap.newKeySet();
+
+        try (IdgenIdentifierPool pool = new IdgenIdentifierPool(
+                count -> {
+                    reservations.incrementAndGet();
+                    return IntStream.range(0, count)
+                            .mapToObj(i -> "ID-" + nextIdentifier.getAndIncrement())
+                            .collect(Collectors.toList());
+                },
+                100,
+                2_050)) {
+            CompletableFuture.allOf(IntStream.range(0, 8)
+                            .mapToObj(worker -> CompletableFuture.runAsync(() -> {
+                                for (int i = 0; i < 250; i++) {
+                                    assertTrue(handedOut.add(pool.next()));
+                                }
+                            }))
+                            .toArray(CompletableFuture[]::new))
+                    .join();
+        }
+
+        assertEquals(2_000, handedOut.size());
+        // Never more than the identifiers needed
+        assertTrue(nextIdentifier.get() <= 2_050);
+        assertTrue(reservations.get() <= 21);
+    }
+
+    @Test
+    void shouldStopHandingOutIdentifiersOnceAllAreUsed() {
+        try (IdgenIdentifierPool pool = new IdgenIdentifierPool(count -> List.of("A", "B", "C"), 1000, 3)) {
+            assertEquals(Set.of("A", "B", "C"), Set.of(pool.next(), pool.next(), pool.next()));
+
+            assertThrows(IllegalStateException.class, pool::next);
+        }
+    }
+
+    @Test
+    void shouldFailWhenIdgenCannotReserveIdentifiersAndRetryOnTheNextCall() {
+        AtomicBoolean idgenUp = new AtomicBoolean();
+        try (IdgenIdentifierPool pool = new IdgenIdentifierPool(
+                count -> {
+                    if (!idgenUp.get()) {
+                        throw new IllegalStateException("idgen is down");
+                    }
+                    return List.of("ID-1");
+                },
+                10,
+                1)) {
+            assertThrows(IllegalStateException.class, pool::next);
+
+            idgenUp.set(true);
+            assertEquals("ID-1", pool.next());
+        }
+    }
+}
@@ -15,16 +15,27 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.mockito.MockitoAnnotations.openMocks;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.concurrency.AdaptiveConcurrencyLimiter;
+import com.ozonehis.ozone_demo_data.concurrency.CircuitBreaker;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutor;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutors;
+import com.ozonehis.ozone_demo_data.concurrency.RetryBudget;
 import com.ozonehis.ozone_demo_data.config.KeycloakConfig;
+import com.ozonehis.ozone_demo_data.config.ShardConfig;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
 import com.ozonehis.ozone_demo_data.util.SystemAvailabilityChecker;
+import jakarta.ws.rs.WebApplicationException;
 import jakarta.ws.rs.core.Response;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Collections;
 import java.util.List;
 import java.util.Map;
@@ -32,6 +43,7 @@ import java.util.Optional;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.keycloak.admin.client.Keycloak;
 import org.keycloak.admin.client.resource.ClientResource;
 import org.keycloak.admin.client.resource.ClientsResource;
@@ -43,8 +55,10 @@ import org.keycloak.admin.client.resource.RolesResource;
 import org.keycloak.admin.client.resource.UserResource;
 import org.keycloak.admin.client.resource.UsersResource;
 import org.keycloak.representations.idm.ClientRepresentation;
+import org.keycloak.representations.idm.RealmRepresentation;
 import org.keycloak.representations.idm.RoleRepresentation;
 import org.keycloak.representations.idm.UserRepresentation;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 
@@ -69,11 +83,29 @@ class KeycloakUserServiceTest {
 
     private static final String USERS_JSON_PATH = "keycloak/users.json";
 
+    private final RunMetrics runMetrics = new RunMetrics();
+
+    private static RemoteCallExecutor remoteCallExecutor(RunMetrics runMetrics) {
+        return new RemoteCallExecutor(
+                new AdaptiveConcurrencyLimiter("test", 4, 1, 4, 2.0, null),
+                new CircuitBreaker("test", 10, 0, 0, () -> true),
+                new RetryBudget(0.2, 10),
+                runMetrics,
+                3,
+                0,
+                0);
+    }
+
     @BeforeEach
     void setUp() {
         mockCloser = openMocks(this);
-        keycloakUserService =
-                new KeycloakUserService(keycloak, keycloakConfig, new ObjectMapper(), systemAvailabilityChecker);
+        keycloakUserService = new KeycloakUserService(
+                keycloak,
+                keycloakConfig,
+                new ObjectMapper(),
+                systemAvailabilityChecker,
+                runMetrics,
+                new RemoteCallExecutors(remoteCallExecutor(runMetrics), remoteCallExecutor(runMetrics), null, null));
         keycloakUserService.setUsersJsonPath(USERS_JSON_PATH);
 
         when(keycloakConfig.getRealm()).thenReturn("test-realm");
@@ -96,6 +128,28 @@ class KeycloakUserServiceTest {
         assertTrue(users.getUsers().stream().anyMatch(user -> "mj".equals(user.getUsername())));
     }
 
+    @Test
+    void shouldOnlyReadTheUsersOfItsShard() throws IOException {
+        byte[] usersJson = keycloakUserService.readUsersJson(USERS_JSON_PATH);
+        int users = 0;
+        for (int index = 0; index < 2; index++) {
+            ShardConfig shardConfig = new ShardConfig();
+            shardConfig.setIndex(index);
+            shardConfig.setCount(2);
+            keycloakUserService.setShardConfig(shardConfig);
+
+            List<UserRepresentation> owned =
+                    keycloakUserService.readOwnedUsers(usersJson).getUsers();
+
+            assertTrue(owned.stream().allMatch(user -> shardConfig.owns(user.getUsername())));
+            users += owned.size();
+        }
+        assertEquals(2, users);
+        assertEquals(
+                KeycloakUserService.FINGERPRINT_ATTRIBUTE + "-shard-1-of-2",
+                keycloakUserService.fingerprintAttribute());
+    }
+
     @Test
     void shouldThrowExceptionWhenJsonFileIsMissing() {
         keycloakUserService.setUsersJsonPath("nonexistent/path.json");
@@ -125,6 +179,34 @@ class KeycloakUserServiceTest {
         verify(usersResource).create(user);
     }
 
+    @Test
+    void shouldRetryTransientFailuresWhenCreatingUser() {
+        UserRepresentation user = new UserRepresentation();
+        user.setId("testUserId");
+        user.setUsername("testUser");
+
+        UsersResource usersResource = mock(UsersResource.class);
+        Response createResponse = mock(Response.class);
+
+        when(realmResource.users()).thenReturn(usersResource);
+        when(usersResource.search(user.getUsername()))
+                .thenThrow(new WebApplicationException(503))
+                .thenReturn(Collections.emptyList())
+                .thenReturn(List.of(user));
+        when(usersResource.create(any(UserRepresentation.class))).thenReturn(createResponse);
+        // The first create reached Keycloak but its response was lost behind a 502
+        when(createResponse.getStatus()).thenReturn(502).thenReturn(409);
+
+        Optional<String> result = keycloakUserService.createKeycloakUser(user);
+
+        assertTrue(result.isPresent());
+        verify(usersResource, times(2)).create(user);
+        assertEquals(
+                1, runMetrics.snapshot().getCalls().get("keycloak.users.search").getRetries());
+        assertEquals(
+                1, runMetrics.snapshot().getCalls().get("keycloak.users.create").getRetries());
+    }
+
     @Test
     void shouldHandleFailureWhenCreatingUser() {
         UserRepresentation user = new UserRepresentation();
@@ -164,6 +246,161 @@ class KeycloakUserServiceTest {
         verify(roleScopeResource).add(any());
     }
 
+    @Test
+    void shouldLookUpRealmRolesOnceUntilCacheIsCleared() {
+        UsersResource usersResource = mock(UsersResource.class);
+        RolesResource rolesResource = mock(RolesResource.class);
+        RoleResource roleResource = mock(RoleResource.class);
+        UserResource userResource = mock(UserResource.class);
+        RoleMappingResource roleMappingResource = mock(RoleMappingResource.class);
+        RoleScopeResource roleScopeResource = mock(RoleScopeResource.class);
+
+        when(keycloak.realm(anyString())).thenReturn(realmResource);
+        when(realmResource.roles()).thenReturn(rolesResource);
+        when(realmResource.users()).thenReturn(usersResource);
+        when(usersResource.get(anyString())).thenReturn(userResource);
+        when(userResource.roles()).thenReturn(roleMappingResource);
+        when(roleMappingResource.realmLevel()).thenReturn(roleScopeResource);
+        when(rolesResource.get("role1")).thenReturn(roleResource);
+        when(roleResource.toRepresentation()).thenReturn(new RoleRepresentation());
+
+        keycloakUserService.assignRealmRoles("user1", List.of("role1"));
+        keycloakUserService.assignRealmRoles("user2", List.of("role1"));
+        verify(roleResource, times(1)).toRepresentation();
+
+        keycloakUserService.clearRealmMetadataCache();
+        keycloakUserService.assignRealmRoles("user3", List.of("role1"));
+        verify(roleResource, times(2)).toRepresentation();
+        verify(roleScopeResource, times(3)).add(any());
+    }
+
+    @Test
+    void shouldUpdateModifiedUserAndApplyRoleDifferences() {
+        UsersResource usersResource = mock(UsersResource.class);
+        UserResource userResource = mock(UserResource.class);
+        RolesResource rolesResource = mock(RolesResource.class);
+        RoleResource addedRole = mock(RoleResource.class);
+        RoleResource removedRole = mock(RoleResource.class);
+        RoleMappingResource roleMappingResource = mock(RoleMappingResource.class);
+        RoleScopeResource roleScopeResource = mock(RoleScopeResource.class);
+        UserRepresentation existing = new UserRepresentation();
+        existing.setId("user-id");
+        existing.setUsername("jdoe");
+
+        when(realmResource.users()).thenReturn(usersResource);
+        when(realmResource.roles()).thenReturn(rolesResource);
+        when(usersResource.searchByUsername("jdoe", true)).thenReturn(List.of(existing));
+        when(usersResource.get("user-id")).thenReturn(userResource);
+        when(userResource.toRepresentation()).thenReturn(existing);
+        when(userResource.roles()).thenReturn(roleMappingResource);
+        when(roleMappingResource.realmLevel()).thenReturn(roleScopeResource);
+        when(rolesResource.get("Doctor")).thenReturn(addedRole);
+        when(rolesResource.get("Nurse")).thenReturn(removedRole);
+        RoleRepresentation doctor = new RoleRepresentation("Doctor", null, false);
+        RoleRepresentation nurse = new RoleRepresentation("Nurse", null, false);
+        when(addedRole.toRepresentation()).thenReturn(doctor);
+        when(removedRole.toRepresentation()).thenReturn(nurse);
+
+        UserRepresentation previous = new UserRepresentation();
+        previous.setUsername("jdoe");
+        previous.setRealmRoles(List.of("Nurse", "Clerk"));
+        UserRepresentation current = new UserRepresentation();
+        current.setUsername("jdoe");
+        current.setFirstName("Jane");
+        current.setRealmRoles(List.of("Clerk", "Doctor"));
+
+        keycloakUserService.updateUser(previous, current);
+
+        verify(userResource).update(existing);
+        assertEquals("Jane", existing.getFirstName());
+        verify(roleScopeResource).add(List.of(doctor));
+        verify(roleScopeResource).remove(List.of(nurse));
+        verify(rolesResource, never()).get("Clerk");
+        assertEquals(1, runMetrics.snapshot().getEntities().get("user").getCompleted());
+    }
+
+    @Test
+    void shouldDeleteRemovedUser() {
+        UsersResource usersResource = mock(UsersResource.class);
+        UserRepresentation existing = new UserRepresentation();
+        existing.setId("user-id");
+        Response response = mock(Response.class);
+
+        when(realmResource.users()).thenReturn(usersResource);
+        when(usersResource.searchByUsername("jdoe", true)).thenReturn(List.of(existing));
+        when(usersResource.delete("user-id")).thenReturn(response);
+        when(response.getStatus()).thenReturn(204);
+
+        keycloakUserService.removeUser("jdoe");
+
+        verify(usersResource).delete("user-id");
+        assertEquals(1, runMetrics.snapshot().getEntities().get("removed-user").getCompleted());
+    }
+
+    @Test
+    void shouldRemoveTheUsersOfTheUsersFileAndClearTheFingerprint(@TempDir Path directory) throws IOException {
+        Path usersFile = Files.writeString(
+                directory.resolve("users.json"), "{\"users\":[{\"username\":\"jdoe\"},{\"username\":\"asmith\"}]}");
+        UsersResource usersResource = mock(UsersResource.class);
+        UserRepresentation existing = new UserRepresentation();
+        existing.setId("user-id");
+        Response response = mock(Response.class);
+        when(realmResource.toRepresentation()).thenReturn(new RealmRepresentation());
+        when(realmResource.users()).thenReturn(usersResource);
+        when(usersResource.searchByUsername("jdoe", true)).thenReturn(List.of(existing));
+        when(usersResource.searchByUsername("asmith", true)).thenReturn(List.of());
+        when(usersResource.delete("user-id")).thenReturn(response);
+        when(response.getStatus()).thenReturn(204);
+        when(systemAvailabilityChecker.waitForKeycloakAvailability()).thenReturn(true);
+        when(keycloakConfig.getMaxConcurrency()).thenReturn(2);
+        keycloakUserService.setFingerprintEnabled(true);
+
+        keycloakUserService.removeUsers(usersFile.toString());
+
+        verify(usersResource).delete("user-id");
+        assertEquals(1, runMetrics.snapshot().getEntities().get("removed-user").getCompleted());
+        ArgumentCaptor<RealmRepresentation> realm = ArgumentCaptor.forClass(RealmRepresentation.class);
+        verify(realmResource).update(realm.capture());
+        assertEquals("", realm.getValue().getAttributes().get(KeycloakUserService.FINGERPRINT_ATTRIBUTE));
+    }
+
+    @Test
+    void shouldSkipUserCreationWhenFingerprintIsUnchanged() throws IOException {
+        RealmRepresentation realm = new RealmRepresentation();
+        realm.setAttributes(Map.of(
+                KeycloakUserService.FINGERPRINT_ATTRIBUTE,
+                KeycloakUserService.usersFingerprint(keycloakUserService.readUsersJson(USERS_JSON_PATH))));
+        when(realmResource.toRepresentation()).thenReturn(realm);
+        when(systemAvailabilityChecker.isKeycloakAvailable()).thenReturn(true);
+        keycloakUserService.setFingerprintEnabled(true);
+
+        keycloakUserService.createUsersIfChanged();
+
+        verify(systemAvailabilityChecker, never()).waitForKeycloakAvailability();
+        verify(realmResource, never()).users();
+    }
+
+    @Test
+    void shouldStoreFingerprintAfterCreatingAllUsers(@TempDir Path directory) throws IOException {
+        Path usersFile = Files.writeString(directory.resolve("users.json"), "{\"users\":[]}");
+        UsersResource usersResource = mock(UsersResource.class);
+        when(realmResource.toRepresentation()).thenReturn(new RealmRepresentation());
+        when(realmResource.users()).thenReturn(usersResource);
+        when(systemAvailabilityChecker.isKeycloakAvailable()).thenReturn(true);
+        when(systemAvailabilityChecker.waitForKeycloakAvailability()).thenReturn(true);
+        when(keycloakConfig.getMaxConcurrency()).thenReturn(1);
+        keycloakUserService.setFingerprintEnabled(true);
+        keycloakUserService.setUsersJsonPath(usersFile.toString());
+
+        keycloakUserService.createUsersIfChanged();
+
+        ArgumentCaptor<RealmRepresentation> realm = ArgumentCaptor.forClass(RealmRepresentation.class);
+        verify(realmResource).update(realm.capture());
+        assertEquals(
+                KeycloakUserService.usersFingerprint(Files.readAllBytes(usersFile)),
+                realm.getValue().getAttributes().get(KeycloakUserService.FINGERPRINT_ATTRIBUTE));
+    }
+
     @Test
     void shouldSkipAssignmentWhenRealmRolesEmpty() {
         String userId = "testUserId";
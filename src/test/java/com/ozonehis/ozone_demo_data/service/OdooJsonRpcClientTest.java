@@ -0,0 +1,131 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.config.OdooConfig;
+import com.ozonehis.ozone_demo_data.exceptions.AuthenticationException;
+import com.ozonehis.ozone_demo_data.exceptions.OdooRpcException;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+
+class OdooJsonRpcClientTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final AtomicReference<Map<String, Object>> receivedParams = new AtomicReference<>();
+
+    private final AtomicReference<String> response = new AtomicReference<>();
+
+    private final AtomicInteger status = new AtomicInteger(200);
+
+    private final OdooConfig odooConfig = new OdooConfig();
+
+    private HttpServer server;
+
+    private OdooJsonRpcClient client;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/jsonrpc", exchange -> {
+            Map<String, Object> request = objectMapper.readValue(exchange.getRequestBody(), Map.class);
+            receivedParams.set((Map<String, Object>) request.get("params"));
+            byte[] body = response.get().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        odooConfig.setUrl("http://localhost:" + server.getAddress().getPort());
+        odooConfig.setDatabase("odoo");
+        odooConfig.setUsername("admin");
+        odooConfig.setPassword("secret");
+        client = new OdooJsonRpcClient(HttpClient.newHttpClient(), objectMapper, odooConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldLogInWithTheCommonService() {
+        response.set("{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":2}");
+
+        assertEquals(2, client.login());
+        assertEquals("common", receivedParams.get().get("service"));
+        assertEquals("login", receivedParams.get().get("method"));
+        assertEquals(List.of("odoo", "admin", "secret"), receivedParams.get().get("args"));
+    }
+
+    @Test
+    void shouldFailToLogInWhenOdooRejectsTheCredentials() {
+        response.set("{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":false}");
+
+        assertThrows(AuthenticationException.class, () -> client.login());
+    }
+
+    @Test
+    void shouldCallModelMethodsWithExecuteKw() {
+        response.set("{\"jsonrpc\":\"2.0\",\"id\":1,\"result\":[7,8]}");
+
+        Object result = client.executeKw(
+                2, "res.partner", "create", List.of(List.of(Map.of("name", "A"), Map.of("name", "B"))), Map.of());
+
+        assertEquals(List.of(7, 8), result);
+        assertEquals("object", receivedParams.get().get("service"));
+        assertEquals("execute_kw", receivedParams.get().get("method"));
+        assertEquals(
+                List.of(
+                        "odoo",
+                        2,
+                        "secret",
+                        "res.partner",
+                        "create",
+                        List.of(List.of(Map.of("name", "A"), Map.of("name", "B"))),
+                        Map.of()),
+                receivedParams.get().get("args"));
+    }
+
+    @Test
+    void shouldThrowTheErrorOfTheJsonRpcResponse() {
+        response.set("{\"jsonrpc\":\"2.0\",\"id\":1,\"error\":{\"code\":200,\"message\":\"Odoo Server Error\","
+                + "\"data\":{\"name\":\"odoo.exceptions.ValidationError\",\"message\":\"Invalid email\"}}}");
+
+        OdooRpcException exception = assertThrows(
+                OdooRpcException.class,
+                () -> client.executeKw(2, "res.partner", "create", List.of(List.of()), Map.of()));
+        assertEquals(
+                "res.partner.create failed with odoo.exceptions.ValidationError: Invalid email",
+                exception.getMessage());
+    }
+
+    @Test
+    void shouldThrowServerErrorsSoThatTheyAreRetried() {
+        status.set(503);
+        response.set("Service Unavailable");
+
+        assertThrows(HttpServerErrorException.class, () -> client.login());
+        assertFalse(client.isAvailable());
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.ozonehis.ozone_demo_data.concurrency.AdaptiveConcurrencyLimiter;
+import com.ozonehis.ozone_demo_data.concurrency.CircuitBreaker;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutor;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutors;
+import com.ozonehis.ozone_demo_data.concurrency.RetryBudget;
+import com.ozonehis.ozone_demo_data.config.OdooConfig;
+import com.ozonehis.ozone_demo_data.exceptions.OdooRpcException;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.util.SystemAvailabilityChecker;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+class OdooSeedingServiceTest {
+
+    private final RunMetrics runMetrics = new RunMetrics();
+
+    private final OdooConfig odooConfig = new OdooConfig();
+
+    private final AtomicInteger nextId = new AtomicInteger(100);
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private final SystemAvailabilityChecker systemAvailabilityChecker = mock(SystemAvailabilityChecker.class);
+
+    private OdooJsonRpcClient odooClient;
+
+    private OdooSeedingService service;
+
+    @BeforeEach
+    void setUp() {
+        odooClient = mock(OdooJsonRpcClient.class);
+        when(systemAvailabilityChecker.waitForOdooAvailability()).thenReturn(true);
+        when(odooClient.login()).thenReturn(2);
+        when(odooClient.executeKw(anyInt(), anyString(), eq("load"), anyList(), anyMap()))
+                .thenAnswer(invocation -> loaded(invocation.getArgument(3)));
+        when(odooClient.executeKw(anyInt(), eq("ir.model.data"), eq("search_read"), anyList(), anyMap()))
+                .thenReturn(List.of());
+        odooConfig.setUrl("http://odoo:8069");
+        odooConfig.setExternalIdModule("ozone_demo_data");
+        odooConfig.setBatchSize(2);
+        odooConfig.setMaxConcurrency(2);
+        odooConfig.setMaxRetries(1);
+        odooConfig.setSeed(42);
+        service = new OdooSeedingService(
+                odooClient,
+                odooConfig,
+                systemAvailabilityChecker,
+                runMetrics,
+                new RemoteCallExecutors(
+                        null,
+                        null,
+                        new RemoteCallExecutor(
+                                new AdaptiveConcurrencyLimiter("odoo", 2, 1, 2, 2.0, null),
+                                new CircuitBreaker("Odoo", 100, 0, 0, () -> true),
+                                new RetryBudget(0.2, 10),
+                                runMetrics,
+                                1,
+                                0,
+                                0),
+                        null));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldImportRecordsInBatchesAlongWithTheirExternalIds() {
+        int created = service.seedRecords(2, "product", "product.product", 5, service::product, executor);
+
+        assertEquals(5, created);
+        ArgumentCaptor<List<Object>> args = ArgumentCaptor.forClass(List.class);
+        verify(odooClient, times(3)).executeKw(eq(2), eq("product.product"), eq("load"), args.capture(), anyMap());
+        assertEquals(
+                List.of(2, 2, 1),
+                args.getAllValues().stream()
+                        .map(batch -> ((List<?>) batch.get(1)).size())
+                        .sorted((a, b) -> b - a)
+                        .toList());
+        // Batches run concurrently, the last batch is the one with a single row
+        List<Object> lastBatch = args.getAllValues().stream()
+                .filter(batch -> ((List<?>) batch.get(1)).size() == 1)
+                .findFirst()
+                .orElseThrow();
+        List<String> fields = (List<String>) lastBatch.get(0);
+        assertEquals("id", fields.get(0));
+        List<String> row = ((List<List<String>>) lastBatch.get(1)).get(0);
+        assertEquals("ozone_demo_data.product_4", row.get(0));
+        assertEquals("DEMO-000004", row.get(fields.indexOf("default_code")));
+        assertEquals("true", row.get(fields.indexOf("sale_ok")));
+        verify(odooClient, never()).executeKw(anyInt(), anyString(), eq("create"), anyList(), anyMap());
+        assertEquals(5, runMetrics.progress().get("product").getCompleted());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldOnlyCreateTheRecordsWhoseExternalIdDoesNotExist() {
+        when(odooClient.executeKw(anyInt(), eq("ir.model.data"), eq("search_read"), anyList(), anyMap()))
+                .thenReturn(List.of(Map.of("name", "product_0", "res_id", 7)));
+
+        int created = service.seedRecords(2, "product", "product.product", 2, service::product, executor);
+
+        assertEquals(1, created);
+        ArgumentCaptor<List<Object>> args = ArgumentCaptor.forClass(List.class);
+        verify(odooClient).executeKw(eq(2), eq("product.product"), eq("load"), args.capture(), anyMap());
+        List<List<String>> rows = (List<List<String>>) args.getValue().get(1);
+        assertEquals(1, rows.size());
+        assertEquals("ozone_demo_data.product_1", rows.get(0).get(0));
+        assertEquals(2, runMetrics.progress().get("product").getCompleted());
+    }
+
+    @Test
+    void shouldRecordFailedBatchesAndSeedTheOthers() {
+        when(odooClient.executeKw(anyInt(), eq("res.partner"), eq("load"), anyList(), anyMap()))
+                .thenAnswer(invocation -> loaded(invocation.getArgument(3)))
+                .thenThrow(new OdooRpcException("res.partner.load failed with odoo.exceptions.ValidationError"));
+
+        int created = service.seedRecords(
+                2, "customer", "res.partner", 4, index -> service.customer(index, List.of()), executor);
+
+        assertEquals(2, created);
+        assertEquals(2, runMetrics.progress().get("customer").getCompleted());
+        assertEquals(2, runMetrics.progress().get("customer").getFailed());
+    }
+
+    @Test
+    void shouldFailTheBatchWhenTheImportReportsAnError() {
+        when(odooClient.executeKw(anyInt(), eq("res.partner"), eq("load"), anyList(), anyMap()))
+                .thenReturn(Map.of(
+                        "ids",
+                        false,
+                        "messages",
+                        List.of(Map.of("type", "error", "record", 1, "message", "Invalid email"))));
+
+        int created = service.seedRecords(
+                2, "customer", "res.partner", 2, index -> service.customer(index, List.of()), executor);
+
+        assertEquals(0, created);
+        assertEquals(2, runMetrics.progress().get("customer").getFailed());
+        OdooRpcException exception = assertThrows(
+                OdooRpcException.class,
+                () -> service.load(2, "res.partner", List.of("customer_0"), List.of(service.customer(0, List.of()))));
+        assertEquals("res.partner.load failed: Invalid email", exception.getMessage());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAssignThePriceListsToTheCustomersInTurn() {
+        odooConfig.setPriceLists(2);
+        odooConfig.setProducts(0);
+        odooConfig.setCustomers(3);
+        when(odooClient.executeKw(anyInt(), eq("ir.model.data"), eq("search_read"), anyList(), anyMap()))
+                .thenReturn(List.of())
+                .thenReturn(List.of(
+                        Map.of("name", "pricelist_1", "res_id", 11), Map.of("name", "pricelist_0", "res_id", 10)))
+                .thenReturn(List.of());
+
+        Map<String, Integer> created = service.seed();
+
+        assertEquals(Map.of("pricelist", 2, "product", 0, "customer", 3), created);
+        ArgumentCaptor<List<Object>> args = ArgumentCaptor.forClass(List.class);
+        verify(odooClient, times(2)).executeKw(eq(2), eq("res.partner"), eq("load"), args.capture(), anyMap());
+        List<String> priceLists = new ArrayList<>();
+        for (List<Object> batch : args.getAllValues()) {
+            int column = ((List<String>) batch.get(0)).indexOf("property_product_pricelist/id");
+            ((List<List<String>>) batch.get(1)).forEach(row -> priceLists.add(row.get(column)));
+        }
+        priceLists.sort(null);
+        assertEquals(
+                List.of("ozone_demo_data.pricelist_0", "ozone_demo_data.pricelist_0", "ozone_demo_data.pricelist_1"),
+                priceLists);
+        assertEquals(3, runMetrics.progress().get("customer").getExpected());
+    }
+
+    @Test
+    void shouldGenerateTheSameCustomerForTheSameSeedAndIndex() {
+        List<String> priceLists = List.of("ozone_demo_data.pricelist_0");
+        Map<String, Object> customer = service.customer(7, priceLists);
+
+        assertEquals(customer, service.customer(7, priceLists));
+        assertNotEquals(customer.get("email"), service.customer(8, priceLists).get("email"));
+        assertEquals(1, customer.get("customer_rank"));
+        assertTrue(((String) customer.get("email")).endsWith(".7@example.com"));
+    }
+
+    @Test
+    void shouldFailWhenOdooIsNotAvailable() {
+        when(systemAvailabilityChecker.waitForOdooAvailability()).thenReturn(false);
+
+        assertThrows(OdooRpcException.class, () -> service.seed());
+        verify(odooClient, never()).login();
+    }
+
+    private Map<String, Object> loaded(List<Object> args) {
+        List<Integer> ids = new ArrayList<>();
+        for (int i = 0; i < ((List<?>) args.get(1)).size(); i++) {
+            ids.add(nextId.getAndIncrement());
+        }
+        return Map.of("ids", ids, "messages", List.of());
+    }
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+class OpenmrsHttpClientTest {
+
+    private HttpServer server;
+
+    private OpenmrsHttpClient client;
+
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/generate", exchange -> {
+            receivedBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            byte[] response = "{\"message\":\"Demo data generated\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.createContext("/count", exchange -> {
+            byte[] response = "{\"resourceType\":\"Bundle\",\"total\":42}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.createContext("/busy", exchange -> {
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.createContext("/transaction", exchange -> {
+            byte[] response = "{\"resourceType\":\"OperationOutcome\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(400, response.length);
+            exchange.getResponseBody().write(response);
+            exchange.close();
+        });
+        server.createContext("/patient", exchange -> {
+            receivedBody.set(exchange.getRequestMethod() + " " + exchange.getRequestURI());
+            exchange.sendResponseHeaders(204, -1);
+            exchange.close();
+        });
+        server.createContext("/invalid", exchange -> {
+            exchange.sendResponseHeaders(400, -1);
+            exchange.close();
+        });
+        server.start();
+        client = new OpenmrsHttpClient(HttpClient.newHttpClient(), new ObjectMapper(), Duration.ofSeconds(5));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldPostJsonBodyAndReturnStatus() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setBasicAuth("admin", "Admin123");
+
+        int status = client.post(url("/generate"), headers, Map.of("numberOfDemoPatients", 5), Duration.ofSeconds(5))
+                .join();
+
+        assertEquals(200, status);
+        assertEquals("{\"numberOfDemoPatients\":5}", receivedBody.get());
+    }
+
+    @Test
+    void shouldParseJsonResponse() {
+        Map<String, Object> bundle =
+                client.getJson(url("/count"), new HttpHeaders()).join();
+
+        assertEquals(42, bundle.get("total"));
+    }
+
+    @Test
+    void shouldSendDeleteAndReturnStatus() {
+        int status = client.delete(url("/patient/uuid?purge=true"), new HttpHeaders())
+                .join();
+
+        assertEquals(204, status);
+        assertEquals("DELETE /patient/uuid?purge=true", receivedBody.get());
+    }
+
+    @Test
+    void shouldFailWithRestTemplateExceptionsOnErrorStatus() {
+        CompletionException serverError = assertThrows(CompletionException.class, () -> client.post(
+                        url("/busy"), new HttpHeaders(), Map.of(), Duration.ofSeconds(5))
+                .join());
+        assertInstanceOf(HttpServerErrorException.class, serverError.getCause());
+
+        CompletionException clientError =
+                assertThrows(CompletionException.class, () -> client.getJson(url("/invalid"), new HttpHeaders())
+                        .join());
+        assertInstanceOf(HttpClientErrorException.class, clientError.getCause());
+
+        CompletionException deleteError =
+                assertThrows(CompletionException.class, () -> client.delete(url("/invalid"), new HttpHeaders())
+                        .join());
+        assertInstanceOf(HttpClientErrorException.class, deleteError.getCause());
+    }
+
+    @Test
+    void shouldKeepErrorResponseBodyOfJsonPost() {
+        CompletionException failure = assertThrows(
+                CompletionException.class, () -> client.postJson(url("/transaction"), new HttpHeaders(), Map.of(), null)
+                        .join());
+
+        HttpClientErrorException cause = assertInstanceOf(HttpClientErrorException.class, failure.getCause());
+        assertEquals("{\"resourceType\":\"OperationOutcome\"}", cause.getResponseBodyAsString());
+    }
+
+    private String url(String path) {
+        return "http://localhost:" + server.getAddress().getPort() + path;
+    }
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.concurrency.AdaptiveConcurrencyLimiter;
+import com.ozonehis.ozone_demo_data.concurrency.CircuitBreaker;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutor;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutors;
+import com.ozonehis.ozone_demo_data.concurrency.RetryBudget;
+import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+class OpenmrsMetadataResolverTest {
+
+    private static final String LOCATION_UUID = "aff27d58-a15c-49a6-9beb-d30dcfc0c66e";
+
+    private static final String CONCEPT_UUID = "5089AAAAAAAAAAAAAAAAAAAAAAAAAAAAAAAA";
+
+    @TempDir
+    Path tempDir;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OpenmrsHttpClient openmrsHttpClient;
+
+    private OpenmrsConfig openmrsConfig;
+
+    private RemoteCallExecutors remoteCalls;
+
+    private PatientGeneratorConfig config;
+
+    @BeforeEach
+    void setUp() {
+        openmrsHttpClient = mock(OpenmrsHttpClient.class);
+        openmrsConfig = new OpenmrsConfig();
+        openmrsConfig.setUrl("http://openmrs/openmrs");
+        RunMetrics runMetrics = new RunMetrics();
+        RemoteCallExecutor executor = new RemoteCallExecutor(
+                new AdaptiveConcurrencyLimiter("test", 4, 1, 4, 2.0, null),
+                new CircuitBreaker("test", 10, 0, 0, () -> true),
+                new RetryBudget(0.2, 10),
+                runMetrics,
+                3,
+                0,
+                0);
+        remoteCalls = new RemoteCallExecutors(executor, executor, null, null);
+        config = new PatientGeneratorConfig();
+        config.setIdentifierTypeUuid("8d79403a-c2cc-11de-8d13-0010c6dffd0f");
+        config.setLocationUuid("name:Outpatient Clinic");
+        config.setWeightConceptUuid("name:Weight (kg)");
+        when(openmrsHttpClient.getJson(startsWith("http://openmrs/openmrs/ws/rest/v1/location?"), any()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of(
+                        "results",
+                        List.of(
+                                Map.of("uuid", "other-location-uuid", "name", "Inpatient Ward"),
+                                Map.of("uuid", LOCATION_UUID, "name", "Outpatient Clinic")))));
+        when(openmrsHttpClient.getJson(startsWith("http://openmrs/openmrs/ws/rest/v1/concept?"), any()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of(
+                        "results",
+                        List.of(
+                                Map.of("uuid", "other-concept-uuid", "display", "Weight (kg) at birth"),
+                                Map.of("uuid", CONCEPT_UUID, "display", "Weight (kg)")))));
+    }
+
+    @Test
+    void shouldResolveTheMetadataGivenByNameInACopyOfTheConfiguration() {
+        PatientGeneratorConfig resolved = resolver(null).resolve(config, HttpHeaders::new);
+
+        assertNotSame(config, resolved);
+        assertEquals(LOCATION_UUID, resolved.getLocationUuid());
+        assertEquals(CONCEPT_UUID, resolved.getWeightConceptUuid());
+        assertEquals("8d79403a-c2cc-11de-8d13-0010c6dffd0f", resolved.getIdentifierTypeUuid());
+        assertEquals("name:Outpatient Clinic", config.getLocationUuid());
+        verify(openmrsHttpClient, times(2)).getJson(anyString(), any());
+    }
+
+    @Test
+    void shouldNotLookUpAnythingWhenAllTheMetadataIsGivenByUuid() {
+        config.setLocationUuid(LOCATION_UUID);
+        config.setWeightConceptUuid(CONCEPT_UUID);
+
+        assertSame(config, resolver(null).resolve(config, HttpHeaders::new));
+        verifyNoInteractions(openmrsHttpClient);
+    }
+
+    @Test
+    void shouldReuseTheCachedUuidsOnTheNextRunAgainstTheSameServer() {
+        Path cacheFile = tempDir.resolve("metadata-cache.json");
+        resolver(cacheFile).resolve(config, HttpHeaders::new);
+        clearInvocations(openmrsHttpClient);
+        when(openmrsHttpClient.getJson(contains("/ws/rest/v1/location/" + LOCATION_UUID), any()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("uuid", LOCATION_UUID)));
+        when(openmrsHttpClient.getJson(contains("/ws/rest/v1/concept/" + CONCEPT_UUID), any()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("uuid", CONCEPT_UUID)));
+
+        PatientGeneratorConfig resolved = resolver(cacheFile).resolve(config, HttpHeaders::new);
+
+        assertEquals(LOCATION_UUID, resolved.getLocationUuid());
+        verify(openmrsHttpClient, times(2)).getJson(anyString(), any());
+        verify(openmrsHttpClient, never()).getJson(contains("/ws/rest/v1/location?"), any());
+        clearInvocations(openmrsHttpClient);
+
+        openmrsConfig.setUrl("http://other-openmrs/openmrs");
+        when(openmrsHttpClient.getJson(anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of(
+                        "results",
+                        List.of(Map.of(
+                                "uuid", LOCATION_UUID, "name", "Outpatient Clinic", "display", "Weight (kg)")))));
+        resolver(cacheFile).resolve(config, HttpHeaders::new);
+        verify(openmrsHttpClient, times(2)).getJson(anyString(), any());
+    }
+
+    @Test
+    void shouldResolveAgainWhenACachedUuidNoLongerExists() throws Exception {
+        Path cacheFile = tempDir.resolve("metadata-cache.json");
+        resolver(cacheFile).resolve(config, HttpHeaders::new);
+        clearInvocations(openmrsHttpClient);
+        when(openmrsHttpClient.getJson(contains("/ws/rest/v1/concept/" + CONCEPT_UUID), any()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("uuid", CONCEPT_UUID)));
+        // OpenMRS was rebuilt at the same URL with another location
+        when(openmrsHttpClient.getJson(contains("/ws/rest/v1/location/"), any()))
+                .thenReturn(CompletableFuture.failedFuture(
+                        HttpClientErrorException.create(HttpStatus.NOT_FOUND, "Not Found", null, null, null)));
+        when(openmrsHttpClient.getJson(startsWith("http://openmrs/openmrs/ws/rest/v1/location?"), any()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of(
+                        "results", List.of(Map.of("uuid", "rebuilt-location-uuid", "name", "Outpatient Clinic")))));
+
+        PatientGeneratorConfig resolved = resolver(cacheFile).resolve(config, HttpHeaders::new);
+
+        assertEquals("rebuilt-location-uuid", resolved.getLocationUuid());
+        verify(openmrsHttpClient).getJson(startsWith("http://openmrs/openmrs/ws/rest/v1/location?"), any());
+        assertTrue(Files.readString(cacheFile).contains("rebuilt-location-uuid"));
+    }
+
+    @Test
+    void shouldFailWhenTheMetadataDoesNotExist() {
+        config.setLocationUuid("name:Unknown Clinic");
+
+        IllegalStateException failure =
+                assertThrows(IllegalStateException.class, () -> resolver(null).resolve(config, HttpHeaders::new));
+        assertTrue(failure.getMessage().contains("unknown clinic"));
+    }
+
+    private OpenmrsMetadataResolver resolver(Path cacheFile) {
+        return new OpenmrsMetadataResolver(openmrsHttpClient, openmrsConfig, objectMapper, remoteCalls, cacheFile);
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.config.SenaiteConfig;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.http.HttpClient;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+class SenaiteJsonApiClientTest {
+
+    private final AtomicReference<String> receivedRequest = new AtomicReference<>();
+
+    private final AtomicReference<String> receivedBody = new AtomicReference<>();
+
+    private final AtomicReference<String> receivedAuthorization = new AtomicReference<>();
+
+    private final AtomicReference<String> response = new AtomicReference<>();
+
+    private final AtomicInteger status = new AtomicInteger(200);
+
+    private final SenaiteConfig senaiteConfig = new SenaiteConfig();
+
+    private HttpServer server;
+
+    private SenaiteJsonApiClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/senaite/@@API/senaite/v1", exchange -> {
+            receivedRequest.set(exchange.getRequestMethod() + " " + exchange.getRequestURI());
+            receivedBody.set(new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8));
+            receivedAuthorization.set(exchange.getRequestHeaders().getFirst("Authorization"));
+            byte[] body = response.get().getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(status.get(), body.length);
+            exchange.getResponseBody().write(body);
+            exchange.close();
+        });
+        server.start();
+        senaiteConfig.setUrl("http://localhost:" + server.getAddress().getPort() + "/senaite");
+        senaiteConfig.setUsername("admin");
+        senaiteConfig.setPassword("secret");
+        client = new SenaiteJsonApiClient(HttpClient.newHttpClient(), new ObjectMapper(), senaiteConfig);
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void shouldListAPageOfObjectsWithBasicAuth() {
+        response.set("{\"count\":1,\"items\":[{\"uid\":\"abc\",\"title\":\"Blood\"}]}");
+
+        List<Map<String, Object>> page = client.page("SampleType", 500, 250);
+
+        assertEquals(List.of(Map.of("uid", "abc", "title", "Blood")), page);
+        assertEquals("GET /senaite/@@API/senaite/v1/SampleType?limit=250&b_start=500", receivedRequest.get());
+        assertEquals("Basic YWRtaW46c2VjcmV0", receivedAuthorization.get());
+    }
+
+    @Test
+    void shouldCreateAllRecordsInOneRequest() {
+        response.set("{\"count\":2,\"items\":[{\"uid\":\"a\",\"title\":\"A\"},{\"uid\":\"b\",\"title\":\"B\"}]}");
+
+        List<Map<String, Object>> created = client.create(List.of(
+                Map.of("portal_type", "Client", "parent_path", "/senaite/clients", "title", "A"),
+                Map.of("portal_type", "Client", "parent_path", "/senaite/clients", "title", "B")));
+
+        assertEquals(2, created.size());
+        assertEquals("POST /senaite/@@API/senaite/v1/create", receivedRequest.get());
+        assertTrue(receivedBody.get().startsWith("[{"));
+    }
+
+    @Test
+    void shouldKeepTheMessageOfTheJsonApiInErrors() {
+        status.set(400);
+        response.set("{\"success\":false,\"message\":\"Keyword DemoAnalysis0001 is already in use\"}");
+
+        HttpClientErrorException exception =
+                assertThrows(HttpClientErrorException.class, () -> client.create(List.of(Map.of())));
+        assertTrue(exception.getMessage().endsWith(": Keyword DemoAnalysis0001 is already in use"));
+    }
+
+    @Test
+    void shouldThrowServerErrorsSoThatTheyAreRetried() {
+        status.set(502);
+        response.set("Bad Gateway");
+
+        assertThrows(HttpServerErrorException.class, () -> client.page("Client", 0, 10));
+        assertFalse(client.isAvailable());
+    }
+}
@@ -0,0 +1,203 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.ozonehis.ozone_demo_data.concurrency.AdaptiveConcurrencyLimiter;
+import com.ozonehis.ozone_demo_data.concurrency.CircuitBreaker;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutor;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutors;
+import com.ozonehis.ozone_demo_data.concurrency.RetryBudget;
+import com.ozonehis.ozone_demo_data.config.SenaiteConfig;
+import com.ozonehis.ozone_demo_data.exceptions.SenaiteException;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.util.SystemAvailabilityChecker;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+class SenaiteSeedingServiceTest {
+
+    private final RunMetrics runMetrics = new RunMetrics();
+
+    private final SenaiteConfig senaiteConfig = new SenaiteConfig();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    private final List<List<Map<String, Object>>> createdBatches = Collections.synchronizedList(new ArrayList<>());
+
+    private final SystemAvailabilityChecker systemAvailabilityChecker = mock(SystemAvailabilityChecker.class);
+
+    private SenaiteJsonApiClient senaiteClient;
+
+    private SenaiteSeedingService service;
+
+    @BeforeEach
+    void setUp() {
+        senaiteClient = mock(SenaiteJsonApiClient.class);
+        when(systemAvailabilityChecker.waitForSenaiteAvailability()).thenReturn(true);
+        when(senaiteClient.page(anyString(), anyInt(), anyInt())).thenReturn(List.of());
+        when(senaiteClient.create(anyList())).thenAnswer(invocation -> created(invocation.getArgument(0)));
+        senaiteConfig.setUrl("http://senaite:8080/senaite");
+        senaiteConfig.setClientsPath("/senaite/clients");
+        senaiteConfig.setSampleTypesPath("/senaite/bika_setup/bika_sampletypes");
+        senaiteConfig.setAnalysisServicesPath("/senaite/bika_setup/bika_analysisservices");
+        senaiteConfig.setBatchSize(2);
+        senaiteConfig.setMaxConcurrency(2);
+        senaiteConfig.setMaxRetries(1);
+        service = new SenaiteSeedingService(
+                senaiteClient,
+                senaiteConfig,
+                systemAvailabilityChecker,
+                runMetrics,
+                new RemoteCallExecutors(
+                        null,
+                        null,
+                        null,
+                        new RemoteCallExecutor(
+                                new AdaptiveConcurrencyLimiter("senaite", 2, 1, 2, 2.0, null),
+                                new CircuitBreaker("SENAITE", 100, 0, 0, () -> true),
+                                new RetryBudget(0.2, 10),
+                                runMetrics,
+                                1,
+                                0,
+                                0)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void shouldCreateTheObjectsInBatches() {
+        int created = service.seedObjects("lab-client", "Client", 5, service::client, executor);
+
+        assertEquals(5, created);
+        assertEquals(
+                List.of(1, 2, 2),
+                createdBatches.stream().map(List::size).sorted().collect(Collectors.toList()));
+        Map<String, Object> first = createdBatches.stream()
+                .flatMap(List::stream)
+                .filter(record -> "Demo Clinic 0001".equals(record.get("title")))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("Client", first.get("portal_type"));
+        assertEquals("/senaite/clients", first.get("parent_path"));
+        assertEquals("DEMO-0001", first.get("ClientID"));
+        assertEquals(5, runMetrics.progress().get("lab-client").getCompleted());
+    }
+
+    @Test
+    void shouldListTheExistingObjectsOnceAndOnlyCreateTheMissingOnes() {
+        when(senaiteClient.page("SampleType", 0, SenaiteSeedingService.PAGE_SIZE))
+                .thenReturn(List.of(
+                        Map.of("uid", "a", "title", "Demo Sample Type 001"),
+                        Map.of("uid", "b", "title", "Demo Sample Type 003")));
+
+        int created = service.seedObjects("sample-type", "SampleType", 3, service::sampleType, executor);
+
+        assertEquals(1, created);
+        verify(senaiteClient).page(eq("SampleType"), anyInt(), anyInt());
+        assertEquals(1, createdBatches.size());
+        assertEquals("Demo Sample Type 002", createdBatches.get(0).get(0).get("title"));
+        assertEquals("DST002", createdBatches.get(0).get(0).get("Prefix"));
+        assertEquals(3, runMetrics.progress().get("sample-type").getCompleted());
+    }
+
+    @Test
+    void shouldPageThroughTheExistingObjects() {
+        List<Map<String, Object>> fullPage = IntStream.range(0, SenaiteSeedingService.PAGE_SIZE)
+                .mapToObj(i -> Map.<String, Object>of("uid", "uid" + i, "title", "Existing " + i))
+                .collect(Collectors.toList());
+        when(senaiteClient.page("Client", 0, SenaiteSeedingService.PAGE_SIZE)).thenReturn(fullPage);
+        when(senaiteClient.page("Client", SenaiteSeedingService.PAGE_SIZE, SenaiteSeedingService.PAGE_SIZE))
+                .thenReturn(List.of(Map.of("uid", "last", "title", "Demo Clinic 0001")));
+
+        Map<String, String> index = service.index("Client");
+
+        assertEquals(SenaiteSeedingService.PAGE_SIZE + 1, index.size());
+        assertEquals("last", index.get("Demo Clinic 0001"));
+    }
+
+    @Test
+    void shouldRecordFailedBatchesAndCreateTheOthers() {
+        when(senaiteClient.create(anyList()))
+                .thenAnswer(invocation -> created(invocation.getArgument(0)))
+                .thenThrow(HttpClientErrorException.create(
+                        HttpStatus.BAD_REQUEST, "Keyword is already in use", null, null, null));
+
+        int created = service.seedObjects(
+                "analysis-service", "AnalysisService", 4, index -> service.analysisService(index, "cat"), executor);
+
+        assertEquals(2, created);
+        assertEquals(2, runMetrics.progress().get("analysis-service").getCompleted());
+        assertEquals(2, runMetrics.progress().get("analysis-service").getFailed());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldAssignTheConfiguredAnalysisCategoryToTheAnalysisServices() {
+        senaiteConfig.setSampleTypes(0);
+        senaiteConfig.setClients(0);
+        senaiteConfig.setAnalysisServices(3);
+        senaiteConfig.setAnalysisCategory("Hematology");
+        when(senaiteClient.page(eq("AnalysisCategory"), anyInt(), anyInt()))
+                .thenReturn(List.of(
+                        Map.of("uid", "chemistry", "title", "Chemistry"),
+                        Map.of("uid", "hematology", "title", "Hematology")));
+
+        Map<String, Integer> created = service.seed();
+
+        assertEquals(Map.of("sample-type", 0, "lab-client", 0, "analysis-service", 3), created);
+        ArgumentCaptor<List<Map<String, Object>>> records = ArgumentCaptor.forClass(List.class);
+        verify(senaiteClient, times(2)).create(records.capture());
+        records.getAllValues().stream()
+                .flatMap(List::stream)
+                .forEach(record -> assertEquals("hematology", record.get("Category")));
+        assertEquals(3, runMetrics.progress().get("analysis-service").getExpected());
+    }
+
+    @Test
+    void shouldFailWhenTheAnalysisCategoryDoesNotExist() {
+        senaiteConfig.setAnalysisServices(3);
+        senaiteConfig.setAnalysisCategory("Microbiology");
+
+        assertThrows(SenaiteException.class, () -> service.seed());
+        verify(senaiteClient, never()).create(anyList());
+    }
+
+    @Test
+    void shouldFailWhenSenaiteIsNotAvailable() {
+        when(systemAvailabilityChecker.waitForSenaiteAvailability()).thenReturn(false);
+
+        assertThrows(SenaiteException.class, () -> service.seed());
+        verify(senaiteClient, never()).page(anyString(), anyInt(), anyInt());
+    }
+
+    private List<Map<String, Object>> created(List<Map<String, Object>> records) {
+        createdBatches.add(records);
+        return records.stream()
+                .map(record -> Map.of("uid", "uid-" + record.get("title"), "title", record.get("title")))
+                .collect(Collectors.toList());
+    }
+}
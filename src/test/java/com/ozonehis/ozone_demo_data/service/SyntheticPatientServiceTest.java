@@ -0,0 +1,345 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.concurrency.AdaptiveConcurrencyLimiter;
+import com.ozonehis.ozone_demo_data.concurrency.CircuitBreaker;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutor;
+import com.ozonehis.ozone_demo_data.concurrency.RemoteCallExecutors;
+import com.ozonehis.ozone_demo_data.concurrency.RetryBudget;
+import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import com.ozonehis.ozone_demo_data.generator.SyntheticPatientFactory;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.report.RunReport;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.LongStream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+
+class SyntheticPatientServiceTest {
+
+    private final RunMetrics runMetrics = new RunMetrics();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private OpenmrsHttpClient openmrsHttpClient;
+
+    private PatientGeneratorConfig patientGeneratorConfig;
+
+    private SyntheticPatientService service;
+
+    @BeforeEach
+    void setUp() {
+        openmrsHttpClient = mock(OpenmrsHttpClient.class);
+        OpenmrsConfig openmrsConfig = new OpenmrsConfig();
+        openmrsConfig.setUrl("http://openmrs/openmrs");
+        openmrsConfig.setMaxConcurrency(4);
+        patientGeneratorConfig = new PatientGeneratorConfig();
+        patientGeneratorConfig.setSeed(1);
+        patientGeneratorConfig.setFemaleRatio(0.5);
+        patientGeneratorConfig.setMaxAge(90);
+        patientGeneratorConfig.setIdentifierPrefix("DEMO-");
+        patientGeneratorConfig.setIdentifierTypeUuid("identifier-type-uuid");
+        patientGeneratorConfig.setLocationUuid("location-uuid");
+        patientGeneratorConfig.setBundleSize(10);
+        patientGeneratorConfig.setEncounterTypeUuid("encounter-type-uuid");
+        patientGeneratorConfig.setWeightConceptUuid("weight-uuid");
+        patientGeneratorConfig.setMinAge(2);
+        patientGeneratorConfig.setVisitTypeUuid("visit-type-uuid");
+        patientGeneratorConfig.setHistoryYears(1);
+        patientGeneratorConfig.setVisitsPerYear(4);
+        patientGeneratorConfig.setLabRatio(0.5);
+        patientGeneratorConfig.setHistoryBatchSize(20);
+        RemoteCallExecutor executor = new RemoteCallExecutor(
+                new AdaptiveConcurrencyLimiter("test", 4, 1, 4, 2.0, null),
+                new CircuitBreaker("test", 10, 0, 0, () -> true),
+                new RetryBudget(0.2, 10),
+                runMetrics,
+                3,
+                0,
+                0);
+        service = new SyntheticPatientService(
+                openmrsHttpClient,
+                openmrsConfig,
+                patientGeneratorConfig,
+                new SyntheticPatientFactory(patientGeneratorConfig),
+                objectMapper,
+                runMetrics,
+                new RemoteCallExecutors(executor, executor, null, null));
+    }
+
+    @Test
+    void shouldKeepTheInputFingerprintUntilTheGeneratorSettingsChange() {
+        String fingerprint = service.inputFingerprint();
+
+        assertEquals(fingerprint, serviceWith(patientGeneratorConfig.copy()).inputFingerprint());
+        PatientGeneratorConfig longerHistory = patientGeneratorConfig.copy();
+        longerHistory.setHistoryYears(2);
+        assertNotEquals(fingerprint, serviceWith(longerHistory).inputFingerprint());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCreateEachPatientOnceStartingAtTheFirstIndex() {
+        Set<Object> identifiers = ConcurrentHashMap.newKeySet();
+        when(openmrsHttpClient.post(eq("http://openmrs/openmrs/ws/rest/v1/patient"), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    Map<String, Object> patient = objectMapper.readValue((byte[]) invocation.getArgument(2), Map.class);
+                    identifiers.add(((List<Map<String, Object>>) patient.get("identifiers"))
+                            .get(0)
+                            .get("identifier"));
+                    return CompletableFuture.completedFuture(201);
+                });
+
+        int created = service.createPatients(10, 25, HttpHeaders::new);
+
+        assertEquals(25, created);
+        assertEquals(25, identifiers.size());
+        assertTrue(identifiers.contains("DEMO-0000010"));
+        assertTrue(identifiers.contains("DEMO-0000034"));
+        assertEquals(25, runMetrics.snapshot().getEntities().get("patient").getCompleted());
+    }
+
+    @Test
+    void shouldRecordFailedPatientsAndContinue() {
+        when(openmrsHttpClient.post(anyString(), any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(new HttpClientErrorException(HttpStatus.BAD_REQUEST)))
+                .thenReturn(CompletableFuture.completedFuture(201));
+
+        int created = service.createPatients(0, 5, HttpHeaders::new);
+
+        assertEquals(4, created);
+        assertEquals(1, runMetrics.snapshot().getEntities().get("patient").getFailed());
+        verify(openmrsHttpClient, times(5)).post(anyString(), any(), any(), any());
+    }
+
+    @Test
+    void shouldCreatePatientsInBundlesAndRecordEntryOutcomes() {
+        when(openmrsHttpClient.postJson(eq("http://openmrs/openmrs/ws/fhir2/R4"), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    Map<String, Object> bundle = objectMapper.readValue((byte[]) invocation.getArgument(2), Map.class);
+                    assertEquals("transaction", bundle.get("type"));
+                    List<?> entries = (List<?>) bundle.get("entry");
+                    List<Map<String, Object>> outcomes = new ArrayList<>();
+                    for (int i = 0; i < entries.size(); i++) {
+                        outcomes.add(Map.of("response", Map.of("status", "201 Created")));
+                    }
+                    return CompletableFuture.completedFuture(
+                            Map.of("resourceType", "Bundle", "type", "transaction-response", "entry", outcomes));
+                });
+
+        int created = service.createPatientsInBundles(0, 25, HttpHeaders::new);
+
+        assertEquals(25, created);
+        // Bundles of 10, 10 and 5 patients
+        verify(openmrsHttpClient, times(3)).postJson(anyString(), any(), any(), any());
+        assertEquals(25, runMetrics.snapshot().getEntities().get("encounter").getCompleted());
+        assertEquals(25, runMetrics.snapshot().getEntities().get("observation").getCompleted());
+    }
+
+    @Test
+    void shouldRecordEveryPatientOfRejectedBundleAsFailed() {
+        byte[] operationOutcome =
+                "{\"resourceType\":\"OperationOutcome\",\"issue\":[{\"diagnostics\":\"Identifier in use\"}]}"
+                        .getBytes(StandardCharsets.UTF_8);
+        when(openmrsHttpClient.postJson(anyString(), any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(HttpClientErrorException.create(
+                        HttpStatus.BAD_REQUEST, "Bad Request", null, operationOutcome, StandardCharsets.UTF_8)));
+
+        int created = service.createPatientsInBundles(0, 10, HttpHeaders::new);
+
+        assertEquals(0, created);
+        RunReport.EntityStats patients = runMetrics.snapshot().getEntities().get("patient");
+        assertEquals(10, patients.getFailed());
+        assertTrue(runMetrics.snapshot().getFailures().get(0).getReason().contains("Identifier in use"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldCreatePatientsThenStreamTheirHistoryInBundles() {
+        Set<String> patientReferences = ConcurrentHashMap.newKeySet();
+        when(openmrsHttpClient.postJson(eq("http://openmrs/openmrs/ws/rest/v1/patient"), any(), any(), any()))
+                .thenAnswer(invocation ->
+                        CompletableFuture.completedFuture(Map.of("uuid", "patient-" + UUID.randomUUID())));
+        when(openmrsHttpClient.postJson(eq("http://openmrs/openmrs/ws/fhir2/R4"), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    Map<String, Object> bundle = objectMapper.readValue((byte[]) invocation.getArgument(2), Map.class);
+                    List<Map<String, Object>> entries = (List<Map<String, Object>>) bundle.get("entry");
+                    List<Map<String, Object>> outcomes = new ArrayList<>();
+                    for (Map<String, Object> entry : entries) {
+                        Map<String, Object> resource = (Map<String, Object>) entry.get("resource");
+                        patientReferences.add(
+                                (String) ((Map<String, Object>) resource.get("subject")).get("reference"));
+                        outcomes.add(Map.of("response", Map.of("status", "201 Created")));
+                    }
+                    return CompletableFuture.completedFuture(
+                            Map.of("resourceType", "Bundle", "type", "transaction-response", "entry", outcomes));
+                });
+
+        int created = service.createPatientsWithHistory(0, 3, HttpHeaders::new);
+
+        assertEquals(3, created);
+        verify(openmrsHttpClient, times(3))
+                .postJson(eq("http://openmrs/openmrs/ws/rest/v1/patient"), any(), any(), any());
+        // 4 visits of 8 or 9 entries per patient, in bundles of 3 visits and 1 visit
+        verify(openmrsHttpClient, times(6)).postJson(eq("http://openmrs/openmrs/ws/fhir2/R4"), any(), any(), any());
+        RunReport snapshot = runMetrics.snapshot();
+        assertEquals(3, snapshot.getEntities().get("patient").getCompleted());
+        assertEquals(12, snapshot.getEntities().get("visit").getCompleted());
+        assertEquals(12, snapshot.getEntities().get("encounter").getCompleted());
+        assertTrue(snapshot.getEntities().get("observation").getCompleted() >= 72);
+        assertTrue(patientReferences.stream().allMatch(reference -> reference.startsWith("Patient/patient-")));
+    }
+
+    @Test
+    void shouldRecordRejectedHistoryEntriesAsFailedAndKeepThePatient() {
+        when(openmrsHttpClient.postJson(eq("http://openmrs/openmrs/ws/rest/v1/patient"), any(), any(), any()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("uuid", "patient-uuid")));
+        when(openmrsHttpClient.postJson(eq("http://openmrs/openmrs/ws/fhir2/R4"), any(), any(), any()))
+                .thenReturn(CompletableFuture.failedFuture(HttpClientErrorException.create(
+                        HttpStatus.BAD_REQUEST, "Bad Request", null, null, StandardCharsets.UTF_8)));
+
+        int created = service.createPatientsWithHistory(0, 1, HttpHeaders::new);
+
+        assertEquals(1, created);
+        RunReport snapshot = runMetrics.snapshot();
+        assertEquals(1, snapshot.getEntities().get("patient").getCompleted());
+        assertEquals(4, snapshot.getEntities().get("visit").getFailed());
+        assertEquals("DEMO-0000000", snapshot.getFailures().get(0).getId());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void shouldLookUpPatientsByIdentifierAndVoidThemInTransactions() {
+        when(openmrsHttpClient.getJson(startsWith("http://openmrs/openmrs/ws/fhir2/R4/Patient?identifier="), any()))
+                .thenAnswer(invocation -> {
+                    String url = invocation.getArgument(0);
+                    assertTrue(url.contains("DEMO-0000000,DEMO-0000001"));
+                    return CompletableFuture.completedFuture(Map.of(
+                            "entry",
+                            List.of(
+                                    Map.of("resource", Map.of("id", "uuid-1")),
+                                    Map.of("resource", Map.of("id", "uuid-2")))));
+                });
+        List<Object> deleted = new ArrayList<>();
+        when(openmrsHttpClient.postJson(eq("http://openmrs/openmrs/ws/fhir2/R4"), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    Map<String, Object> bundle = objectMapper.readValue((byte[]) invocation.getArgument(2), Map.class);
+                    for (Map<String, Object> entry : (List<Map<String, Object>>) bundle.get("entry")) {
+                        Map<String, Object> request = (Map<String, Object>) entry.get("request");
+                        assertEquals("DELETE", request.get("method"));
+                        deleted.add(request.get("url"));
+                    }
+                    return CompletableFuture.completedFuture(Map.of(
+                            "entry",
+                            List.of(
+                                    Map.of("response", Map.of("status", "204 No Content")),
+                                    Map.of("response", Map.of("status", "404 Not Found")))));
+                });
+
+        int voided = service.removePatients(0, 5, false, HttpHeaders::new);
+
+        assertEquals(1, voided);
+        assertEquals(List.of("Patient/uuid-1", "Patient/uuid-2"), deleted);
+        RunReport.EntityStats stats = runMetrics.snapshot().getEntities().get("removed-patient");
+        assertEquals(1, stats.getCompleted());
+        assertEquals(1, stats.getFailed());
+        verify(openmrsHttpClient, never()).delete(anyString(), any());
+    }
+
+    @Test
+    void shouldPurgeEncountersAndVisitsBeforeThePatient() {
+        when(openmrsHttpClient.getJson(startsWith("http://openmrs/openmrs/ws/fhir2/R4/Patient?"), any()))
+                .thenReturn(CompletableFuture.completedFuture(
+                        Map.of("entry", List.of(Map.of("resource", Map.of("id", "patient-uuid"))))));
+        when(openmrsHttpClient.getJson(startsWith("http://openmrs/openmrs/ws/rest/v1/encounter?"), any()))
+                .thenReturn(
+                        CompletableFuture.completedFuture(Map.of("results", List.of(Map.of("uuid", "encounter-uuid")))))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("results", List.of())));
+        when(openmrsHttpClient.getJson(startsWith("http://openmrs/openmrs/ws/rest/v1/visit?"), any()))
+                .thenReturn(CompletableFuture.completedFuture(Map.of("results", List.of())));
+        when(openmrsHttpClient.delete(anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(204))
+                .thenReturn(CompletableFuture.failedFuture(new HttpClientErrorException(HttpStatus.NOT_FOUND)));
+
+        int purged = service.removePatients(0, 1, true, HttpHeaders::new);
+
+        assertEquals(1, purged);
+        var inOrder = inOrder(openmrsHttpClient);
+        inOrder.verify(openmrsHttpClient)
+                .delete(eq("http://openmrs/openmrs/ws/rest/v1/encounter/encounter-uuid?purge=true"), any());
+        inOrder.verify(openmrsHttpClient)
+                .delete(eq("http://openmrs/openmrs/ws/rest/v1/patient/patient-uuid?purge=true"), any());
+        assertEquals(
+                1, runMetrics.snapshot().getEntities().get("removed-patient").getCompleted());
+    }
+
+    @Test
+    void shouldCountThePatientsByIdentifier() {
+        List<String> searches = new ArrayList<>();
+        when(openmrsHttpClient.getJson(startsWith("http://openmrs/openmrs/ws/fhir2/R4/Patient?identifier="), any()))
+                .thenAnswer(invocation -> {
+                    String url = invocation.getArgument(0);
+                    assertTrue(url.endsWith("&_summary=count"));
+                    searches.add(url);
+                    // Patients 0 to 22 exist but patient 16, which failed
+                    long firstIndex = Long.parseLong(url.substring(url.indexOf("DEMO-") + 5, url.indexOf(',')));
+                    long total = LongStream.range(firstIndex, firstIndex + SyntheticPatientService.COUNT_WINDOW)
+                            .filter(index -> index < 23 && index != 16)
+                            .count();
+                    return CompletableFuture.completedFuture(Map.of("resourceType", "Bundle", "total", total));
+                });
+
+        assertEquals(OptionalLong.of(23), service.countPatients(HttpHeaders::new));
+        assertTrue(searches.size() <= 12, searches.size() + " searches");
+    }
+
+    @Test
+    void shouldNotCountPatientsWithIdgenIdentifiers() {
+        patientGeneratorConfig.setIdentifierSource("idgen");
+
+        assertEquals(OptionalLong.empty(), service.countPatients(HttpHeaders::new));
+        verifyNoInteractions(openmrsHttpClient);
+    }
+
+    @Test
+    void shouldNotRemovePatientsWithIdgenIdentifiers() {
+        patientGeneratorConfig.setIdentifierSource("idgen");
+
+        assertEquals(0, service.removePatients(0, 5, false, HttpHeaders::new));
+        verifyNoInteractions(openmrsHttpClient);
+    }
+
+    private SyntheticPatientService serviceWith(PatientGeneratorConfig config) {
+        return new SyntheticPatientService(
+                openmrsHttpClient,
+                new OpenmrsConfig(),
+                config,
+                new SyntheticPatientFactory(config),
+                objectMapper,
+                runMetrics,
+                mock(RemoteCallExecutors.class));
+    }
+}
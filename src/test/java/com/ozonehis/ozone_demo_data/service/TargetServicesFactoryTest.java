@@ -0,0 +1,108 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ozonehis.ozone_demo_data.config.KeycloakConfig;
+import com.ozonehis.ozone_demo_data.config.OdooConfig;
+import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import com.ozonehis.ozone_demo_data.config.ProvisioningTargetsConfig;
+import com.ozonehis.ozone_demo_data.config.ResilienceConfig;
+import com.ozonehis.ozone_demo_data.config.SenaiteConfig;
+import com.ozonehis.ozone_demo_data.config.ShardConfig;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+class TargetServicesFactoryTest {
+
+    private TargetServicesFactory factory;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        KeycloakConfig keycloakConfig = new KeycloakConfig();
+        keycloakConfig.setServerUrl("http://keycloak/auth");
+        keycloakConfig.setRealm("ozone");
+        keycloakConfig.setClientId("ozone-demo-data");
+        keycloakConfig.setClientSecret("secret");
+        keycloakConfig.setInitialConcurrency(4);
+        keycloakConfig.setMaxConcurrency(32);
+
+        OpenmrsConfig openmrsConfig = new OpenmrsConfig();
+        openmrsConfig.setUrl("http://openmrs/openmrs");
+        openmrsConfig.setUsername("admin");
+        openmrsConfig.setPassword("Admin123");
+        openmrsConfig.setEnabled(true);
+        openmrsConfig.setInitialConcurrency(2);
+        openmrsConfig.setMaxConcurrency(8);
+
+        factory = new TargetServicesFactory(
+                keycloakConfig,
+                openmrsConfig,
+                new ResilienceConfig(),
+                new ObjectMapper(),
+                new PatientGeneratorConfig(),
+                new ShardConfig(),
+                new OdooConfig(),
+                new SenaiteConfig(),
+                mock(ObjectProvider.class),
+                mock(ObjectProvider.class));
+        factory.setUsersJsonPath("keycloak/users.json");
+        factory.setNumberOfDemoPatients(50);
+    }
+
+    @Test
+    void shouldFallBackToDefaultSettingsForEmptyTargetSettings() {
+        ProvisioningTargetsConfig.Target target = new ProvisioningTargetsConfig.Target();
+        target.getKeycloak().setRealm("tenant-a");
+        target.getKeycloak().setClientSecret(" ");
+        target.getOpenmrs().setUrl("http://tenant-a/openmrs");
+        target.getOpenmrs().setOauthEnabled(false);
+        target.setMaxConcurrency(3);
+
+        KeycloakConfig keycloakConfig = factory.keycloakConfig(target);
+        OpenmrsConfig openmrsConfig = factory.openmrsConfig(target);
+
+        assertEquals("tenant-a", target.displayName());
+        assertEquals("http://keycloak/auth", keycloakConfig.getServerUrl());
+        assertEquals("tenant-a", keycloakConfig.getRealm());
+        assertEquals("secret", keycloakConfig.getClientSecret());
+        assertEquals(3, keycloakConfig.getMaxConcurrency());
+        assertEquals(3, keycloakConfig.getInitialConcurrency());
+        assertEquals("http://tenant-a/openmrs", openmrsConfig.getUrl());
+        assertEquals("admin", openmrsConfig.getUsername());
+        assertEquals(false, openmrsConfig.isEnabled());
+        assertEquals(2, openmrsConfig.getInitialConcurrency());
+    }
+
+    @Test
+    void shouldOnlyCreateServicesOfEnabledSteps() {
+        ProvisioningTargetsConfig.Target target = new ProvisioningTargetsConfig.Target();
+        target.setName("tenant-b");
+        target.setUserCreationEnabled(false);
+        target.getOpenmrs().setDemoPatients(10);
+
+        try (TargetServices services = factory.create(target, new RunMetrics())) {
+            assertEquals("tenant-b", services.getName());
+            assertNull(services.getKeycloakUserService());
+            assertNull(services.getKeycloak());
+            assertNotNull(services.getDemoDataService());
+            assertEquals(10, services.getDemoDataService().numberOfDemoPatients);
+            assertTrue(services.getDemoDataService().oauthEnabled);
+        }
+    }
+}
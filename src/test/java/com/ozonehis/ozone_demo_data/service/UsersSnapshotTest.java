@@ -0,0 +1,66 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class UsersSnapshotTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void shouldFindAddedModifiedAndRemovedUsers() throws IOException {
+        UsersSnapshot previous = snapshot(
+                "{\"username\":\"alice\",\"firstName\":\"Alice\"}",
+                "{\"username\":\"bob\",\"realmRoles\":[\"Nurse\"]}",
+                "{\"username\":\"carol\"}");
+        UsersSnapshot current = snapshot(
+                "{\"username\":\"alice\",\"firstName\":\"Alice\"}",
+                "{\"username\":\"bob\",\"realmRoles\":[\"Doctor\"]}",
+                "{\"username\":\"dave\"}");
+
+        UserChanges changes = current.changesSince(previous);
+
+        assertEquals(
+                List.of("dave"),
+                changes.getAdded().stream().map(u -> u.getUsername()).toList());
+        assertEquals(1, changes.getModified().size());
+        assertEquals(
+                List.of("Nurse"), changes.getModified().get(0).getPrevious().getRealmRoles());
+        assertEquals(
+                List.of("Doctor"), changes.getModified().get(0).getCurrent().getRealmRoles());
+        assertEquals(List.of("carol"), changes.getRemoved());
+    }
+
+    @Test
+    void shouldFindNoChangesInIdenticalFilesAndSkipUsersWithoutUsername() throws IOException {
+        UsersSnapshot previous = snapshot("{\"username\":\"alice\"}", "{\"firstName\":\"Nobody\"}");
+        UsersSnapshot current = snapshot("{\"username\":\"alice\"}", "{\"firstName\":\"Nobody\"}");
+
+        assertEquals(1, current.size());
+        assertTrue(current.changesSince(previous).isEmpty());
+        assertEquals(
+                1,
+                current.changesSince(UsersSnapshot.empty(objectMapper))
+                        .getAdded()
+                        .size());
+    }
+
+    private UsersSnapshot snapshot(String... users) throws IOException {
+        String json = "{\"users\":[" + String.join(",", users) + "]}";
+        return UsersSnapshot.read(objectMapper, new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)));
+    }
+}
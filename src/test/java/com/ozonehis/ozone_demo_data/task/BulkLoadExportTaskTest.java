@@ -0,0 +1,77 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+
+import com.ozonehis.ozone_demo_data.config.BulkLoadConfig;
+import com.ozonehis.ozone_demo_data.config.PatientGeneratorConfig;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class BulkLoadExportTaskTest {
+
+    @TempDir
+    private Path tempDir;
+
+    @Mock
+    private CountDownLatch latch;
+
+    private BulkLoadConfig config;
+
+    private RunMetrics runMetrics;
+
+    private BulkLoadExportTask task;
+
+    @BeforeEach
+    void setUp() {
+        PatientGeneratorConfig patientConfig = new PatientGeneratorConfig();
+        patientConfig.setSeed(42);
+        patientConfig.setIdentifierPrefix("DEMO-");
+        patientConfig.setMaxAge(90);
+        config = new BulkLoadConfig();
+        config.setEnabled(true);
+        config.setDir(tempDir.resolve("bulk-load").toString());
+        config.setFormat(BulkLoadConfig.CSV_FORMAT);
+        config.setChunkSize(4);
+        config.setPatients(10);
+        config.setFirstId(1000);
+        runMetrics = new RunMetrics();
+        task = new BulkLoadExportTask(config, patientConfig, runMetrics);
+    }
+
+    @Test
+    void shouldExportThePatientsAndCountdownLatch() {
+        task.executeAsync(latch);
+
+        assertTrue(Files.exists(tempDir.resolve("bulk-load").resolve("load.sql")));
+        assertEquals(10, runMetrics.snapshot().getEntities().get("person").getCompleted());
+        verify(latch).countDown();
+        assertTrue(task.isEnabled());
+    }
+
+    @Test
+    void shouldCountdownLatchWhenTheExportFails() {
+        config.setFormat("xlsx");
+
+        assertThrows(RuntimeException.class, () -> task.executeAsync(latch));
+        verify(latch).countDown();
+    }
+}
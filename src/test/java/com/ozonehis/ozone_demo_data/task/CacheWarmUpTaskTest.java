@@ -0,0 +1,100 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.task;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ozonehis.ozone_demo_data.service.CacheWarmUpService;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmUpTaskTest {
+
+    @Mock
+    private CacheWarmUpService cacheWarmUpService;
+
+    @Mock
+    private ObjectProvider<DemoDataGenerationTask> demoDataGenerationTask;
+
+    @Mock
+    private DemoDataGenerationTask generation;
+
+    @Mock
+    private CountDownLatch latch;
+
+    @InjectMocks
+    private CacheWarmUpTask task;
+
+    @Test
+    void shouldWarmUpOnceTheDemoDataIsGenerated() throws Exception {
+        CompletableFuture<Void> completion = new CompletableFuture<>();
+        when(demoDataGenerationTask.getIfAvailable()).thenReturn(generation);
+        when(generation.isEnabled()).thenReturn(true);
+        when(generation.completion()).thenReturn(completion);
+
+        CompletableFuture<Void> warmUp = CompletableFuture.runAsync(() -> task.executeAsync(latch));
+
+        Thread.sleep(100);
+        verify(cacheWarmUpService, never()).warmUp();
+        completion.complete(null);
+        warmUp.get(5, TimeUnit.SECONDS);
+        verify(cacheWarmUpService).warmUp();
+        verify(latch).countDown();
+    }
+
+    @Test
+    void shouldWarmUpRightAwayWhenNoDemoDataIsGenerated() {
+        when(demoDataGenerationTask.getIfAvailable()).thenReturn(generation);
+        when(generation.isEnabled()).thenReturn(false);
+
+        task.executeAsync(latch);
+
+        verify(generation, never()).completion();
+        verify(cacheWarmUpService).warmUp();
+    }
+
+    @Test
+    void shouldCountDownLatchWhenWarmUpFails() {
+        doThrow(new RuntimeException("Failed")).when(cacheWarmUpService).warmUp();
+
+        assertThrows(RuntimeException.class, () -> task.executeAsync(latch));
+        verify(latch).countDown();
+    }
+
+    @Test
+    void shouldBeDisabledInTeardownMode() {
+        ReflectionTestUtils.setField(task, "enabled", true);
+        ReflectionTestUtils.setField(task, "demoData", true);
+        assertTrue(task.isEnabled());
+
+        ReflectionTestUtils.setField(task, "teardown", true);
+        assertFalse(task.isEnabled());
+    }
+
+    @Test
+    void shouldBeDisabledWithoutTheDemoData() {
+        ReflectionTestUtils.setField(task, "enabled", true);
+
+        assertFalse(task.isEnabled());
+    }
+}
@@ -14,12 +14,14 @@ import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.verify;
 
+import com.ozonehis.ozone_demo_data.config.ShardConfig;
 import com.ozonehis.ozone_demo_data.service.DemoDataService;
 import java.util.concurrent.CountDownLatch;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.test.util.ReflectionTestUtils;
 
@@ -32,6 +34,9 @@ class DemoDataGenerationTaskTest {
     @Mock
     private CountDownLatch latch;
 
+    @Spy
+    private ShardConfig shardConfig = new ShardConfig();
+
     @InjectMocks
     private DemoDataGenerationTask task;
 
@@ -54,12 +59,26 @@ class DemoDataGenerationTaskTest {
         assertTrue(task.isEnabled());
     }
 
+    @Test
+    void shouldOnlyBeEnabledForTheFirstShard() {
+        ReflectionTestUtils.setField(task, "enabled", true);
+        shardConfig.setCount(3);
+
+        shardConfig.setIndex(1);
+        assertFalse(task.isEnabled());
+
+        shardConfig.setIndex(0);
+        assertTrue(task.isEnabled());
+    }
+
     @Test
     void shouldCountdownLatchWhenDemoDataServiceThrowsException() throws Exception {
         doThrow(new RuntimeException("Service error")).when(demoDataService).triggerDemoData();
 
         assertThrows(RuntimeException.class, () -> task.executeAsync(latch));
         verify(latch).countDown();
+        // Tasks waiting for the generation run once it has failed
+        assertTrue(task.completion().isDone());
     }
 
     @Test
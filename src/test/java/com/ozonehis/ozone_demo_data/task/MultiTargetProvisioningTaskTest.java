@@ -0,0 +1,90 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ozonehis.ozone_demo_data.config.ProvisioningTargetsConfig;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.report.RunReport;
+import com.ozonehis.ozone_demo_data.service.DemoDataService;
+import com.ozonehis.ozone_demo_data.service.KeycloakUserService;
+import com.ozonehis.ozone_demo_data.service.TargetServices;
+import com.ozonehis.ozone_demo_data.service.TargetServicesFactory;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class MultiTargetProvisioningTaskTest {
+
+    @Mock
+    private TargetServicesFactory targetServicesFactory;
+
+    private final ProvisioningTargetsConfig provisioningTargetsConfig = new ProvisioningTargetsConfig();
+
+    private final RunMetrics runMetrics = new RunMetrics();
+
+    private MultiTargetProvisioningTask task;
+
+    @BeforeEach
+    void setUp() {
+        task = new MultiTargetProvisioningTask(provisioningTargetsConfig, targetServicesFactory, runMetrics);
+    }
+
+    @Test
+    void shouldBeDisabledWithoutTargets() {
+        assertFalse(task.isEnabled());
+    }
+
+    @Test
+    void shouldProvisionEveryTargetAndReportEachSeparately() throws Exception {
+        KeycloakUserService tenantAUsers = mock(KeycloakUserService.class);
+        DemoDataService tenantADemoData = mock(DemoDataService.class);
+        KeycloakUserService tenantBUsers = mock(KeycloakUserService.class);
+        doThrow(new IOException("users file not found")).when(tenantBUsers).createUsersIfChanged();
+        when(targetServicesFactory.create(any(), eq(runMetrics.target("tenant-a"))))
+                .thenReturn(new TargetServices("tenant-a", tenantAUsers, tenantADemoData, null));
+        when(targetServicesFactory.create(any(), eq(runMetrics.target("tenant-b"))))
+                .thenReturn(new TargetServices("tenant-b", tenantBUsers, null, null));
+        provisioningTargetsConfig.setTargets(List.of(target("tenant-a"), target("tenant-b")));
+        CountDownLatch latch = new CountDownLatch(1);
+
+        assertTrue(task.isEnabled());
+        task.executeAsync(latch);
+
+        assertEquals(0, latch.getCount());
+        verify(tenantAUsers).createUsersIfChanged();
+        verify(tenantADemoData).triggerDemoData();
+        verify(tenantBUsers).createUsersIfChanged();
+
+        RunReport report = runMetrics.snapshot();
+        assertEquals(2, report.getTargets().get("tenant-a").getTasks().size());
+        assertTrue(report.getTargets().get("tenant-a").getTasks().stream().allMatch(RunReport.TaskTiming::isSucceeded));
+        assertFalse(report.getTargets().get("tenant-b").getTasks().get(0).isSucceeded());
+    }
+
+    private static ProvisioningTargetsConfig.Target target(String realm) {
+        ProvisioningTargetsConfig.Target target = new ProvisioningTargetsConfig.Target();
+        target.getKeycloak().setRealm(realm);
+        return target;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.task;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.verify;
+
+import com.ozonehis.ozone_demo_data.config.ShardConfig;
+import com.ozonehis.ozone_demo_data.service.SenaiteSeedingService;
+import java.util.concurrent.CountDownLatch;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class SenaiteSeedingTaskTest {
+
+    @Mock
+    private SenaiteSeedingService senaiteSeedingService;
+
+    @Spy
+    private ShardConfig shardConfig = new ShardConfig();
+
+    @Mock
+    private CountDownLatch latch;
+
+    @InjectMocks
+    private SenaiteSeedingTask task;
+
+    @Test
+    void shouldSeedSenaiteAndCountDownLatch() {
+        task.executeAsync(latch);
+
+        verify(senaiteSeedingService).seed();
+        verify(latch).countDown();
+    }
+
+    @Test
+    void shouldCountDownLatchWhenSeedingFails() {
+        doThrow(new RuntimeException("Failed")).when(senaiteSeedingService).seed();
+
+        assertThrows(RuntimeException.class, () -> task.executeAsync(latch));
+        verify(latch).countDown();
+    }
+
+    @Test
+    void shouldOnlySeedOnTheFirstShardAndNotInTeardownMode() {
+        ReflectionTestUtils.setField(task, "enabled", true);
+        assertTrue(task.isEnabled());
+
+        shardConfig.setCount(2);
+        shardConfig.setIndex(1);
+        assertFalse(task.isEnabled());
+
+        shardConfig.setIndex(0);
+        ReflectionTestUtils.setField(task, "teardown", true);
+        assertFalse(task.isEnabled());
+    }
+}
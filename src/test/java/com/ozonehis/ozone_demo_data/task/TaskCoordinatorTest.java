@@ -7,18 +7,26 @@
  */
 package com.ozonehis.ozone_demo_data.task;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.timeout;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
+import com.ozonehis.ozone_demo_data.report.ProgressReporter;
+import com.ozonehis.ozone_demo_data.report.RunMetrics;
+import com.ozonehis.ozone_demo_data.report.RunReport;
+import com.ozonehis.ozone_demo_data.report.RunReportWriter;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.concurrent.CountDownLatch;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.boot.context.event.ApplicationReadyEvent;
@@ -39,6 +47,12 @@ class TaskCoordinatorTest {
     @Mock
     private ApplicationReadyEvent applicationReadyEvent;
 
+    @Mock
+    private RunReportWriter runReportWriter;
+
+    @Mock
+    private ProgressReporter progressReporter;
+
     @Test
     void shouldExecuteAllTasksAndShutdown() throws InterruptedException {
         // Setup task behavior only for this test
@@ -60,7 +74,12 @@ class TaskCoordinatorTest {
         when(mockTask1.isEnabled()).thenReturn(true);
         when(mockTask2.isEnabled()).thenReturn(true);
 
-        TaskCoordinator taskCoordinator = new TaskCoordinator(Arrays.asList(mockTask1, mockTask2), applicationContext);
+        TaskCoordinator taskCoordinator = new TaskCoordinator(
+                Arrays.asList(mockTask1, mockTask2),
+                applicationContext,
+                new RunMetrics(),
+                runReportWriter,
+                progressReporter);
         taskCoordinator.onApplicationEvent(applicationReadyEvent);
 
         Thread.sleep(300);
@@ -69,9 +88,31 @@ class TaskCoordinatorTest {
         verify(mockTask2, times(1)).executeAsync(any());
     }
 
+    @Test
+    void shouldWriteRunReportWithTaskTimingsWhenAllTasksComplete() throws InterruptedException {
+        doAnswer(invocation -> {
+                    ((CountDownLatch) invocation.getArgument(0)).countDown();
+                    return null;
+                })
+                .when(mockTask1)
+                .executeAsync(any());
+        when(mockTask1.isEnabled()).thenReturn(true);
+
+        TaskCoordinator taskCoordinator = new TaskCoordinator(
+                Arrays.asList(mockTask1), applicationContext, new RunMetrics(), runReportWriter, progressReporter);
+        taskCoordinator.onApplicationEvent(applicationReadyEvent);
+
+        ArgumentCaptor<RunReport> report = ArgumentCaptor.forClass(RunReport.class);
+        verify(runReportWriter, timeout(1000)).write(report.capture());
+        assertEquals(1, report.getValue().getTasks().size());
+        assertTrue(report.getValue().getTasks().get(0).isSucceeded());
+        assertTrue(report.getValue().getStartupMillis() > 0);
+    }
+
     @Test
     void shouldHandleEmptyTaskList() throws InterruptedException {
-        TaskCoordinator taskCoordinator = new TaskCoordinator(Collections.emptyList(), applicationContext);
+        TaskCoordinator taskCoordinator = new TaskCoordinator(
+                Collections.emptyList(), applicationContext, new RunMetrics(), runReportWriter, progressReporter);
         taskCoordinator.onApplicationEvent(applicationReadyEvent);
 
         Thread.sleep(100);
@@ -88,11 +129,24 @@ class TaskCoordinatorTest {
                 .executeAsync(any());
         when(mockTask1.isEnabled()).thenReturn(true);
 
-        TaskCoordinator taskCoordinator = new TaskCoordinator(Arrays.asList(mockTask1), applicationContext);
+        TaskCoordinator taskCoordinator = new TaskCoordinator(
+                Arrays.asList(mockTask1), applicationContext, new RunMetrics(), runReportWriter, progressReporter);
         taskCoordinator.onApplicationEvent(applicationReadyEvent);
 
         Thread.sleep(200);
 
         verify(mockTask1, times(1)).executeAsync(any());
     }
+
+    @Test
+    void shouldNotExecuteTasksOrShutdownInServerMode() throws InterruptedException {
+        TaskCoordinator taskCoordinator = new TaskCoordinator(
+                Arrays.asList(mockTask1), applicationContext, new RunMetrics(), runReportWriter, progressReporter);
+        taskCoordinator.setServerMode(true);
+        taskCoordinator.onApplicationEvent(applicationReadyEvent);
+
+        Thread.sleep(100);
+
+        verifyNoInteractions(mockTask1, runReportWriter, applicationContext);
+    }
 }
@@ -0,0 +1,136 @@
+/*
+ * Copyright © 2025, Ozone HIS <info@ozone-his.com>
+ *
+ * This Source Code Form is subject to the terms of the Mozilla Public
+ * License, v. 2.0. If a copy of the MPL was not distributed with this
+ * file, You can obtain one at http://mozilla.org/MPL/2.0/.
+ */
+package com.ozonehis.ozone_demo_data.task;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.ozonehis.ozone_demo_data.config.ShardConfig;
+import com.ozonehis.ozone_demo_data.service.DemoDataService;
+import com.ozonehis.ozone_demo_data.service.KeycloakUserService;
+import java.io.IOException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.test.util.ReflectionTestUtils;
+
+@ExtendWith(MockitoExtension.class)
+class TeardownTaskTest {
+
+    @Mock
+    private KeycloakUserService keycloakUserService;
+
+    @Mock
+    private DemoDataService demoDataService;
+
+    @Mock
+    private ObjectProvider<KeycloakUserService> keycloakUserServiceProvider;
+
+    @Mock
+    private ObjectProvider<DemoDataService> demoDataServiceProvider;
+
+    @Mock
+    private CountDownLatch latch;
+
+    private final ShardConfig shardConfig = new ShardConfig();
+
+    private TeardownTask teardownTask;
+
+    @BeforeEach
+    void setUp() {
+        teardownTask = new TeardownTask(keycloakUserServiceProvider, demoDataServiceProvider, shardConfig);
+    }
+
+    @Test
+    void shouldRemoveUsersAndDemoData() throws Exception {
+        when(keycloakUserServiceProvider.getIfAvailable()).thenReturn(keycloakUserService);
+        when(demoDataServiceProvider.getIfAvailable()).thenReturn(demoDataService);
+
+        teardownTask.executeAsync(latch);
+
+        verify(keycloakUserService).removeUsers();
+        verify(demoDataService).removeDemoData();
+        verify(latch).countDown();
+    }
+
+    @Test
+    void shouldOnlyTearDownTheEnabledSystems() throws Exception {
+        when(keycloakUserServiceProvider.getIfAvailable()).thenReturn(keycloakUserService);
+
+        teardownTask.executeAsync(latch);
+
+        verify(keycloakUserService).removeUsers();
+        verify(latch).countDown();
+    }
+
+    @Test
+    void shouldOnlyRemoveDemoDataFromTheFirstShard() throws Exception {
+        shardConfig.setIndex(1);
+        shardConfig.setCount(2);
+        when(keycloakUserServiceProvider.getIfAvailable()).thenReturn(keycloakUserService);
+        when(demoDataServiceProvider.getIfAvailable()).thenReturn(demoDataService);
+
+        teardownTask.executeAsync(latch);
+
+        verify(keycloakUserService).removeUsers();
+        verify(demoDataService, never()).removeDemoData();
+    }
+
+    @Test
+    void shouldCountDownLatchWhenUserRemovalFails() throws Exception {
+        when(keycloakUserServiceProvider.getIfAvailable()).thenReturn(keycloakUserService);
+        doThrow(new IOException("Failed")).when(keycloakUserService).removeUsers();
+
+        assertThrows(RuntimeException.class, () -> teardownTask.executeAsync(latch));
+        verify(latch).countDown();
+    }
+
+    @Test
+    void shouldFinishRemovingTheUsersBeforeCountingDownWhenDemoDataRemovalFails() throws Exception {
+        AtomicBoolean usersRemoved = new AtomicBoolean();
+        when(keycloakUserServiceProvider.getIfAvailable()).thenReturn(keycloakUserService);
+        when(demoDataServiceProvider.getIfAvailable()).thenReturn(demoDataService);
+        doAnswer(invocation -> {
+                    Thread.sleep(200);
+                    usersRemoved.set(true);
+                    return null;
+                })
+                .when(keycloakUserService)
+                .removeUsers();
+        doThrow(new IllegalStateException("OpenMRS is not available"))
+                .when(demoDataService)
+                .removeDemoData();
+        CountDownLatch tasks = new CountDownLatch(1);
+
+        RuntimeException exception = assertThrows(RuntimeException.class, () -> teardownTask.executeAsync(tasks));
+
+        assertTrue(usersRemoved.get());
+        assertEquals(0, tasks.getCount());
+        assertEquals("OpenMRS is not available", exception.getCause().getCause().getMessage());
+    }
+
+    @Test
+    void shouldReturnEnabledValueFromConfiguration() {
+        assertFalse(teardownTask.isEnabled());
+
+        ReflectionTestUtils.setField(teardownTask, "enabled", true);
+        assertTrue(teardownTask.isEnabled());
+    }
+}
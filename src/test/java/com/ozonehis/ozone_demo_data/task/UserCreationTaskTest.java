@@ -39,7 +39,7 @@ class UserCreationTaskTest {
     void shouldCreateUsersSuccessfully() throws Exception {
         userCreationTask.executeAsync(latch);
 
-        verify(keycloakUserService).createUsers();
+        verify(keycloakUserService).createUsersIfChanged();
         verify(latch).countDown();
     }
 
@@ -54,9 +54,17 @@ class UserCreationTaskTest {
         assertTrue(userCreationTask.isEnabled());
     }
 
+    @Test
+    void shouldBeDisabledInTeardownMode() {
+        ReflectionTestUtils.setField(userCreationTask, "enabled", true);
+        ReflectionTestUtils.setField(userCreationTask, "teardown", true);
+
+        assertFalse(userCreationTask.isEnabled());
+    }
+
     @Test
     void shouldCountDownLatchWhenUserCreationFails() throws Exception {
-        doThrow(new RuntimeException("Failed")).when(keycloakUserService).createUsers();
+        doThrow(new RuntimeException("Failed")).when(keycloakUserService).createUsersIfChanged();
 
         assertThrows(RuntimeException.class, () -> userCreationTask.executeAsync(latch));
         verify(latch).countDown();
@@ -65,7 +73,7 @@ class UserCreationTaskTest {
     @Test
     void shouldWrapOriginalExceptionInRuntimeException() throws Exception {
         Exception originalException = new RuntimeException("Failed to initialize Keycloak users");
-        doThrow(originalException).when(keycloakUserService).createUsers();
+        doThrow(originalException).when(keycloakUserService).createUsersIfChanged();
 
         RuntimeException thrown = assertThrows(RuntimeException.class, () -> userCreationTask.executeAsync(latch));
 
@@ -10,16 +10,22 @@ package com.ozonehis.ozone_demo_data.util;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import com.ozonehis.ozone_demo_data.config.KeycloakConfig;
+import com.ozonehis.ozone_demo_data.config.OdooConfig;
 import com.ozonehis.ozone_demo_data.config.OpenmrsConfig;
+import com.ozonehis.ozone_demo_data.config.SenaiteConfig;
+import com.ozonehis.ozone_demo_data.service.OdooJsonRpcClient;
+import com.ozonehis.ozone_demo_data.service.SenaiteJsonApiClient;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.client.RestTemplate;
@@ -33,14 +39,39 @@ class SystemAvailabilityCheckerTest {
     @Mock
     private KeycloakConfig keycloakConfig;
 
+    @Mock
+    private OdooConfig odooConfig;
+
+    @Mock
+    private SenaiteConfig senaiteConfig;
+
     @Mock
     private RestTemplate restTemplate;
 
-    @InjectMocks
+    @Mock
+    private ObjectProvider<OdooJsonRpcClient> odooClientProvider;
+
+    @Mock
+    private ObjectProvider<SenaiteJsonApiClient> senaiteClientProvider;
+
+    @Mock
+    private OdooJsonRpcClient odooClient;
+
+    @Mock
+    private SenaiteJsonApiClient senaiteClient;
+
     private SystemAvailabilityChecker systemAvailabilityChecker;
 
     @BeforeEach
     void setUp() {
+        systemAvailabilityChecker = new SystemAvailabilityChecker(
+                openmrsConfig,
+                keycloakConfig,
+                odooConfig,
+                senaiteConfig,
+                restTemplate,
+                odooClientProvider,
+                senaiteClientProvider);
         lenient().when(openmrsConfig.getUrl()).thenReturn("http://openmrs");
         lenient().when(openmrsConfig.getMaxRetries()).thenReturn(5);
         lenient().when(openmrsConfig.getRetryDelayMillis()).thenReturn(1000L);
@@ -129,4 +160,49 @@ class SystemAvailabilityCheckerTest {
 
         assertFalse(result);
     }
+
+    @Test
+    void shouldWaitForOdooAvailability() {
+        when(odooConfig.getMaxRetries()).thenReturn(2);
+        when(odooClientProvider.getIfAvailable()).thenReturn(odooClient);
+        when(odooClient.isAvailable()).thenReturn(false, true);
+
+        boolean result = systemAvailabilityChecker.waitForOdooAvailability();
+
+        assertTrue(result);
+        verify(odooClient, times(2)).isAvailable();
+    }
+
+    @Test
+    void shouldReturnFalseWhenOdooIsNotSeeded() {
+        when(odooClientProvider.getIfAvailable()).thenReturn(null);
+
+        boolean result = systemAvailabilityChecker.isOdooAvailable();
+
+        assertFalse(result);
+    }
+
+    @Test
+    void shouldWaitForSenaiteAvailability() {
+        when(senaiteConfig.getMaxRetries()).thenReturn(2);
+        when(senaiteClientProvider.getIfAvailable()).thenReturn(senaiteClient);
+        when(senaiteClient.isAvailable()).thenReturn(false, true);
+
+        boolean result = systemAvailabilityChecker.waitForSenaiteAvailability();
+
+        assertTrue(result);
+        verify(senaiteClient, times(2)).isAvailable();
+    }
+
+    @Test
+    void shouldReturnFalseWhenSenaiteMaxRetriesExceeded() {
+        when(senaiteConfig.getMaxRetries()).thenReturn(1);
+        when(senaiteClientProvider.getIfAvailable()).thenReturn(senaiteClient);
+        when(senaiteClient.isAvailable()).thenReturn(false);
+
+        boolean result = systemAvailabilityChecker.waitForSenaiteAvailability();
+
+        assertFalse(result);
+        verify(senaiteClient, times(2)).isAvailable();
+    }
 }